@@ -0,0 +1,248 @@
+package io.github.zwieback.familyfinance.app.lifecycle.creator;
+
+import android.support.test.runner.AndroidJUnit4;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.threeten.bp.LocalDate;
+
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.regex.Pattern;
+
+import io.github.zwieback.familyfinance.business.account.service.ledger.AccountBalanceLedger;
+import io.github.zwieback.familyfinance.business.exchange_rate.helper.ExchangeRateFinder;
+import io.github.zwieback.familyfinance.business.operation.query.FlowOfFundsOperationQueryBuilder;
+import io.github.zwieback.familyfinance.core.model.Operation;
+import io.github.zwieback.familyfinance.core.model.OperationView;
+import io.github.zwieback.familyfinance.core.model.type.OperationType;
+import io.github.zwieback.familyfinance.util.TestDatabase;
+import io.requery.Persistable;
+import io.requery.reactivex.ReactiveEntityStore;
+import io.requery.sql.BoundParameters;
+import io.requery.sql.StatementListener;
+
+/**
+ * Regression test of the query plans: the hot queries must not fall back to
+ * the full scan of any table.
+ */
+@RunWith(AndroidJUnit4.class)
+public class DatabaseIndexCreatorTest {
+
+    /**
+     * Scan of a table without an index, e.g. "SCAN TABLE operation AS op" of
+     * the old SQLite or "SCAN op" of the new one.
+     */
+    private static final Pattern FULL_SCAN = Pattern.compile("^SCAN (?!.*USING)");
+
+    private final QueryRecorder queryRecorder = new QueryRecorder();
+    private TestDatabase database;
+    private Connection connection;
+    private ReactiveEntityStore<Persistable> data;
+
+    @Before
+    public void setUp() throws Exception {
+        database = new TestDatabase(queryRecorder);
+        connection = database.getConfiguration().getConnectionProvider().getConnection();
+        data = database.getData();
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        connection.close();
+        database.close();
+    }
+
+    @Test
+    public void operationList_usesDateIndex() throws Exception {
+        Operation operation = insertOperation();
+
+        queryRecorder.clear();
+        FlowOfFundsOperationQueryBuilder.create(data)
+                .setStartDate(operation.getDate())
+                .setEndDate(operation.getDate())
+                .buildPage(null, 50);
+        List<String> plan = explain(queryRecorder.getLastQuery("v_operation"));
+        assertNoFullScan(plan);
+        assertUsesIndex(plan, "operation_date_id_idx");
+    }
+
+    @Test
+    public void operationPage_usesDateIndex() throws Exception {
+        Operation operation = insertOperation();
+        OperationView pageEnd = data.select(OperationView.class)
+                .where(OperationView.ID.eq(operation.getId()))
+                .get().first();
+
+        queryRecorder.clear();
+        FlowOfFundsOperationQueryBuilder.create(data)
+                .setStartDate(operation.getDate())
+                .setEndDate(operation.getDate())
+                .buildPage(pageEnd, 50);
+        List<String> plan = explain(queryRecorder.getLastQuery("v_operation"));
+        assertNoFullScan(plan);
+        assertUsesIndex(plan, "operation_date_id_idx");
+    }
+
+    @Test
+    public void operationListByArticles_isNotFullScan() throws Exception {
+        Operation operation = insertOperation();
+
+        queryRecorder.clear();
+        FlowOfFundsOperationQueryBuilder.create(data)
+                .setStartDate(operation.getDate())
+                .setEndDate(operation.getDate())
+                .setArticleId(operation.getArticle().getId())
+                .buildPage(null, 50);
+        assertNoFullScan(explain(queryRecorder.getLastQuery("v_operation")));
+    }
+
+    @Test
+    public void lastExchangeRate_usesCurrencyIndex() throws Exception {
+        Operation operation = insertOperation();
+
+        queryRecorder.clear();
+        new ExchangeRateFinder(data)
+                .findLastExchangeRate(operation.getExchangeRate().getCurrency().getId());
+        List<String> plan = explain(queryRecorder.getLastQuery("exchange_rate"));
+        assertNoFullScan(plan);
+        assertUsesIndex(plan, "exchange_rate_currency_date_idx");
+    }
+
+    @Test
+    public void ledgerBalances_useAccountIndex() throws Exception {
+        List<String> plan = explain(expandCollections(AccountBalanceLedger.BALANCE_QUERY));
+        assertNoFullScan(plan);
+        assertUsesIndex(plan, "account_balance_account_exchange_rate_idx");
+    }
+
+    @Test
+    public void ledgerEntry_isNotFullScan() throws Exception {
+        Operation operation = insertOperation();
+
+        queryRecorder.clear();
+        new AccountBalanceLedger(data).deleteAll(Collections.singletonList(operation));
+        assertNoFullScan(explain(queryRecorder.getLastQuery("account_balance")));
+    }
+
+    private Operation insertOperation() {
+        TestDatabase.Fixture fixture = database.insertFixture();
+        return data.toBlocking().insert(new Operation()
+                .setAccount(fixture.getAccount())
+                .setArticle(fixture.getArticle())
+                .setOwner(fixture.getOwner())
+                .setExchangeRate(fixture.getExchangeRate())
+                .setType(OperationType.EXPENSE_OPERATION)
+                .setDate(LocalDate.now())
+                .setValue(BigDecimal.TEN));
+    }
+
+    /**
+     * Expand the collection parameters the same way as the raw query executor
+     * does, with two elements in each collection.
+     */
+    private static String expandCollections(String template) {
+        return template.replace(" in ?", " in (?, ?)");
+    }
+
+    /**
+     * Explain the query with all its parameters bound to {@code null}; the
+     * plan doesn't depend on the values.
+     */
+    private List<String> explain(String query) throws Exception {
+        List<String> plan = new ArrayList<>();
+        try (PreparedStatement statement =
+                     connection.prepareStatement("EXPLAIN QUERY PLAN " + query)) {
+            int parameterCount = 0;
+            for (int i = 0; i < query.length(); i++) {
+                if (query.charAt(i) == '?') {
+                    statement.setNull(++parameterCount, Types.NULL);
+                }
+            }
+            try (ResultSet resultSet = statement.executeQuery()) {
+                while (resultSet.next()) {
+                    plan.add(resultSet.getString("detail"));
+                }
+            }
+        }
+        return plan;
+    }
+
+    private static void assertNoFullScan(List<String> plan) {
+        for (String detail : plan) {
+            Assert.assertFalse("Full scan: " + plan, FULL_SCAN.matcher(detail).find());
+        }
+    }
+
+    private static void assertUsesIndex(List<String> plan, String indexName) {
+        for (String detail : plan) {
+            if (detail.contains(indexName)) {
+                return;
+            }
+        }
+        Assert.fail(indexName + " isn't used: " + plan);
+    }
+
+    /**
+     * Records the SQL of the queries, which requery executes.
+     */
+    private static final class QueryRecorder implements StatementListener {
+
+        private final List<String> queries = new ArrayList<>();
+
+        synchronized void clear() {
+            queries.clear();
+        }
+
+        /**
+         * @param fragment part of the query to find, e.g. the name of its table
+         * @return the last executed query, which contains the fragment
+         */
+        synchronized String getLastQuery(String fragment) {
+            for (int i = queries.size() - 1; i >= 0; i--) {
+                if (queries.get(i).contains(fragment)) {
+                    return queries.get(i);
+                }
+            }
+            Assert.fail("No query with " + fragment + " is executed");
+            return null;
+        }
+
+        @Override
+        public void beforeExecuteUpdate(Statement statement, String sql,
+                                        BoundParameters parameters) {
+        }
+
+        @Override
+        public void afterExecuteUpdate(Statement statement, int count) {
+        }
+
+        @Override
+        public void beforeExecuteBatchUpdate(Statement statement, String sql) {
+        }
+
+        @Override
+        public void afterExecuteBatchUpdate(Statement statement, int[] count) {
+        }
+
+        @Override
+        public synchronized void beforeExecuteQuery(Statement statement, String sql,
+                                                    BoundParameters parameters) {
+            queries.add(sql);
+        }
+
+        @Override
+        public void afterExecuteQuery(Statement statement) {
+        }
+    }
+}
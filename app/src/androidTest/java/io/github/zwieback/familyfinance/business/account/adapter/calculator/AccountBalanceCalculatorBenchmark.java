@@ -0,0 +1,139 @@
+package io.github.zwieback.familyfinance.business.account.adapter.calculator;
+
+import android.support.test.runner.AndroidJUnit4;
+import android.util.Log;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.threeten.bp.LocalDate;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import io.github.zwieback.familyfinance.business.account.service.ledger.AccountBalanceLedger;
+import io.github.zwieback.familyfinance.core.model.Account;
+import io.github.zwieback.familyfinance.core.model.AccountView;
+import io.github.zwieback.familyfinance.core.model.Article;
+import io.github.zwieback.familyfinance.core.model.Currency;
+import io.github.zwieback.familyfinance.core.model.ExchangeRate;
+import io.github.zwieback.familyfinance.core.model.Operation;
+import io.github.zwieback.familyfinance.core.model.Person;
+import io.github.zwieback.familyfinance.core.model.type.OperationType;
+import io.github.zwieback.familyfinance.util.RandomGenerator;
+import io.github.zwieback.familyfinance.util.TestDatabase;
+import io.requery.BlockingEntityStore;
+import io.requery.Persistable;
+import io.requery.reactivex.ReactiveEntityStore;
+
+/**
+ * Compares {@link NonOptimizedAccountBalanceCalculator} with the
+ * {@link AccountBalanceLedger}, which the list of accounts reads, on the
+ * in-memory database.
+ */
+@RunWith(AndroidJUnit4.class)
+public class AccountBalanceCalculatorBenchmark {
+
+    private static final String TAG = "AccountBalanceBenchmark";
+
+    private static final int ACCOUNT_COUNT = 100;
+    private static final int EXCHANGE_RATE_COUNT = 10;
+    private static final int OPERATION_COUNT = 100_000;
+
+    private TestDatabase database;
+    private ReactiveEntityStore<Persistable> data;
+    private RandomGenerator randomGenerator;
+
+    @Before
+    public void setUp() throws Exception {
+        database = new TestDatabase();
+        data = database.getData();
+        randomGenerator = new RandomGenerator();
+        fillDatabase(data.toBlocking(), database.insertFixture());
+    }
+
+    @After
+    public void tearDown() {
+        database.close();
+    }
+
+    @Test
+    public void ledger_isEqualToNonOptimized() {
+        List<AccountView> accounts = data.select(AccountView.class).get().toList();
+        Map<Integer, BigDecimal> expectedBalances = calculateNonOptimized(accounts);
+        AccountBalanceLedger ledger = new AccountBalanceLedger(data);
+        ledger.rebuild();
+
+        long start = System.nanoTime();
+        Map<Integer, BigDecimal> actualBalances = ledger.calculateBalances(accounts);
+        long ledgerTime = System.nanoTime() - start;
+
+        Log.i(TAG, "Ledger: " + ledgerTime / 1_000_000 + " ms");
+        assertBalancesEqual(expectedBalances, actualBalances);
+    }
+
+    private Map<Integer, BigDecimal> calculateNonOptimized(List<AccountView> accounts) {
+        long start = System.nanoTime();
+        Map<Integer, BigDecimal> balances = new HashMap<>();
+        for (AccountView account : accounts) {
+            new NonOptimizedAccountBalanceCalculator(data, account)
+                    .calculateBalance(balance -> balances.put(account.getId(), balance));
+        }
+        Log.i(TAG, "Non-optimized: " + (System.nanoTime() - start) / 1_000_000 + " ms");
+        return balances;
+    }
+
+    private static void assertBalancesEqual(Map<Integer, BigDecimal> expectedBalances,
+                                            Map<Integer, BigDecimal> actualBalances) {
+        Assert.assertEquals(expectedBalances.size(), actualBalances.size());
+        for (Map.Entry<Integer, BigDecimal> entry : expectedBalances.entrySet()) {
+            Assert.assertEquals(0, entry.getValue().compareTo(actualBalances.get(entry.getKey())));
+        }
+    }
+
+    private void fillDatabase(BlockingEntityStore<Persistable> store,
+                              TestDatabase.Fixture fixture) {
+        store.runInTransaction(() -> {
+            Person owner = fixture.getOwner();
+            Article article = fixture.getArticle();
+            Currency nativeCurrency = fixture.getCurrency();
+            Currency foreignCurrency = store.insert(new Currency()
+                    .setName("USD").setDescription("foreign"));
+
+            List<ExchangeRate> exchangeRates = new ArrayList<>();
+            for (int i = 0; i < EXCHANGE_RATE_COUNT; i++) {
+                exchangeRates.add(store.insert(new ExchangeRate()
+                        .setCurrency(i % 2 == 0 ? nativeCurrency : foreignCurrency)
+                        .setValue(BigDecimal.valueOf(randomGenerator.getRandomInt(1, 10_000), 2))
+                        .setDate(LocalDate.now())));
+            }
+            List<Account> accounts = new ArrayList<>();
+            for (int i = 0; i < ACCOUNT_COUNT; i++) {
+                accounts.add(store.insert(new Account()
+                        .setActive(true)
+                        .setCurrency(nativeCurrency)
+                        .setOwner(owner)
+                        .setName("account " + i)
+                        .setInitialBalance(BigDecimal.TEN)
+                        .setOrderCode(i)));
+            }
+            for (int i = 0; i < OPERATION_COUNT; i++) {
+                store.insert(new Operation()
+                        .setAccount(accounts.get(i % ACCOUNT_COUNT))
+                        .setArticle(article)
+                        .setOwner(owner)
+                        .setExchangeRate(exchangeRates.get(i % EXCHANGE_RATE_COUNT))
+                        .setType(i % 3 == 0 ? OperationType.INCOME_OPERATION
+                                : OperationType.EXPENSE_OPERATION)
+                        .setDate(LocalDate.now())
+                        .setValue(BigDecimal.valueOf(randomGenerator.getRandomInt(1, 100_000), 2)));
+            }
+            return null;
+        });
+    }
+}
@@ -0,0 +1,138 @@
+package io.github.zwieback.familyfinance.business.chart.service.grouper.bar;
+
+import android.support.test.runner.AndroidJUnit4;
+import android.util.Log;
+
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.threeten.bp.LocalDate;
+
+import java.math.BigDecimal;
+
+import io.github.zwieback.familyfinance.business.operation.query.OperationSnapshot;
+import io.github.zwieback.familyfinance.core.model.type.OperationType;
+import io.github.zwieback.familyfinance.util.BigDecimalConverterUtils;
+import io.github.zwieback.familyfinance.util.DateUtils;
+import io.github.zwieback.familyfinance.util.NumberUtils;
+
+/**
+ * Measures the grouping and summing of the snapshot of 10 years of daily
+ * aggregates, in the manner of JMH: warmup iterations first, then the
+ * average of measured iterations.
+ */
+@RunWith(AndroidJUnit4.class)
+public class BarOperationGrouperBenchmark {
+
+    private static final String TAG = "BarGrouperBenchmark";
+
+    private static final int YEARS = 10;
+    private static final int AGGREGATES_PER_DAY = 6;
+    private static final int WARMUP_ITERATIONS = 5;
+    private static final int MEASUREMENT_ITERATIONS = 20;
+    private static final int NATIVE_CURRENCY_ID = 1;
+    private static final int FOREIGN_CURRENCY_ID = 2;
+    private static final long EXCHANGE_RATE_VALUE = 200_000_000L;
+    private static final long VALUE = 1_000L;
+
+    private LocalDate startDate;
+    private LocalDate endDate;
+    private int dayCount;
+
+    @Before
+    public void setUp() {
+        startDate = LocalDate.of(2009, 1, 1);
+        endDate = startDate.plusYears(YEARS).minusDays(1);
+        dayCount = (int) (DateUtils.localDateToEpochDay(endDate)
+                - DateUtils.localDateToEpochDay(startDate) + 1);
+    }
+
+    @Test
+    public void groupByDay() {
+        BarOperationSums result = measure(new OperationGrouperByDay(NATIVE_CURRENCY_ID));
+        Assert.assertEquals(dayCount, result.getBucketCount());
+        Assert.assertEquals(DateUtils.localDateToEpochDay(startDate), (long) result.getBucket(0));
+        assertAllSummed(result);
+    }
+
+    @Test
+    public void groupByWeek() {
+        assertAllSummed(measure(new OperationGrouperByWeek(NATIVE_CURRENCY_ID)));
+    }
+
+    @Test
+    public void groupByMonth() {
+        BarOperationSums result = measure(new OperationGrouperByMonth(NATIVE_CURRENCY_ID));
+        Assert.assertEquals(YEARS * 12, result.getBucketCount());
+        assertAllSummed(result);
+    }
+
+    @Test
+    public void groupByQuarter() {
+        BarOperationSums result = measure(new OperationGrouperByQuarter(NATIVE_CURRENCY_ID));
+        Assert.assertEquals(YEARS * 4, result.getBucketCount());
+        assertAllSummed(result);
+    }
+
+    @Test
+    public void groupByYear() {
+        BarOperationSums result = measure(new OperationGrouperByYear(NATIVE_CURRENCY_ID));
+        Assert.assertEquals(YEARS, result.getBucketCount());
+        assertAllSummed(result);
+    }
+
+    private BarOperationSums measure(BarOperationGrouper grouper) {
+        OperationSnapshot snapshot = createSnapshot();
+        for (int i = 0; i < WARMUP_ITERATIONS; i++) {
+            grouper.group(snapshot, startDate, endDate);
+        }
+        BarOperationSums result = null;
+        long start = System.nanoTime();
+        for (int i = 0; i < MEASUREMENT_ITERATIONS; i++) {
+            result = grouper.group(snapshot, startDate, endDate);
+        }
+        long averageTime = (System.nanoTime() - start) / MEASUREMENT_ITERATIONS;
+        Log.i(TAG, grouper.getClass().getSimpleName() + ": " + averageTime / 1_000 + " us/op");
+        return result;
+    }
+
+    /**
+     * Every day has the income and the expense of each operation type in the
+     * native currency and the expense in the foreign currency.
+     */
+    private OperationSnapshot createSnapshot() {
+        OperationType[] types = OperationType.values();
+        OperationSnapshot snapshot = new OperationSnapshot(dayCount * AGGREGATES_PER_DAY);
+        for (LocalDate date = startDate; !date.isAfter(endDate); date = date.plusDays(1)) {
+            int epochDay = (int) DateUtils.localDateToEpochDay(date);
+            for (int i = 0; i < AGGREGATES_PER_DAY; i++) {
+                boolean foreign = i >= types.length;
+                snapshot.add(epochDay,
+                        foreign ? OperationType.EXPENSE_OPERATION : types[i],
+                        foreign ? FOREIGN_CURRENCY_ID : NATIVE_CURRENCY_ID,
+                        EXCHANGE_RATE_VALUE, VALUE, i + 1, NumberUtils.ID_AS_NULL);
+            }
+        }
+        return snapshot;
+    }
+
+    private void assertAllSummed(BarOperationSums result) {
+        BigDecimal incomes = BigDecimal.ZERO;
+        BigDecimal expenses = BigDecimal.ZERO;
+        for (int i = 0; i < result.getBucketCount(); i++) {
+            incomes = incomes.add(result.getSum(i, OperationType.getIncomeTypes()));
+            expenses = expenses.add(result.getSum(i, OperationType.getExpenseTypes()));
+        }
+        BigDecimal value = BigDecimalConverterUtils.worthToBigDecimal(VALUE);
+        BigDecimal foreignValue = value.multiply(
+                BigDecimalConverterUtils.exchangeRateToBigDecimal(EXCHANGE_RATE_VALUE));
+        int foreignCount = AGGREGATES_PER_DAY - OperationType.values().length;
+        Assert.assertEquals(0, incomes.compareTo(
+                value.multiply(BigDecimal.valueOf(2L * dayCount))));
+        Assert.assertEquals(0, expenses.compareTo(
+                value.multiply(BigDecimal.valueOf(2L * dayCount))
+                        .add(foreignValue.multiply(BigDecimal.valueOf(
+                                (long) foreignCount * dayCount)))));
+    }
+}
@@ -0,0 +1,131 @@
+package io.github.zwieback.familyfinance.business.operation.service.writer;
+
+import android.support.test.runner.AndroidJUnit4;
+import android.util.Log;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.threeten.bp.LocalDate;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import io.github.zwieback.familyfinance.business.account.service.ledger.AccountBalanceLedger;
+import io.github.zwieback.familyfinance.core.model.Account;
+import io.github.zwieback.familyfinance.core.model.Article;
+import io.github.zwieback.familyfinance.core.model.ExchangeRate;
+import io.github.zwieback.familyfinance.core.model.Operation;
+import io.github.zwieback.familyfinance.core.model.Person;
+import io.github.zwieback.familyfinance.core.model.type.ArticleType;
+import io.github.zwieback.familyfinance.core.model.type.OperationType;
+import io.github.zwieback.familyfinance.util.TestDatabase;
+import io.requery.BlockingEntityStore;
+import io.requery.Persistable;
+import io.requery.reactivex.ReactiveEntityStore;
+
+/**
+ * Compares the write of the transfers through the {@link AccountBalanceLedger}
+ * one operation at a time with the {@link OperationBatchWriter}.
+ */
+@RunWith(AndroidJUnit4.class)
+public class OperationBatchWriterBenchmark {
+
+    private static final String TAG = "OperationBatchBenchmark";
+
+    private static final int TRANSFER_COUNT = 1_000;
+
+    private TestDatabase database;
+    private ReactiveEntityStore<Persistable> data;
+    private Account expenseAccount;
+    private Account incomeAccount;
+    private Article article;
+    private Person owner;
+    private ExchangeRate exchangeRate;
+
+    @Before
+    public void setUp() throws Exception {
+        database = new TestDatabase();
+        data = database.getData();
+        fillDatabase(data.toBlocking(), database.insertFixture());
+    }
+
+    @After
+    public void tearDown() {
+        database.close();
+    }
+
+    @Test
+    public void batchWriter_isConsistentWithSingleWrites() {
+        AccountBalanceLedger ledger = new AccountBalanceLedger(data);
+
+        long start = System.nanoTime();
+        for (int i = 0; i < TRANSFER_COUNT; i++) {
+            Operation expenseOperation = ledger.insert(
+                    createOperation(OperationType.TRANSFER_EXPENSE_OPERATION, i)).blockingGet();
+            Operation incomeOperation = ledger.insert(
+                    createOperation(OperationType.TRANSFER_INCOME_OPERATION, i)
+                            .setLinkedTransferOperation(expenseOperation)).blockingGet();
+            expenseOperation.setLinkedTransferOperation(incomeOperation);
+            ledger.update(expenseOperation).blockingGet();
+        }
+        long singleTime = System.nanoTime() - start;
+
+        start = System.nanoTime();
+        OperationBatchWriter writer = new OperationBatchWriter(data, ledger);
+        for (int i = 0; i < TRANSFER_COUNT; i++) {
+            writer.addTransfer(createOperation(OperationType.TRANSFER_EXPENSE_OPERATION, i),
+                    createOperation(OperationType.TRANSFER_INCOME_OPERATION, i));
+        }
+        List<Operation> operations = writer.write();
+        long batchTime = System.nanoTime() - start;
+
+        Log.i(TAG, "Single: " + singleTime / 1_000_000 + " ms, " +
+                "batch: " + batchTime / 1_000_000 + " ms");
+        Assert.assertEquals(2 * TRANSFER_COUNT, operations.size());
+        for (int i = 0; i < TRANSFER_COUNT; i++) {
+            Operation expenseOperation = operations.get(i);
+            Operation incomeOperation = operations.get(TRANSFER_COUNT + i);
+            Assert.assertEquals(incomeOperation.getId(),
+                    expenseOperation.getLinkedTransferOperation().getId());
+            Assert.assertEquals(expenseOperation.getId(),
+                    incomeOperation.getLinkedTransferOperation().getId());
+        }
+        Assert.assertTrue(ledger.verify().isEmpty());
+    }
+
+    private Operation createOperation(OperationType type, int index) {
+        return new Operation()
+                .setType(type)
+                .setAccount(type == OperationType.TRANSFER_EXPENSE_OPERATION
+                        ? expenseAccount : incomeAccount)
+                .setArticle(article)
+                .setOwner(owner)
+                .setExchangeRate(exchangeRate)
+                .setDate(LocalDate.now())
+                .setValue(BigDecimal.valueOf(index + 1, 2));
+    }
+
+    private void fillDatabase(BlockingEntityStore<Persistable> store,
+                              TestDatabase.Fixture fixture) {
+        owner = fixture.getOwner();
+        exchangeRate = fixture.getExchangeRate();
+        expenseAccount = fixture.getAccount();
+        store.runInTransaction(() -> {
+            article = store.insert(new Article()
+                    .setType(ArticleType.SERVICE_ARTICLE)
+                    .setName("transfer")
+                    .setNameAscii("transfer"));
+            incomeAccount = store.insert(new Account()
+                    .setActive(true)
+                    .setCurrency(fixture.getCurrency())
+                    .setOwner(owner)
+                    .setName("income account")
+                    .setInitialBalance(BigDecimal.ZERO)
+                    .setOrderCode(2));
+            return null;
+        });
+    }
+}
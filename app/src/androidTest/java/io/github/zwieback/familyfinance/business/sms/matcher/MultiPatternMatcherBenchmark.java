@@ -0,0 +1,100 @@
+package io.github.zwieback.familyfinance.business.sms.matcher;
+
+import android.support.test.runner.AndroidJUnit4;
+import android.util.Log;
+
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Compares the check of the SMS patterns one by one with the
+ * {@link MultiPatternMatcher} on the synthetic bank messages.
+ */
+@RunWith(AndroidJUnit4.class)
+public class MultiPatternMatcherBenchmark {
+
+    private static final String TAG = "MultiPatternBenchmark";
+
+    private static final int PATTERN_COUNT = 200;
+    private static final int MESSAGE_COUNT = 10_000;
+
+    private static final String[] OPERATIONS = {
+            "Pokupka", "Oplata", "Zachislenie", "Spisanie", "Perevod", "Vydacha nalichnyh",
+            "Vozvrat pokupki", "Oplata uslug", "Zachislenie zarplaty", "Otmena operacii"
+    };
+
+    private List<Pattern> patterns;
+    private List<String> messages;
+
+    @Before
+    public void setUp() {
+        Random random = new Random(42);
+        patterns = new ArrayList<>(PATTERN_COUNT);
+        for (int i = 0; i < PATTERN_COUNT; i++) {
+            String operation = OPERATIONS[i % OPERATIONS.length];
+            String regex = String.format(Locale.ROOT,
+                    "^VISA%04d (\\d{2}\\.\\d{2}\\.\\d{2}) \\d{2}:\\d{2} %s (\\d+(?:\\.\\d{2})?)r " +
+                            "%s Balans: [\\d.]+r$",
+                    i, operation, i % 3 == 0 ? "MAGAZIN\\s+\\w+" : "[A-Z ]+");
+            patterns.add(Pattern.compile(regex, Pattern.CASE_INSENSITIVE));
+        }
+        messages = new ArrayList<>(MESSAGE_COUNT);
+        for (int i = 0; i < MESSAGE_COUNT; i++) {
+            // a quarter of the messages matches none of the patterns
+            int card = random.nextInt(4 * PATTERN_COUNT / 3);
+            String operation = OPERATIONS[card % OPERATIONS.length];
+            String place = card % 3 == 0 ? "MAGAZIN PYATEROCHKA" : "OOO ROMASHKA";
+            messages.add(String.format(Locale.ROOT,
+                    "VISA%04d %02d.%02d.19 %02d:%02d %s %d.%02dr %s Balans: %d.%02dr",
+                    card, 1 + random.nextInt(28), 1 + random.nextInt(12),
+                    random.nextInt(24), random.nextInt(60), operation,
+                    random.nextInt(10_000), random.nextInt(100), place,
+                    random.nextInt(100_000), random.nextInt(100)));
+        }
+    }
+
+    @Test
+    public void multiPatternMatcher_findsSamePatternsAsSequentialCheck() {
+        int[] expected = new int[MESSAGE_COUNT];
+        long start = System.nanoTime();
+        for (int i = 0; i < MESSAGE_COUNT; i++) {
+            expected[i] = matchSequentially(messages.get(i));
+        }
+        long sequentialTime = System.nanoTime() - start;
+
+        start = System.nanoTime();
+        MultiPatternMatcher multiPatternMatcher = new MultiPatternMatcher(patterns);
+        long buildTime = System.nanoTime() - start;
+        int[] actual = new int[MESSAGE_COUNT];
+        start = System.nanoTime();
+        for (int i = 0; i < MESSAGE_COUNT; i++) {
+            MultiPatternMatcher.Match match = multiPatternMatcher.match(messages.get(i));
+            actual[i] = match == null ? -1 : match.getIndex();
+        }
+        long multiTime = System.nanoTime() - start;
+
+        Log.i(TAG, "Sequential: " + sequentialTime / 1_000_000 + " ms, " +
+                "multi-pattern: " + multiTime / 1_000_000 + " ms " +
+                "(built in " + buildTime / 1_000_000 + " ms)");
+        Assert.assertArrayEquals(expected, actual);
+    }
+
+    private int matchSequentially(String message) {
+        for (int i = 0; i < patterns.size(); i++) {
+            Matcher matcher = patterns.get(i).matcher(message);
+            if (matcher.matches()) {
+                return i;
+            }
+        }
+        return -1;
+    }
+}
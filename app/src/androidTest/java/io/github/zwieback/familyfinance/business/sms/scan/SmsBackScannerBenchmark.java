@@ -0,0 +1,145 @@
+package io.github.zwieback.familyfinance.business.sms.scan;
+
+import android.content.Context;
+import android.support.annotation.Nullable;
+import android.support.test.InstrumentationRegistry;
+import android.support.test.runner.AndroidJUnit4;
+import android.util.Log;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.threeten.bp.LocalDate;
+
+import java.util.Locale;
+import java.util.Random;
+
+import io.github.zwieback.familyfinance.business.account.service.ledger.AccountBalanceLedger;
+import io.github.zwieback.familyfinance.business.sms.handler.SmsRoutingTable;
+import io.github.zwieback.familyfinance.business.sms.model.dto.SmsDto;
+import io.github.zwieback.familyfinance.core.model.Operation;
+import io.github.zwieback.familyfinance.core.model.SmsPattern;
+import io.github.zwieback.familyfinance.core.model.Template;
+import io.github.zwieback.familyfinance.core.model.type.TemplateType;
+import io.github.zwieback.familyfinance.util.TestDatabase;
+import io.requery.BlockingEntityStore;
+import io.requery.Persistable;
+import io.requery.reactivex.ReactiveEntityStore;
+
+/**
+ * Scans the inbox of the synthetic bank messages by the {@link SmsBackScanner}
+ * twice: the first scan adds the operations of all the matched messages, the
+ * second one finds all of them as the existing ones.
+ */
+@RunWith(AndroidJUnit4.class)
+public class SmsBackScannerBenchmark {
+
+    private static final String TAG = "SmsBackScannerBenchmark";
+
+    private static final int MESSAGE_COUNT = 50_000;
+    private static final String BANK_SENDER = "900";
+
+    private Context context;
+    private TestDatabase database;
+    private ReactiveEntityStore<Persistable> data;
+
+    @Before
+    public void setUp() throws Exception {
+        context = InstrumentationRegistry.getTargetContext();
+        database = new TestDatabase();
+        data = database.getData();
+        fillDatabase(data.toBlocking(), database.insertFixture());
+        SmsRoutingTable.invalidate();
+    }
+
+    @After
+    public void tearDown() {
+        database.close();
+    }
+
+    @Test
+    public void secondScan_findsAllOperationsAsExisting() {
+        SmsBackScanner scanner = new SmsBackScanner(context, data);
+
+        long start = System.nanoTime();
+        SmsBackScanProgress first = scanner.scan(FixtureSmsSource::new).blockingLast();
+        long firstTime = System.nanoTime() - start;
+
+        start = System.nanoTime();
+        SmsBackScanProgress second = scanner.scan(FixtureSmsSource::new).blockingLast();
+        long secondTime = System.nanoTime() - start;
+
+        Log.i(TAG, "First scan: " + firstTime / 1_000_000 + " ms, " + first + "; " +
+                "second scan: " + secondTime / 1_000_000 + " ms, " + second);
+        Assert.assertEquals(MESSAGE_COUNT, first.getScannedCount());
+        Assert.assertTrue(first.getMatchedCount() > 0);
+        Assert.assertEquals(first.getMatchedCount(), first.getAddedCount());
+        Assert.assertEquals(0, first.getDuplicateCount());
+        Assert.assertEquals(first.getAddedCount(), data.count(Operation.class).get().value().intValue());
+
+        Assert.assertEquals(first.getMatchedCount(), second.getMatchedCount());
+        Assert.assertEquals(0, second.getAddedCount());
+        Assert.assertEquals(first.getAddedCount(), second.getDuplicateCount());
+        Assert.assertTrue(new AccountBalanceLedger(data).verify().isEmpty());
+    }
+
+    private void fillDatabase(BlockingEntityStore<Persistable> store,
+                              TestDatabase.Fixture fixture) {
+        store.runInTransaction(() -> {
+            Template template = store.insert(new Template()
+                    .setType(TemplateType.EXPENSE_OPERATION)
+                    .setName("shop")
+                    .setAccount(fixture.getAccount())
+                    .setArticle(fixture.getArticle())
+                    .setOwner(fixture.getOwner())
+                    .setExchangeRate(fixture.getExchangeRate()));
+            store.insert(new SmsPattern()
+                    .setTemplate(template)
+                    .setName("purchase")
+                    .setSender(BANK_SENDER)
+                    .setRegex("^VISA1234 (\\d{2}\\.\\d{2}\\.\\d{2}) \\d{2}:\\d{2} " +
+                            "Pokupka (\\d+\\.\\d{2})r MAGAZIN Balans: [\\d.]+r$")
+                    .setDateGroup(1)
+                    .setValueGroup(2)
+                    .setCommon(false));
+            return null;
+        });
+    }
+
+    /**
+     * Inbox of the synthetic messages, which are generated one at a time.
+     * A fifth of them are the purchases of the bank, the rest are the
+     * messages of the other senders. The purchases never repeat, so every one
+     * of them is the separate operation.
+     */
+    private static final class FixtureSmsSource implements SmsSource {
+
+        private final Random random = new Random(42);
+        private int index;
+
+        @Nullable
+        @Override
+        public SmsDto next() {
+            if (index == MESSAGE_COUNT) {
+                return null;
+            }
+            int i = index++;
+            if (i % 5 != 0) {
+                return new SmsDto("friend" + random.nextInt(100), "Hello, " + i);
+            }
+            int purchase = i / 5;
+            LocalDate date = LocalDate.of(2019, 1, 1).plusDays(purchase % 365);
+            return new SmsDto(BANK_SENDER, String.format(Locale.ROOT,
+                    "VISA1234 %02d.%02d.%02d %02d:%02d Pokupka %d.00r MAGAZIN Balans: %d.00r",
+                    date.getDayOfMonth(), date.getMonthValue(), date.getYear() % 100,
+                    random.nextInt(24), random.nextInt(60), purchase / 365 + 1,
+                    random.nextInt(100_000)));
+        }
+
+        @Override
+        public void close() {
+        }
+    }
+}
@@ -0,0 +1,170 @@
+package io.github.zwieback.familyfinance.util;
+
+import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
+import android.support.test.InstrumentationRegistry;
+
+import org.threeten.bp.LocalDate;
+
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.SQLException;
+
+import io.github.zwieback.familyfinance.app.lifecycle.creator.DatabaseIndexCreator;
+import io.github.zwieback.familyfinance.app.lifecycle.creator.DatabaseViewCreator;
+import io.github.zwieback.familyfinance.core.database.RawQueryExecutor;
+import io.github.zwieback.familyfinance.core.model.Account;
+import io.github.zwieback.familyfinance.core.model.Article;
+import io.github.zwieback.familyfinance.core.model.Currency;
+import io.github.zwieback.familyfinance.core.model.ExchangeRate;
+import io.github.zwieback.familyfinance.core.model.Models;
+import io.github.zwieback.familyfinance.core.model.Person;
+import io.github.zwieback.familyfinance.core.model.type.ArticleType;
+import io.requery.BlockingEntityStore;
+import io.requery.Persistable;
+import io.requery.android.sqlite.DatabaseProvider;
+import io.requery.android.sqlitex.SqlitexDatabaseSource;
+import io.requery.reactivex.ReactiveEntityStore;
+import io.requery.reactivex.ReactiveSupport;
+import io.requery.sql.Configuration;
+import io.requery.sql.ConfigurationBuilder;
+import io.requery.sql.EntityDataStore;
+import io.requery.sql.StatementListener;
+import io.requery.sql.TableCreationMode;
+
+/**
+ * In-memory database of the instrumented tests with the same views, indexes
+ * and raw query executor as the database of the application.
+ */
+public final class TestDatabase {
+
+    @NonNull
+    private final Configuration configuration;
+    @NonNull
+    private final ReactiveEntityStore<Persistable> data;
+
+    public TestDatabase() throws SQLException {
+        this(null);
+    }
+
+    /**
+     * @param statementListener listener of the statements, which are executed
+     *                          by requery, or {@code null}
+     */
+    public TestDatabase(@Nullable StatementListener statementListener) throws SQLException {
+        DatabaseProvider source = new SqlitexDatabaseSource(
+                InstrumentationRegistry.getTargetContext(), Models.DEFAULT, null, 1) {
+            @Override
+            protected void onConfigure(ConfigurationBuilder builder) {
+                super.onConfigure(builder);
+                if (statementListener != null) {
+                    builder.addStatementListener(statementListener);
+                }
+            }
+        };
+        source.setTableCreationMode(TableCreationMode.DROP_CREATE);
+        configuration = source.getConfiguration();
+        try (Connection connection = configuration.getConnectionProvider().getConnection()) {
+            new DatabaseViewCreator(connection).createViews();
+            new DatabaseIndexCreator(connection).createIndexes();
+        }
+        data = ReactiveSupport.toReactiveStore(new EntityDataStore<>(configuration));
+        RawQueryExecutor.register(data, configuration);
+    }
+
+    @NonNull
+    public Configuration getConfiguration() {
+        return configuration;
+    }
+
+    @NonNull
+    public ReactiveEntityStore<Persistable> getData() {
+        return data;
+    }
+
+    /**
+     * Insert the owner, the expense article, the native currency with its
+     * exchange rate and the account of the owner in this currency, which
+     * every operation refers to.
+     */
+    @NonNull
+    public Fixture insertFixture() {
+        BlockingEntityStore<Persistable> store = data.toBlocking();
+        return store.runInTransaction(() -> {
+            Person owner = store.insert(new Person().setName("owner").setOrderCode(1));
+            Article article = store.insert(new Article()
+                    .setType(ArticleType.EXPENSE_ARTICLE)
+                    .setName("article")
+                    .setNameAscii("article"));
+            Currency currency = store.insert(new Currency()
+                    .setName("RUB").setDescription("native"));
+            ExchangeRate exchangeRate = store.insert(new ExchangeRate()
+                    .setCurrency(currency)
+                    .setValue(BigDecimal.ONE)
+                    .setDate(LocalDate.now()));
+            Account account = store.insert(new Account()
+                    .setActive(true)
+                    .setCurrency(currency)
+                    .setOwner(owner)
+                    .setName("account")
+                    .setInitialBalance(BigDecimal.ZERO)
+                    .setOrderCode(1));
+            return new Fixture(owner, article, currency, exchangeRate, account);
+        });
+    }
+
+    public void close() {
+        data.close();
+    }
+
+    public static final class Fixture {
+
+        @NonNull
+        private final Person owner;
+        @NonNull
+        private final Article article;
+        @NonNull
+        private final Currency currency;
+        @NonNull
+        private final ExchangeRate exchangeRate;
+        @NonNull
+        private final Account account;
+
+        private Fixture(@NonNull Person owner,
+                        @NonNull Article article,
+                        @NonNull Currency currency,
+                        @NonNull ExchangeRate exchangeRate,
+                        @NonNull Account account) {
+            this.owner = owner;
+            this.article = article;
+            this.currency = currency;
+            this.exchangeRate = exchangeRate;
+            this.account = account;
+        }
+
+        @NonNull
+        public Person getOwner() {
+            return owner;
+        }
+
+        @NonNull
+        public Article getArticle() {
+            return article;
+        }
+
+        @NonNull
+        public Currency getCurrency() {
+            return currency;
+        }
+
+        @NonNull
+        public ExchangeRate getExchangeRate() {
+            return exchangeRate;
+        }
+
+        @NonNull
+        public Account getAccount() {
+            return account;
+        }
+    }
+}
@@ -19,6 +19,7 @@ public class FamilyFinanceApplication extends AbstractApplication {
         super.onCreate();
         AndroidThreeTen.init(this);
         turnOnStrictMode();
+        drainSmsQueue();
 //        recreateDatabase();
     }
 
@@ -30,8 +31,9 @@ public class FamilyFinanceApplication extends AbstractApplication {
         // use this in development mode to drop and recreate the tables on every upgrade
         source.setLoggingEnabled(true);
         source.setTableCreationMode(TableCreationMode.CREATE_NOT_EXISTS);
-        destroyViews(source.getConfiguration());
         createViews(source.getConfiguration());
+        createIndexes(source.getConfiguration());
+        checkOperationReadModel(source.getConfiguration());
         return source;
     }
 
@@ -1,13 +1,18 @@
 package io.github.zwieback.familyfinance.app;
 
+import android.content.Intent;
 import android.support.annotation.NonNull;
 import android.support.multidex.MultiDexApplication;
 
 import java.sql.Connection;
 
+import io.github.zwieback.familyfinance.app.lifecycle.creator.DatabaseIndexCreator;
 import io.github.zwieback.familyfinance.app.lifecycle.creator.DatabaseViewCreator;
-import io.github.zwieback.familyfinance.app.lifecycle.destroyer.DatabaseViewDestroyer;
+import io.github.zwieback.familyfinance.business.operation.lifecycle.creator.OperationReadModelChecker;
+import io.github.zwieback.familyfinance.business.sms.queue.SmsQueueWorker;
+import io.github.zwieback.familyfinance.core.database.RawQueryExecutor;
 import io.github.zwieback.familyfinance.core.database.exception.SQLException;
+import io.github.zwieback.familyfinance.core.preference.config.DatabasePrefs;
 import io.requery.Persistable;
 import io.requery.android.sqlite.DatabaseProvider;
 import io.requery.reactivex.ReactiveEntityStore;
@@ -17,8 +22,9 @@ import io.requery.sql.EntityDataStore;
 
 public abstract class AbstractApplication extends MultiDexApplication {
 
-    protected static final int DB_VERSION = 6;
+    protected static final int DB_VERSION = 7;
 
+    private DatabaseProvider databaseProvider;
     private ReactiveEntityStore<Persistable> dataStore;
 
     /**
@@ -28,22 +34,67 @@ public abstract class AbstractApplication extends MultiDexApplication {
      * {@code @Provides @Singleton}.
      */
     @NonNull
-    public final ReactiveEntityStore<Persistable> getData() {
+    public final synchronized ReactiveEntityStore<Persistable> getData() {
         if (dataStore == null) {
-            DatabaseProvider databaseProvider = buildDatabaseProvider();
+            databaseProvider = buildDatabaseProvider();
             Configuration configuration = databaseProvider.getConfiguration();
             dataStore = ReactiveSupport.toReactiveStore(
                     new EntityDataStore<>(configuration));
+            RawQueryExecutor.register(dataStore, configuration);
         }
         return dataStore;
     }
 
+    /**
+     * Close the store and the database, e.g. before the file of the database
+     * is replaced. The next {@link #getData()} opens them again, but the
+     * components, which keep the closed store, can't use it, so the
+     * application must be {@link #restart restarted}.
+     */
+    public final synchronized void closeData() {
+        if (dataStore == null) {
+            return;
+        }
+        RawQueryExecutor.of(dataStore).evictAll();
+        dataStore.close();
+        databaseProvider.close();
+        dataStore = null;
+        databaseProvider = null;
+    }
+
+    /**
+     * Restart the process from the launcher activity, so all the components
+     * are created again with the new store.
+     */
+    public final void restart() {
+        Intent launchIntent = getPackageManager().getLaunchIntentForPackage(getPackageName());
+        if (launchIntent != null) {
+            startActivity(Intent.makeRestartActivityTask(launchIntent.getComponent()));
+        }
+        Runtime.getRuntime().exit(0);
+    }
+
     @NonNull
     protected abstract DatabaseProvider buildDatabaseProvider();
 
+    /**
+     * Handle SMS, which were received, but weren't handled before the previous
+     * process died.
+     *
+     * @see SmsQueueWorker
+     */
+    protected final void drainSmsQueue() {
+        SmsQueueWorker.getInstance(this).drain(null);
+    }
+
     /**
      * Workaround for creating views, while requery does not support creating views.
      * <p>
+     * Only the views, which definitions were changed, are rebuilt, see
+     * {@link io.github.zwieback.familyfinance.core.lifecycle.creator.EntityViewCreator}.
+     * The view of operations is backed by the read model, if it is enabled in
+     * the {@link DatabasePrefs}.
+     * <p>
      * Note: This method must be called before the creation of the {@link #dataStore},
      * otherwise {@link java.sql.SQLException} will be thrown.
      *
@@ -53,25 +104,40 @@ public abstract class AbstractApplication extends MultiDexApplication {
      */
     protected final void createViews(Configuration configuration) {
         try (Connection connection = configuration.getConnectionProvider().getConnection()) {
-            new DatabaseViewCreator(connection).createViews();
+            boolean operationReadModelEnabled =
+                    DatabasePrefs.with(this).isOperationReadModelEnabled();
+            new DatabaseViewCreator(connection, operationReadModelEnabled).createViews();
         } catch (java.sql.SQLException e) {
             throw new SQLException(e.getMessage(), e);
         }
     }
 
     /**
-     * Workaround for destroying views, while requery does not support destroying views.
-     * <p>
-     * Note: This method must be called before the creation of the {@link #dataStore},
-     * otherwise {@link java.sql.SQLException} will be thrown.
+     * Create the indexes of the hot queries, which are missing in the database.
      *
-     * @see <a href="https://github.com/requery/requery/issues/721#issuecomment-344153774">
-     * Using SQLite views
-     * </a>
+     * @see DatabaseIndexCreator
+     */
+    protected final void createIndexes(Configuration configuration) {
+        try (Connection connection = configuration.getConnectionProvider().getConnection()) {
+            new DatabaseIndexCreator(connection).createIndexes();
+        } catch (java.sql.SQLException e) {
+            throw new SQLException(e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Compare the read model of operations with the join, which it replaces,
+     * and rebuild it if they differ. Does nothing if the read model is
+     * disabled.
+     *
+     * @see OperationReadModelChecker
      */
-    protected final void destroyViews(Configuration configuration) {
+    protected final void checkOperationReadModel(Configuration configuration) {
+        if (!DatabasePrefs.with(this).isOperationReadModelEnabled()) {
+            return;
+        }
         try (Connection connection = configuration.getConnectionProvider().getConnection()) {
-            new DatabaseViewDestroyer(connection).destroyViews();
+            new OperationReadModelChecker(connection).checkReadModel();
         } catch (java.sql.SQLException e) {
             throw new SQLException(e.getMessage(), e);
         }
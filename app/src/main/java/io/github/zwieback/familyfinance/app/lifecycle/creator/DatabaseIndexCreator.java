@@ -0,0 +1,53 @@
+package io.github.zwieback.familyfinance.app.lifecycle.creator;
+
+import android.util.Log;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Workaround for creating the composite indexes, which requery doesn't
+ * declare in the needed column order.
+ * <p>
+ * The indexes are created by {@code IF NOT EXISTS}, so the creator is run
+ * on every start: the new database gets them after the tables are created,
+ * the upgraded one gets the missing ones.
+ */
+public class DatabaseIndexCreator {
+
+    private static final String TAG = "DatabaseIndexCreator";
+
+    /**
+     * Indexes of the hot queries. A new index doesn't need the increment of
+     * the database version, it is created on the next start.
+     */
+    public static final List<String> INDEXES = Collections.unmodifiableList(Arrays.asList(
+            // list of operations: date range, order by _date desc, id desc
+            "operation_date_id_idx ON operation (_date, id)",
+            // balances of accounts: group by account, type and exchange rate
+            "operation_account_type_rate_idx ON operation (account_id, _type, exchange_rate_id)",
+            // filter of operations by articles within the date range
+            "operation_article_date_idx ON operation (article_id, _date)",
+            // last exchange rate of the currency
+            "exchange_rate_currency_date_idx ON exchange_rate (currency_id, _date)"
+    ));
+
+    private final Connection connection;
+
+    public DatabaseIndexCreator(Connection connection) {
+        this.connection = connection;
+    }
+
+    public void createIndexes() throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            for (String index : INDEXES) {
+                statement.execute("CREATE INDEX IF NOT EXISTS " + index);
+            }
+        }
+        Log.d(TAG, INDEXES.size() + " indexes are created");
+    }
+}
@@ -15,19 +15,15 @@ import io.github.zwieback.familyfinance.business.article.lifecycle.creator.excep
 import io.github.zwieback.familyfinance.business.currency.lifecycle.creator.CurrencyCreator;
 import io.github.zwieback.familyfinance.business.exchange_rate.lifecycle.creator.ExchangeRateCreator;
 import io.github.zwieback.familyfinance.business.person.lifecycle.creator.PersonCreator;
+import io.github.zwieback.familyfinance.business.sms.handler.SmsRoutingTable;
 import io.github.zwieback.familyfinance.business.sms_pattern.lifecycle.creator.SmsPatternCreator;
 import io.github.zwieback.familyfinance.business.template.lifecycle.creator.TemplateCreator;
-import io.github.zwieback.familyfinance.core.lifecycle.creator.EntityCreator;
 import io.github.zwieback.familyfinance.core.model.Account;
 import io.github.zwieback.familyfinance.core.model.Article;
 import io.github.zwieback.familyfinance.core.model.Currency;
-import io.github.zwieback.familyfinance.core.model.ExchangeRate;
-import io.github.zwieback.familyfinance.core.model.IBaseEntity;
 import io.github.zwieback.familyfinance.core.model.Person;
-import io.github.zwieback.familyfinance.core.model.SmsPattern;
-import io.github.zwieback.familyfinance.core.model.Template;
 import io.github.zwieback.familyfinance.core.preference.config.DatabasePrefs;
-import io.reactivex.Observable;
+import io.reactivex.Completable;
 import io.reactivex.functions.Consumer;
 import io.reactivex.schedulers.Schedulers;
 import io.requery.Persistable;
@@ -51,43 +47,49 @@ public class DatabaseTableCreator {
         this.databasePrefs = DatabasePrefs.with(context);
     }
 
+    /**
+     * Create the default entities in the background. The creators are run by
+     * the {@link EntityCreatorGraph} in the one transaction.
+     */
     public void createTables() {
-        CurrencyCreator currencyCreator = new CurrencyCreator(context, data);
-        createTable(currencyCreator, onCurrenciesCreated());
+        Completable.fromAction(() -> buildGraph().run(data.toBlocking()))
+                .doOnComplete(SmsRoutingTable::invalidate)
+                .subscribeOn(Schedulers.io())
+                .subscribe(() -> Log.d(TAG, "Tables were created"));
     }
 
-    private <E extends IBaseEntity> void createTable(EntityCreator<E> creator,
-                                                     Consumer<Iterable<E>> onEntitiesCreated) {
-        Observable.fromCallable(creator)
-                .flatMap(observable -> observable)
-                .subscribeOn(Schedulers.io())
-                .observeOn(Schedulers.computation())
-                .subscribe(onEntitiesCreated);
+    @NonNull
+    private EntityCreatorGraph buildGraph() {
+        EntityCreatorGraph graph = new EntityCreatorGraph();
+        EntityCreatorGraph.Node<Currency> currencies =
+                graph.add(new CurrencyCreator(context, data), onCurrenciesCreated());
+        graph.add(new ExchangeRateCreator(context, data), ignoredEntities -> {}, currencies);
+        EntityCreatorGraph.Node<Person> people =
+                graph.add(new PersonCreator(context, data), onPeopleCreated());
+        graph.add(new AccountCreator(context, data), onAccountsCreated(), currencies, people);
+        EntityCreatorGraph.Node<Article> articleRoots =
+                graph.add(new ArticleRootCreator(context, data), onArticleRootsCreated());
+        EntityCreatorGraph.Node<Article> articleFolders =
+                graph.add(new ArticleFoldersCreator(context, data), ignoredEntities -> {},
+                        articleRoots);
+        graph.add(new ArticleEntriesCreator(context, data), onArticleEntriesCreated(),
+                articleFolders);
+        graph.add(new TemplateCreator(context, data), ignoredEntities -> {});
+        graph.add(new SmsPatternCreator(context, data), ignoredEntities -> {});
+        return graph;
     }
 
     private Consumer<Iterable<Currency>> onCurrenciesCreated() {
         return currencies -> {
             Currency currency = currencies.iterator().next();
             databasePrefs.setCurrencyId(currency.getId());
-            logFinishOfCreator(CurrencyCreator.class);
-
-            createTable(new ExchangeRateCreator(context, data), onExchangeRatesCreated());
-            createTable(new PersonCreator(context, data), onPeopleCreated());
         };
     }
 
-    private Consumer<Iterable<ExchangeRate>> onExchangeRatesCreated() {
-        return exchangeRates -> logFinishOfCreator(ExchangeRateCreator.class);
-    }
-
     private Consumer<Iterable<Person>> onPeopleCreated() {
         return people -> {
             Person chief = people.iterator().next();
             databasePrefs.setPersonId(chief.getId());
-            logFinishOfCreator(PersonCreator.class);
-
-            createTable(new AccountCreator(context, data), onAccountsCreated());
-            createTable(new ArticleRootCreator(context, data), onArticleRootsCreated());
         };
     }
 
@@ -95,7 +97,6 @@ public class DatabaseTableCreator {
         return accounts -> {
             Account account = accounts.iterator().next();
             databasePrefs.setAccountId(account.getId());
-            logFinishOfCreator(AccountCreator.class);
         };
     }
 
@@ -108,17 +109,6 @@ public class DatabaseTableCreator {
             Article expensesArticle = findArticle(articles, expensesName);
             databasePrefs.setIncomesArticleId(incomesArticle.getId());
             databasePrefs.setExpensesArticleId(expensesArticle.getId());
-            logFinishOfCreator(ArticleRootCreator.class);
-
-            createTable(new ArticleFoldersCreator(context, data), onArticleFoldersCreated());
-        };
-    }
-
-    private Consumer<Iterable<Article>> onArticleFoldersCreated() {
-        return articles -> {
-            logFinishOfCreator(ArticleFoldersCreator.class);
-
-            createTable(new ArticleEntriesCreator(context, data), onArticleEntriesCreated());
         };
     }
 
@@ -128,26 +118,6 @@ public class DatabaseTableCreator {
 
             Article transferArticle = findArticle(articles, transferName);
             databasePrefs.setTransferArticleId(transferArticle.getId());
-
-            logFinishOfCreator(ArticleEntriesCreator.class);
-
-            createTable(new TemplateCreator(context, data), onTemplatesCreated());
-        };
-    }
-
-    private Consumer<Iterable<Template>> onTemplatesCreated() {
-        return articles -> {
-            logFinishOfCreator(TemplateCreator.class);
-
-            createTable(new SmsPatternCreator(context, data), onSmsPatternCreated());
-        };
-    }
-
-    private Consumer<Iterable<SmsPattern>> onSmsPatternCreated() {
-        return smsPatterns -> {
-            logFinishOfCreator(SmsPatternCreator.class);
-
-            Log.d(TAG, "Tables were created");
         };
     }
 
@@ -158,8 +128,4 @@ public class DatabaseTableCreator {
                 .findFirst()
                 .orElseThrow(() -> new NoArticleFoundException(name));
     }
-
-    private static void logFinishOfCreator(Class creatorClass) {
-        Log.d(TAG, "Creator '" + creatorClass.getSimpleName() + "' is finished");
-    }
 }
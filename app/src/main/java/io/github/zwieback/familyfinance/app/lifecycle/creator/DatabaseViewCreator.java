@@ -3,11 +3,13 @@ package io.github.zwieback.familyfinance.app.lifecycle.creator;
 import android.util.Log;
 
 import java.sql.Connection;
+import java.sql.SQLException;
 
 import io.github.zwieback.familyfinance.business.account.lifecycle.creator.AccountViewCreator;
 import io.github.zwieback.familyfinance.business.article.lifecycle.creator.ArticleViewCreator;
 import io.github.zwieback.familyfinance.business.currency.lifecycle.creator.CurrencyViewCreator;
 import io.github.zwieback.familyfinance.business.exchange_rate.lifecycle.creator.ExchangeRateViewCreator;
+import io.github.zwieback.familyfinance.business.operation.lifecycle.creator.OperationReadModelCreator;
 import io.github.zwieback.familyfinance.business.operation.lifecycle.creator.OperationViewCreator;
 import io.github.zwieback.familyfinance.business.person.lifecycle.creator.PersonViewCreator;
 import io.github.zwieback.familyfinance.business.sms_pattern.lifecycle.creator.SmsPatternViewCreator;
@@ -22,22 +24,48 @@ public class DatabaseViewCreator {
     private static final String TAG = "DatabaseViewCreator";
 
     private final Connection connection;
+    private final boolean operationReadModelEnabled;
 
     public DatabaseViewCreator(Connection connection) {
+        this(connection, false);
+    }
+
+    /**
+     * @param operationReadModelEnabled {@code true} to back the view of
+     *                                  operations by the maintained table, see
+     *                                  {@link OperationReadModelCreator}
+     */
+    public DatabaseViewCreator(Connection connection, boolean operationReadModelEnabled) {
         this.connection = connection;
+        this.operationReadModelEnabled = operationReadModelEnabled;
     }
 
-    public void createViews() {
+    /**
+     * Create the views, which definitions were changed since the last start.
+     */
+    public void createViews() throws SQLException {
+        EntityViewCreator.createVersionTable(connection);
         createView(new CurrencyViewCreator(connection), onCurrencyViewCreated());
         createView(new ExchangeRateViewCreator(connection), onExchangeRateViewCreated());
         createView(new PersonViewCreator(connection), onPersonViewCreated());
         createView(new AccountViewCreator(connection), onAccountViewCreated());
         createView(new ArticleViewCreator(connection), onArticleViewCreated());
-        createView(new OperationViewCreator(connection), onOperationViewCreated());
+        createOperationReadModel();
+        createView(new OperationViewCreator(connection, operationReadModelEnabled),
+                onOperationViewCreated());
         createView(new TemplateViewCreator(connection), onTemplateViewCreated());
         createView(new SmsPatternViewCreator(connection), onSmsPatternViewCreated());
     }
 
+    private void createOperationReadModel() throws SQLException {
+        OperationReadModelCreator creator = new OperationReadModelCreator(connection);
+        if (operationReadModelEnabled) {
+            creator.createReadModel();
+        } else {
+            creator.destroyReadModel();
+        }
+    }
+
     private void createView(EntityViewCreator creator, Consumer<Boolean> onViewCreated) {
         Observable.fromCallable(creator)
                 .flatMap(observable -> observable)
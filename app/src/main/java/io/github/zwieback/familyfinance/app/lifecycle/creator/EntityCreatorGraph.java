@@ -0,0 +1,138 @@
+package io.github.zwieback.familyfinance.app.lifecycle.creator;
+
+import android.support.annotation.NonNull;
+import android.util.Log;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import io.github.zwieback.familyfinance.core.lifecycle.creator.EntityCreator;
+import io.github.zwieback.familyfinance.core.model.IBaseEntity;
+import io.reactivex.functions.Consumer;
+import io.requery.BlockingEntityStore;
+import io.requery.Persistable;
+
+/**
+ * Graph of the entity creators with the declared dependencies.
+ * <p>
+ * The dependencies of the creator must be added before it, so the order of
+ * addition is always the topological one and the graph can't have cycles.
+ * All the creators are run in this order in the one transaction; the time of
+ * every creator and the critical path of the graph are logged.
+ */
+class EntityCreatorGraph {
+
+    private static final String TAG = "EntityCreatorGraph";
+
+    private final List<Node<?>> nodes = new ArrayList<>();
+
+    /**
+     * @param creator      creator of the entities
+     * @param onCreated    consumer of the created entities, e.g. to save their
+     *                     ids into the preferences, which the dependent creators
+     *                     read
+     * @param dependencies nodes, which must be run before the creator
+     * @return node of the creator
+     */
+    @NonNull
+    <E extends IBaseEntity> Node<E> add(@NonNull EntityCreator<E> creator,
+                                        @NonNull Consumer<Iterable<E>> onCreated,
+                                        @NonNull Node<?>... dependencies) {
+        for (Node<?> dependency : dependencies) {
+            if (!nodes.contains(dependency)) {
+                throw new IllegalArgumentException("Dependency " + dependency +
+                        " of " + creator.getClass().getSimpleName() + " isn't added");
+            }
+        }
+        Node<E> node = new Node<>(creator, onCreated, Arrays.asList(dependencies));
+        nodes.add(node);
+        return node;
+    }
+
+    /**
+     * Run all the creators in the one transaction.
+     */
+    void run(@NonNull BlockingEntityStore<Persistable> store) {
+        long start = System.nanoTime();
+        store.runInTransaction(() -> {
+            for (Node<?> node : nodes) {
+                node.run();
+            }
+            return null;
+        });
+        Log.d(TAG, "Creators are finished in " + toMillis(System.nanoTime() - start) +
+                " ms, critical path is " + describeCriticalPath());
+    }
+
+    @NonNull
+    private String describeCriticalPath() {
+        Node<?> last = null;
+        for (Node<?> node : nodes) {
+            if (last == null || node.pathNanos > last.pathNanos) {
+                last = node;
+            }
+        }
+        if (last == null) {
+            return "empty";
+        }
+        List<Node<?>> path = new ArrayList<>();
+        for (Node<?> node = last; node != null; node = node.slowestDependency) {
+            path.add(node);
+        }
+        Collections.reverse(path);
+        StringBuilder description = new StringBuilder()
+                .append(toMillis(last.pathNanos)).append(" ms: ");
+        for (int i = 0; i < path.size(); i++) {
+            description.append(i == 0 ? "" : " -> ").append(path.get(i));
+        }
+        return description.toString();
+    }
+
+    private static long toMillis(long nanos) {
+        return TimeUnit.NANOSECONDS.toMillis(nanos);
+    }
+
+    static final class Node<E extends IBaseEntity> {
+
+        private final EntityCreator<E> creator;
+        private final Consumer<Iterable<E>> onCreated;
+        private final List<Node<?>> dependencies;
+        /**
+         * Time of the creator plus the time of its slowest chain of
+         * dependencies.
+         */
+        private long pathNanos;
+        private Node<?> slowestDependency;
+
+        private Node(@NonNull EntityCreator<E> creator,
+                     @NonNull Consumer<Iterable<E>> onCreated,
+                     @NonNull List<Node<?>> dependencies) {
+            this.creator = creator;
+            this.onCreated = onCreated;
+            this.dependencies = dependencies;
+        }
+
+        private void run() throws Exception {
+            long start = System.nanoTime();
+            onCreated.accept(creator.call().blockingFirst());
+            long nanos = System.nanoTime() - start;
+
+            for (Node<?> dependency : dependencies) {
+                if (slowestDependency == null
+                        || dependency.pathNanos > slowestDependency.pathNanos) {
+                    slowestDependency = dependency;
+                }
+            }
+            pathNanos = nanos + (slowestDependency == null ? 0 : slowestDependency.pathNanos);
+            Log.d(TAG, "Creator '" + this + "' is finished in " + toMillis(nanos) + " ms");
+        }
+
+        @Override
+        public String toString() {
+            return creator.getClass().getSimpleName();
+        }
+    }
+}
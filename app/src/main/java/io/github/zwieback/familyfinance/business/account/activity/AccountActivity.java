@@ -2,17 +2,25 @@ package io.github.zwieback.familyfinance.business.account.activity;
 
 import android.content.Intent;
 import android.support.annotation.NonNull;
+import android.view.MenuItem;
+import android.widget.Toast;
+
+import java.util.ArrayList;
+import java.util.List;
 
 import io.github.zwieback.familyfinance.R;
 import io.github.zwieback.familyfinance.business.account.filter.AccountFilter;
 import io.github.zwieback.familyfinance.business.account.fragment.AccountFragment;
-import io.github.zwieback.familyfinance.business.account.lifecycle.destroyer.AccountAsParentDestroyer;
-import io.github.zwieback.familyfinance.business.account.lifecycle.destroyer.AccountFromExpenseOperationsDestroyer;
+import io.github.zwieback.familyfinance.business.account.lifecycle.destroyer.AccountDestroyer;
 import io.github.zwieback.familyfinance.business.account.listener.OnAccountClickListener;
+import io.github.zwieback.familyfinance.business.account.service.ledger.AccountBalanceLedger;
 import io.github.zwieback.familyfinance.core.activity.EntityFolderActivity;
 import io.github.zwieback.familyfinance.core.lifecycle.destroyer.EntityDestroyer;
 import io.github.zwieback.familyfinance.core.model.Account;
 import io.github.zwieback.familyfinance.core.model.AccountView;
+import io.reactivex.Single;
+import io.reactivex.android.schedulers.AndroidSchedulers;
+import io.reactivex.schedulers.Schedulers;
 
 import static io.github.zwieback.familyfinance.business.account.filter.AccountFilter.ACCOUNT_FILTER;
 import static io.github.zwieback.familyfinance.business.dashboard.activity.DashboardActivity.RESULT_ACCOUNT_ID;
@@ -25,6 +33,24 @@ public class AccountActivity
 
     public static final String INPUT_ONLY_ACTIVE = "inputOnlyActive";
 
+    @Override
+    protected List<Integer> collectMenuIds() {
+        List<Integer> menuIds = new ArrayList<>(super.collectMenuIds());
+        menuIds.add(R.menu.menu_entity_account);
+        return menuIds;
+    }
+
+    @Override
+    public boolean onOptionsItemSelected(MenuItem item) {
+        switch (item.getItemId()) {
+            case R.id.action_rebuild_balances:
+                rebuildBalances();
+                return true;
+            default:
+                return super.onOptionsItemSelected(item);
+        }
+    }
+
     @Override
     protected int getTitleStringId() {
         return R.string.account_activity_title;
@@ -84,9 +110,23 @@ public class AccountActivity
 
     @Override
     protected EntityDestroyer<Account> createDestroyer(AccountView account) {
-        if (account.isFolder()) {
-            return new AccountAsParentDestroyer(this, data);
-        }
-        return new AccountFromExpenseOperationsDestroyer(this, data);
+        return new AccountDestroyer(this, data);
+    }
+
+    private void rebuildBalances() {
+        AccountBalanceLedger ledger = new AccountBalanceLedger(data);
+        Single.fromCallable(ledger::rebuildAndVerify)
+                .subscribeOn(Schedulers.io())
+                .observeOn(AndroidSchedulers.mainThread())
+                .subscribe(invalidAccountIds -> {
+                    if (invalidAccountIds.isEmpty()) {
+                        Toast.makeText(this, R.string.balances_rebuilt, Toast.LENGTH_SHORT).show();
+                    } else {
+                        String message = getString(R.string.balances_rebuilt_with_differences,
+                                invalidAccountIds.size());
+                        Toast.makeText(this, message, Toast.LENGTH_LONG).show();
+                    }
+                    refresh();
+                });
     }
 }
@@ -230,11 +230,4 @@ public class AccountEditActivity extends
     protected ValidatingTextInputLayout getParentLayout() {
         return binding.parentLayout;
     }
-
-    @Override
-    protected boolean isParentInsideItself(int parentId, int newParentId) {
-        return isParentInsideItself(newParentId, Account.ID,
-                Account.PARENT_ID.eq(parentId).and(Account.FOLDER.eq(true)),
-                this::isParentInsideItself);
-    }
 }
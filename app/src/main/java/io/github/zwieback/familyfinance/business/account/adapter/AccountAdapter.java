@@ -6,16 +6,18 @@ import android.support.v4.content.ContextCompat;
 import android.view.LayoutInflater;
 
 import java.math.BigDecimal;
+import java.util.List;
 
 import io.github.zwieback.familyfinance.R;
-import io.github.zwieback.familyfinance.business.account.adapter.calculator.AccountBalanceCalculator;
-import io.github.zwieback.familyfinance.business.account.adapter.calculator.NonOptimizedAccountBalanceCalculator;
 import io.github.zwieback.familyfinance.business.account.filter.AccountFilter;
 import io.github.zwieback.familyfinance.business.account.listener.OnAccountClickListener;
 import io.github.zwieback.familyfinance.business.account.query.AccountQueryBuilder;
+import io.github.zwieback.familyfinance.business.account.service.ledger.AccountBalanceLedger;
 import io.github.zwieback.familyfinance.core.adapter.BindingHolder;
 import io.github.zwieback.familyfinance.core.adapter.EntityFolderAdapter;
 import io.github.zwieback.familyfinance.core.adapter.EntityProvider;
+import io.github.zwieback.familyfinance.core.adapter.ExecutedQueryResult;
+import io.github.zwieback.familyfinance.core.database.DatabaseGeneration;
 import io.github.zwieback.familyfinance.core.model.AccountView;
 import io.github.zwieback.familyfinance.databinding.ItemAccountBinding;
 import io.reactivex.functions.Consumer;
@@ -26,11 +28,16 @@ import io.requery.reactivex.ReactiveEntityStore;
 public class AccountAdapter extends EntityFolderAdapter<AccountView, AccountFilter,
         ItemAccountBinding, OnAccountClickListener> {
 
+    private final AccountBalanceLedger ledger;
+    private final AccountBalanceBinder balanceBinder;
+
     public AccountAdapter(Context context,
                           OnAccountClickListener clickListener,
                           ReactiveEntityStore<Persistable> data,
                           AccountFilter filter) {
         super(AccountView.$TYPE, context, clickListener, data, filter);
+        this.ledger = new AccountBalanceLedger(data);
+        this.balanceBinder = new AccountBalanceBinder(ledger);
     }
 
     @Override
@@ -48,8 +55,21 @@ public class AccountAdapter extends EntityFolderAdapter<AccountView, AccountFilt
         return (AccountView) binding.getAccount();
     }
 
+    /**
+     * The query is executed once: the balances of all the accounts of its
+     * result are read from the ledger at once, then the adapter iterates the
+     * same result.
+     */
     @Override
     public Result<AccountView> performQuery() {
+        long generation = DatabaseGeneration.current();
+        ExecutedQueryResult<AccountView> result = new ExecutedQueryResult<>(buildQuery());
+        List<AccountView> accounts = result.getEntities();
+        balanceBinder.putAll(generation, ledger.calculateBalances(accounts));
+        return result;
+    }
+
+    private Result<AccountView> buildQuery() {
         return AccountQueryBuilder.create(data)
                 .setParentId(parentId)
                 .setOwnerId(filter.getOwnerId())
@@ -65,20 +85,31 @@ public class AccountAdapter extends EntityFolderAdapter<AccountView, AccountFilt
         calculateAndShowBalance(account, holder);
     }
 
+    @Override
+    public void onViewRecycled(BindingHolder<ItemAccountBinding> holder) {
+        balanceBinder.unbind(holder);
+        super.onViewRecycled(holder);
+    }
+
+    @Override
+    public void close() {
+        balanceBinder.unbindAll();
+        super.close();
+    }
+
     private void calculateAndShowBalance(AccountView account,
                                          BindingHolder<ItemAccountBinding> holder) {
         if (account.isFolder()) {
+            balanceBinder.unbind(holder);
             return;
         }
-        AccountBalanceCalculator calculator =
-                new NonOptimizedAccountBalanceCalculator(data, account);
-        calculator.calculateBalance(showBalance(holder));
+        balanceBinder.bind(account, holder, showBalance(holder));
     }
 
     private Consumer<BigDecimal> showBalance(BindingHolder<ItemAccountBinding> holder) {
         return balance -> {
             holder.binding.setBalanceValue(balance);
-            if (balance.signum() < 0) {
+            if (balance != null && balance.signum() < 0) {
                 @ColorInt int negativeBalanceColor =
                         ContextCompat.getColor(context, R.color.colorNegativeBalance);
                 holder.binding.balance.setTextColor(negativeBalanceColor);
@@ -0,0 +1,121 @@
+package io.github.zwieback.familyfinance.business.account.adapter;
+
+import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
+import android.util.LruCache;
+
+import java.math.BigDecimal;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.Executors;
+
+import io.github.zwieback.familyfinance.business.account.service.ledger.AccountBalanceLedger;
+import io.github.zwieback.familyfinance.core.adapter.BindingHolder;
+import io.github.zwieback.familyfinance.core.database.DatabaseGeneration;
+import io.github.zwieback.familyfinance.core.model.AccountView;
+import io.github.zwieback.familyfinance.databinding.ItemAccountBinding;
+import io.reactivex.Scheduler;
+import io.reactivex.Single;
+import io.reactivex.android.schedulers.AndroidSchedulers;
+import io.reactivex.disposables.Disposable;
+import io.reactivex.functions.Consumer;
+import io.reactivex.schedulers.Schedulers;
+
+/**
+ * Binds balances of accounts, which are read from the
+ * {@link AccountBalanceLedger}, to the holders without blocking the main
+ * thread.
+ * <p>
+ * Balances are cached by the account id and the {@link DatabaseGeneration},
+ * so any change of the database makes the cached balances stale. The
+ * calculation of the balance is disposed, when its holder is recycled or
+ * rebound to another account.
+ */
+class AccountBalanceBinder {
+
+    private static final int POOL_SIZE = 2;
+    private static final int CACHE_SIZE = 512;
+
+    private static final Scheduler scheduler =
+            Schedulers.from(Executors.newFixedThreadPool(POOL_SIZE));
+    private static final LruCache<Long, BigDecimal> cache = new LruCache<>(CACHE_SIZE);
+
+    private final AccountBalanceLedger ledger;
+    private final Map<BindingHolder<ItemAccountBinding>, Disposable> disposables;
+
+    AccountBalanceBinder(@NonNull AccountBalanceLedger ledger) {
+        this.ledger = ledger;
+        this.disposables = new HashMap<>();
+    }
+
+    /**
+     * Put the balances, calculated at once, into the cache.
+     *
+     * @param generation generation of the database before the calculation
+     * @param balances   balances of accounts by their ids
+     */
+    void putAll(long generation, @NonNull Map<Integer, BigDecimal> balances) {
+        for (Map.Entry<Integer, BigDecimal> entry : balances.entrySet()) {
+            cache.put(buildKey(generation, entry.getKey()), entry.getValue());
+        }
+    }
+
+    /**
+     * Must be called on the main thread.
+     */
+    void bind(@NonNull AccountView account,
+              @NonNull BindingHolder<ItemAccountBinding> holder,
+              @NonNull Consumer<BigDecimal> showBalanceConsumer) {
+        unbind(holder);
+        long generation = DatabaseGeneration.current();
+        BigDecimal cachedBalance = cache.get(buildKey(generation, account.getId()));
+        if (cachedBalance != null) {
+            accept(showBalanceConsumer, cachedBalance);
+            return;
+        }
+        accept(showBalanceConsumer, null);
+        Disposable disposable = Single
+                .fromCallable(() -> ledger.calculateBalance(account))
+                .subscribeOn(scheduler)
+                .observeOn(AndroidSchedulers.mainThread())
+                .subscribe(balance -> {
+                    cache.put(buildKey(generation, account.getId()), balance);
+                    disposables.remove(holder);
+                    showBalanceConsumer.accept(balance);
+                }, throwable -> disposables.remove(holder));
+        disposables.put(holder, disposable);
+    }
+
+    /**
+     * Must be called on the main thread.
+     */
+    void unbind(@NonNull BindingHolder<ItemAccountBinding> holder) {
+        Disposable disposable = disposables.remove(holder);
+        if (disposable != null) {
+            disposable.dispose();
+        }
+    }
+
+    /**
+     * Must be called on the main thread.
+     */
+    void unbindAll() {
+        for (Disposable disposable : disposables.values()) {
+            disposable.dispose();
+        }
+        disposables.clear();
+    }
+
+    private static void accept(@NonNull Consumer<BigDecimal> consumer,
+                               @Nullable BigDecimal balance) {
+        try {
+            consumer.accept(balance);
+        } catch (Exception e) {
+            throw new RuntimeException(e.getMessage(), e);
+        }
+    }
+
+    private static long buildKey(long generation, int accountId) {
+        return (generation << Integer.SIZE) | (accountId & 0xFFFFFFFFL);
+    }
+}
@@ -3,16 +3,17 @@ package io.github.zwieback.familyfinance.business.account.adapter.calculator;
 import com.annimon.stream.function.Function;
 
 import java.math.BigDecimal;
+import java.sql.ResultSet;
+import java.sql.SQLException;
 import java.util.List;
 
+import io.github.zwieback.familyfinance.core.database.RawQueryExecutor;
 import io.github.zwieback.familyfinance.core.model.AccountView;
 import io.github.zwieback.familyfinance.core.model.type.OperationType;
 import io.github.zwieback.familyfinance.util.BigDecimalConverterUtils;
 import io.reactivex.functions.Consumer;
 import io.requery.Persistable;
-import io.requery.query.Tuple;
 import io.requery.reactivex.ReactiveEntityStore;
-import io.requery.reactivex.ReactiveResult;
 
 /**
  * The optimized calculator, but with loss of precision.
@@ -40,8 +41,8 @@ public class DeprecatedOptimizedAccountBalanceCalculator extends AccountBalanceC
                 "           inner join exchange_rate er on incomes.exchange_rate_id = er.id" +
                 "     where" +
                 "           incomes._type in ?" +
-                "       and incomes.account_id = :accountId" +
-                "       and er.currency_id = :currencyId" +
+                "       and incomes.account_id = ?" +
+                "       and er.currency_id = ?" +
                 "  ) as incomes," +
                 "  (" +
                 "    select coalesce(sum(expenses._value), 0) as sum_value" +
@@ -49,13 +50,13 @@ public class DeprecatedOptimizedAccountBalanceCalculator extends AccountBalanceC
                 "           inner join exchange_rate er on expenses.exchange_rate_id = er.id" +
                 "     where" +
                 "           expenses._type in ?" +
-                "       and expenses.account_id = :accountId" +
-                "       and er.currency_id = :currencyId" +
+                "       and expenses.account_id = ?" +
+                "       and er.currency_id = ?" +
                 "  ) as expenses," +
                 "  (" +
                 "    select coalesce(acc.initial_balance, 0) as initial_balance" +
                 "      from account as acc" +
-                "     where acc.id = :accountId" +
+                "     where acc.id = ?" +
                 "  ) as current_account," +
                 "  (" +
                 "    select coalesce(sum(incomes._value * er._value), 0) as sum_value" +
@@ -63,8 +64,8 @@ public class DeprecatedOptimizedAccountBalanceCalculator extends AccountBalanceC
                 "           inner join exchange_rate er on incomes.exchange_rate_id = er.id" +
                 "     where" +
                 "           incomes._type in ?" +
-                "       and incomes.account_id = :accountId" +
-                "       and er.currency_id <> :currencyId" +
+                "       and incomes.account_id = ?" +
+                "       and er.currency_id <> ?" +
                 "  ) as foreign_incomes," +
                 "  (" +
                 "    select coalesce(sum(expenses._value * er._value), 0) as sum_value" +
@@ -72,40 +73,46 @@ public class DeprecatedOptimizedAccountBalanceCalculator extends AccountBalanceC
                 "           inner join exchange_rate er on expenses.exchange_rate_id = er.id" +
                 "     where" +
                 "           expenses._type in ?" +
-                "       and expenses.account_id = :accountId" +
-                "       and er.currency_id <> :currencyId" +
+                "       and expenses.account_id = ?" +
+                "       and er.currency_id <> ?" +
                 "  ) as foreign_expenses" +
                 ";";
 
-        int accountId = account.getId();
-        int currencyId = account.getCurrencyId();
-        query = query.replaceAll(":accountId", String.valueOf(accountId));
-        query = query.replaceAll(":currencyId", String.valueOf(currencyId));
+        Integer accountId = account.getId();
+        Integer currencyId = account.getCurrencyId();
         List<OperationType> incomeTypes = OperationType.getIncomeTypes();
         List<OperationType> expenseTypes = OperationType.getExpenseTypes();
-        Object[] parameters = {incomeTypes, expenseTypes, incomeTypes, expenseTypes};
-        ReactiveResult<Tuple> result = data.raw(query, parameters);
-
-        result.observable().subscribe(tuple -> {
-            BigDecimal balanceInNativeCurrency = extractBalance(tuple,
+        BigDecimal balance = RawQueryExecutor.of(data).query(query, resultSet -> {
+            if (!resultSet.next()) {
+                return BigDecimal.ZERO;
+            }
+            BigDecimal balanceInNativeCurrency = extractBalance(resultSet,
                     "balance_in_native_currency",
                     BigDecimalConverterUtils::balanceInNativeCurrencyToBigDecimal);
-            BigDecimal balanceInForeignCurrency = extractBalance(tuple,
+            BigDecimal balanceInForeignCurrency = extractBalance(resultSet,
                     "balance_in_foreign_currency",
                     BigDecimalConverterUtils::balanceInForeignCurrencyToBigDecimal);
-            BigDecimal balance = balanceInNativeCurrency.add(balanceInForeignCurrency);
-
+            return balanceInNativeCurrency.add(balanceInForeignCurrency);
+        }, incomeTypes, accountId, currencyId,
+                expenseTypes, accountId, currencyId,
+                accountId,
+                incomeTypes, accountId, currencyId,
+                expenseTypes, accountId, currencyId);
+        try {
             showBalanceConsumer.accept(balance);
-        });
+        } catch (Exception e) {
+            throw new RuntimeException(e.getMessage(), e);
+        }
     }
 
-    private static BigDecimal extractBalance(Tuple tuple,
+    private static BigDecimal extractBalance(ResultSet resultSet,
                                              String key,
-                                             Function<Long, BigDecimal> balanceFunction) {
-        Number preliminaryBalance = tuple.get(key);
-        if (preliminaryBalance == null) {
+                                             Function<Long, BigDecimal> balanceFunction)
+            throws SQLException {
+        long preliminaryBalance = resultSet.getLong(key);
+        if (resultSet.wasNull()) {
             return BigDecimal.ZERO;
         }
-        return balanceFunction.apply(preliminaryBalance.longValue());
+        return balanceFunction.apply(preliminaryBalance);
     }
 }
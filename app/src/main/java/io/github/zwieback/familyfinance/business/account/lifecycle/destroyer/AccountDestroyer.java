@@ -0,0 +1,58 @@
+package io.github.zwieback.familyfinance.business.account.lifecycle.destroyer;
+
+import android.content.Context;
+import android.support.annotation.NonNull;
+
+import java.util.Arrays;
+import java.util.List;
+
+import io.github.zwieback.familyfinance.R;
+import io.github.zwieback.familyfinance.core.lifecycle.destroyer.DestroyConstraint;
+import io.github.zwieback.familyfinance.core.lifecycle.destroyer.EntityForceDestroyer;
+import io.github.zwieback.familyfinance.core.lifecycle.destroyer.EntityValidatingDestroyer;
+import io.github.zwieback.familyfinance.core.model.Account;
+import io.github.zwieback.familyfinance.core.model.Operation;
+import io.requery.Persistable;
+import io.requery.reactivex.ReactiveEntityStore;
+
+import static io.github.zwieback.familyfinance.core.model.type.OperationType.EXPENSE_OPERATION;
+import static io.github.zwieback.familyfinance.core.model.type.OperationType.INCOME_OPERATION;
+import static io.github.zwieback.familyfinance.core.model.type.OperationType.TRANSFER_EXPENSE_OPERATION;
+import static io.github.zwieback.familyfinance.core.model.type.OperationType.TRANSFER_INCOME_OPERATION;
+
+public class AccountDestroyer extends EntityValidatingDestroyer<Account> {
+
+    public AccountDestroyer(Context context, ReactiveEntityStore<Persistable> data) {
+        super(context, data);
+    }
+
+    @Override
+    protected EntityForceDestroyer<Account> next() {
+        return new AccountForceDestroyer(context, data);
+    }
+
+    @NonNull
+    @Override
+    protected List<DestroyConstraint> getConstraints() {
+        return Arrays.asList(
+                DestroyConstraint.of(Account.$TYPE, Account.PARENT_ID,
+                        R.string.accounts_with_parent_exists),
+                DestroyConstraint.ofOperations(Operation.ACCOUNT_ID,
+                        R.string.expense_operations_with_account_exists, EXPENSE_OPERATION),
+                DestroyConstraint.ofOperations(Operation.ACCOUNT_ID,
+                        R.string.income_operations_with_account_exists, INCOME_OPERATION),
+                DestroyConstraint.ofOperations(Operation.ACCOUNT_ID,
+                        R.string.transfer_operations_with_account_exists,
+                        TRANSFER_EXPENSE_OPERATION, TRANSFER_INCOME_OPERATION));
+    }
+
+    @Override
+    protected boolean preferencesContainsEntity(Account account) {
+        return databasePrefs.getAccountId() == account.getId();
+    }
+
+    @Override
+    protected int getPreferencesAlertResourceId() {
+        return R.string.preferences_contains_account;
+    }
+}
@@ -0,0 +1,386 @@
+package io.github.zwieback.familyfinance.business.account.service.ledger;
+
+import android.support.annotation.NonNull;
+import android.util.Log;
+
+import com.annimon.stream.Stream;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+
+import io.github.zwieback.familyfinance.business.account.adapter.calculator.NonOptimizedAccountBalanceCalculator;
+import io.github.zwieback.familyfinance.core.database.DatabaseGeneration;
+import io.github.zwieback.familyfinance.core.database.RawQueryExecutor;
+import io.github.zwieback.familyfinance.core.model.AccountBalance;
+import io.github.zwieback.familyfinance.core.model.AccountView;
+import io.github.zwieback.familyfinance.core.model.Operation;
+import io.github.zwieback.familyfinance.core.model.OperationView;
+import io.github.zwieback.familyfinance.core.model.type.OperationType;
+import io.github.zwieback.familyfinance.util.FixedPointAccumulator;
+import io.reactivex.Single;
+import io.requery.BlockingEntityStore;
+import io.requery.Persistable;
+import io.requery.reactivex.ReactiveEntityStore;
+
+/**
+ * Keeps the materialized balances of accounts (the {@code account_balance}
+ * table) in sync with operations.
+ * <p>
+ * Every write of an operation must go through {@link #insert(Operation)},
+ * {@link #insertAll(Callable)}, {@link #update(Operation)} or
+ * {@link #deleteAll(List)}, which change the operations and the ledger in the
+ * one transaction, otherwise the ledger drifts and must be restored by
+ * {@link #rebuild()}.
+ * <p>
+ * The ledger stores the sums by the exchange rates and converts them into the
+ * currency of the account when the balance is read, so a change of the
+ * exchange rate doesn't touch the ledger.
+ */
+public class AccountBalanceLedger {
+
+    private static final String TAG = "AccountBalanceLedger";
+
+    /**
+     * SQLite limits the number of host parameters in the one statement.
+     */
+    private static final int MAX_IDS_PER_QUERY = 500;
+
+    private static final Object LOCK = new Object();
+    private static volatile boolean built;
+
+    private static final String REBUILD_QUERY = "select" +
+            "  o.account_id as account_id," +
+            "  o.exchange_rate_id as exchange_rate_id," +
+            "  coalesce(sum(case when o._type in ? then o._value else -o._value end), 0)" +
+            "    as sum_value" +
+            " from operation o" +
+            " group by o.account_id, o.exchange_rate_id";
+
+    public static final String BALANCE_QUERY = "select" +
+            "  ab.account_id as account_id," +
+            "  er.currency_id as currency_id," +
+            "  er._value as exchange_rate_value," +
+            "  ab._value as sum_value" +
+            " from account_balance ab" +
+            "      inner join exchange_rate er on ab.exchange_rate_id = er.id" +
+            " where ab.account_id in ?";
+
+    private final ReactiveEntityStore<Persistable> data;
+
+    public AccountBalanceLedger(@NonNull ReactiveEntityStore<Persistable> data) {
+        this.data = data;
+    }
+
+    // -----------------------------------------------------------------------------------------
+    // Write paths
+    // -----------------------------------------------------------------------------------------
+
+    @NonNull
+    public Single<Operation> insert(@NonNull Operation operation) {
+        return Single.fromCallable(() -> write(store -> {
+            Operation insertedOperation = store.insert(operation);
+            applyEntry(store, LedgerEntry.of(insertedOperation));
+            return insertedOperation;
+        }));
+    }
+
+    @NonNull
+    public Single<Operation> update(@NonNull Operation operation) {
+        return Single.fromCallable(() -> write(store -> {
+            OperationView persistedOperation = store.select(OperationView.class)
+                    .where(OperationView.ID.eq(operation.getId()))
+                    .get().firstOrNull();
+            Operation updatedOperation = store.update(operation);
+            if (persistedOperation != null) {
+                applyEntry(store, LedgerEntry.of(persistedOperation).negate());
+            }
+            applyEntry(store, LedgerEntry.of(updatedOperation));
+            return updatedOperation;
+        }));
+    }
+
+    /**
+     * Insert the operations and apply them to the ledger in the one
+     * transaction. The entries of the same account and exchange rate are
+     * merged, so every balance is updated once.
+     *
+     * @param writer inserts the operations through the store and returns
+     *               them; is called inside the transaction
+     * @return inserted operations
+     */
+    @NonNull
+    public List<Operation> insertAll(@NonNull Callable<List<Operation>> writer) {
+        return write(store -> {
+            List<Operation> insertedOperations = writer.call();
+            applyEntries(store, Stream.of(insertedOperations).map(LedgerEntry::of).toList());
+            return insertedOperations;
+        });
+    }
+
+    @NonNull
+    public Single<Operation> save(@NonNull Operation operation) {
+        return operation.getId() == 0 ? insert(operation) : update(operation);
+    }
+
+    /**
+     * Delete the operations and revert them in the ledger in the one
+     * transaction. Only the operations, which are actually deleted, are
+     * reverted by their persisted values, and each of them is reverted once
+     * even if it is passed twice.
+     * Must be called on the background thread.
+     *
+     * @param operations operations to delete
+     * @return count of the deleted operations
+     */
+    public int deleteAll(@NonNull List<Operation> operations) {
+        List<Integer> ids = new ArrayList<>(new LinkedHashSet<>(
+                Stream.of(operations).map(Operation::getId).toList()));
+        return write(store -> {
+            List<LedgerEntry> revertedEntries = new ArrayList<>();
+            for (int from = 0; from < ids.size(); from += MAX_IDS_PER_QUERY) {
+                int to = Math.min(from + MAX_IDS_PER_QUERY, ids.size());
+                List<Integer> chunk = ids.subList(from, to);
+                // the transaction keeps the found operations until they are deleted
+                for (OperationView operation : store.select(OperationView.class)
+                        .where(OperationView.ID.in(chunk))
+                        .get()
+                        .toList()) {
+                    revertedEntries.add(LedgerEntry.of(operation).negate());
+                }
+                store.delete(Operation.class).where(Operation.ID.in(chunk)).get().value();
+            }
+            applyEntries(store, revertedEntries);
+            return revertedEntries.size();
+        });
+    }
+
+    // -----------------------------------------------------------------------------------------
+    // Read path
+    // -----------------------------------------------------------------------------------------
+
+    /**
+     * Calculate the balance of the account in its currency.
+     *
+     * @param account not a folder
+     * @return balance of the account
+     */
+    @NonNull
+    public BigDecimal calculateBalance(@NonNull AccountView account) {
+        return calculateBalances(Collections.singletonList(account)).get(account.getId());
+    }
+
+    /**
+     * Calculate the balances of the accounts in their currencies.
+     *
+     * @param accounts accounts to calculate, folders are ignored
+     * @return balances of the accounts by their ids
+     */
+    @NonNull
+    public Map<Integer, BigDecimal> calculateBalances(@NonNull List<AccountView> accounts) {
+        ensureBuilt();
+        Map<Integer, AccountView> accountsById = new HashMap<>();
+        Map<Integer, FixedPointAccumulator> accumulators = new HashMap<>();
+        for (AccountView account : accounts) {
+            if (account.isFolder()) {
+                continue;
+            }
+            accountsById.put(account.getId(), account);
+            accumulators.put(account.getId(), new FixedPointAccumulator());
+        }
+        List<Integer> accountIds = new ArrayList<>(accountsById.keySet());
+        RawQueryExecutor executor = RawQueryExecutor.of(data);
+        for (int from = 0; from < accountIds.size(); from += MAX_IDS_PER_QUERY) {
+            int to = Math.min(from + MAX_IDS_PER_QUERY, accountIds.size());
+            executor.query(BALANCE_QUERY, resultSet -> {
+                while (resultSet.next()) {
+                    int accountId = resultSet.getInt("account_id");
+                    int currencyId = resultSet.getInt("currency_id");
+                    long sum = resultSet.getLong("sum_value");
+                    FixedPointAccumulator accumulator = accumulators.get(accountId);
+                    if (currencyId == accountsById.get(accountId).getCurrencyId()) {
+                        accumulator.addWorth(sum);
+                    } else {
+                        accumulator.addProduct(sum, resultSet.getLong("exchange_rate_value"));
+                    }
+                }
+                return null;
+            }, accountIds.subList(from, to));
+        }
+        Map<Integer, BigDecimal> balances = new HashMap<>();
+        for (Map.Entry<Integer, FixedPointAccumulator> entry : accumulators.entrySet()) {
+            BigDecimal initialBalance = accountsById.get(entry.getKey()).getInitialBalance();
+            balances.put(entry.getKey(), (initialBalance == null ? BigDecimal.ZERO : initialBalance)
+                    .add(entry.getValue().toBigDecimal()));
+        }
+        return balances;
+    }
+
+    // -----------------------------------------------------------------------------------------
+    // Rebuild
+    // -----------------------------------------------------------------------------------------
+
+    /**
+     * Rebuild the ledger from scratch and check it against
+     * {@link NonOptimizedAccountBalanceCalculator}.
+     *
+     * @return ids of accounts, which balances differ from the calculated ones
+     */
+    @NonNull
+    public List<Integer> rebuildAndVerify() {
+        rebuild();
+        return verify();
+    }
+
+    public void rebuild() {
+        synchronized (LOCK) {
+            BlockingEntityStore<Persistable> store = data.toBlocking();
+            store.runInTransaction(() -> {
+                store.delete(AccountBalance.class).get().value();
+                for (AccountBalance balance : collectBalances()) {
+                    store.insert(balance);
+                }
+                return null;
+            });
+            built = true;
+            DatabaseGeneration.increment();
+            Log.d(TAG, "Ledger was rebuilt");
+        }
+    }
+
+    /**
+     * Must be called after the database is replaced, e.g. by the restore, so
+     * the ledger of the new database is checked again on the next use.
+     */
+    public static void invalidate() {
+        synchronized (LOCK) {
+            built = false;
+        }
+    }
+
+    @NonNull
+    public List<Integer> verify() {
+        List<AccountView> accounts = data.select(AccountView.class)
+                .where(AccountView.FOLDER.eq(false))
+                .get().toList();
+        Map<Integer, BigDecimal> actualBalances = calculateBalances(accounts);
+        List<Integer> invalidAccountIds = new ArrayList<>();
+        for (AccountView account : accounts) {
+            BigDecimal[] expectedBalance = new BigDecimal[1];
+            new NonOptimizedAccountBalanceCalculator(data, account)
+                    .calculateBalance(balance -> expectedBalance[0] = balance);
+            BigDecimal actualBalance = actualBalances.get(account.getId());
+            if (expectedBalance[0].compareTo(actualBalance) != 0) {
+                Log.w(TAG, "Balance of account " + account.getId() + " is " + actualBalance +
+                        ", but must be " + expectedBalance[0]);
+                invalidAccountIds.add(account.getId());
+            }
+        }
+        return Collections.unmodifiableList(invalidAccountIds);
+    }
+
+    // -----------------------------------------------------------------------------------------
+    // Helper methods
+    // -----------------------------------------------------------------------------------------
+
+    private void ensureBuilt() {
+        if (built) {
+            return;
+        }
+        synchronized (LOCK) {
+            if (built) {
+                return;
+            }
+            int balanceCount = data.count(AccountBalance.class).get().value();
+            int operationCount = data.count(Operation.class).get().value();
+            if (balanceCount == 0 && operationCount > 0) {
+                rebuild();
+            }
+            built = true;
+        }
+    }
+
+    /**
+     * Write the operations and their entries in the one transaction.
+     */
+    private <R> R write(@NonNull LedgerWriter<R> writer) {
+        ensureBuilt();
+        synchronized (LOCK) {
+            BlockingEntityStore<Persistable> store = data.toBlocking();
+            R result = store.runInTransaction(() -> writer.write(store));
+            DatabaseGeneration.increment();
+            return result;
+        }
+    }
+
+    /**
+     * Apply the entries merged by the account and exchange rate, so every
+     * balance is updated once.
+     */
+    private static void applyEntries(@NonNull BlockingEntityStore<Persistable> store,
+                                     @NonNull List<LedgerEntry> entries) {
+        for (LedgerEntry entry : LedgerEntry.merge(entries)) {
+            applyEntry(store, entry);
+        }
+    }
+
+    /**
+     * Add the entry to the balance of its account and exchange rate. The
+     * balance, which becomes zero, is deleted.
+     */
+    private static void applyEntry(@NonNull BlockingEntityStore<Persistable> store,
+                                   @NonNull LedgerEntry entry) {
+        AccountBalance balance = store.select(AccountBalance.class)
+                .where(AccountBalance.ACCOUNT_ID.eq(entry.accountId))
+                .and(AccountBalance.EXCHANGE_RATE_ID.eq(entry.exchangeRateId))
+                .get().firstOrNull();
+        if (balance == null) {
+            if (entry.value != 0) {
+                store.insert(new AccountBalance()
+                        .setAccountId(entry.accountId)
+                        .setExchangeRateId(entry.exchangeRateId)
+                        .setValue(entry.value));
+            }
+            return;
+        }
+        long value = new FixedPointAccumulator()
+                .addWorth(balance.getValue())
+                .addWorth(entry.value)
+                .worthToLongExact();
+        if (value == 0) {
+            store.delete(balance);
+        } else {
+            store.update(balance.setValue(value));
+        }
+    }
+
+    @NonNull
+    private Iterable<AccountBalance> collectBalances() {
+        return RawQueryExecutor.of(data).query(REBUILD_QUERY, resultSet -> {
+            List<AccountBalance> balances = new ArrayList<>();
+            while (resultSet.next()) {
+                long sum = resultSet.getLong("sum_value");
+                if (sum != 0) {
+                    balances.add(new AccountBalance()
+                            .setAccountId(resultSet.getInt("account_id"))
+                            .setExchangeRateId(resultSet.getInt("exchange_rate_id"))
+                            .setValue(sum));
+                }
+            }
+            return balances;
+        }, OperationType.getIncomeTypes());
+    }
+
+    private interface LedgerWriter<R> {
+
+        /**
+         * Is called inside the transaction.
+         */
+        R write(@NonNull BlockingEntityStore<Persistable> store) throws Exception;
+    }
+}
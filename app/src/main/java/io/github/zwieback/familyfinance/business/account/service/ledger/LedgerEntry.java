@@ -0,0 +1,94 @@
+package io.github.zwieback.familyfinance.business.account.service.ledger;
+
+import android.support.annotation.NonNull;
+
+import java.math.BigDecimal;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+
+import io.github.zwieback.familyfinance.core.model.Operation;
+import io.github.zwieback.familyfinance.core.model.OperationView;
+import io.github.zwieback.familyfinance.core.model.type.OperationType;
+import io.github.zwieback.familyfinance.util.FixedPointAccumulator;
+
+import static io.github.zwieback.familyfinance.util.BigDecimalConverterUtils.bigDecimalToWorth;
+
+/**
+ * Contribution of the one operation to the balance of the account by the
+ * exchange rate of the operation.
+ */
+final class LedgerEntry {
+
+    final int accountId;
+    final int exchangeRateId;
+    final long value;
+
+    private LedgerEntry(int accountId, int exchangeRateId, long value) {
+        this.accountId = accountId;
+        this.exchangeRateId = exchangeRateId;
+        this.value = value;
+    }
+
+    @NonNull
+    static LedgerEntry of(@NonNull Operation operation) {
+        return of(operation.getAccount().getId(),
+                operation.getExchangeRate().getId(),
+                operation.getType(),
+                operation.getValue());
+    }
+
+    @NonNull
+    static LedgerEntry of(@NonNull OperationView operation) {
+        return of(operation.getAccountId(),
+                operation.getExchangeRateId(),
+                operation.getType(),
+                operation.getValue());
+    }
+
+    /**
+     * @return entries merged by the account and exchange rate
+     */
+    @NonNull
+    static Collection<LedgerEntry> merge(@NonNull Iterable<LedgerEntry> entries) {
+        Map<Long, LedgerEntry> mergedEntries = new HashMap<>();
+        for (LedgerEntry entry : entries) {
+            long key = toKey(entry.accountId, entry.exchangeRateId);
+            LedgerEntry mergedEntry = mergedEntries.get(key);
+            mergedEntries.put(key, mergedEntry == null ? entry : mergedEntry.add(entry));
+        }
+        return mergedEntries.values();
+    }
+
+    private static long toKey(int accountId, int exchangeRateId) {
+        return ((long) accountId << Integer.SIZE) | (exchangeRateId & 0xFFFFFFFFL);
+    }
+
+    @NonNull
+    LedgerEntry negate() {
+        return new LedgerEntry(accountId, exchangeRateId,
+                new FixedPointAccumulator().addWorth(value).negate().worthToLongExact());
+    }
+
+    /**
+     * @param entry entry of the same account and exchange rate
+     */
+    @NonNull
+    private LedgerEntry add(@NonNull LedgerEntry entry) {
+        long sum = new FixedPointAccumulator()
+                .addWorth(value)
+                .addWorth(entry.value)
+                .worthToLongExact();
+        return new LedgerEntry(accountId, exchangeRateId, sum);
+    }
+
+    @NonNull
+    private static LedgerEntry of(int accountId,
+                                  int exchangeRateId,
+                                  @NonNull OperationType type,
+                                  @NonNull BigDecimal value) {
+        Long worth = bigDecimalToWorth(value);
+        long sign = OperationType.getIncomeTypes().contains(type) ? 1 : -1;
+        return new LedgerEntry(accountId, exchangeRateId, sign * (worth == null ? 0L : worth));
+    }
+}
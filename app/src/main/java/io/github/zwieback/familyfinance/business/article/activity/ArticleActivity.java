@@ -15,8 +15,7 @@ import java.util.concurrent.TimeUnit;
 import io.github.zwieback.familyfinance.R;
 import io.github.zwieback.familyfinance.business.article.filter.ArticleFilter;
 import io.github.zwieback.familyfinance.business.article.fragment.ArticleFragment;
-import io.github.zwieback.familyfinance.business.article.lifecycle.destroyer.ArticleAsParentDestroyer;
-import io.github.zwieback.familyfinance.business.article.lifecycle.destroyer.ArticleFromExpenseOperationsDestroyer;
+import io.github.zwieback.familyfinance.business.article.lifecycle.destroyer.ArticleDestroyer;
 import io.github.zwieback.familyfinance.business.article.listener.OnArticleClickListener;
 import io.github.zwieback.familyfinance.core.activity.EntityFolderActivity;
 import io.github.zwieback.familyfinance.core.lifecycle.destroyer.EntityDestroyer;
@@ -116,10 +115,7 @@ public abstract class ArticleActivity<
 
     @Override
     protected EntityDestroyer<Article> createDestroyer(ArticleView article) {
-        if (article.isFolder()) {
-            return new ArticleAsParentDestroyer(this, data);
-        }
-        return new ArticleFromExpenseOperationsDestroyer(this, data);
+        return new ArticleDestroyer(this, data);
     }
 
     private void closeSearchView() {
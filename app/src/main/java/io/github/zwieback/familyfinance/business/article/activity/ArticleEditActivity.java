@@ -161,11 +161,4 @@ public abstract class ArticleEditActivity
     protected ValidatingTextInputLayout getParentLayout() {
         return binding.parentLayout;
     }
-
-    @Override
-    protected boolean isParentInsideItself(int parentId, int newParentId) {
-        return isParentInsideItself(newParentId, Article.ID,
-                Article.PARENT_ID.eq(parentId).and(Article.FOLDER.eq(true)),
-                this::isParentInsideItself);
-    }
 }
@@ -0,0 +1,62 @@
+package io.github.zwieback.familyfinance.business.article.lifecycle.destroyer;
+
+import android.content.Context;
+import android.support.annotation.NonNull;
+
+import java.util.Arrays;
+import java.util.List;
+
+import io.github.zwieback.familyfinance.R;
+import io.github.zwieback.familyfinance.core.lifecycle.destroyer.DestroyConstraint;
+import io.github.zwieback.familyfinance.core.lifecycle.destroyer.EntityForceDestroyer;
+import io.github.zwieback.familyfinance.core.lifecycle.destroyer.EntityValidatingDestroyer;
+import io.github.zwieback.familyfinance.core.model.Article;
+import io.github.zwieback.familyfinance.core.model.Operation;
+import io.requery.Persistable;
+import io.requery.reactivex.ReactiveEntityStore;
+
+import static io.github.zwieback.familyfinance.core.model.type.OperationType.EXPENSE_OPERATION;
+import static io.github.zwieback.familyfinance.core.model.type.OperationType.INCOME_OPERATION;
+import static io.github.zwieback.familyfinance.core.model.type.OperationType.TRANSFER_EXPENSE_OPERATION;
+import static io.github.zwieback.familyfinance.core.model.type.OperationType.TRANSFER_INCOME_OPERATION;
+
+public class ArticleDestroyer extends EntityValidatingDestroyer<Article> {
+
+    public ArticleDestroyer(Context context, ReactiveEntityStore<Persistable> data) {
+        super(context, data);
+    }
+
+    @Override
+    protected EntityForceDestroyer<Article> next() {
+        return new ArticleForceDestroyer(context, data);
+    }
+
+    @NonNull
+    @Override
+    protected List<DestroyConstraint> getConstraints() {
+        return Arrays.asList(
+                DestroyConstraint.of(Article.$TYPE, Article.PARENT_ID,
+                        R.string.articles_with_parent_exists),
+                DestroyConstraint.ofOperations(Operation.ARTICLE_ID,
+                        R.string.expense_operations_with_article_exists, EXPENSE_OPERATION),
+                DestroyConstraint.ofOperations(Operation.ARTICLE_ID,
+                        R.string.income_operations_with_article_exists, INCOME_OPERATION),
+                DestroyConstraint.ofOperations(Operation.ARTICLE_ID,
+                        R.string.transfer_operations_with_article_exists,
+                        TRANSFER_EXPENSE_OPERATION, TRANSFER_INCOME_OPERATION));
+    }
+
+    @Override
+    protected boolean preferencesContainsEntity(Article article) {
+        List<Integer> articleIds = Arrays.asList(
+                databasePrefs.getIncomesArticleId(),
+                databasePrefs.getExpensesArticleId(),
+                databasePrefs.getTransferArticleId());
+        return articleIds.contains(article.getId());
+    }
+
+    @Override
+    protected int getPreferencesAlertResourceId() {
+        return R.string.preferences_contains_article;
+    }
+}
@@ -12,11 +12,14 @@ import android.widget.Toast;
 import java.io.IOException;
 
 import io.github.zwieback.familyfinance.R;
+import io.github.zwieback.familyfinance.app.FamilyFinanceApplication;
 import io.github.zwieback.familyfinance.business.backup.helper.BackupHelper;
 import io.github.zwieback.familyfinance.core.activity.ActivityWrapper;
 import io.github.zwieback.familyfinance.core.preference.config.BackupPrefs;
 import io.github.zwieback.familyfinance.core.preference.config.DatabasePrefs;
 import io.github.zwieback.familyfinance.core.storage.helper.ExternalStorageHelper;
+import io.requery.Persistable;
+import io.requery.reactivex.ReactiveEntityStore;
 import permissions.dispatcher.NeedsPermission;
 import permissions.dispatcher.OnNeverAskAgain;
 import permissions.dispatcher.OnPermissionDenied;
@@ -83,7 +86,7 @@ public class BackupActivity extends ActivityWrapper {
         }
         try {
             boolean backupCompletedSuccessfully = BackupHelper.backupDatabase(this,
-                    backupPrefs.getBackupPath());
+                    getData(), backupPrefs.getBackupPath());
             int resultMessage = getBackupResultMessage(backupCompletedSuccessfully);
             Toast.makeText(this, resultMessage, Toast.LENGTH_SHORT).show();
         } catch (IOException e) {
@@ -99,10 +102,19 @@ public class BackupActivity extends ActivityWrapper {
             return;
         }
         try {
-            boolean restoreCompletedSuccessfully = BackupHelper.restoreDatabase(this,
-                    backupPrefs.getBackupPath());
-            int resultMessage = getRestoreResultMessage(restoreCompletedSuccessfully);
-            Toast.makeText(this, resultMessage, Toast.LENGTH_SHORT).show();
+            boolean restoreCompletedSuccessfully = BackupHelper.restoreDatabase(
+                    getFamilyFinanceApplication(), backupPrefs.getBackupPath());
+            if (!restoreCompletedSuccessfully) {
+                Toast.makeText(this, R.string.restore_failed, Toast.LENGTH_SHORT).show();
+                return;
+            }
+            // the store was closed by the restore, so the application is restarted
+            new AlertDialog.Builder(this)
+                    .setMessage(R.string.restore_completed_successfully)
+                    .setCancelable(false)
+                    .setPositiveButton(android.R.string.ok,
+                            (dialog, button) -> getFamilyFinanceApplication().restart())
+                    .show();
         } catch (IOException e) {
             throw new RuntimeException(e.getMessage(), e);
         }
@@ -186,6 +198,14 @@ public class BackupActivity extends ActivityWrapper {
                 : R.string.restore_failed;
     }
 
+    private FamilyFinanceApplication getFamilyFinanceApplication() {
+        return (FamilyFinanceApplication) getApplication();
+    }
+
+    private ReactiveEntityStore<Persistable> getData() {
+        return getFamilyFinanceApplication().getData();
+    }
+
     private String getBackupSharedPreferencesName() {
         return backupPrefs.getFileName() + XML_EXTENSION;
     }
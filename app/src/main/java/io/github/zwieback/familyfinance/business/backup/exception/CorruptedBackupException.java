@@ -0,0 +1,12 @@
+package io.github.zwieback.familyfinance.business.backup.exception;
+
+import java.io.IOException;
+
+public class CorruptedBackupException extends IOException {
+
+    private static final long serialVersionUID = 6120958117432940517L;
+
+    public CorruptedBackupException(String message) {
+        super(message);
+    }
+}
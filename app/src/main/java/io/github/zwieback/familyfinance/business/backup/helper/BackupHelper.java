@@ -3,12 +3,25 @@ package io.github.zwieback.familyfinance.business.backup.helper;
 import android.content.Context;
 import android.support.annotation.NonNull;
 import android.support.annotation.Nullable;
+import android.util.Log;
 
 import java.io.File;
+import java.io.FileInputStream;
 import java.io.IOException;
+import java.io.InputStream;
+import java.util.concurrent.Callable;
 
+import io.github.zwieback.familyfinance.app.AbstractApplication;
+import io.github.zwieback.familyfinance.business.account.service.ledger.AccountBalanceLedger;
+import io.github.zwieback.familyfinance.business.backup.exception.CorruptedBackupException;
+import io.github.zwieback.familyfinance.business.sms.handler.SmsRoutingTable;
+import io.github.zwieback.familyfinance.core.database.DatabaseGeneration;
+import io.github.zwieback.familyfinance.core.database.HierarchyIndex;
 import io.github.zwieback.familyfinance.core.model.Models;
 import io.github.zwieback.familyfinance.util.FileUtils;
+import io.requery.Persistable;
+import io.requery.RollbackException;
+import io.requery.reactivex.ReactiveEntityStore;
 
 import static io.github.zwieback.familyfinance.core.storage.helper.ExternalStorageHelper.getExternalDbFile;
 import static io.github.zwieback.familyfinance.core.storage.helper.ExternalStorageHelper.getExternalSharedPrefsFile;
@@ -17,15 +30,34 @@ import static io.github.zwieback.familyfinance.core.storage.helper.InternalStora
 
 public final class BackupHelper {
 
+    private static final String TAG = "BackupHelper";
+    private static final String RESTORED_EXTENSION = ".restored";
+
+    /**
+     * Back up the database by the checksummed chunks, only the changed of
+     * which are written.
+     * <p>
+     * The file of the database is read inside the transaction, so no one can
+     * commit through the store until the snapshot is read.
+     */
     public static boolean backupDatabase(@NonNull Context context,
+                                         @NonNull ReactiveEntityStore<Persistable> data,
                                          @Nullable String backupPath) throws IOException {
         File internalDb = getInternalDbFile(context, getDatabaseName());
         File externalDb = getExternalDbFile(context, getDatabaseName(), backupPath);
         if (externalDb == null) {
             return false;
         }
-        FileUtils.copyFile(internalDb, externalDb);
-        return externalDb.exists();
+        ChunkedBackup backup = new ChunkedBackup(externalDb);
+        runInTransaction(data, () -> {
+            // acquire the lock of the database, which rolls back the hot
+            // journal if it exists
+            data.toBlocking().raw("select count(*) from sqlite_master").first();
+            try (InputStream input = new FileInputStream(internalDb)) {
+                return backup.backup(input);
+            }
+        });
+        return backup.exists();
     }
 
     public static boolean backupSharedPreferences(@NonNull Context context,
@@ -40,14 +72,55 @@ public final class BackupHelper {
         return externalFile.exists();
     }
 
-    public static boolean restoreDatabase(@NonNull Context context,
+    /**
+     * Restore the database from the backup, every chunk of which is verified
+     * before the database is replaced. The backup of the previous versions,
+     * which is the plain copy of the database, is restored as is.
+     * <p>
+     * The restored file is prepared next to the database, then the store of
+     * the application is closed, so no connection keeps the pages or the
+     * statements of the replaced file, and the database is replaced by the
+     * rename. The components, which keep the closed store, can't use it, so
+     * the application must be {@link AbstractApplication#restart restarted}
+     * after the successful restore.
+     *
+     * @return {@code false} if the backup doesn't exist or is corrupted; the
+     * database isn't changed in this case
+     */
+    public static boolean restoreDatabase(@NonNull AbstractApplication application,
                                           @Nullable String backupPath) throws IOException {
-        File internalDb = getInternalDbFile(context, getDatabaseName());
-        File externalDb = getExternalDbFile(context, getDatabaseName(), backupPath);
+        File internalDb = getInternalDbFile(application, getDatabaseName());
+        File externalDb = getExternalDbFile(application, getDatabaseName(), backupPath);
         if (externalDb == null) {
             return false;
         }
-        FileUtils.copyFile(externalDb, internalDb);
+        ChunkedBackup backup = new ChunkedBackup(externalDb);
+        if (!backup.exists() && !externalDb.isFile()) {
+            return false;
+        }
+        File restoredDb = new File(internalDb.getPath() + RESTORED_EXTENSION);
+        try {
+            if (backup.exists()) {
+                backup.restore(restoredDb);
+            } else {
+                FileUtils.copyFile(externalDb, restoredDb);
+            }
+            application.closeData();
+            if (!restoredDb.renameTo(internalDb)) {
+                throw new IOException("Can't replace " + internalDb);
+            }
+        } catch (CorruptedBackupException e) {
+            Log.w(TAG, "Backup " + externalDb + " isn't restored", e);
+            return false;
+        } finally {
+            if (restoredDb.exists() && !restoredDb.delete()) {
+                Log.w(TAG, "Can't delete " + restoredDb);
+            }
+        }
+        DatabaseGeneration.increment();
+        HierarchyIndex.invalidate();
+        SmsRoutingTable.invalidate();
+        AccountBalanceLedger.invalidate();
         return internalDb.exists();
     }
 
@@ -66,6 +139,18 @@ public final class BackupHelper {
     private BackupHelper() {
     }
 
+    private static <T> T runInTransaction(@NonNull ReactiveEntityStore<Persistable> data,
+                                          @NonNull Callable<T> callable) throws IOException {
+        try {
+            return data.toBlocking().runInTransaction(callable);
+        } catch (RollbackException e) {
+            if (e.getCause() instanceof IOException) {
+                throw (IOException) e.getCause();
+            }
+            throw e;
+        }
+    }
+
     private static String getDatabaseName() {
         return Models.DEFAULT.getName();
     }
@@ -0,0 +1,295 @@
+package io.github.zwieback.familyfinance.business.backup.helper;
+
+import android.support.annotation.NonNull;
+import android.util.Log;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.Charset;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import io.github.zwieback.familyfinance.business.backup.exception.CorruptedBackupException;
+
+/**
+ * Backup of the file as the fixed-size chunks, which are named by the
+ * SHA-256 of their content, and the manifest, which lists the chunks in the
+ * order of the file.
+ * <p>
+ * The chunk, which already exists, isn't written again, so the next backup
+ * writes only the changed chunks. The manifest is replaced atomically after
+ * all its chunks are written, so the interrupted backup leaves the previous
+ * one intact. The chunks, which the new manifest doesn't reference, are
+ * deleted after it.
+ * <p>
+ * The restore verifies the checksum of the manifest and of every chunk
+ * before the destination is replaced.
+ */
+final class ChunkedBackup {
+
+    private static final String TAG = "ChunkedBackup";
+    static final int CHUNK_SIZE = 64 * 1024;
+
+    private static final Charset UTF_8 = Charset.forName("UTF-8");
+    private static final String MANIFEST_EXTENSION = ".manifest";
+    private static final String CHUNKS_EXTENSION = ".chunks";
+    private static final String TEMP_EXTENSION = ".tmp";
+    private static final String HEADER = "familyfinance-chunked-backup 1";
+    private static final String CHUNK_SIZE_KEY = "chunk-size ";
+    private static final String SIZE_KEY = "size ";
+    private static final String CHECKSUM_KEY = "checksum ";
+    private static final String HASH_REGEX = "[0-9a-f]{64}";
+
+    @NonNull
+    private final File manifestFile;
+    @NonNull
+    private final File chunksDir;
+
+    /**
+     * @param backupFile file of the backup; the manifest and the directory of
+     *                   the chunks are placed next to it
+     */
+    ChunkedBackup(@NonNull File backupFile) {
+        this.manifestFile = new File(backupFile.getPath() + MANIFEST_EXTENSION);
+        this.chunksDir = new File(backupFile.getPath() + CHUNKS_EXTENSION);
+    }
+
+    boolean exists() {
+        return manifestFile.exists();
+    }
+
+    /**
+     * Write the content of the source as the new backup.
+     *
+     * @param source consistent content to back up
+     * @return count of the written chunks, which didn't exist before
+     */
+    int backup(@NonNull InputStream source) throws IOException {
+        if (!chunksDir.isDirectory() && !chunksDir.mkdirs()) {
+            throw new IOException("Can't create the directory " + chunksDir);
+        }
+        List<String> hashes = new ArrayList<>();
+        long size = 0;
+        int writtenCount = 0;
+        byte[] buffer = new byte[CHUNK_SIZE];
+        int length;
+        while ((length = readFully(source, buffer)) > 0) {
+            String hash = sha256(buffer, length);
+            File chunkFile = new File(chunksDir, hash);
+            if (!chunkFile.isFile() || chunkFile.length() != length) {
+                writeAtomically(chunkFile, buffer, length);
+                writtenCount++;
+            }
+            hashes.add(hash);
+            size += length;
+        }
+        writeManifest(size, hashes);
+        deleteUnreferencedChunks(new HashSet<>(hashes));
+        Log.d(TAG, "Backup of " + hashes.size() + " chunks is written, " + writtenCount +
+                " of them are changed");
+        return writtenCount;
+    }
+
+    /**
+     * Verify the backup and replace the destination by it.
+     *
+     * @param destination file to restore
+     * @throws CorruptedBackupException if the manifest or any chunk is missing
+     *                                  or doesn't match its checksum; the
+     *                                  destination isn't changed in this case
+     */
+    void restore(@NonNull File destination) throws IOException {
+        Manifest manifest = readManifest();
+        File tempFile = new File(destination.getPath() + TEMP_EXTENSION);
+        try {
+            try (FileOutputStream output = new FileOutputStream(tempFile)) {
+                byte[] buffer = new byte[CHUNK_SIZE];
+                for (String hash : manifest.hashes) {
+                    int length = readChunk(hash, buffer);
+                    output.write(buffer, 0, length);
+                }
+                output.getFD().sync();
+            }
+            if (tempFile.length() != manifest.size) {
+                throw new CorruptedBackupException("Size of the restored file is " +
+                        tempFile.length() + ", but " + manifest.size + " is expected");
+            }
+            if (!tempFile.renameTo(destination)) {
+                throw new IOException("Can't replace " + destination);
+            }
+        } finally {
+            if (tempFile.exists() && !tempFile.delete()) {
+                Log.w(TAG, "Can't delete " + tempFile);
+            }
+        }
+    }
+
+    /**
+     * @return length of the verified chunk, which is read into the buffer
+     */
+    private int readChunk(@NonNull String hash, @NonNull byte[] buffer) throws IOException {
+        File chunkFile = new File(chunksDir, hash);
+        if (!chunkFile.isFile() || chunkFile.length() > buffer.length) {
+            throw new CorruptedBackupException("Chunk " + hash + " is missing");
+        }
+        int length;
+        try (InputStream input = new FileInputStream(chunkFile)) {
+            length = readFully(input, buffer);
+        }
+        if (!hash.equals(sha256(buffer, length))) {
+            throw new CorruptedBackupException("Chunk " + hash + " is corrupted");
+        }
+        return length;
+    }
+
+    private void writeManifest(long size, @NonNull List<String> hashes) throws IOException {
+        StringBuilder content = new StringBuilder()
+                .append(HEADER).append('\n')
+                .append(CHUNK_SIZE_KEY).append(CHUNK_SIZE).append('\n')
+                .append(SIZE_KEY).append(size).append('\n');
+        for (String hash : hashes) {
+            content.append(hash).append('\n');
+        }
+        String checksum = sha256(content.toString());
+        content.append(CHECKSUM_KEY).append(checksum).append('\n');
+        File tempFile = new File(manifestFile.getPath() + TEMP_EXTENSION);
+        try (FileOutputStream output = new FileOutputStream(tempFile)) {
+            Writer writer = new OutputStreamWriter(output, UTF_8);
+            writer.write(content.toString());
+            writer.flush();
+            output.getFD().sync();
+        }
+        if (!tempFile.renameTo(manifestFile)) {
+            throw new IOException("Can't replace " + manifestFile);
+        }
+    }
+
+    @NonNull
+    private Manifest readManifest() throws IOException {
+        if (!manifestFile.isFile()) {
+            throw new CorruptedBackupException("Manifest " + manifestFile + " is missing");
+        }
+        List<String> lines = new ArrayList<>();
+        try (BufferedReader reader = new BufferedReader(
+                new InputStreamReader(new FileInputStream(manifestFile), UTF_8))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                lines.add(line);
+            }
+        }
+        if (lines.size() < 4
+                || !HEADER.equals(lines.get(0))
+                || !(CHUNK_SIZE_KEY + CHUNK_SIZE).equals(lines.get(1))
+                || !lines.get(2).startsWith(SIZE_KEY)
+                || !lines.get(lines.size() - 1).startsWith(CHECKSUM_KEY)) {
+            throw new CorruptedBackupException("Manifest " + manifestFile + " is malformed");
+        }
+        StringBuilder content = new StringBuilder();
+        for (String line : lines.subList(0, lines.size() - 1)) {
+            content.append(line).append('\n');
+        }
+        String checksum = lines.get(lines.size() - 1).substring(CHECKSUM_KEY.length());
+        if (!checksum.equals(sha256(content.toString()))) {
+            throw new CorruptedBackupException("Manifest " + manifestFile + " is corrupted");
+        }
+        long size;
+        try {
+            size = Long.parseLong(lines.get(2).substring(SIZE_KEY.length()));
+        } catch (NumberFormatException e) {
+            throw new CorruptedBackupException("Manifest " + manifestFile + " is malformed");
+        }
+        List<String> hashes = lines.subList(3, lines.size() - 1);
+        for (String hash : hashes) {
+            if (!hash.matches(HASH_REGEX)) {
+                throw new CorruptedBackupException("Manifest " + manifestFile + " is malformed");
+            }
+        }
+        return new Manifest(size, hashes);
+    }
+
+    private void deleteUnreferencedChunks(@NonNull Set<String> referencedHashes) {
+        File[] chunkFiles = chunksDir.listFiles();
+        if (chunkFiles == null) {
+            return;
+        }
+        for (File chunkFile : chunkFiles) {
+            if (!referencedHashes.contains(chunkFile.getName()) && !chunkFile.delete()) {
+                Log.w(TAG, "Can't delete " + chunkFile);
+            }
+        }
+    }
+
+    private static void writeAtomically(@NonNull File file,
+                                        @NonNull byte[] buffer,
+                                        int length) throws IOException {
+        File tempFile = new File(file.getPath() + TEMP_EXTENSION);
+        try (FileOutputStream output = new FileOutputStream(tempFile)) {
+            output.write(buffer, 0, length);
+            output.getFD().sync();
+        }
+        if (!tempFile.renameTo(file)) {
+            throw new IOException("Can't replace " + file);
+        }
+    }
+
+    /**
+     * @return count of the read bytes, which is less than the length of the
+     * buffer only at the end of the input
+     */
+    private static int readFully(@NonNull InputStream input,
+                                 @NonNull byte[] buffer) throws IOException {
+        int length = 0;
+        int read;
+        while (length < buffer.length
+                && (read = input.read(buffer, length, buffer.length - length)) != -1) {
+            length += read;
+        }
+        return length;
+    }
+
+    @NonNull
+    private static String sha256(@NonNull String content) {
+        byte[] bytes = content.getBytes(UTF_8);
+        return sha256(bytes, bytes.length);
+    }
+
+    @NonNull
+    private static String sha256(@NonNull byte[] buffer, int length) {
+        MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 isn't supported", e);
+        }
+        digest.update(buffer, 0, length);
+        StringBuilder hex = new StringBuilder(64);
+        for (byte b : digest.digest()) {
+            hex.append(Character.forDigit((b >> 4) & 0xF, 16))
+                    .append(Character.forDigit(b & 0xF, 16));
+        }
+        return hex.toString();
+    }
+
+    private static final class Manifest {
+
+        private final long size;
+        @NonNull
+        private final List<String> hashes;
+
+        private Manifest(long size, @NonNull List<String> hashes) {
+            this.size = size;
+            this.hashes = hashes;
+        }
+    }
+}
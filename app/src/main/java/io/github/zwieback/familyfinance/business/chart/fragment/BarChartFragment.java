@@ -10,7 +10,6 @@ import android.support.v4.app.DialogFragment;
 import android.support.v4.content.ContextCompat;
 import android.view.View;
 
-import com.annimon.stream.Stream;
 import com.github.mikephil.charting.charts.BarChart;
 import com.github.mikephil.charting.components.XAxis;
 import com.github.mikephil.charting.components.YAxis;
@@ -26,14 +25,12 @@ import com.github.mikephil.charting.utils.MPPointF;
 
 import java.util.ArrayList;
 import java.util.List;
-import java.util.Map;
 
 import io.github.zwieback.familyfinance.R;
 import io.github.zwieback.familyfinance.business.chart.dialog.BarChartDisplayDialog;
 import io.github.zwieback.familyfinance.business.chart.display.BarChartDisplay;
 import io.github.zwieback.familyfinance.business.chart.exception.UnsupportedBarChartGroupTypeException;
 import io.github.zwieback.familyfinance.business.chart.marker.BarChartMarkerView;
-import io.github.zwieback.familyfinance.business.chart.service.converter.OperationConverter;
 import io.github.zwieback.familyfinance.business.chart.service.converter.bar.OperationBarConverter;
 import io.github.zwieback.familyfinance.business.chart.service.formatter.DayValueFormatter;
 import io.github.zwieback.familyfinance.business.chart.service.formatter.LocalizedValueFormatter;
@@ -42,21 +39,21 @@ import io.github.zwieback.familyfinance.business.chart.service.formatter.Quarter
 import io.github.zwieback.familyfinance.business.chart.service.formatter.WeekValueFormatter;
 import io.github.zwieback.familyfinance.business.chart.service.formatter.YearValueFormatter;
 import io.github.zwieback.familyfinance.business.chart.service.grouper.OperationGrouper;
+import io.github.zwieback.familyfinance.business.chart.service.grouper.bar.BarOperationSums;
 import io.github.zwieback.familyfinance.business.chart.service.grouper.bar.OperationGrouperByDay;
 import io.github.zwieback.familyfinance.business.chart.service.grouper.bar.OperationGrouperByMonth;
 import io.github.zwieback.familyfinance.business.chart.service.grouper.bar.OperationGrouperByQuarter;
 import io.github.zwieback.familyfinance.business.chart.service.grouper.bar.OperationGrouperByWeek;
 import io.github.zwieback.familyfinance.business.chart.service.grouper.bar.OperationGrouperByYear;
-import io.github.zwieback.familyfinance.business.chart.service.sieve.OperationSieve;
 import io.github.zwieback.familyfinance.business.operation.dialog.FlowOfFundsOperationFilterDialog;
 import io.github.zwieback.familyfinance.business.operation.filter.FlowOfFundsOperationFilter;
 import io.github.zwieback.familyfinance.business.operation.query.FlowOfFundsOperationQueryBuilder;
-import io.github.zwieback.familyfinance.core.model.OperationView;
+import io.github.zwieback.familyfinance.business.operation.query.OperationSnapshot;
 import io.github.zwieback.familyfinance.core.model.type.OperationType;
-import io.requery.query.Result;
+import io.github.zwieback.familyfinance.core.preference.config.DatabasePrefs;
 
 public class BarChartFragment extends ChartFragment<BarChart, BarEntry, FlowOfFundsOperationFilter,
-        BarChartDisplay> implements OnChartValueSelectedListener {
+        BarChartDisplay, BarOperationSums> implements OnChartValueSelectedListener {
 
     private static final float NORMAL_GRANULARITY = 1f;
     private static final float X_AXIS_MAXIMUM_FIX = 1f;
@@ -73,7 +70,7 @@ public class BarChartFragment extends ChartFragment<BarChart, BarEntry, FlowOfFu
     private int maxBarCountOnScreen;
     private float barValueTextSize;
     private RectF onValueSelectedRectF;
-    private OperationSieve operationSieve;
+    private OperationBarConverter operationConverter;
 
     @Override
     public void onCreate(@Nullable Bundle savedInstanceState) {
@@ -81,7 +78,7 @@ public class BarChartFragment extends ChartFragment<BarChart, BarEntry, FlowOfFu
         maxBarCountOnScreen = getResources().getInteger(R.integer.max_bar_count_on_screen);
         barValueTextSize = getResources().getDimension(R.dimen.bar_value_text_size);
         onValueSelectedRectF = new RectF();
-        operationSieve = new OperationSieve();
+        operationConverter = new OperationBarConverter();
     }
 
     @Override
@@ -166,9 +163,8 @@ public class BarChartFragment extends ChartFragment<BarChart, BarEntry, FlowOfFu
     }
 
     @Override
-    protected Result<OperationView> buildOperations() {
+    protected OperationSnapshot buildSnapshot() {
         return FlowOfFundsOperationQueryBuilder.create(data)
-                .setTypes(determineOperationTypes())
                 .setStartDate(filter.getStartDate())
                 .setEndDate(filter.getEndDate())
                 .setStartValue(filter.getStartValue())
@@ -177,27 +173,21 @@ public class BarChartFragment extends ChartFragment<BarChart, BarEntry, FlowOfFu
                 .setCurrencyId(filter.getCurrencyId())
                 .setArticleId(filter.getArticleId())
                 .setAccountId(filter.getAccountId())
-                .build();
-    }
-
-    private Map<Float, List<OperationView>> filterOperations(
-            Map<Float, List<OperationView>> operations,
-            List<OperationType> types) {
-        return operationSieve.filterByTypes(operations, types);
+                .buildSnapshot();
     }
 
     @Override
-    protected void showData(Map<Float, List<OperationView>> groupedOperations) {
-        if (groupedOperations.isEmpty()) {
+    protected void showData(BarOperationSums groupedOperations) {
+        if (groupedOperations.getBucketCount() == 0) {
             clearData(R.string.chart_no_data);
             return;
         }
 
-        BarDataSet incomeSet = buildBarDataSet(groupedOperations, OperationType.getIncomeTypes(),
+        BarDataSet incomeSet = buildBarDataSet(groupedOperations, determineIncomeTypes(),
                 R.string.data_set_incomes, R.color.colorIncome, display.isViewIncomeValues(),
                 display.isViewIncomes());
 
-        BarDataSet expenseSet = buildBarDataSet(groupedOperations, OperationType.getExpenseTypes(),
+        BarDataSet expenseSet = buildBarDataSet(groupedOperations, determineExpenseTypes(),
                 R.string.data_set_expenses, R.color.colorExpense, display.isViewExpenseValues(),
                 display.isViewExpenses());
 
@@ -205,8 +195,8 @@ public class BarChartFragment extends ChartFragment<BarChart, BarEntry, FlowOfFu
         data.setValueTextSize(barValueTextSize);
         data.setValueFormatter(new LargeValueFormatter());
 
-        float minX = Stream.of(groupedOperations.keySet()).min(Float::compareTo).get();
-        float maxX = Stream.of(groupedOperations.keySet()).max(Float::compareTo).get();
+        float minX = groupedOperations.getBucket(0);
+        float maxX = groupedOperations.getBucket(groupedOperations.getBucketCount() - 1);
 
         chart.setData(data);
         chart.getBarData().setBarWidth(BAR_WIDTH);
@@ -214,18 +204,17 @@ public class BarChartFragment extends ChartFragment<BarChart, BarEntry, FlowOfFu
         chart.getXAxis().setAxisMaximum(maxX + X_AXIS_MAXIMUM_FIX);
         chart.groupBars(minX, GROUP_SPACE, BAR_SPACE);
         chart.setVisibleXRangeMaximum(maxBarCountOnScreen);
-        fixChartWidth(groupedOperations.size());
+        fixChartWidth(groupedOperations.getBucketCount());
         chart.animateY(Y_AXIS_ANIMATION_DURATION);
     }
 
-    private BarDataSet buildBarDataSet(Map<Float, List<OperationView>> groupedOperations,
+    private BarDataSet buildBarDataSet(BarOperationSums groupedOperations,
                                        List<OperationType> types,
                                        @StringRes int dataSetLabel,
                                        @ColorRes int dataSetColor,
                                        boolean drawValuesEnabled,
                                        boolean visible) {
-        Map<Float, List<OperationView>> operations = filterOperations(groupedOperations, types);
-        List<BarEntry> barEntries = convertOperations(operations);
+        List<BarEntry> barEntries = operationConverter.convertToEntries(groupedOperations, types);
         BarDataSet dataSet = new BarDataSet(barEntries, getString(dataSetLabel));
         dataSet.setDrawIcons(false);
         dataSet.setColors(ContextCompat.getColor(extractContext(), dataSetColor));
@@ -286,7 +275,7 @@ public class BarChartFragment extends ChartFragment<BarChart, BarEntry, FlowOfFu
             IAxisValueFormatter xAxisFormatter = determineXAxisFormatter();
             setupXAxisValueFormatter(xAxisFormatter);
             setupMarker(xAxisFormatter);
-            refreshData();
+            regroupData();
         } else {
             this.display = display;
             updateDrawValues();
@@ -307,23 +296,19 @@ public class BarChartFragment extends ChartFragment<BarChart, BarEntry, FlowOfFu
     }
 
     @Override
-    protected OperationConverter<BarEntry> determineOperationConverter() {
-        return new OperationBarConverter(extractContext());
-    }
-
-    @Override
-    protected OperationGrouper determineOperationGrouper() {
+    protected OperationGrouper<BarOperationSums> determineOperationGrouper() {
+        int nativeCurrencyId = DatabasePrefs.with(extractContext()).getCurrencyId();
         switch (display.getGroupType()) {
             case DAYS:
-                return new OperationGrouperByDay();
+                return new OperationGrouperByDay(nativeCurrencyId);
             case WEEKS:
-                return new OperationGrouperByWeek();
+                return new OperationGrouperByWeek(nativeCurrencyId);
             case MONTHS:
-                return new OperationGrouperByMonth();
+                return new OperationGrouperByMonth(nativeCurrencyId);
             case QUARTERS:
-                return new OperationGrouperByQuarter();
+                return new OperationGrouperByQuarter(nativeCurrencyId);
             case YEARS:
-                return new OperationGrouperByYear();
+                return new OperationGrouperByYear(nativeCurrencyId);
         }
         throw new UnsupportedBarChartGroupTypeException();
     }
@@ -344,19 +329,20 @@ public class BarChartFragment extends ChartFragment<BarChart, BarEntry, FlowOfFu
         throw new UnsupportedBarChartGroupTypeException();
     }
 
-    private List<OperationType> determineOperationTypes() {
+    private List<OperationType> determineIncomeTypes() {
         List<OperationType> types = new ArrayList<>();
-        if (display.isViewIncomes()) {
-            types.add(OperationType.INCOME_OPERATION);
-            if (display.isIncludeTransfers()) {
-                types.add(OperationType.TRANSFER_INCOME_OPERATION);
-            }
+        types.add(OperationType.INCOME_OPERATION);
+        if (display.isIncludeTransfers()) {
+            types.add(OperationType.TRANSFER_INCOME_OPERATION);
         }
-        if (display.isViewExpenses()) {
-            types.add(OperationType.EXPENSE_OPERATION);
-            if (display.isIncludeTransfers()) {
-                types.add(OperationType.TRANSFER_EXPENSE_OPERATION);
-            }
+        return types;
+    }
+
+    private List<OperationType> determineExpenseTypes() {
+        List<OperationType> types = new ArrayList<>();
+        types.add(OperationType.EXPENSE_OPERATION);
+        if (display.isIncludeTransfers()) {
+            types.add(OperationType.TRANSFER_EXPENSE_OPERATION);
         }
         return types;
     }
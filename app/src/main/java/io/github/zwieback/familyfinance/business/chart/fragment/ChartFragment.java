@@ -16,30 +16,31 @@ import android.view.ViewGroup;
 import com.github.mikephil.charting.charts.Chart;
 import com.github.mikephil.charting.data.Entry;
 
-import java.util.List;
-import java.util.Map;
+import org.threeten.bp.LocalDate;
 
 import io.github.zwieback.familyfinance.R;
 import io.github.zwieback.familyfinance.app.FamilyFinanceApplication;
 import io.github.zwieback.familyfinance.business.chart.display.ChartDisplay;
 import io.github.zwieback.familyfinance.business.chart.listener.ChartDisplayListener;
-import io.github.zwieback.familyfinance.business.chart.service.converter.OperationConverter;
 import io.github.zwieback.familyfinance.business.chart.service.grouper.OperationGrouper;
 import io.github.zwieback.familyfinance.business.operation.filter.OperationFilter;
 import io.github.zwieback.familyfinance.business.operation.listener.OperationFilterListener;
-import io.github.zwieback.familyfinance.core.model.OperationView;
+import io.github.zwieback.familyfinance.business.operation.query.OperationSnapshot;
 import io.reactivex.Observable;
 import io.reactivex.android.schedulers.AndroidSchedulers;
 import io.reactivex.schedulers.Schedulers;
 import io.requery.Persistable;
-import io.requery.query.Result;
 import io.requery.reactivex.ReactiveEntityStore;
 
+/**
+ * @param <G> type of the operations grouped by the {@link #operationGrouper}
+ */
 public abstract class ChartFragment<
         C extends Chart,
         E extends Entry,
         F extends OperationFilter,
-        D extends ChartDisplay>
+        D extends ChartDisplay,
+        G>
         extends Fragment
         implements OperationFilterListener<F>, ChartDisplayListener<D> {
 
@@ -48,9 +49,14 @@ public abstract class ChartFragment<
     protected D display;
     protected C chart;
 
-    protected OperationConverter<E> operationConverter;
-    protected OperationGrouper operationGrouper;
+    protected OperationGrouper<G> operationGrouper;
 
+    /**
+     * Last loaded operations; display options are applied to it without the
+     * database, only the filter requires to reload it.
+     */
+    @Nullable
+    private OperationSnapshot snapshot;
     private boolean dataLoaded;
 
     @Override
@@ -60,7 +66,6 @@ public abstract class ChartFragment<
         filter = loadFilter(savedInstanceState);
         display = loadDisplay(savedInstanceState);
 
-        operationConverter = determineOperationConverter();
         operationGrouper = determineOperationGrouper();
     }
 
@@ -117,14 +122,39 @@ public abstract class ChartFragment<
         return dataLoaded;
     }
 
+    /**
+     * Load the snapshot of operations from the database and show it.
+     */
     public void refreshData() {
         dataLoaded = true;
         clearData(R.string.chart_loading);
 
-        Observable.fromCallable(this::buildOperations)
+        Observable.fromCallable(this::buildSnapshot)
                 .subscribeOn(Schedulers.io())
-                .observeOn(Schedulers.computation())
-                .map(this::groupOperations)
+                .observeOn(AndroidSchedulers.mainThread())
+                .subscribe(loadedSnapshot -> {
+                    snapshot = loadedSnapshot;
+                    regroupData();
+                });
+    }
+
+    /**
+     * Regroup the last loaded snapshot of operations and show it.
+     * <p>
+     * Must be called on the main thread.
+     */
+    protected void regroupData() {
+        if (snapshot == null) {
+            refreshData();
+            return;
+        }
+        OperationSnapshot currentSnapshot = snapshot;
+        OperationGrouper<G> grouper = operationGrouper;
+        LocalDate startDate = filter.getStartDate();
+        LocalDate endDate = filter.getEndDate();
+
+        Observable.fromCallable(() -> grouper.group(currentSnapshot, startDate, endDate))
+                .subscribeOn(Schedulers.computation())
                 .observeOn(AndroidSchedulers.mainThread())
                 .subscribe(this::showData);
     }
@@ -134,26 +164,20 @@ public abstract class ChartFragment<
         chart.clear();
     }
 
-    protected abstract Result<OperationView> buildOperations();
+    /**
+     * Sum operations in the database by the {@link #filter}.
+     *
+     * @return snapshot of operations
+     */
+    protected abstract OperationSnapshot buildSnapshot();
 
-    private Map<Float, List<OperationView>> groupOperations(Result<OperationView> operations) {
-        return operationGrouper.group(operations.toList(),
-                filter.getStartDate(), filter.getEndDate());
-    }
-
-    protected List<E> convertOperations(Map<Float, List<OperationView>> groupedOperations) {
-        return operationConverter.convertToEntries(groupedOperations);
-    }
-
-    protected abstract void showData(Map<Float, List<OperationView>> groupedOperations);
+    protected abstract void showData(G groupedOperations);
 
     public abstract void showFilterDialog();
 
     public abstract void showDisplayDialog();
 
-    protected abstract OperationConverter<E> determineOperationConverter();
-
-    protected abstract OperationGrouper determineOperationGrouper();
+    protected abstract OperationGrouper<G> determineOperationGrouper();
 
     @NonNull
     protected Context extractContext() {
@@ -9,8 +9,6 @@ import android.support.annotation.StringRes;
 import android.support.v4.content.ContextCompat;
 import android.view.View;
 
-import com.annimon.stream.Collectors;
-import com.annimon.stream.Stream;
 import com.github.mikephil.charting.charts.HorizontalBarChart;
 import com.github.mikephil.charting.components.Legend;
 import com.github.mikephil.charting.components.XAxis;
@@ -30,7 +28,6 @@ import com.github.mikephil.charting.utils.MPPointF;
 
 import java.util.List;
 import java.util.Map;
-import java.util.Set;
 
 import io.github.zwieback.familyfinance.R;
 import io.github.zwieback.familyfinance.business.chart.display.BarChartDisplay;
@@ -46,11 +43,11 @@ import io.github.zwieback.familyfinance.business.chart.service.grouper.Operation
 import io.github.zwieback.familyfinance.business.chart.service.grouper.pie.OperationGrouperByArticle;
 import io.github.zwieback.familyfinance.business.chart.service.grouper.pie.OperationGrouperByArticleParent;
 import io.github.zwieback.familyfinance.business.operation.filter.OperationFilter;
-import io.github.zwieback.familyfinance.core.model.Article;
-import io.github.zwieback.familyfinance.core.model.OperationView;
+import io.github.zwieback.familyfinance.business.operation.query.OperationAggregate;
 
 public abstract class HorizontalBarChartFragment<F extends OperationFilter>
-        extends ChartFragment<HorizontalBarChart, BarEntry, F, HorizontalBarChartDisplay>
+        extends ChartFragment<HorizontalBarChart, BarEntry, F, HorizontalBarChartDisplay,
+        Map<Float, List<OperationAggregate>>>
         implements OnChartValueSelectedListener {
 
     private static final float NORMAL_GRANULARITY = 1f;
@@ -61,10 +58,12 @@ public abstract class HorizontalBarChartFragment<F extends OperationFilter>
     private float barValueTextSize;
     private RectF onValueSelectedRectF;
     private IdIndexMapStatefulBuilder idIndexMapStatefulBuilder;
+    protected OperationConverter<BarEntry> operationConverter;
 
     @Override
     public void onCreate(@Nullable Bundle savedInstanceState) {
         super.onCreate(savedInstanceState);
+        operationConverter = determineOperationConverter();
         maxBarCountOnScreen =
                 getResources().getInteger(R.integer.max_horizontal_bar_count_on_screen);
         barValueTextSize = getResources().getDimension(R.dimen.bar_value_text_size);
@@ -141,16 +140,16 @@ public abstract class HorizontalBarChartFragment<F extends OperationFilter>
     }
 
     @Override
-    protected void showData(Map<Float, List<OperationView>> groupedOperations) {
+    protected void showData(Map<Float, List<OperationAggregate>> groupedOperations) {
         if (groupedOperations.isEmpty()) {
             clearData(R.string.chart_no_data);
             return;
         }
 
-        List<BarEntry> barEntries = convertOperations(groupedOperations);
+        List<BarEntry> barEntries = operationConverter.convertToEntries(groupedOperations);
         Map<Float, Float> idIndexMap = idIndexMapStatefulBuilder.build();
 
-        String[] articleNames = convertToArticleNames(idIndexMap);
+        String[] articleNames = convertToArticleNames(groupedOperations, idIndexMap);
         IAxisValueFormatter xAxisFormatter = determineXAxisFormatter(articleNames);
         setupXAxisValueFormatter(xAxisFormatter);
         setupMarker(xAxisFormatter, determineYAxisFormatter());
@@ -175,21 +174,17 @@ public abstract class HorizontalBarChartFragment<F extends OperationFilter>
     @ColorRes
     protected abstract int getDataSetColor();
 
-    private String[] convertToArticleNames(Map<Float, Float> idIndexMap) {
-        Set<Integer> articleIds = Stream.of(idIndexMap.keySet())
-                .map(Float::intValue)
-                .collect(Collectors.toSet());
-        List<Article> articles = data
-                .select(Article.class, Article.ID, Article.NAME)
-                .where(Article.ID.in(articleIds))
-                .get().toList();
-        String[] articleNames = new String[articles.size()];
-        Stream.of(articles)
-                .forEach(article -> {
-                    float articleId = article.getId();
-                    int barIndex = idIndexMap.get(articleId).intValue();
-                    articleNames[barIndex] = article.getName();
-                });
+    /**
+     * Names are taken from the aggregates, so the database is not queried.
+     */
+    private static String[] convertToArticleNames(
+            Map<Float, List<OperationAggregate>> groupedOperations,
+            Map<Float, Float> idIndexMap) {
+        String[] articleNames = new String[idIndexMap.size()];
+        for (Map.Entry<Float, Float> entry : idIndexMap.entrySet()) {
+            List<OperationAggregate> aggregates = groupedOperations.get(entry.getKey());
+            articleNames[entry.getValue().intValue()] = aggregates.get(0).getBucketName();
+        }
         return articleNames;
     }
 
@@ -244,14 +239,13 @@ public abstract class HorizontalBarChartFragment<F extends OperationFilter>
             this.display = display;
             operationGrouper = determineOperationGrouper();
             operationConverter = determineOperationConverter();
-            refreshData();
+            regroupData();
         } else {
             this.display = display;
             updateDrawValues();
         }
     }
 
-    @Override
     protected OperationConverter<BarEntry> determineOperationConverter() {
         idIndexMapStatefulBuilder = IdIndexMapStatefulBuilder.create();
         if (display.isUsePercentValues()) {
@@ -262,7 +256,7 @@ public abstract class HorizontalBarChartFragment<F extends OperationFilter>
     }
 
     @Override
-    protected OperationGrouper determineOperationGrouper() {
+    protected OperationGrouper<Map<Float, List<OperationAggregate>>> determineOperationGrouper() {
         switch (display.getGroupByType()) {
             case ARTICLE:
                 return new OperationGrouperByArticle();
@@ -9,8 +9,7 @@ import io.github.zwieback.familyfinance.business.chart.dialog.HorizontalBarChart
 import io.github.zwieback.familyfinance.business.operation.dialog.ExpenseOperationFilterDialog;
 import io.github.zwieback.familyfinance.business.operation.filter.ExpenseOperationFilter;
 import io.github.zwieback.familyfinance.business.operation.query.ExpenseOperationQueryBuilder;
-import io.github.zwieback.familyfinance.core.model.OperationView;
-import io.requery.query.Result;
+import io.github.zwieback.familyfinance.business.operation.query.OperationSnapshot;
 
 public class HorizontalBarChartOfExpensesFragment
         extends HorizontalBarChartFragment<ExpenseOperationFilter> {
@@ -26,7 +25,7 @@ public class HorizontalBarChartOfExpensesFragment
     }
 
     @Override
-    protected Result<OperationView> buildOperations() {
+    protected OperationSnapshot buildSnapshot() {
         return ExpenseOperationQueryBuilder.create(data)
                 .setStartDate(filter.getStartDate())
                 .setEndDate(filter.getEndDate())
@@ -36,7 +35,7 @@ public class HorizontalBarChartOfExpensesFragment
                 .setCurrencyId(filter.getCurrencyId())
                 .setArticleId(filter.getArticleId())
                 .setAccountId(filter.getAccountId())
-                .build();
+                .buildSnapshot();
     }
 
     @StringRes
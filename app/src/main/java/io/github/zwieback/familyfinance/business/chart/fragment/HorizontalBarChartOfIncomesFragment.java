@@ -9,8 +9,7 @@ import io.github.zwieback.familyfinance.business.chart.dialog.HorizontalBarChart
 import io.github.zwieback.familyfinance.business.operation.dialog.IncomeOperationFilterDialog;
 import io.github.zwieback.familyfinance.business.operation.filter.IncomeOperationFilter;
 import io.github.zwieback.familyfinance.business.operation.query.IncomeOperationQueryBuilder;
-import io.github.zwieback.familyfinance.core.model.OperationView;
-import io.requery.query.Result;
+import io.github.zwieback.familyfinance.business.operation.query.OperationSnapshot;
 
 public class HorizontalBarChartOfIncomesFragment
         extends HorizontalBarChartFragment<IncomeOperationFilter> {
@@ -26,7 +25,7 @@ public class HorizontalBarChartOfIncomesFragment
     }
 
     @Override
-    protected Result<OperationView> buildOperations() {
+    protected OperationSnapshot buildSnapshot() {
         return IncomeOperationQueryBuilder.create(data)
                 .setStartDate(filter.getStartDate())
                 .setEndDate(filter.getEndDate())
@@ -36,7 +35,7 @@ public class HorizontalBarChartOfIncomesFragment
                 .setCurrencyId(filter.getCurrencyId())
                 .setArticleId(filter.getArticleId())
                 .setAccountId(filter.getAccountId())
-                .build();
+                .buildSnapshot();
     }
 
     @StringRes
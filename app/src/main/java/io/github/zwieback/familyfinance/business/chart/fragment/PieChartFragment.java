@@ -33,22 +33,24 @@ import io.github.zwieback.familyfinance.business.chart.service.grouper.Operation
 import io.github.zwieback.familyfinance.business.chart.service.grouper.pie.OperationGrouperByArticle;
 import io.github.zwieback.familyfinance.business.chart.service.grouper.pie.OperationGrouperByArticleParent;
 import io.github.zwieback.familyfinance.business.operation.filter.OperationFilter;
-import io.github.zwieback.familyfinance.core.model.OperationView;
+import io.github.zwieback.familyfinance.business.operation.query.OperationAggregate;
 import io.github.zwieback.familyfinance.util.ColorUtils;
 import io.github.zwieback.familyfinance.util.ConfigurationUtils;
 
 public abstract class PieChartFragment<F extends OperationFilter> extends ChartFragment<PieChart,
-        PieEntry, F, PieChartDisplay> {
+        PieEntry, F, PieChartDisplay, Map<Float, List<OperationAggregate>>> {
 
     private static final float SLICE_SPACE = 2f;
 
     private static final int Y_AXIS_ANIMATION_DURATION = 500;
 
     private float pieValueTextSize;
+    private OperationConverter<PieEntry> operationConverter;
 
     @Override
     public void onCreate(@Nullable Bundle savedInstanceState) {
         super.onCreate(savedInstanceState);
+        operationConverter = determineOperationConverter();
         pieValueTextSize = getResources().getDimension(R.dimen.pie_value_text_size);
     }
 
@@ -104,7 +106,7 @@ public abstract class PieChartFragment<F extends OperationFilter> extends ChartF
     }
 
     @Override
-    protected void showData(Map<Float, List<OperationView>> groupedOperations) {
+    protected void showData(Map<Float, List<OperationAggregate>> groupedOperations) {
         if (groupedOperations.isEmpty()) {
             clearData(R.string.chart_no_data);
             return;
@@ -124,10 +126,10 @@ public abstract class PieChartFragment<F extends OperationFilter> extends ChartF
     @StringRes
     protected abstract int getDataSetLabel();
 
-    private PieDataSet buildPieDataSet(Map<Float, List<OperationView>> operations,
+    private PieDataSet buildPieDataSet(Map<Float, List<OperationAggregate>> operations,
                                        @StringRes int dataSetLabel) {
         List<Integer> colors = collectDataColors();
-        List<PieEntry> pieEntries = convertOperations(operations);
+        List<PieEntry> pieEntries = operationConverter.convertToEntries(operations);
         PieDataSet dataSet = new PieDataSet(pieEntries, getString(dataSetLabel));
         dataSet.setDrawIcons(false);
         dataSet.setColors(colors);
@@ -154,7 +156,7 @@ public abstract class PieChartFragment<F extends OperationFilter> extends ChartF
             this.display = display;
             operationConverter = determineOperationConverter();
             operationGrouper = determineOperationGrouper();
-            refreshData();
+            regroupData();
         } else {
             this.display = display;
             chart.getData().setDrawValues(display.isViewValues());
@@ -164,8 +166,7 @@ public abstract class PieChartFragment<F extends OperationFilter> extends ChartF
         }
     }
 
-    @Override
-    protected OperationConverter<PieEntry> determineOperationConverter() {
+    private OperationConverter<PieEntry> determineOperationConverter() {
         switch (display.getGroupingType()) {
             case SIMPLE:
                 return new OperationPieSimpleConverter(extractContext(), display.getGroupByType());
@@ -176,7 +177,7 @@ public abstract class PieChartFragment<F extends OperationFilter> extends ChartF
     }
 
     @Override
-    protected OperationGrouper determineOperationGrouper() {
+    protected OperationGrouper<Map<Float, List<OperationAggregate>>> determineOperationGrouper() {
         switch (display.getGroupByType()) {
             case ARTICLE:
                 return new OperationGrouperByArticle();
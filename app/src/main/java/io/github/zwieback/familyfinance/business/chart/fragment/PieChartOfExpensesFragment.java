@@ -7,8 +7,7 @@ import io.github.zwieback.familyfinance.business.chart.dialog.PieChartDisplayDia
 import io.github.zwieback.familyfinance.business.operation.dialog.ExpenseOperationFilterDialog;
 import io.github.zwieback.familyfinance.business.operation.filter.ExpenseOperationFilter;
 import io.github.zwieback.familyfinance.business.operation.query.ExpenseOperationQueryBuilder;
-import io.github.zwieback.familyfinance.core.model.OperationView;
-import io.requery.query.Result;
+import io.github.zwieback.familyfinance.business.operation.query.OperationSnapshot;
 
 public class PieChartOfExpensesFragment extends PieChartFragment<ExpenseOperationFilter> {
 
@@ -23,7 +22,7 @@ public class PieChartOfExpensesFragment extends PieChartFragment<ExpenseOperatio
     }
 
     @Override
-    protected Result<OperationView> buildOperations() {
+    protected OperationSnapshot buildSnapshot() {
         return ExpenseOperationQueryBuilder.create(data)
                 .setStartDate(filter.getStartDate())
                 .setEndDate(filter.getEndDate())
@@ -33,7 +32,7 @@ public class PieChartOfExpensesFragment extends PieChartFragment<ExpenseOperatio
                 .setCurrencyId(filter.getCurrencyId())
                 .setArticleId(filter.getArticleId())
                 .setAccountId(filter.getAccountId())
-                .build();
+                .buildSnapshot();
     }
 
     @Override
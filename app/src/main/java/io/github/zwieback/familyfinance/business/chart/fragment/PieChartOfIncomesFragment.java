@@ -7,8 +7,7 @@ import io.github.zwieback.familyfinance.business.chart.dialog.PieChartDisplayDia
 import io.github.zwieback.familyfinance.business.operation.dialog.IncomeOperationFilterDialog;
 import io.github.zwieback.familyfinance.business.operation.filter.IncomeOperationFilter;
 import io.github.zwieback.familyfinance.business.operation.query.IncomeOperationQueryBuilder;
-import io.github.zwieback.familyfinance.core.model.OperationView;
-import io.requery.query.Result;
+import io.github.zwieback.familyfinance.business.operation.query.OperationSnapshot;
 
 public class PieChartOfIncomesFragment extends PieChartFragment<IncomeOperationFilter> {
 
@@ -23,7 +22,7 @@ public class PieChartOfIncomesFragment extends PieChartFragment<IncomeOperationF
     }
 
     @Override
-    protected Result<OperationView> buildOperations() {
+    protected OperationSnapshot buildSnapshot() {
         return IncomeOperationQueryBuilder.create(data)
                 .setStartDate(filter.getStartDate())
                 .setEndDate(filter.getEndDate())
@@ -33,7 +32,7 @@ public class PieChartOfIncomesFragment extends PieChartFragment<IncomeOperationF
                 .setCurrencyId(filter.getCurrencyId())
                 .setArticleId(filter.getArticleId())
                 .setAccountId(filter.getAccountId())
-                .build();
+                .buildSnapshot();
     }
 
     @Override
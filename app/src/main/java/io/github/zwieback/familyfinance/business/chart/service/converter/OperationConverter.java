@@ -5,7 +5,7 @@ import com.github.mikephil.charting.data.Entry;
 import java.util.List;
 import java.util.Map;
 
-import io.github.zwieback.familyfinance.core.model.OperationView;
+import io.github.zwieback.familyfinance.business.operation.query.OperationAggregate;
 
 public interface OperationConverter<E extends Entry> {
 
@@ -20,5 +20,5 @@ public interface OperationConverter<E extends Entry> {
      * @see <a href="https://github.com/PhilJay/MPAndroidChart/wiki/Setting-Data#the-order-of-entries">
      * The order of entries</a>
      */
-    List<E> convertToEntries(Map<Float, List<OperationView>> groupedOperations);
+    List<E> convertToEntries(Map<Float, List<OperationAggregate>> groupedOperations);
 }
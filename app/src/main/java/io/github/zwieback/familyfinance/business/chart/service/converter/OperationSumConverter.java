@@ -10,8 +10,8 @@ import java.math.BigDecimal;
 import java.util.List;
 import java.util.Map;
 
+import io.github.zwieback.familyfinance.business.operation.query.OperationAggregate;
 import io.github.zwieback.familyfinance.business.operation.service.calculator.OperationCalculator;
-import io.github.zwieback.familyfinance.core.model.OperationView;
 
 public class OperationSumConverter {
 
@@ -27,7 +27,7 @@ public class OperationSumConverter {
      * @param operations source operations
      * @return key - same key as input key, value - sum of operations list
      */
-    public Map<Float, BigDecimal> convertToSumMap(Map<Float, List<OperationView>> operations) {
+    public Map<Float, BigDecimal> convertToSumMap(Map<Float, List<OperationAggregate>> operations) {
         return Stream.of(operations)
                 .collect(Collectors.toMap(
                         Map.Entry::getKey,
@@ -16,7 +16,7 @@ import java.util.Map;
 import io.github.zwieback.familyfinance.business.chart.service.builder.IdIndexMapStatefulBuilder;
 import io.github.zwieback.familyfinance.business.chart.service.converter.OperationConverter;
 import io.github.zwieback.familyfinance.business.chart.service.converter.OperationSumConverter;
-import io.github.zwieback.familyfinance.core.model.OperationView;
+import io.github.zwieback.familyfinance.business.operation.query.OperationAggregate;
 import io.github.zwieback.familyfinance.util.CollectionUtils;
 
 public class OperationHorizontalBarConverter implements OperationConverter<BarEntry> {
@@ -38,7 +38,7 @@ public class OperationHorizontalBarConverter implements OperationConverter<BarEn
      * @return list of entries to display in horizontal bar chart
      */
     @Override
-    public List<BarEntry> convertToEntries(Map<Float, List<OperationView>> operations) {
+    public List<BarEntry> convertToEntries(Map<Float, List<OperationAggregate>> operations) {
         Map<Float, BigDecimal> sumMap = sumConverter.convertToSumMap(operations);
         List<Pair<BigDecimal, Float>> swappedSumMap = CollectionUtils.swapMap(sumMap);
         Map<Float, Float> idIndexMap = builder.setSumMap(swappedSumMap).build();
@@ -16,7 +16,7 @@ import java.util.List;
 import java.util.Map;
 
 import io.github.zwieback.familyfinance.business.chart.service.builder.IdIndexMapStatefulBuilder;
-import io.github.zwieback.familyfinance.core.model.OperationView;
+import io.github.zwieback.familyfinance.business.operation.query.OperationAggregate;
 import io.github.zwieback.familyfinance.util.CollectionUtils;
 
 public class OperationHorizontalBarPercentConverter extends OperationHorizontalBarConverter {
@@ -36,7 +36,7 @@ public class OperationHorizontalBarPercentConverter extends OperationHorizontalB
      * @return list of entries to display in horizontal bar chart
      */
     @Override
-    public List<BarEntry> convertToEntries(Map<Float, List<OperationView>> operations) {
+    public List<BarEntry> convertToEntries(Map<Float, List<OperationAggregate>> operations) {
         Map<Float, BigDecimal> sumMap = sumConverter.convertToSumMap(operations);
         List<Pair<BigDecimal, Float>> swappedSumMap = CollectionUtils.swapMap(sumMap);
         List<Pair<BigDecimal, Float>> percentSumMap = convertToPercentMap(swappedSumMap);
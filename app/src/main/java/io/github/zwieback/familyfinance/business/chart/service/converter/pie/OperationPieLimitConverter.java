@@ -14,7 +14,8 @@ import java.util.Map;
 
 import io.github.zwieback.familyfinance.R;
 import io.github.zwieback.familyfinance.business.chart.display.type.PieChartGroupByType;
-import io.github.zwieback.familyfinance.core.model.OperationView;
+import io.github.zwieback.familyfinance.business.operation.query.OperationAggregate;
+import io.github.zwieback.familyfinance.util.FixedPointAccumulator;
 
 public class OperationPieLimitConverter extends OperationPieSimpleConverter {
 
@@ -30,9 +31,10 @@ public class OperationPieLimitConverter extends OperationPieSimpleConverter {
     }
 
     @Override
-    public List<PieEntry> convertToEntries(Map<Float, List<OperationView>> operations) {
+    public List<PieEntry> convertToEntries(Map<Float, List<OperationAggregate>> operations) {
         Map<String, BigDecimal> sumMap = convertToSumMap(operations);
-        Map<String, BigDecimal> reorderedSumMap = reorderSumMap(sumMap);
+        Map<String, BigDecimal> reorderedSumMap =
+                reorderSumMap(sumMap, calculateTotalSum(operations));
         return Stream.of(reorderedSumMap)
                 .map(OperationPieSimpleConverter::convertToEntry)
                 .sortBy(PieEntry::getValue)
@@ -44,11 +46,12 @@ public class OperationPieLimitConverter extends OperationPieSimpleConverter {
      * percentage will be placed in a separate group, the rest will not be
      * changed.
      *
-     * @param sumMap source map calculated in the {@link #convertToSumMap}
+     * @param sumMap   source map calculated in the {@link #convertToSumMap}
+     * @param totalSum sum of all operations
      * @return reordered map
      */
-    private Map<String, BigDecimal> reorderSumMap(Map<String, BigDecimal> sumMap) {
-        BigDecimal totalSum = calculateTotalSum(sumMap);
+    private Map<String, BigDecimal> reorderSumMap(Map<String, BigDecimal> sumMap,
+                                                  BigDecimal totalSum) {
         BigDecimal minSum = calculateMinSum(totalSum);
         BigDecimal otherSum = Stream.of(sumMap)
                 .filter(entry -> entry.getValue().compareTo(minSum) <= 0)
@@ -69,9 +72,11 @@ public class OperationPieLimitConverter extends OperationPieSimpleConverter {
         return totalSum.multiply(minPercentDecimal).divide(MAX_PERCENT, RoundingMode.DOWN);
     }
 
-    private BigDecimal calculateTotalSum(Map<String, BigDecimal> sumMap) {
-        return Stream.of(sumMap)
-                .map(Map.Entry::getValue)
-                .reduce(BigDecimal.ZERO, BigDecimal::add);
+    private BigDecimal calculateTotalSum(Map<Float, List<OperationAggregate>> operations) {
+        FixedPointAccumulator accumulator = new FixedPointAccumulator();
+        for (List<OperationAggregate> aggregates : operations.values()) {
+            calculator.accumulate(aggregates, accumulator);
+        }
+        return accumulator.toBigDecimal();
     }
 }
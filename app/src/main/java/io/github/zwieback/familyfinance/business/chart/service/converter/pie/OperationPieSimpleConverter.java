@@ -14,12 +14,12 @@ import java.util.Map;
 import io.github.zwieback.familyfinance.business.chart.display.type.PieChartGroupByType;
 import io.github.zwieback.familyfinance.business.chart.exception.UnsupportedPieChartGroupByTypeException;
 import io.github.zwieback.familyfinance.business.chart.service.converter.OperationConverter;
+import io.github.zwieback.familyfinance.business.operation.query.OperationAggregate;
 import io.github.zwieback.familyfinance.business.operation.service.calculator.OperationCalculator;
-import io.github.zwieback.familyfinance.core.model.OperationView;
 
 public class OperationPieSimpleConverter implements OperationConverter<PieEntry> {
 
-    private final OperationCalculator calculator;
+    final OperationCalculator calculator;
     private final PieChartGroupByType groupByType;
 
     public OperationPieSimpleConverter(@NonNull Context context, PieChartGroupByType groupByType) {
@@ -28,7 +28,7 @@ public class OperationPieSimpleConverter implements OperationConverter<PieEntry>
     }
 
     @Override
-    public List<PieEntry> convertToEntries(Map<Float, List<OperationView>> operations) {
+    public List<PieEntry> convertToEntries(Map<Float, List<OperationAggregate>> operations) {
         Map<String, BigDecimal> sumMap = convertToSumMap(operations);
         return Stream.of(sumMap)
                 .map(OperationPieSimpleConverter::convertToEntry)
@@ -46,7 +46,7 @@ public class OperationPieSimpleConverter implements OperationConverter<PieEntry>
      * by {@link io.github.zwieback.familyfinance.business.chart.service.grouper.pie.OperationGrouperByArticle}
      * and {@link io.github.zwieback.familyfinance.business.chart.service.grouper.pie.OperationGrouperByArticleParent}
      */
-    Map<String, BigDecimal> convertToSumMap(Map<Float, List<OperationView>> operations) {
+    Map<String, BigDecimal> convertToSumMap(Map<Float, List<OperationAggregate>> operations) {
         return Stream.of(operations)
                 .collect(Collectors.toMap(
                         entry -> determineGroupName(entry.getValue()),
@@ -54,16 +54,15 @@ public class OperationPieSimpleConverter implements OperationConverter<PieEntry>
     }
 
     /**
-     * @param operations source operations
-     * @return group name of operations
+     * @param aggregates source aggregates
+     * @return group name of aggregates
      */
     @NonNull
-    private String determineGroupName(List<OperationView> operations) {
+    private String determineGroupName(List<OperationAggregate> aggregates) {
         switch (groupByType) {
             case ARTICLE:
-                return operations.get(0).getArticleName();
             case ARTICLE_PARENT:
-                return operations.get(0).getArticleParentName();
+                return aggregates.get(0).getBucketName();
         }
         throw new UnsupportedPieChartGroupByTypeException();
     }
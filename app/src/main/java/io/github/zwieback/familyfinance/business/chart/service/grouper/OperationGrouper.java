@@ -2,14 +2,12 @@ package io.github.zwieback.familyfinance.business.chart.service.grouper;
 
 import org.threeten.bp.LocalDate;
 
-import java.util.List;
-import java.util.Map;
+import io.github.zwieback.familyfinance.business.operation.query.OperationSnapshot;
 
-import io.github.zwieback.familyfinance.core.model.OperationView;
+/**
+ * @param <G> type of the grouped operations
+ */
+public interface OperationGrouper<G> {
 
-public interface OperationGrouper {
-
-    Map<Float, List<OperationView>> group(List<OperationView> operations,
-                                          LocalDate startDate,
-                                          LocalDate endDate);
+    G group(OperationSnapshot snapshot, LocalDate startDate, LocalDate endDate);
 }
@@ -1,17 +1,67 @@
 package io.github.zwieback.familyfinance.business.chart.service.grouper.bar;
 
 import org.threeten.bp.LocalDate;
-import org.threeten.bp.temporal.TemporalUnit;
 
 import io.github.zwieback.familyfinance.business.chart.service.grouper.OperationGrouper;
+import io.github.zwieback.familyfinance.business.operation.query.OperationSnapshot;
+import io.github.zwieback.familyfinance.util.DateUtils;
 
-abstract class BarOperationGrouper implements OperationGrouper {
+/**
+ * Groups the rows of the snapshot into the periods and sums them by
+ * operation type in the one pass over the snapshot, without intermediate
+ * lists of operations.
+ */
+abstract class BarOperationGrouper implements OperationGrouper<BarOperationSums> {
 
     private static final int INCLUDE_END_DATE = 1;
 
-    abstract TemporalUnit getTemporalUnit();
+    private final int nativeCurrencyId;
 
-    final long calculatePeriodBetween(LocalDate startDate, LocalDate endDate) {
-        return getTemporalUnit().between(startDate, endDate) + INCLUDE_END_DATE;
+    /**
+     * @param nativeCurrencyId id of the currency, to which the sums are
+     *                         converted
+     */
+    BarOperationGrouper(int nativeCurrencyId) {
+        this.nativeCurrencyId = nativeCurrencyId;
+    }
+
+    /**
+     * @param date date to convert
+     * @return number of the period, which contains the date
+     */
+    abstract long toBucket(LocalDate date);
+
+    /**
+     * @param epochDay days from epoch day
+     * @return number of the period, which contains the day
+     */
+    long toBucket(int epochDay) {
+        return toBucket(DateUtils.epochDayToLocalDate(epochDay));
+    }
+
+    /**
+     * @param snapshot source snapshot
+     * @return sums of operations by period and type
+     */
+    @Override
+    public final BarOperationSums group(OperationSnapshot snapshot,
+                                        LocalDate startDate,
+                                        LocalDate endDate) {
+        long firstBucket = toBucket(startDate);
+        int bucketCount = (int) Math.max(toBucket(endDate) - firstBucket + INCLUDE_END_DATE, 0);
+        BarOperationSums sums = new BarOperationSums(firstBucket, bucketCount);
+        for (int i = 0; i < snapshot.size(); i++) {
+            long index = toBucket(snapshot.getEpochDay(i)) - firstBucket;
+            if (index < 0 || index >= bucketCount) {
+                continue;
+            }
+            if (snapshot.getCurrencyId(i) == nativeCurrencyId) {
+                sums.addNative((int) index, snapshot.getType(i), snapshot.getValue(i));
+            } else {
+                sums.addForeign((int) index, snapshot.getType(i), snapshot.getValue(i),
+                        snapshot.getExchangeRateValue(i));
+            }
+        }
+        return sums;
     }
 }
@@ -0,0 +1,83 @@
+package io.github.zwieback.familyfinance.business.chart.service.grouper.bar;
+
+import android.support.annotation.NonNull;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import io.github.zwieback.familyfinance.core.model.type.OperationType;
+import io.github.zwieback.familyfinance.util.FixedPointAccumulator;
+
+/**
+ * Sums of operations in the native currency by period and operation type,
+ * calculated by {@link BarOperationGrouper}.
+ * <p>
+ * Every period between start date and end date has the sums, even if there
+ * are no operations in that period.
+ */
+public final class BarOperationSums {
+
+    private static final int TYPE_COUNT = OperationType.values().length;
+
+    private final long firstBucket;
+    private final int bucketCount;
+    /**
+     * Sums of operations, [type][bucket index]; {@code null} until the first
+     * operation of the type in the period.
+     */
+    private final FixedPointAccumulator[][] sums;
+
+    BarOperationSums(long firstBucket, int bucketCount) {
+        this.firstBucket = firstBucket;
+        this.bucketCount = bucketCount;
+        this.sums = new FixedPointAccumulator[TYPE_COUNT][bucketCount];
+    }
+
+    void addNative(int bucketIndex, @NonNull OperationType type, long worth) {
+        getAccumulator(bucketIndex, type).addWorth(worth);
+    }
+
+    void addForeign(int bucketIndex, @NonNull OperationType type, long worth, long exchangeRate) {
+        getAccumulator(bucketIndex, type).addProduct(worth, exchangeRate);
+    }
+
+    @NonNull
+    private FixedPointAccumulator getAccumulator(int bucketIndex, @NonNull OperationType type) {
+        FixedPointAccumulator[] typeSums = sums[type.ordinal()];
+        FixedPointAccumulator accumulator = typeSums[bucketIndex];
+        if (accumulator == null) {
+            accumulator = new FixedPointAccumulator();
+            typeSums[bucketIndex] = accumulator;
+        }
+        return accumulator;
+    }
+
+    public int getBucketCount() {
+        return bucketCount;
+    }
+
+    /**
+     * @param bucketIndex index of the period, from 0 to {@link #getBucketCount()}
+     * @return number of the period, e.g. months from epoch day
+     */
+    public float getBucket(int bucketIndex) {
+        return firstBucket + bucketIndex;
+    }
+
+    /**
+     * @param bucketIndex index of the period
+     * @param types       types of operations to sum
+     * @return sum of operations of these types in the period
+     */
+    @NonNull
+    public BigDecimal getSum(int bucketIndex, @NonNull List<OperationType> types) {
+        FixedPointAccumulator sum = new FixedPointAccumulator();
+        for (OperationType type : types) {
+            FixedPointAccumulator typeSum = sums[type.ordinal()][bucketIndex];
+            if (typeSum != null) {
+                sum.add(typeSum);
+            }
+        }
+        return sum.toBigDecimal();
+    }
+}
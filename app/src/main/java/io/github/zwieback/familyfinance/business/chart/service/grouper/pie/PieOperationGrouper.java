@@ -1,48 +1,61 @@
 package io.github.zwieback.familyfinance.business.chart.service.grouper.pie;
 
-import android.support.annotation.NonNull;
-
-import com.annimon.stream.Collectors;
-import com.annimon.stream.Stream;
+import android.util.SparseArray;
 
 import org.threeten.bp.LocalDate;
 
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.Set;
 
 import io.github.zwieback.familyfinance.business.chart.service.grouper.OperationGrouper;
-import io.github.zwieback.familyfinance.core.model.OperationView;
+import io.github.zwieback.familyfinance.business.operation.query.OperationAggregate;
+import io.github.zwieback.familyfinance.business.operation.query.OperationSnapshot;
+import io.github.zwieback.familyfinance.util.NumberUtils;
 
-abstract class PieOperationGrouper implements OperationGrouper {
+abstract class PieOperationGrouper
+        implements OperationGrouper<Map<Float, List<OperationAggregate>>> {
 
     /**
-     * Result.Key - group id.<br/>
-     * Result.Value - operations of that group.
-     *
-     * @param operations source operations
-     * @return grouped operations
+     * @param snapshot source snapshot
+     * @param index    index of the row
+     * @return id of the group of the row or {@link NumberUtils#ID_AS_NULL} to
+     * skip the row
      */
-    @Override
-    public Map<Float, List<OperationView>> group(List<OperationView> operations,
-                                                 LocalDate startDate,
-                                                 LocalDate endDate) {
-        Set<Integer> groupIds = collectGroupIds(operations);
-        return Stream.of(groupIds)
-                .collect(Collectors.toMap(
-                        Float::valueOf,
-                        groupId -> filterByGroup(groupId, operations)
-                ));
-    }
+    abstract int toGroupId(OperationSnapshot snapshot, int index);
 
     /**
-     * Collect article ids.
+     * Result.Key - group id.<br/>
+     * Result.Value - aggregates of that group.
+     * <p>
+     * Rows of the snapshot are partitioned by the one pass.
      *
-     * @param operations source operations
-     * @return set of article ids
+     * @param snapshot source snapshot
+     * @return grouped aggregates
      */
-    abstract Set<Integer> collectGroupIds(List<OperationView> operations);
-
-    abstract List<OperationView> filterByGroup(@NonNull Integer groupId,
-                                               List<OperationView> operations);
+    @Override
+    public final Map<Float, List<OperationAggregate>> group(OperationSnapshot snapshot,
+                                                            LocalDate startDate,
+                                                            LocalDate endDate) {
+        SparseArray<List<OperationAggregate>> groups = new SparseArray<>();
+        for (int i = 0; i < snapshot.size(); i++) {
+            int groupId = toGroupId(snapshot, i);
+            if (NumberUtils.isNullId(groupId)) {
+                continue;
+            }
+            List<OperationAggregate> groupAggregates = groups.get(groupId);
+            if (groupAggregates == null) {
+                groupAggregates = new ArrayList<>();
+                groups.put(groupId, groupAggregates);
+            }
+            groupAggregates.add(snapshot.toAggregate(i, groupId,
+                    snapshot.getArticleName(groupId)));
+        }
+        Map<Float, List<OperationAggregate>> result = new HashMap<>(groups.size() * 4 / 3 + 1);
+        for (int i = 0; i < groups.size(); i++) {
+            result.put((float) groups.keyAt(i), groups.valueAt(i));
+        }
+        return result;
+    }
 }
@@ -6,7 +6,7 @@ import android.support.annotation.NonNull;
 import io.github.zwieback.familyfinance.R;
 import io.github.zwieback.familyfinance.business.currency.filter.CurrencyFilter;
 import io.github.zwieback.familyfinance.business.currency.fragment.CurrencyFragment;
-import io.github.zwieback.familyfinance.business.currency.lifecycle.destroyer.CurrencyFromAccountsDestroyer;
+import io.github.zwieback.familyfinance.business.currency.lifecycle.destroyer.CurrencyDestroyer;
 import io.github.zwieback.familyfinance.business.currency.listener.OnCurrencyClickListener;
 import io.github.zwieback.familyfinance.core.activity.EntityActivity;
 import io.github.zwieback.familyfinance.core.lifecycle.destroyer.EntityDestroyer;
@@ -76,6 +76,6 @@ public class CurrencyActivity
 
     @Override
     protected EntityDestroyer<Currency> createDestroyer(CurrencyView entity) {
-        return new CurrencyFromAccountsDestroyer(this, data);
+        return new CurrencyDestroyer(this, data);
     }
 }
@@ -0,0 +1,49 @@
+package io.github.zwieback.familyfinance.business.currency.lifecycle.destroyer;
+
+import android.content.Context;
+import android.support.annotation.NonNull;
+
+import java.util.Arrays;
+import java.util.List;
+
+import io.github.zwieback.familyfinance.R;
+import io.github.zwieback.familyfinance.core.lifecycle.destroyer.DestroyConstraint;
+import io.github.zwieback.familyfinance.core.lifecycle.destroyer.EntityForceDestroyer;
+import io.github.zwieback.familyfinance.core.lifecycle.destroyer.EntityValidatingDestroyer;
+import io.github.zwieback.familyfinance.core.model.Account;
+import io.github.zwieback.familyfinance.core.model.Currency;
+import io.github.zwieback.familyfinance.core.model.ExchangeRate;
+import io.requery.Persistable;
+import io.requery.reactivex.ReactiveEntityStore;
+
+public class CurrencyDestroyer extends EntityValidatingDestroyer<Currency> {
+
+    public CurrencyDestroyer(Context context, ReactiveEntityStore<Persistable> data) {
+        super(context, data);
+    }
+
+    @Override
+    protected EntityForceDestroyer<Currency> next() {
+        return new CurrencyForceDestroyer(context, data);
+    }
+
+    @NonNull
+    @Override
+    protected List<DestroyConstraint> getConstraints() {
+        return Arrays.asList(
+                DestroyConstraint.of(Account.$TYPE, Account.CURRENCY_ID,
+                        R.string.accounts_with_currency_exists),
+                DestroyConstraint.of(ExchangeRate.$TYPE, ExchangeRate.CURRENCY_ID,
+                        R.string.exchange_rates_with_currency_exists));
+    }
+
+    @Override
+    protected boolean preferencesContainsEntity(Currency currency) {
+        return databasePrefs.getCurrencyId() == currency.getId();
+    }
+
+    @Override
+    protected int getPreferencesAlertResourceId() {
+        return R.string.preferences_contains_currency;
+    }
+}
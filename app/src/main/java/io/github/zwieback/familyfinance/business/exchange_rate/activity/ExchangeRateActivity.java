@@ -9,7 +9,7 @@ import io.github.zwieback.familyfinance.R;
 import io.github.zwieback.familyfinance.business.exchange_rate.dialog.ExchangeRateFilterDialog;
 import io.github.zwieback.familyfinance.business.exchange_rate.filter.ExchangeRateFilter;
 import io.github.zwieback.familyfinance.business.exchange_rate.fragment.ExchangeRateFragment;
-import io.github.zwieback.familyfinance.business.exchange_rate.lifecycle.destroyer.ExchangeRateFromExpenseOperationsDestroyer;
+import io.github.zwieback.familyfinance.business.exchange_rate.lifecycle.destroyer.ExchangeRateDestroyer;
 import io.github.zwieback.familyfinance.business.exchange_rate.listener.OnExchangeRateClickListener;
 import io.github.zwieback.familyfinance.core.activity.EntityActivity;
 import io.github.zwieback.familyfinance.core.lifecycle.destroyer.EntityDestroyer;
@@ -98,7 +98,7 @@ public class ExchangeRateActivity
 
     @Override
     protected EntityDestroyer<ExchangeRate> createDestroyer(ExchangeRateView exchangeRateView) {
-        return new ExchangeRateFromExpenseOperationsDestroyer(this, data);
+        return new ExchangeRateDestroyer(this, data);
     }
 
     @Override
@@ -0,0 +1,46 @@
+package io.github.zwieback.familyfinance.business.exchange_rate.lifecycle.destroyer;
+
+import android.content.Context;
+import android.support.annotation.NonNull;
+
+import java.util.Arrays;
+import java.util.List;
+
+import io.github.zwieback.familyfinance.R;
+import io.github.zwieback.familyfinance.core.lifecycle.destroyer.DestroyConstraint;
+import io.github.zwieback.familyfinance.core.lifecycle.destroyer.EntityForceDestroyer;
+import io.github.zwieback.familyfinance.core.lifecycle.destroyer.EntityValidatingDestroyer;
+import io.github.zwieback.familyfinance.core.model.ExchangeRate;
+import io.github.zwieback.familyfinance.core.model.Operation;
+import io.requery.Persistable;
+import io.requery.reactivex.ReactiveEntityStore;
+
+import static io.github.zwieback.familyfinance.core.model.type.OperationType.EXPENSE_OPERATION;
+import static io.github.zwieback.familyfinance.core.model.type.OperationType.INCOME_OPERATION;
+import static io.github.zwieback.familyfinance.core.model.type.OperationType.TRANSFER_EXPENSE_OPERATION;
+import static io.github.zwieback.familyfinance.core.model.type.OperationType.TRANSFER_INCOME_OPERATION;
+
+public class ExchangeRateDestroyer extends EntityValidatingDestroyer<ExchangeRate> {
+
+    public ExchangeRateDestroyer(Context context, ReactiveEntityStore<Persistable> data) {
+        super(context, data);
+    }
+
+    @Override
+    protected EntityForceDestroyer<ExchangeRate> next() {
+        return new ExchangeRateForceDestroyer(context, data);
+    }
+
+    @NonNull
+    @Override
+    protected List<DestroyConstraint> getConstraints() {
+        return Arrays.asList(
+                DestroyConstraint.ofOperations(Operation.EXCHANGE_RATE_ID,
+                        R.string.expense_operations_with_exchange_rate_exists, EXPENSE_OPERATION),
+                DestroyConstraint.ofOperations(Operation.EXCHANGE_RATE_ID,
+                        R.string.income_operations_with_exchange_rate_exists, INCOME_OPERATION),
+                DestroyConstraint.ofOperations(Operation.EXCHANGE_RATE_ID,
+                        R.string.transfer_operations_with_exchange_rate_exists,
+                        TRANSFER_EXPENSE_OPERATION, TRANSFER_INCOME_OPERATION));
+    }
+}
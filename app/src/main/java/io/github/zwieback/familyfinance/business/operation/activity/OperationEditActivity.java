@@ -14,6 +14,7 @@ import android.widget.EditText;
 import org.threeten.bp.LocalDate;
 
 import io.github.zwieback.familyfinance.business.account.activity.AccountActivity;
+import io.github.zwieback.familyfinance.business.account.service.ledger.AccountBalanceLedger;
 import io.github.zwieback.familyfinance.business.currency.activity.CurrencyActivity;
 import io.github.zwieback.familyfinance.business.exchange_rate.activity.ExchangeRateActivity;
 import io.github.zwieback.familyfinance.business.exchange_rate.helper.ExchangeRateFinder;
@@ -25,6 +26,7 @@ import io.github.zwieback.familyfinance.core.model.Operation;
 import io.github.zwieback.familyfinance.core.model.Person;
 import io.github.zwieback.familyfinance.core.model.type.OperationType;
 import io.github.zwieback.familyfinance.widget.ClearableEditText;
+import io.reactivex.Single;
 import io.reactivex.functions.Consumer;
 
 import static io.github.zwieback.familyfinance.business.dashboard.activity.DashboardActivity.CURRENCY_CODE;
@@ -193,6 +195,12 @@ abstract class OperationEditActivity<B extends ViewDataBinding>
         operation.setUrl(getUrlEdit().getText().toString());
     }
 
+    @NonNull
+    @Override
+    protected Single<Operation> persistEntity(Operation operation) {
+        return new AccountBalanceLedger(data).save(operation);
+    }
+
     abstract OperationType getOperationType();
 
     abstract ClearableEditText getOwnerEdit();
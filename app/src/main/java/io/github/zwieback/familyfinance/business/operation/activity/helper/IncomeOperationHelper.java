@@ -11,6 +11,7 @@ import java.math.BigDecimal;
 
 import io.github.zwieback.familyfinance.business.operation.activity.IncomeOperationEditActivity;
 import io.github.zwieback.familyfinance.business.operation.filter.IncomeOperationFilter;
+import io.github.zwieback.familyfinance.business.operation.service.writer.OperationBatchWriter;
 import io.github.zwieback.familyfinance.core.model.Account;
 import io.github.zwieback.familyfinance.core.model.Article;
 import io.github.zwieback.familyfinance.core.model.ExchangeRate;
@@ -21,11 +22,7 @@ import io.github.zwieback.familyfinance.core.model.type.OperationType;
 import io.github.zwieback.familyfinance.util.DateUtils;
 import io.github.zwieback.familyfinance.util.NumberUtils;
 import io.github.zwieback.familyfinance.util.StringUtils;
-import io.reactivex.Maybe;
-import io.reactivex.android.schedulers.AndroidSchedulers;
-import io.reactivex.disposables.Disposable;
-import io.reactivex.functions.Consumer;
-import io.reactivex.schedulers.Schedulers;
+import io.requery.BlockingEntityStore;
 import io.requery.Persistable;
 import io.requery.reactivex.ReactiveEntityStore;
 
@@ -187,37 +184,31 @@ public class IncomeOperationHelper extends OperationHelper<IncomeOperationFilter
                 .putExtra(INPUT_OPERATION_TYPE, OperationType.INCOME_OPERATION);
     }
 
-    @NonNull
     @Override
-    public Disposable addOperationImmediately(@NonNull Intent intent, @NonNull Consumer<Operation> onSuccess) {
-        int accountId = intent.getIntExtra(IncomeOperationEditActivity.INPUT_INCOME_ACCOUNT_ID, 0);
-        int articleId = intent.getIntExtra(IncomeOperationEditActivity.INPUT_INCOME_ARTICLE_ID, 0);
-        int ownerId = intent.getIntExtra(IncomeOperationEditActivity.INPUT_INCOME_OWNER_ID, 0);
-        int exchangeRateId = intent.getIntExtra(IncomeOperationEditActivity.INPUT_INCOME_EXCHANGE_RATE_ID, 0);
-        LocalDate date = DateUtils.readLocalDateFromIntent(intent, IncomeOperationEditActivity.INPUT_INCOME_DATE);
-        BigDecimal value = NumberUtils.readBigDecimalFromIntent(intent, IncomeOperationEditActivity.INPUT_INCOME_VALUE);
-        String description = intent.getStringExtra(IncomeOperationEditActivity.INPUT_INCOME_DESCRIPTION);
-        String url = intent.getStringExtra(IncomeOperationEditActivity.INPUT_INCOME_URL);
-        return Maybe.zip(
-                data.findByKey(Account.class, accountId),
-                data.findByKey(Article.class, articleId),
-                data.findByKey(Person.class, ownerId),
-                data.findByKey(ExchangeRate.class, exchangeRateId),
-                (account, article, owner, exchangeRate) ->
-                        new Operation()
-                                .setType(OperationType.INCOME_OPERATION)
-                                .setAccount(account)
-                                .setArticle(article)
-                                .setOwner(owner)
-                                .setExchangeRate(exchangeRate)
-                                .setDate(date)
-                                .setValue(value)
-                                .setDescription(description)
-                                .setUrl(url)
-        )
-                .flatMapSingle(data::insert)
-                .subscribeOn(Schedulers.io())
-                .observeOn(AndroidSchedulers.mainThread())
-                .subscribe(onSuccess);
+    public boolean addOperationImmediately(@NonNull Intent intent,
+                                           @NonNull OperationBatchWriter writer) {
+        BlockingEntityStore<Persistable> store = data.toBlocking();
+        Account account = store.findByKey(Account.class,
+                intent.getIntExtra(IncomeOperationEditActivity.INPUT_INCOME_ACCOUNT_ID, 0));
+        Article article = store.findByKey(Article.class,
+                intent.getIntExtra(IncomeOperationEditActivity.INPUT_INCOME_ARTICLE_ID, 0));
+        Person owner = store.findByKey(Person.class,
+                intent.getIntExtra(IncomeOperationEditActivity.INPUT_INCOME_OWNER_ID, 0));
+        ExchangeRate exchangeRate = store.findByKey(ExchangeRate.class,
+                intent.getIntExtra(IncomeOperationEditActivity.INPUT_INCOME_EXCHANGE_RATE_ID, 0));
+        if (account == null || article == null || owner == null || exchangeRate == null) {
+            return false;
+        }
+        writer.add(new Operation()
+                .setType(OperationType.INCOME_OPERATION)
+                .setAccount(account)
+                .setArticle(article)
+                .setOwner(owner)
+                .setExchangeRate(exchangeRate)
+                .setDate(DateUtils.readLocalDateFromIntent(intent, IncomeOperationEditActivity.INPUT_INCOME_DATE))
+                .setValue(NumberUtils.readBigDecimalFromIntent(intent, IncomeOperationEditActivity.INPUT_INCOME_VALUE))
+                .setDescription(intent.getStringExtra(IncomeOperationEditActivity.INPUT_INCOME_DESCRIPTION))
+                .setUrl(intent.getStringExtra(IncomeOperationEditActivity.INPUT_INCOME_URL)));
+        return true;
     }
 }
@@ -11,13 +11,12 @@ import java.math.BigDecimal;
 
 import io.github.zwieback.familyfinance.business.operation.filter.OperationFilter;
 import io.github.zwieback.familyfinance.business.operation.lifecycle.destroyer.OperationForceDestroyer;
+import io.github.zwieback.familyfinance.business.operation.service.writer.OperationBatchWriter;
 import io.github.zwieback.familyfinance.business.sms.service.AddOperationImmediatelyService;
 import io.github.zwieback.familyfinance.core.lifecycle.destroyer.EntityDestroyer;
 import io.github.zwieback.familyfinance.core.model.Operation;
 import io.github.zwieback.familyfinance.core.model.OperationView;
 import io.github.zwieback.familyfinance.core.preference.config.DatabasePrefs;
-import io.reactivex.disposables.Disposable;
-import io.reactivex.functions.Consumer;
 import io.requery.Persistable;
 import io.requery.reactivex.ReactiveEntityStore;
 
@@ -98,8 +97,15 @@ public abstract class OperationHelper<FILTER extends OperationFilter> {
                 .setAction("ACTION_ADD_OPERATION_IMMEDIATELY");
     }
 
-    @NonNull
-    public abstract Disposable addOperationImmediately(@NonNull Intent intent, @NonNull Consumer<Operation> onSuccess);
+    /**
+     * Add the operation of the intent, which is built by
+     * {@link #getIntentToAddImmediately}, to the writer. Must be called on the
+     * background thread.
+     *
+     * @return {@code false} if any entity of the intent isn't found
+     */
+    public abstract boolean addOperationImmediately(@NonNull Intent intent,
+                                                    @NonNull OperationBatchWriter writer);
 
     public EntityDestroyer<Operation> createDestroyer(OperationView operation) {
         return new OperationForceDestroyer(context, data);
@@ -12,6 +12,7 @@ import java.math.BigDecimal;
 import io.github.zwieback.familyfinance.business.operation.activity.TransferOperationEditActivity;
 import io.github.zwieback.familyfinance.business.operation.filter.TransferOperationFilter;
 import io.github.zwieback.familyfinance.business.operation.lifecycle.destroyer.TransferOperationForceDestroyer;
+import io.github.zwieback.familyfinance.business.operation.service.writer.OperationBatchWriter;
 import io.github.zwieback.familyfinance.core.lifecycle.destroyer.EntityDestroyer;
 import io.github.zwieback.familyfinance.core.model.Account;
 import io.github.zwieback.familyfinance.core.model.Article;
@@ -23,11 +24,7 @@ import io.github.zwieback.familyfinance.core.model.type.OperationType;
 import io.github.zwieback.familyfinance.util.DateUtils;
 import io.github.zwieback.familyfinance.util.NumberUtils;
 import io.github.zwieback.familyfinance.util.StringUtils;
-import io.reactivex.Maybe;
-import io.reactivex.android.schedulers.AndroidSchedulers;
-import io.reactivex.disposables.Disposable;
-import io.reactivex.functions.Consumer;
-import io.reactivex.schedulers.Schedulers;
+import io.requery.BlockingEntityStore;
 import io.requery.Persistable;
 import io.requery.reactivex.ReactiveEntityStore;
 
@@ -197,76 +194,52 @@ public class TransferOperationHelper extends OperationHelper<TransferOperationFi
     }
 
     /**
-     * What's going on here:
-     * <ol>
-     * <li>
-     * Created transfer expense operation without linked (transfer income)
-     * operation.
-     * <li>
-     * Created duplicate of transfer expense operation with income type and
-     * transfer expense operation as linked operation, that was created on
-     * the previous step.
-     * <li>
-     * Updated transfer expense operation with transfer income operation as
-     * linked operation, that was created on the previous step.
-     * </ol>
+     * Both operations are written by the {@link OperationBatchWriter} in the
+     * one transaction, which links them to each other.
      */
-    @NonNull
     @Override
-    public Disposable addOperationImmediately(@NonNull Intent intent, @NonNull Consumer<Operation> onSuccess) {
-        int expenseAccountId = intent.getIntExtra(TransferOperationEditActivity.INPUT_EXPENSE_ACCOUNT_ID, 0);
-        int incomeAccountId = intent.getIntExtra(TransferOperationEditActivity.INPUT_INCOME_ACCOUNT_ID, 0);
-        int articleId = databasePrefs.getTransferArticleId();
-        int ownerId = intent.getIntExtra(TransferOperationEditActivity.INPUT_EXPENSE_OWNER_ID, 0);
-        int exchangeRateId = intent.getIntExtra(TransferOperationEditActivity.INPUT_EXPENSE_EXCHANGE_RATE_ID, 0);
+    public boolean addOperationImmediately(@NonNull Intent intent,
+                                           @NonNull OperationBatchWriter writer) {
+        BlockingEntityStore<Persistable> store = data.toBlocking();
+        Account expenseAccount = store.findByKey(Account.class,
+                intent.getIntExtra(TransferOperationEditActivity.INPUT_EXPENSE_ACCOUNT_ID, 0));
+        Account incomeAccount = store.findByKey(Account.class,
+                intent.getIntExtra(TransferOperationEditActivity.INPUT_INCOME_ACCOUNT_ID, 0));
+        Article article = store.findByKey(Article.class, databasePrefs.getTransferArticleId());
+        Person owner = store.findByKey(Person.class,
+                intent.getIntExtra(TransferOperationEditActivity.INPUT_EXPENSE_OWNER_ID, 0));
+        ExchangeRate exchangeRate = store.findByKey(ExchangeRate.class,
+                intent.getIntExtra(TransferOperationEditActivity.INPUT_EXPENSE_EXCHANGE_RATE_ID, 0));
+        if (expenseAccount == null || incomeAccount == null || article == null
+                || owner == null || exchangeRate == null) {
+            return false;
+        }
         LocalDate date = DateUtils.readLocalDateFromIntent(intent, TransferOperationEditActivity.INPUT_EXPENSE_DATE);
         BigDecimal value = NumberUtils.readBigDecimalFromIntent(intent, TransferOperationEditActivity.INPUT_EXPENSE_VALUE);
         String description = intent.getStringExtra(TransferOperationEditActivity.INPUT_EXPENSE_DESCRIPTION);
         String url = intent.getStringExtra(TransferOperationEditActivity.INPUT_EXPENSE_URL);
-        return Maybe.zip(
-                data.findByKey(Account.class, expenseAccountId),
-                data.findByKey(Article.class, articleId),
-                data.findByKey(Person.class, ownerId),
-                data.findByKey(ExchangeRate.class, exchangeRateId),
-                (expenseAccount, article, owner, exchangeRate) ->
-                        new Operation()
-                                .setType(OperationType.TRANSFER_EXPENSE_OPERATION)
-                                .setAccount(expenseAccount)
-                                .setArticle(article)
-                                .setOwner(owner)
-                                .setExchangeRate(exchangeRate)
-                                .setDate(date)
-                                .setValue(value)
-                                .setDescription(description)
-                                .setUrl(url)
-        )
-                .flatMapSingle(transferExpenseOperation -> data
-                        .insert(transferExpenseOperation)
-                        .flatMap(transferExpenseOperationToo -> data
-                                .findByKey(Account.class, incomeAccountId)
-                                .flatMapSingle(incomeAccount -> data
-                                        .insert(new Operation()
-                                                .setType(OperationType.TRANSFER_INCOME_OPERATION)
-                                                .setAccount(incomeAccount)
-                                                .setLinkedTransferOperation(transferExpenseOperation)
-                                                .setArticle(transferExpenseOperation.getArticle())
-                                                .setOwner(transferExpenseOperation.getOwner())
-                                                .setExchangeRate(transferExpenseOperation.getExchangeRate())
-                                                .setDate(date)
-                                                .setValue(value)
-                                                .setDescription(description)
-                                                .setUrl(url)
-                                        )
-                                        .flatMap(transferIncomeOperation -> {
-                                            transferExpenseOperation.setLinkedTransferOperation(transferIncomeOperation);
-                                            return data.update(transferExpenseOperation);
-                                        })
-                                )
-                        )
-                )
-                .subscribeOn(Schedulers.io())
-                .observeOn(AndroidSchedulers.mainThread())
-                .subscribe(onSuccess);
+        Operation transferExpenseOperation = new Operation()
+                .setType(OperationType.TRANSFER_EXPENSE_OPERATION)
+                .setAccount(expenseAccount)
+                .setArticle(article)
+                .setOwner(owner)
+                .setExchangeRate(exchangeRate)
+                .setDate(date)
+                .setValue(value)
+                .setDescription(description)
+                .setUrl(url);
+        Operation transferIncomeOperation = new Operation()
+                .setType(OperationType.TRANSFER_INCOME_OPERATION)
+                .setAccount(incomeAccount)
+                .setArticle(article)
+                .setOwner(owner)
+                .setExchangeRate(exchangeRate)
+                .setDate(date)
+                .setValue(value)
+                .setDescription(description)
+                .setUrl(url);
+        writer.addTransfer(transferExpenseOperation, transferIncomeOperation);
+        return true;
     }
 
     @Override
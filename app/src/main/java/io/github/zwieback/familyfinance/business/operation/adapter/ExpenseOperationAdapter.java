@@ -1,10 +1,14 @@
 package io.github.zwieback.familyfinance.business.operation.adapter;
 
 import android.content.Context;
+import android.support.annotation.Nullable;
+
+import java.util.List;
 
 import io.github.zwieback.familyfinance.business.operation.filter.ExpenseOperationFilter;
 import io.github.zwieback.familyfinance.business.operation.listener.OnOperationClickListener;
 import io.github.zwieback.familyfinance.business.operation.query.ExpenseOperationQueryBuilder;
+import io.github.zwieback.familyfinance.business.operation.service.calculator.BalanceCalculator;
 import io.github.zwieback.familyfinance.business.operation.service.provider.ExpenseOperationViewProvider;
 import io.github.zwieback.familyfinance.core.adapter.EntityProvider;
 import io.github.zwieback.familyfinance.core.model.OperationView;
@@ -28,6 +32,20 @@ public class ExpenseOperationAdapter extends OperationAdapter<ExpenseOperationFi
 
     @Override
     public Result<OperationView> performQuery() {
+        return createQueryBuilder().build();
+    }
+
+    @Override
+    protected List<OperationView> performPageQuery(@Nullable OperationView pageEnd, int pageSize) {
+        return createQueryBuilder().buildPage(pageEnd, pageSize);
+    }
+
+    @Override
+    protected String performBalanceQuery() {
+        return createQueryBuilder().buildBalance(BalanceCalculator::calculateBalance);
+    }
+
+    private ExpenseOperationQueryBuilder createQueryBuilder() {
         return ExpenseOperationQueryBuilder.create(data)
                 .setStartDate(filter.getStartDate())
                 .setEndDate(filter.getEndDate())
@@ -36,7 +54,6 @@ public class ExpenseOperationAdapter extends OperationAdapter<ExpenseOperationFi
                 .setOwnerId(filter.getOwnerId())
                 .setCurrencyId(filter.getCurrencyId())
                 .setArticleId(filter.getArticleId())
-                .setAccountId(filter.getAccountId())
-                .build();
+                .setAccountId(filter.getAccountId());
     }
 }
@@ -1,13 +1,17 @@
 package io.github.zwieback.familyfinance.business.operation.adapter;
 
 import android.content.Context;
+import android.support.annotation.NonNull;
 import android.support.annotation.Nullable;
 import android.support.annotation.StringRes;
+import android.util.Log;
 import android.view.LayoutInflater;
 import android.widget.TextView;
 
+import java.util.ArrayList;
+import java.util.List;
+
 import io.github.zwieback.familyfinance.R;
-import io.github.zwieback.familyfinance.business.operation.service.calculator.BalanceCalculator;
 import io.github.zwieback.familyfinance.business.operation.filter.OperationFilter;
 import io.github.zwieback.familyfinance.business.operation.listener.OnOperationClickListener;
 import io.github.zwieback.familyfinance.core.adapter.BindingHolder;
@@ -19,22 +23,42 @@ import io.reactivex.android.schedulers.AndroidSchedulers;
 import io.reactivex.disposables.Disposable;
 import io.reactivex.schedulers.Schedulers;
 import io.requery.Persistable;
-import io.requery.query.Result;
 import io.requery.reactivex.ReactiveEntityStore;
 
+/**
+ * Adapter of the operations, which are loaded by pages, so the first page is
+ * shown at the same time regardless of the size of the history.
+ * <p>
+ * The next page is requested when the item within the prefetch distance from
+ * the end of the loaded operations is bound.
+ */
 public abstract class OperationAdapter<FILTER extends OperationFilter>
         extends EntityAdapter<OperationView, FILTER, ItemOperationBinding,
         OnOperationClickListener> {
 
+    private static final String TAG = "OperationAdapter";
+    private static final int DEFAULT_PAGE_SIZE = 50;
+    private static final int DEFAULT_PREFETCH_DISTANCE = 15;
+
     @Nullable
     private TextView balanceView;
     private Disposable balanceCalculation;
 
+    private final List<OperationView> operations;
+    private int pageSize;
+    private int prefetchDistance;
+    private Disposable pageLoading;
+    private boolean pageLoadingInProgress;
+    private boolean lastPageLoaded;
+
     OperationAdapter(Context context,
                      OnOperationClickListener clickListener,
                      ReactiveEntityStore<Persistable> data,
                      FILTER filter) {
         super(OperationView.$TYPE, context, clickListener, data, filter);
+        this.operations = new ArrayList<>();
+        this.pageSize = DEFAULT_PAGE_SIZE;
+        this.prefetchDistance = DEFAULT_PREFETCH_DISTANCE;
     }
 
     @Override
@@ -47,6 +71,29 @@ public abstract class OperationAdapter<FILTER extends OperationFilter>
         return (OperationView) binding.getOperation();
     }
 
+    @Override
+    public int getItemCount() {
+        return operations.size();
+    }
+
+    @Override
+    public long getItemId(int position) {
+        return operations.get(position).getId();
+    }
+
+    @Override
+    public int getItemViewType(int position) {
+        return 0;
+    }
+
+    @Override
+    public void onBindViewHolder(BindingHolder<ItemOperationBinding> holder, int position) {
+        onBindViewHolder(operations.get(position), holder, position);
+        if (position >= operations.size() - 1 - prefetchDistance) {
+            loadNextPage();
+        }
+    }
+
     @Override
     public void onBindViewHolder(OperationView operation,
                                  BindingHolder<ItemOperationBinding> holder,
@@ -60,30 +107,118 @@ public abstract class OperationAdapter<FILTER extends OperationFilter>
         this.balanceView = balanceView;
     }
 
+    /**
+     * @param pageSize         number of the operations, which are loaded at
+     *                         once
+     * @param prefetchDistance number of the not shown operations, when the
+     *                         next page is requested
+     */
+    public final void setPaging(int pageSize, int prefetchDistance) {
+        if (pageSize <= 0) {
+            throw new IllegalArgumentException("Page size must be positive: " + pageSize);
+        }
+        if (prefetchDistance < 0) {
+            throw new IllegalArgumentException("Prefetch distance must not be negative: "
+                    + prefetchDistance);
+        }
+        this.pageSize = pageSize;
+        this.prefetchDistance = prefetchDistance;
+    }
+
     @Override
     public void close() {
         super.close();
+        cancelPageLoading();
         cancelBalanceCalculation();
     }
 
+    /**
+     * Reload the operations from the first page. The loaded operations are
+     * shown until they are replaced by the first page.
+     */
     @Override
     public void queryAsync() {
-        super.queryAsync();
+        cancelPageLoading();
+        loadPage(null);
         calculateBalanceInBackground();
     }
 
+    private void loadNextPage() {
+        if (pageLoadingInProgress || lastPageLoaded || operations.isEmpty()) {
+            return;
+        }
+        loadPage(operations.get(operations.size() - 1));
+    }
+
+    /**
+     * @param pageEnd last operation of the loaded page or {@code null} to
+     *                load the first page
+     */
+    private void loadPage(@Nullable OperationView pageEnd) {
+        int size = pageSize;
+        pageLoadingInProgress = true;
+        pageLoading = Observable.fromCallable(() -> performPageQuery(pageEnd, size))
+                .subscribeOn(Schedulers.io())
+                .observeOn(AndroidSchedulers.mainThread())
+                .subscribe(page -> onPageLoaded(page, size, pageEnd == null),
+                        this::onPageLoadingFailed);
+    }
+
+    /**
+     * The loaded operations are kept, so the failed page is requested again
+     * when the item near the end is bound.
+     */
+    private void onPageLoadingFailed(@NonNull Throwable throwable) {
+        Log.e(TAG, "Page of operations isn't loaded", throwable);
+        pageLoadingInProgress = false;
+    }
+
+    private void onPageLoaded(@NonNull List<OperationView> page, int size, boolean firstPage) {
+        pageLoadingInProgress = false;
+        lastPageLoaded = page.size() < size;
+        if (firstPage) {
+            operations.clear();
+            operations.addAll(page);
+            notifyDataSetChanged();
+        } else {
+            int positionStart = operations.size();
+            operations.addAll(page);
+            notifyItemRangeInserted(positionStart, page.size());
+        }
+    }
+
+    private void cancelPageLoading() {
+        if (pageLoading != null) {
+            pageLoading.dispose();
+        }
+        pageLoadingInProgress = false;
+    }
+
+    /**
+     * Is called on the io thread.
+     *
+     * @param pageEnd  last operation of the previous page or {@code null} for
+     *                 the first page
+     * @param pageSize maximum number of the operations
+     * @return operations of the page, which match the filter
+     */
+    @NonNull
+    protected abstract List<OperationView> performPageQuery(@Nullable OperationView pageEnd,
+                                                            int pageSize);
+
     private void calculateBalanceInBackground() {
         if (balanceView == null) {
             return;
         }
         cancelBalanceCalculation();
         showBalance(R.string.hint_calculating);
-        balanceCalculation = Observable.fromCallable(this::performQuery)
+        balanceCalculation = Observable.fromCallable(this::performBalanceQuery)
                 .subscribeOn(Schedulers.io())
-                .observeOn(Schedulers.computation())
-                .map(this::calculateBalance)
                 .observeOn(AndroidSchedulers.mainThread())
-                .subscribe(this::showBalance);
+                .subscribe(this::showBalance, throwable -> {
+                    Log.e(TAG, "Balance of operations isn't calculated", throwable);
+                    showBalance(R.string.hint_calculation_failed);
+                });
     }
 
     private void cancelBalanceCalculation() {
@@ -92,9 +227,12 @@ public abstract class OperationAdapter<FILTER extends OperationFilter>
         }
     }
 
-    private String calculateBalance(Result<OperationView> queryResult) {
-        return BalanceCalculator.calculateBalance(queryResult);
-    }
+    /**
+     * Is called on the io thread.
+     *
+     * @return formatted balance of the operations, which match the filter
+     */
+    protected abstract String performBalanceQuery();
 
     private void showBalance(String balance) {
         if (balanceView != null) {
@@ -1,10 +1,14 @@
 package io.github.zwieback.familyfinance.business.operation.adapter;
 
 import android.content.Context;
+import android.support.annotation.Nullable;
+
+import java.util.List;
 
 import io.github.zwieback.familyfinance.business.operation.filter.TransferOperationFilter;
 import io.github.zwieback.familyfinance.business.operation.listener.OnOperationClickListener;
 import io.github.zwieback.familyfinance.business.operation.query.TransferOperationQueryBuilder;
+import io.github.zwieback.familyfinance.business.operation.service.calculator.BalanceCalculator;
 import io.github.zwieback.familyfinance.business.operation.service.provider.TransferOperationViewProvider;
 import io.github.zwieback.familyfinance.core.adapter.EntityProvider;
 import io.github.zwieback.familyfinance.core.model.OperationView;
@@ -28,6 +32,20 @@ public class TransferOperationAdapter extends OperationAdapter<TransferOperation
 
     @Override
     public Result<OperationView> performQuery() {
+        return createQueryBuilder().build();
+    }
+
+    @Override
+    protected List<OperationView> performPageQuery(@Nullable OperationView pageEnd, int pageSize) {
+        return createQueryBuilder().buildPage(pageEnd, pageSize);
+    }
+
+    @Override
+    protected String performBalanceQuery() {
+        return createQueryBuilder().buildBalance(BalanceCalculator::calculateBalance);
+    }
+
+    private TransferOperationQueryBuilder createQueryBuilder() {
         return TransferOperationQueryBuilder.create(data)
                 .setStartDate(filter.getStartDate())
                 .setEndDate(filter.getEndDate())
@@ -35,7 +53,6 @@ public class TransferOperationAdapter extends OperationAdapter<TransferOperation
                 .setEndValue(filter.getEndValue())
                 .setOwnerId(filter.getOwnerId())
                 .setCurrencyId(filter.getCurrencyId())
-                .setAccountId(filter.getAccountId())
-                .build();
+                .setAccountId(filter.getAccountId());
     }
 }
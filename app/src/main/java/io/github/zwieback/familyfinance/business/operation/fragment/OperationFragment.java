@@ -27,6 +27,8 @@ public abstract class OperationFragment<FILTER extends OperationFilter>
     public void onCreate(Bundle savedInstanceState) {
         super.onCreate(savedInstanceState);
         interfacePrefs = InterfacePrefs.with(context);
+        adapter.setPaging(interfacePrefs.getOperationPageSize(),
+                interfacePrefs.getOperationPrefetchDistance());
     }
 
     @Override
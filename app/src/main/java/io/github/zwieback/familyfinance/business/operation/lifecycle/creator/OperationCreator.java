@@ -5,8 +5,10 @@ import android.support.annotation.NonNull;
 
 import java.util.TreeSet;
 
+import io.github.zwieback.familyfinance.business.operation.service.writer.OperationBatchWriter;
 import io.github.zwieback.familyfinance.core.lifecycle.creator.EntityCreator;
 import io.github.zwieback.familyfinance.core.model.Operation;
+import io.reactivex.Observable;
 import io.requery.Persistable;
 import io.requery.reactivex.ReactiveEntityStore;
 
@@ -23,6 +25,19 @@ public class OperationCreator extends EntityCreator<Operation> {
         return new TreeSet<>(this);
     }
 
+    /**
+     * Operations are written by the {@link OperationBatchWriter}, so the ledger
+     * of balances is updated in the same transaction.
+     */
+    @Override
+    public Observable<Iterable<Operation>> call() {
+        return new OperationBatchWriter(data)
+                .addAll(buildEntities())
+                .writeAsync()
+                .<Iterable<Operation>>map(operations -> operations)
+                .toObservable();
+    }
+
     @Override
     public int compare(Operation left, Operation right) {
         return left.getDate().compareTo(right.getDate());
@@ -0,0 +1,56 @@
+package io.github.zwieback.familyfinance.business.operation.lifecycle.creator;
+
+import android.util.Log;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+import static io.github.zwieback.familyfinance.business.operation.lifecycle.creator.OperationReadModelCreator.TABLE_NAME;
+import static io.github.zwieback.familyfinance.business.operation.lifecycle.creator.OperationViewCreator.SOURCE_QUERY;
+
+/**
+ * Compares the read model of the operations with the join, which it
+ * replaces, and rebuilds the read model if they differ.
+ */
+public class OperationReadModelChecker {
+
+    private static final String TAG = "OperationReadModelChckr";
+
+    private final Connection connection;
+
+    public OperationReadModelChecker(Connection connection) {
+        this.connection = connection;
+    }
+
+    /**
+     * @return number of the rows, which are missing or differ in the read
+     * model or the join
+     */
+    public int countMismatches() throws SQLException {
+        try (Statement statement = connection.createStatement();
+             ResultSet resultSet = statement.executeQuery("SELECT" +
+                     " (SELECT count(*) FROM (SELECT * FROM (" + SOURCE_QUERY + ")" +
+                     "                         EXCEPT SELECT * FROM " + TABLE_NAME + "))" +
+                     " + (SELECT count(*) FROM (SELECT * FROM " + TABLE_NAME +
+                     "                           EXCEPT SELECT * FROM (" + SOURCE_QUERY + ")))")) {
+            return resultSet.next() ? resultSet.getInt(1) : 0;
+        }
+    }
+
+    /**
+     * Rebuild the read model if it is inconsistent.
+     *
+     * @return {@code true} if the read model was rebuilt
+     */
+    public boolean checkReadModel() throws SQLException {
+        int mismatches = countMismatches();
+        if (mismatches == 0) {
+            return false;
+        }
+        Log.w(TAG, "Read model of operations has " + mismatches + " inconsistent rows");
+        new OperationReadModelCreator(connection).rebuildReadModel();
+        return true;
+    }
+}
@@ -0,0 +1,159 @@
+package io.github.zwieback.familyfinance.business.operation.lifecycle.creator;
+
+import android.support.annotation.NonNull;
+import android.util.Log;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static io.github.zwieback.familyfinance.business.operation.lifecycle.creator.OperationViewCreator.SOURCE_QUERY;
+
+/**
+ * Creates the read model of the operations: the table with the columns of
+ * {@code v_operation}, which is kept in sync with the operations and their
+ * references by the triggers, so the lists, charts and balances don't
+ * execute the join on every scan.
+ * <p>
+ * The table is filled from the join when its triggers are created, so the
+ * operations written while the read model was disabled are never lost.
+ */
+public class OperationReadModelCreator {
+
+    public static final String TABLE_NAME = "operation_read";
+
+    private static final String TAG = "OperationReadModelCrtr";
+
+    private static final String REFRESH = "INSERT OR REPLACE INTO " + TABLE_NAME + SOURCE_QUERY;
+
+    /**
+     * Triggers in the form of "name body"; the rows of the operations are
+     * refreshed whenever the referenced values are changed. The referenced
+     * entities can't be deleted while they have operations.
+     */
+    private static final List<String> TRIGGERS = Collections.unmodifiableList(Arrays.asList(
+            "operation_read_insert AFTER INSERT ON operation BEGIN " +
+                    REFRESH + " WHERE op.id = NEW.id; END",
+            "operation_read_update AFTER UPDATE ON operation BEGIN " +
+                    "DELETE FROM " + TABLE_NAME + " WHERE id = OLD.id; " +
+                    REFRESH + " WHERE op.id = NEW.id; END",
+            "operation_read_delete AFTER DELETE ON operation BEGIN " +
+                    "DELETE FROM " + TABLE_NAME + " WHERE id = OLD.id; END",
+            "operation_read_account AFTER UPDATE OF name, icon_name ON account BEGIN " +
+                    REFRESH + " WHERE op.account_id = NEW.id; END",
+            "operation_read_article AFTER UPDATE OF name, parent_id ON article BEGIN " +
+                    REFRESH + " WHERE op.article_id = NEW.id OR ar.parent_id = NEW.id; END",
+            "operation_read_person AFTER UPDATE OF name ON person BEGIN " +
+                    REFRESH + " WHERE op.owner_id = NEW.id; END",
+            "operation_read_exchange_rate AFTER UPDATE OF _value, currency_id ON exchange_rate" +
+                    " BEGIN " + REFRESH + " WHERE op.exchange_rate_id = NEW.id; END",
+            "operation_read_currency AFTER UPDATE OF name ON currency BEGIN " +
+                    REFRESH + " WHERE er.currency_id = NEW.id; END"
+    ));
+
+    private static final List<String> INDEXES = Collections.unmodifiableList(Arrays.asList(
+            "operation_read_date_id_idx ON " + TABLE_NAME + " (_date, id)",
+            "operation_read_account_idx ON " + TABLE_NAME + " (account_id)",
+            "operation_read_article_date_idx ON " + TABLE_NAME + " (article_id, _date)"
+    ));
+
+    private final Connection connection;
+
+    public OperationReadModelCreator(Connection connection) {
+        this.connection = connection;
+    }
+
+    /**
+     * Create the table of the read model, if it doesn't exist, and fill it, if
+     * its triggers are missing.
+     */
+    public void createReadModel() throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("CREATE TABLE IF NOT EXISTS " + TABLE_NAME + " (" +
+                    "id INTEGER PRIMARY KEY NOT NULL, " +
+                    "icon_name TEXT, " +
+                    "linked_transfer_operation_id INTEGER, " +
+                    "account_id INTEGER NOT NULL, " +
+                    "account_name TEXT NOT NULL, " +
+                    "article_id INTEGER NOT NULL, " +
+                    "article_name TEXT NOT NULL, " +
+                    "article_parent_id INTEGER, " +
+                    "article_parent_name TEXT, " +
+                    "owner_id INTEGER NOT NULL, " +
+                    "owner_name TEXT NOT NULL, " +
+                    "exchange_rate_id INTEGER NOT NULL, " +
+                    "exchange_rate_value INTEGER NOT NULL, " +
+                    "currency_id INTEGER NOT NULL, " +
+                    "currency_name TEXT NOT NULL, " +
+                    "_type TEXT NOT NULL, " +
+                    "_date INTEGER NOT NULL, " +
+                    "_value INTEGER NOT NULL, " +
+                    "description TEXT, " +
+                    "url TEXT)");
+            for (String index : INDEXES) {
+                statement.execute("CREATE INDEX IF NOT EXISTS " + index);
+            }
+        }
+        if (countTriggers() != TRIGGERS.size()) {
+            rebuildReadModel();
+        }
+    }
+
+    /**
+     * Recreate the triggers and refill the table from the join in the one
+     * transaction.
+     */
+    public void rebuildReadModel() throws SQLException {
+        boolean autoCommit = connection.getAutoCommit();
+        connection.setAutoCommit(false);
+        try (Statement statement = connection.createStatement()) {
+            dropTriggers(statement);
+            for (String trigger : TRIGGERS) {
+                statement.execute("CREATE TRIGGER " + trigger);
+            }
+            statement.execute("DELETE FROM " + TABLE_NAME);
+            statement.execute(REFRESH);
+            connection.commit();
+        } catch (SQLException e) {
+            connection.rollback();
+            throw e;
+        } finally {
+            connection.setAutoCommit(autoCommit);
+        }
+        Log.d(TAG, "Read model of operations is rebuilt");
+    }
+
+    /**
+     * Drop the triggers and the table, so the disabled read model doesn't
+     * slow down the writes.
+     */
+    public void destroyReadModel() throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            dropTriggers(statement);
+            statement.execute("DROP TABLE IF EXISTS " + TABLE_NAME);
+        }
+    }
+
+    private int countTriggers() throws SQLException {
+        try (Statement statement = connection.createStatement();
+             ResultSet resultSet = statement.executeQuery("SELECT count(*) FROM sqlite_master" +
+                     " WHERE type = 'trigger' AND name LIKE '" + TABLE_NAME + "%'")) {
+            return resultSet.next() ? resultSet.getInt(1) : 0;
+        }
+    }
+
+    private static void dropTriggers(@NonNull Statement statement) throws SQLException {
+        for (String trigger : TRIGGERS) {
+            statement.execute("DROP TRIGGER IF EXISTS " + extractName(trigger));
+        }
+    }
+
+    @NonNull
+    private static String extractName(@NonNull String trigger) {
+        return trigger.substring(0, trigger.indexOf(' '));
+    }
+}
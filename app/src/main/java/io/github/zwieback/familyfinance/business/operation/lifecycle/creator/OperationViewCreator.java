@@ -8,8 +8,55 @@ import io.github.zwieback.familyfinance.core.lifecycle.creator.EntityViewCreator
 
 public class OperationViewCreator extends EntityViewCreator {
 
+    /**
+     * Columns of {@link io.github.zwieback.familyfinance.core.model.IOperationView}
+     * joined from the operations and their references. A condition over the
+     * aliases may be appended to it.
+     */
+    public static final String SOURCE_QUERY =
+            " SELECT op.id                           AS id," +
+                    "       COALESCE(op.icon_name, ac.icon_name)" +
+                    "                                       AS icon_name," +
+                    "       op.linked_transfer_operation_id AS linked_transfer_operation_id," +
+                    "       ac.id                           AS account_id," +
+                    "       ac.name                         AS account_name," +
+                    "       ar.id                           AS article_id," +
+                    "       ar.name                         AS article_name," +
+                    "       ap.id                           AS article_parent_id," +
+                    "       ap.name                         AS article_parent_name," +
+                    "       pe.id                           AS owner_id," +
+                    "       pe.name                         AS owner_name," +
+                    "       er.id                           AS exchange_rate_id," +
+                    "       er._value                       AS exchange_rate_value," +
+                    "       cu.id                           AS currency_id," +
+                    "       cu.name                         AS currency_name," +
+                    "       op._type                        AS _type," +
+                    "       op._date                        AS _date," +
+                    "       op._value                       AS _value," +
+                    "       op.description                  AS description," +
+                    "       op.url                          AS url" +
+                    "  FROM operation op" +
+                    "       INNER JOIN account ac ON ac.id = op.account_id" +
+                    "       INNER JOIN article ar ON ar.id = op.article_id" +
+                    "        LEFT JOIN article ap ON ap.id = ar.parent_id" +
+                    "       INNER JOIN person pe ON pe.id = op.owner_id" +
+                    "       INNER JOIN exchange_rate er ON er.id = op.exchange_rate_id" +
+                    "       INNER JOIN currency cu ON cu.id = er.currency_id";
+
+    private final boolean readModelEnabled;
+
     public OperationViewCreator(Connection connection) {
+        this(connection, false);
+    }
+
+    /**
+     * @param readModelEnabled {@code true} to read the operations from the
+     *                         maintained table of the read model instead of
+     *                         the join
+     */
+    public OperationViewCreator(Connection connection, boolean readModelEnabled) {
         super(connection);
+        this.readModelEnabled = readModelEnabled;
     }
 
     @NonNull
@@ -21,33 +68,9 @@ public class OperationViewCreator extends EntityViewCreator {
     @NonNull
     @Override
     protected String getViewBody() {
-        return " SELECT op.id                           AS id," +
-                "       COALESCE(op.icon_name, ac.icon_name)" +
-                "                                       AS icon_name," +
-                "       op.linked_transfer_operation_id AS linked_transfer_operation_id," +
-                "       ac.id                           AS account_id," +
-                "       ac.name                         AS account_name," +
-                "       ar.id                           AS article_id," +
-                "       ar.name                         AS article_name," +
-                "       ap.id                           AS article_parent_id," +
-                "       ap.name                         AS article_parent_name," +
-                "       pe.id                           AS owner_id," +
-                "       pe.name                         AS owner_name," +
-                "       er.id                           AS exchange_rate_id," +
-                "       er._value                       AS exchange_rate_value," +
-                "       cu.id                           AS currency_id," +
-                "       cu.name                         AS currency_name," +
-                "       op._type                        AS _type," +
-                "       op._date                        AS _date," +
-                "       op._value                       AS _value," +
-                "       op.description                  AS description," +
-                "       op.url                          AS url" +
-                "  FROM operation op" +
-                "       INNER JOIN account ac ON ac.id = op.account_id" +
-                "       INNER JOIN article ar ON ar.id = op.article_id" +
-                "        LEFT JOIN article ap ON ap.id = ar.parent_id" +
-                "       INNER JOIN person pe ON pe.id = op.owner_id" +
-                "       INNER JOIN exchange_rate er ON er.id = op.exchange_rate_id" +
-                "       INNER JOIN currency cu ON cu.id = er.currency_id";
+        if (readModelEnabled) {
+            return " SELECT * FROM " + OperationReadModelCreator.TABLE_NAME;
+        }
+        return SOURCE_QUERY;
     }
 }
@@ -1,17 +1,29 @@
 package io.github.zwieback.familyfinance.business.operation.lifecycle.destroyer;
 
 import android.content.Context;
+import android.support.annotation.NonNull;
 
+import java.util.Collections;
+import java.util.List;
+
+import io.github.zwieback.familyfinance.business.account.service.ledger.AccountBalanceLedger;
 import io.github.zwieback.familyfinance.core.lifecycle.destroyer.EntityForceDestroyer;
 import io.github.zwieback.familyfinance.core.model.Operation;
+import io.reactivex.Single;
+import io.reactivex.android.schedulers.AndroidSchedulers;
+import io.reactivex.functions.Consumer;
+import io.reactivex.schedulers.Schedulers;
 import io.requery.Persistable;
 import io.requery.meta.QueryAttribute;
 import io.requery.reactivex.ReactiveEntityStore;
 
 public class OperationForceDestroyer extends EntityForceDestroyer<Operation> {
 
+    private final AccountBalanceLedger ledger;
+
     public OperationForceDestroyer(Context context, ReactiveEntityStore<Persistable> data) {
         super(context, data);
+        this.ledger = new AccountBalanceLedger(data);
     }
 
     @Override
@@ -23,4 +35,22 @@ public class OperationForceDestroyer extends EntityForceDestroyer<Operation> {
     protected QueryAttribute<Operation, Integer> getIdAttribute() {
         return Operation.ID;
     }
+
+    @Override
+    public void destroy(Operation operation, Consumer<Integer> terminalConsumer) {
+        destroyAll(Collections.singletonList(operation), terminalConsumer);
+    }
+
+    /**
+     * Delete the operations and revert them in the ledger in the one
+     * transaction.
+     */
+    @Override
+    public void destroyAll(@NonNull List<Operation> operations,
+                           Consumer<Integer> terminalConsumer) {
+        Single.fromCallable(() -> ledger.deleteAll(operations))
+                .subscribeOn(Schedulers.io())
+                .observeOn(AndroidSchedulers.mainThread())
+                .subscribe(terminalConsumer);
+    }
 }
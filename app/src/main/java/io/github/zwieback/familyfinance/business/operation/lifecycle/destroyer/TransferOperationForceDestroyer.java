@@ -1,35 +1,35 @@
 package io.github.zwieback.familyfinance.business.operation.lifecycle.destroyer;
 
 import android.content.Context;
+import android.support.annotation.NonNull;
+
+import java.util.ArrayList;
+import java.util.List;
 
-import io.github.zwieback.familyfinance.core.lifecycle.destroyer.EntityForceDestroyer;
 import io.github.zwieback.familyfinance.core.model.Operation;
 import io.reactivex.functions.Consumer;
 import io.requery.Persistable;
-import io.requery.meta.QueryAttribute;
 import io.requery.reactivex.ReactiveEntityStore;
 
-import static io.reactivex.internal.functions.Functions.emptyConsumer;
-
-public class TransferOperationForceDestroyer extends EntityForceDestroyer<Operation> {
+/**
+ * Deletes the transfer operations together with their linked halves in the
+ * one transaction. The halves are deduplicated by id, so a transfer, both
+ * halves of which are selected, is reverted in the ledger once.
+ */
+public class TransferOperationForceDestroyer extends OperationForceDestroyer {
 
     public TransferOperationForceDestroyer(Context context, ReactiveEntityStore<Persistable> data) {
         super(context, data);
     }
 
     @Override
-    protected Class<Operation> getEntityClass() {
-        return Operation.class;
-    }
-
-    @Override
-    protected QueryAttribute<Operation, Integer> getIdAttribute() {
-        return Operation.ID;
-    }
-
-    @Override
-    public void destroy(Operation operation, Consumer<Integer> terminalConsumer) {
-        super.destroy((Operation) operation.getLinkedTransferOperation(), emptyConsumer());
-        super.destroy(operation, terminalConsumer);
+    public void destroyAll(@NonNull List<Operation> operations,
+                           Consumer<Integer> terminalConsumer) {
+        List<Operation> linkedOperations = new ArrayList<>(2 * operations.size());
+        for (Operation operation : operations) {
+            linkedOperations.add(operation);
+            linkedOperations.add((Operation) operation.getLinkedTransferOperation());
+        }
+        super.destroyAll(linkedOperations, terminalConsumer);
     }
 }
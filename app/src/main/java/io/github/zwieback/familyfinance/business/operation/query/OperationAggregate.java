@@ -0,0 +1,72 @@
+package io.github.zwieback.familyfinance.business.operation.query;
+
+import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
+
+import io.github.zwieback.familyfinance.core.model.type.OperationType;
+
+/**
+ * Sum of the operations of the one bucket, type and exchange rate.
+ */
+public final class OperationAggregate {
+
+    private final long bucket;
+    @Nullable
+    private final String bucketName;
+    @NonNull
+    private final OperationType type;
+    private final int currencyId;
+    private final long exchangeRateValue;
+    private final long value;
+
+    public OperationAggregate(long bucket,
+                              @Nullable String bucketName,
+                              @NonNull OperationType type,
+                              int currencyId,
+                              long exchangeRateValue,
+                              long value) {
+        this.bucket = bucket;
+        this.bucketName = bucketName;
+        this.type = type;
+        this.currencyId = currencyId;
+        this.exchangeRateValue = exchangeRateValue;
+        this.value = value;
+    }
+
+    /**
+     * @return bucket of the grouper, e.g. the period or the article id
+     */
+    public long getBucket() {
+        return bucket;
+    }
+
+    @Nullable
+    public String getBucketName() {
+        return bucketName;
+    }
+
+    @NonNull
+    public OperationType getType() {
+        return type;
+    }
+
+    public int getCurrencyId() {
+        return currencyId;
+    }
+
+    /**
+     * @return exchange rate in the format of
+     * {@link io.github.zwieback.familyfinance.util.BigDecimalConverterUtils#exchangeRateToBigDecimal(Long)}
+     */
+    public long getExchangeRateValue() {
+        return exchangeRateValue;
+    }
+
+    /**
+     * @return sum of the values of operations in the format of
+     * {@link io.github.zwieback.familyfinance.util.BigDecimalConverterUtils#worthToBigDecimal(Long)}
+     */
+    public long getValue() {
+        return value;
+    }
+}
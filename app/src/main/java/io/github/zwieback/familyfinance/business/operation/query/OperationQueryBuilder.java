@@ -3,35 +3,30 @@ package io.github.zwieback.familyfinance.business.operation.query;
 import android.support.annotation.NonNull;
 import android.support.annotation.Nullable;
 
-import com.annimon.stream.Collectors;
-import com.annimon.stream.Stream;
-import com.annimon.stream.function.Function;
-
 import org.threeten.bp.LocalDate;
 
 import java.math.BigDecimal;
+import java.sql.ResultSet;
+import java.sql.SQLException;
 import java.util.ArrayList;
-import java.util.HashSet;
-import java.util.Iterator;
 import java.util.List;
-import java.util.Map;
 import java.util.Set;
 
-import io.github.zwieback.familyfinance.core.model.AccountView;
-import io.github.zwieback.familyfinance.core.model.ArticleView;
-import io.github.zwieback.familyfinance.core.model.IBaseEntity;
+import io.github.zwieback.familyfinance.core.database.HierarchyIndex;
+import io.github.zwieback.familyfinance.core.database.RawQueryExecutor;
+import io.github.zwieback.familyfinance.core.database.ResultSetReader;
+import io.github.zwieback.familyfinance.core.model.Account;
+import io.github.zwieback.familyfinance.core.model.Article;
 import io.github.zwieback.familyfinance.core.model.OperationView;
+import io.github.zwieback.familyfinance.core.model.converter.LocalDateConverter;
 import io.github.zwieback.familyfinance.core.model.type.OperationType;
 import io.github.zwieback.familyfinance.core.query.EntityQueryBuilder;
-import io.github.zwieback.familyfinance.util.CollectionUtils;
+import io.github.zwieback.familyfinance.util.BigDecimalConverterUtils;
 import io.github.zwieback.familyfinance.util.DateUtils;
-import io.github.zwieback.familyfinance.util.SqliteUtils;
+import io.github.zwieback.familyfinance.util.NumberUtils;
 import io.requery.Persistable;
-import io.requery.meta.QueryAttribute;
-import io.requery.meta.Type;
 import io.requery.query.Limit;
 import io.requery.query.OrderBy;
-import io.requery.query.Tuple;
 import io.requery.query.Where;
 import io.requery.query.WhereAndOr;
 import io.requery.reactivex.ReactiveEntityStore;
@@ -40,6 +35,15 @@ import io.requery.reactivex.ReactiveResult;
 abstract class OperationQueryBuilder<T extends OperationQueryBuilder>
         extends EntityQueryBuilder<OperationView> {
 
+    /**
+     * Days from epoch day of the operation; dates are stored as milliseconds
+     * of the local midnight.
+     */
+    private static final String EPOCH_DAY = "cast(julianday(date(o._date / 1000, 'unixepoch'," +
+            " 'localtime')) - julianday('1970-01-01') as integer)";
+
+    private static final int SNAPSHOT_CAPACITY = 256;
+
     @NonNull
     private LocalDate startDate;
     @NonNull
@@ -58,6 +62,12 @@ abstract class OperationQueryBuilder<T extends OperationQueryBuilder>
     private Integer ownerId;
     @Nullable
     private Integer currencyId;
+    /**
+     * Last operation of the previous page; the query returns the operations,
+     * which follow it in the order of the list.
+     */
+    @Nullable
+    private OperationView pageEnd;
 
     OperationQueryBuilder(ReactiveEntityStore<Persistable> data) {
         super(data);
@@ -153,9 +163,158 @@ abstract class OperationQueryBuilder<T extends OperationQueryBuilder>
         if (currencyId != null) {
             result = result.and(OperationView.CURRENCY_ID.eq(currencyId));
         }
+        if (pageEnd != null) {
+            // the first term bounds the scan of the index, the second one
+            // skips the operations of the same day, which are already loaded
+            result = result.and(OperationView.DATE.lessThanOrEqual(pageEnd.getDate()))
+                    .and(OperationView.DATE.lessThan(pageEnd.getDate())
+                            .or(OperationView.ID.lessThan(pageEnd.getId())));
+        }
         return result;
     }
 
+    /**
+     * Build and execute the query of the page of operations.
+     * <p>
+     * The page is found by the keyset seek on {@code (_date, id)}, which
+     * matches the order of the list and the {@code operation_date_id_idx}
+     * index, so the cost of the page doesn't depend on its position.
+     *
+     * @param pageEnd  last operation of the previous page or {@code null}
+     *                 for the first page
+     * @param pageSize maximum number of the operations
+     * @return operations of the page
+     */
+    @NonNull
+    public final List<OperationView> buildPage(@Nullable OperationView pageEnd, int pageSize) {
+        this.pageEnd = pageEnd;
+        try {
+            return build(pageSize).toList();
+        } finally {
+            this.pageEnd = null;
+        }
+    }
+
+    /**
+     * Build and execute the query, which sums the values of operations in
+     * SQLite grouped by the day, type, exchange rate and article.
+     *
+     * @return snapshot of the summed operations
+     */
+    @NonNull
+    public final OperationSnapshot buildSnapshot() {
+        StringBuilder query = new StringBuilder()
+                .append("select ").append(EPOCH_DAY).append(" as epoch_day,")
+                .append("  o._type as operation_type,")
+                .append("  o.currency_id as currency_id,")
+                .append("  o.exchange_rate_value as exchange_rate_value,")
+                .append("  o.article_id as article_id,")
+                .append("  max(o.article_name) as article_name,")
+                .append("  o.article_parent_id as article_parent_id,")
+                .append("  max(o.article_parent_name) as article_parent_name,")
+                .append("  coalesce(sum(o._value), 0) as sum_value")
+                .append(" from v_operation o");
+        List<Object> parameters = appendWhere(query);
+        query.append(" group by epoch_day, o._type, o.currency_id, o.exchange_rate_id,")
+                .append(" o.exchange_rate_value, o.article_id, o.article_parent_id");
+
+        return RawQueryExecutor.of(data).query(query.toString(), resultSet -> {
+            OperationSnapshot snapshot = new OperationSnapshot(SNAPSHOT_CAPACITY);
+            while (resultSet.next()) {
+                int articleId = extractId(resultSet, "article_id");
+                int articleParentId = extractId(resultSet, "article_parent_id");
+                snapshot.add(resultSet.getInt("epoch_day"),
+                        OperationType.valueOf(resultSet.getString("operation_type")),
+                        resultSet.getInt("currency_id"),
+                        resultSet.getLong("exchange_rate_value"),
+                        resultSet.getLong("sum_value"),
+                        articleId,
+                        articleParentId);
+                snapshot.putArticleName(articleId, resultSet.getString("article_name"));
+                if (NumberUtils.nonNullId(articleParentId)) {
+                    snapshot.putArticleName(articleParentId,
+                            resultSet.getString("article_parent_name"));
+                }
+            }
+            return snapshot;
+        }, parameters.toArray());
+    }
+
+    /**
+     * Build and execute the query, which sums the values of operations in
+     * SQLite grouped by the currency and type.
+     * <p>
+     * The result has one row per currency and type, so the balance of any
+     * number of operations is calculated in constant memory.
+     *
+     * @param reader reader of the rows with the {@code currency_id},
+     *               {@code currency_name}, {@code operation_type} and
+     *               {@code sum_value} columns
+     * @return value, which was read
+     */
+    public final <R> R buildBalance(@NonNull ResultSetReader<R> reader) {
+        StringBuilder query = new StringBuilder()
+                .append("select o.currency_id as currency_id,")
+                .append("  max(o.currency_name) as currency_name,")
+                .append("  o._type as operation_type,")
+                .append("  coalesce(sum(o._value), 0) as sum_value")
+                .append(" from v_operation o");
+        List<Object> parameters = appendWhere(query);
+        query.append(" group by o.currency_id, o._type");
+        return RawQueryExecutor.of(data).query(query.toString(), reader, parameters.toArray());
+    }
+
+    /**
+     * Append the conditions of the filter to the raw query over
+     * {@code v_operation o}.
+     *
+     * @param query query to append the where clause to
+     * @return parameters of the where clause
+     */
+    @NonNull
+    private List<Object> appendWhere(@NonNull StringBuilder query) {
+        query.append(" where o._date >= ? and o._date <= ?");
+        LocalDateConverter dateConverter = new LocalDateConverter();
+        List<Object> parameters = new ArrayList<>();
+        parameters.add(dateConverter.convertToPersisted(startDate));
+        parameters.add(dateConverter.convertToPersisted(endDate));
+        if (startValue != null) {
+            query.append(" and o._value >= ?");
+            parameters.add(BigDecimalConverterUtils.bigDecimalToWorth(startValue));
+        }
+        if (endValue != null) {
+            query.append(" and o._value <= ?");
+            parameters.add(BigDecimalConverterUtils.bigDecimalToWorth(endValue));
+        }
+        if (types != null) {
+            query.append(" and o._type in ?");
+            parameters.add(types);
+        }
+        if (articleId != null) {
+            query.append(" and o.article_id in ?");
+            parameters.add(collectArticleIds(articleId));
+        }
+        if (accountId != null) {
+            query.append(" and o.account_id in ?");
+            parameters.add(collectAccountIds(accountId));
+        }
+        if (ownerId != null) {
+            query.append(" and o.owner_id = ?");
+            parameters.add(ownerId);
+        }
+        if (currencyId != null) {
+            query.append(" and o.currency_id = ?");
+            parameters.add(currencyId);
+        }
+        return parameters;
+    }
+
+    private static int extractId(@NonNull ResultSet resultSet,
+                                 @NonNull String key) throws SQLException {
+        int id = resultSet.getInt(key);
+        return resultSet.wasNull() ? NumberUtils.ID_AS_NULL : id;
+    }
+
     @Override
     protected Limit<ReactiveResult<OperationView>>
     buildOrderBy(OrderBy<Limit<ReactiveResult<OperationView>>> where) {
@@ -169,8 +328,7 @@ abstract class OperationQueryBuilder<T extends OperationQueryBuilder>
      * @return all accounts
      */
     private Set<Integer> collectAccountIds(@NonNull Integer parentId) {
-        return collectEntityIds(parentId, AccountView.$TYPE, AccountView.ID, AccountView.PARENT_ID,
-                AccountView::getId, AccountView::getParentId);
+        return HierarchyIndex.collectSubtreeIds(data, Account.$TYPE.getName(), parentId);
     }
 
     /**
@@ -180,81 +338,6 @@ abstract class OperationQueryBuilder<T extends OperationQueryBuilder>
      * @return all articles
      */
     private Set<Integer> collectArticleIds(@NonNull Integer parentId) {
-        return collectEntityIds(parentId, ArticleView.$TYPE, ArticleView.ID, ArticleView.PARENT_ID,
-                ArticleView::getId, ArticleView::getParentId);
-    }
-
-    /**
-     * Workaround to get all the entities (this and its children) recursively without using CTE.
-     * <p>
-     * NOTE: Do not use the stream lib version 1.2.0 or above here, because
-     * {@link Collectors#toMap(Function, Function)} will throw a NPE.
-     * The NPE will be thrown because the {@literal parentId} can be {@code null},
-     * but the result {@link Map} of {@link Collectors#toMap(Function, Function)}
-     * doesn't allow {@code null} values.
-     * Or you can rewrite the code without using the
-     * {@link Collectors#toMap(Function, Function)} method.
-     */
-    private <E extends IBaseEntity> Set<Integer> collectEntityIds(
-            @NonNull Integer parentId,
-            Type<E> entityType,
-            QueryAttribute<E, Integer> entityIdAttribute,
-            QueryAttribute<E, Integer> parentIdAttribute,
-            Function<E, Integer> getIdFunction,
-            Function<E, Integer> getParentIdFunction) {
-
-        if (SqliteUtils.cteSupported()) {
-            return collectEntityIdsThroughCte(parentId, entityType.getName());
-        }
-
-        Iterator<E> iterator =
-                data.select(entityType.getClassType(), entityIdAttribute, parentIdAttribute)
-                        .get().iterator();
-
-        Map<Integer, Integer> idWithParentIdMap = Stream.of(iterator)
-                .collect(CollectionUtils.toMap(getIdFunction, getParentIdFunction));
-
-        Set<Integer> result = new HashSet<>(collectChildIds(idWithParentIdMap, parentId));
-        result.add(parentId);
-        return result;
-    }
-
-    private List<Integer> collectChildIds(@NonNull Map<Integer, Integer> idWithParentIdMap,
-                                          @NonNull Integer parentId) {
-        List<Integer> childIds = Stream.of(idWithParentIdMap)
-                .filter(entry -> parentId.equals(entry.getValue()))
-                .map(Map.Entry::getKey)
-                .collect(Collectors.toList());
-
-        if (childIds.isEmpty()) {
-            return childIds;
-        }
-
-        List<Integer> result = new ArrayList<>(childIds);
-        Stream.of(childIds)
-                .forEach(childId -> result.addAll(collectChildIds(idWithParentIdMap, childId)));
-        return result;
-    }
-
-    private Set<Integer> collectEntityIdsThroughCte(@NonNull Integer parentId,
-                                                    @NonNull String tableName) {
-        String query = "with recursive subtree" +
-                " as (select id" +
-                "       from :tableName" +
-                "      where id = :parentId" +
-                "      union all" +
-                "     select child.id" +
-                "       from :tableName as child" +
-                "       join subtree on child.parent_id = subtree.id)" +
-                " select id" +
-                " from subtree";
-        query = query.replaceAll(":parentId", String.valueOf(parentId));
-        query = query.replaceAll(":tableName", tableName);
-
-        ReactiveResult<Tuple> result = data.raw(query);
-        return Stream.of(result.iterator())
-                .map(tuple -> tuple.get("id").toString())
-                .map(Integer::parseInt)
-                .collect(Collectors.toSet());
+        return HierarchyIndex.collectSubtreeIds(data, Article.$TYPE.getName(), parentId);
     }
 }
@@ -0,0 +1,155 @@
+package io.github.zwieback.familyfinance.business.operation.query;
+
+import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
+import android.util.SparseArray;
+
+import java.util.Arrays;
+
+import io.github.zwieback.familyfinance.core.model.type.OperationType;
+import io.github.zwieback.familyfinance.util.BigDecimalConverterUtils;
+
+/**
+ * Columnar snapshot of the operations, which were summed by
+ * {@link OperationQueryBuilder#buildSnapshot()} by day, type, exchange rate
+ * and article.
+ * <p>
+ * Rows are kept in primitive arrays, so the snapshot may be regrouped by any
+ * period or article without the database.
+ */
+public final class OperationSnapshot {
+
+    private static final OperationType[] TYPES = OperationType.values();
+
+    private int size;
+    private int[] epochDays;
+    private byte[] typeOrdinals;
+    private int[] currencyIds;
+    private long[] exchangeRateValues;
+    private long[] values;
+    private int[] articleIds;
+    private int[] articleParentIds;
+    private final SparseArray<String> articleNames;
+
+    /**
+     * @param capacity expected number of rows; the snapshot grows if more
+     *                 rows are added
+     */
+    public OperationSnapshot(int capacity) {
+        int initialCapacity = Math.max(capacity, 1);
+        this.epochDays = new int[initialCapacity];
+        this.typeOrdinals = new byte[initialCapacity];
+        this.currencyIds = new int[initialCapacity];
+        this.exchangeRateValues = new long[initialCapacity];
+        this.values = new long[initialCapacity];
+        this.articleIds = new int[initialCapacity];
+        this.articleParentIds = new int[initialCapacity];
+        this.articleNames = new SparseArray<>();
+    }
+
+    public void add(int epochDay,
+                    @NonNull OperationType type,
+                    int currencyId,
+                    long exchangeRateValue,
+                    long value,
+                    int articleId,
+                    int articleParentId) {
+        if (size == epochDays.length) {
+            grow();
+        }
+        epochDays[size] = epochDay;
+        typeOrdinals[size] = (byte) type.ordinal();
+        currencyIds[size] = currencyId;
+        exchangeRateValues[size] = exchangeRateValue;
+        values[size] = value;
+        articleIds[size] = articleId;
+        articleParentIds[size] = articleParentId;
+        size++;
+    }
+
+    private void grow() {
+        int capacity = epochDays.length * 2;
+        epochDays = Arrays.copyOf(epochDays, capacity);
+        typeOrdinals = Arrays.copyOf(typeOrdinals, capacity);
+        currencyIds = Arrays.copyOf(currencyIds, capacity);
+        exchangeRateValues = Arrays.copyOf(exchangeRateValues, capacity);
+        values = Arrays.copyOf(values, capacity);
+        articleIds = Arrays.copyOf(articleIds, capacity);
+        articleParentIds = Arrays.copyOf(articleParentIds, capacity);
+    }
+
+    public void putArticleName(int articleId, @Nullable String articleName) {
+        articleNames.put(articleId, articleName);
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /**
+     * @return days from epoch day
+     */
+    public int getEpochDay(int index) {
+        return epochDays[index];
+    }
+
+    @NonNull
+    public OperationType getType(int index) {
+        return TYPES[typeOrdinals[index]];
+    }
+
+    public int getCurrencyId(int index) {
+        return currencyIds[index];
+    }
+
+    /**
+     * @return exchange rate in the format of
+     * {@link BigDecimalConverterUtils#exchangeRateToBigDecimal(Long)}
+     */
+    public long getExchangeRateValue(int index) {
+        return exchangeRateValues[index];
+    }
+
+    /**
+     * @return sum of the values of operations in the format of
+     * {@link BigDecimalConverterUtils#worthToBigDecimal(Long)}
+     */
+    public long getValue(int index) {
+        return values[index];
+    }
+
+    public int getArticleId(int index) {
+        return articleIds[index];
+    }
+
+    /**
+     * @return id of the article parent or
+     * {@link io.github.zwieback.familyfinance.util.NumberUtils#ID_AS_NULL}
+     */
+    public int getArticleParentId(int index) {
+        return articleParentIds[index];
+    }
+
+    @Nullable
+    public String getArticleName(int articleId) {
+        return articleNames.get(articleId);
+    }
+
+    /**
+     * Convert the row of the snapshot to the aggregate.
+     *
+     * @param index      index of the row
+     * @param bucket     bucket of the row, calculated by the grouper
+     * @param bucketName name of the bucket
+     * @return the aggregate
+     */
+    @NonNull
+    public OperationAggregate toAggregate(int index, long bucket, @Nullable String bucketName) {
+        return new OperationAggregate(bucket,
+                bucketName,
+                getType(index),
+                currencyIds[index],
+                exchangeRateValues[index],
+                values[index]);
+    }
+}
@@ -1,77 +1,70 @@
 package io.github.zwieback.familyfinance.business.operation.service.calculator;
 
+import android.util.SparseArray;
+
 import com.annimon.stream.Collectors;
 import com.annimon.stream.Stream;
-import com.annimon.stream.function.Predicate;
 
-import java.math.BigDecimal;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Locale;
-import java.util.Map;
 
-import io.github.zwieback.familyfinance.core.model.OperationView;
 import io.github.zwieback.familyfinance.core.model.type.OperationType;
 import io.github.zwieback.familyfinance.util.ConfigurationUtils;
-import io.requery.query.Result;
 
 import static io.github.zwieback.familyfinance.util.NumberUtils.bigDecimalToString;
 
 public final class BalanceCalculator {
 
-    public static String calculateBalance(Result<OperationView> queryResult) {
-        Map<CurrencyEntry, List<OperationView>> groupedOperations =
-                groupOperationsByCurrency(queryResult);
-        Map<CurrencyEntry, BigDecimal> groupedBalance = groupBalanceByCurrency(groupedOperations);
+    /**
+     * @param resultSet rows of the query, which sums the values of operations
+     *                  grouped by the currency and type
+     * @return formatted balance of each currency
+     * @throws SQLException if a column can't be read
+     */
+    public static String calculateBalance(ResultSet resultSet) throws SQLException {
+        SparseArray<CurrencyEntry> groupedBalance = groupBalanceByCurrency(resultSet);
         List<String> formattedBalance = formatBalance(groupedBalance);
         return joinBalance(formattedBalance);
     }
 
-    private static Map<CurrencyEntry, List<OperationView>>
-    groupOperationsByCurrency(Result<OperationView> queryResult) {
-        return Stream.of(queryResult.toList())
-                .collect(Collectors.groupingBy(CurrencyEntry::new));
-    }
-
-    private static Map<CurrencyEntry, BigDecimal>
-    groupBalanceByCurrency(Map<CurrencyEntry, List<OperationView>> groupedOperations) {
-        return Stream.of(groupedOperations)
-                .collect(Collectors.toMap(
-                        Map.Entry::getKey,
-                        entry -> calculateBalance(entry.getValue())));
-    }
-
-    private static BigDecimal calculateBalance(List<OperationView> operations) {
-        BigDecimal incomeBalance =
-                calculateBalanceByType(operations, BalanceCalculator::isIncomeOperation);
-        BigDecimal expenseBalance =
-                calculateBalanceByType(operations, BalanceCalculator::isExpenseOperation);
-        return incomeBalance.subtract(expenseBalance);
-    }
-
-    private static BigDecimal calculateBalanceByType(List<OperationView> operations,
-                                                     Predicate<OperationView> typePredicate) {
-        return Stream.of(operations)
-                .filter(typePredicate)
-                .map(OperationView::getValue)
-                .reduce(BigDecimal.ZERO, BigDecimal::add);
-    }
-
-    private static boolean isIncomeOperation(OperationView operation) {
-        return OperationType.getIncomeTypes().contains(operation.getType());
+    /**
+     * Sum the incomes and subtract the expenses of each currency by the one
+     * pass over the cursor, so only the sums of currencies are kept in memory.
+     */
+    private static SparseArray<CurrencyEntry>
+    groupBalanceByCurrency(ResultSet resultSet) throws SQLException {
+        SparseArray<CurrencyEntry> groupedBalance = new SparseArray<>();
+        while (resultSet.next()) {
+            int currencyId = resultSet.getInt("currency_id");
+            CurrencyEntry entry = groupedBalance.get(currencyId);
+            if (entry == null) {
+                entry = new CurrencyEntry(currencyId, resultSet.getString("currency_name"));
+                groupedBalance.put(currencyId, entry);
+            }
+            long worth = resultSet.getLong("sum_value");
+            OperationType type = OperationType.valueOf(resultSet.getString("operation_type"));
+            entry.balance.addWorth(isIncomeOperation(type) ? worth : -worth);
+        }
+        return groupedBalance;
     }
 
-    private static boolean isExpenseOperation(OperationView operation) {
-        return OperationType.getExpenseTypes().contains(operation.getType());
+    private static boolean isIncomeOperation(OperationType type) {
+        return OperationType.getIncomeTypes().contains(type);
     }
 
-    private static List<String> formatBalance(Map<CurrencyEntry, BigDecimal> groupedBalance) {
+    private static List<String> formatBalance(SparseArray<CurrencyEntry> groupedBalance) {
         Locale locale = ConfigurationUtils.getSystemLocale();
-        return Stream.of(groupedBalance)
-                .map(balance ->
-                        String.format(locale, "%s %s",
-                                bigDecimalToString(balance.getValue()),
-                                balance.getKey().name))
-                .collect(Collectors.toList());
+        List<String> formattedBalance = new ArrayList<>(groupedBalance.size());
+        for (int i = 0; i < groupedBalance.size(); i++) {
+            CurrencyEntry entry = groupedBalance.valueAt(i);
+            formattedBalance.add(String.format(locale, "%s %s",
+                    bigDecimalToString(entry.balance.toBigDecimal()),
+                    entry.name));
+        }
+        return formattedBalance;
     }
 
     private static String joinBalance(List<String> formattedBalance) {
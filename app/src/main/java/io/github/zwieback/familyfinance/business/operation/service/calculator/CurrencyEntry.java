@@ -2,16 +2,18 @@ package io.github.zwieback.familyfinance.business.operation.service.calculator;
 
 import com.annimon.stream.Objects;
 
-import io.github.zwieback.familyfinance.core.model.OperationView;
+import io.github.zwieback.familyfinance.util.FixedPointAccumulator;
 
 final class CurrencyEntry {
 
     final String name;
+    final FixedPointAccumulator balance;
     private final int id;
 
-    CurrencyEntry(OperationView operation) {
-        this.id = operation.getCurrencyId();
-        this.name = operation.getCurrencyName();
+    CurrencyEntry(int id, String name) {
+        this.id = id;
+        this.name = name;
+        this.balance = new FixedPointAccumulator();
     }
 
     @Override
@@ -3,13 +3,12 @@ package io.github.zwieback.familyfinance.business.operation.service.calculator;
 import android.content.Context;
 import android.support.annotation.NonNull;
 
-import com.annimon.stream.Stream;
-
 import java.math.BigDecimal;
 import java.util.List;
 
-import io.github.zwieback.familyfinance.core.model.OperationView;
+import io.github.zwieback.familyfinance.business.operation.query.OperationAggregate;
 import io.github.zwieback.familyfinance.core.preference.config.DatabasePrefs;
+import io.github.zwieback.familyfinance.util.FixedPointAccumulator;
 
 public class OperationCalculator {
 
@@ -20,28 +19,29 @@ public class OperationCalculator {
     }
 
     @NonNull
-    public BigDecimal calculateSum(List<OperationView> operations) {
-        int nativeCurrencyId = databasePrefs.getCurrencyId();
-        BigDecimal nativeSum = calculateSumInNativeCurrency(nativeCurrencyId, operations);
-        BigDecimal foreignSum = calculateSumInForeignCurrency(nativeCurrencyId, operations);
-        return nativeSum.add(foreignSum);
-    }
-
-    @NonNull
-    private static BigDecimal calculateSumInNativeCurrency(int nativeCurrencyId,
-                                                           List<OperationView> operations) {
-        return Stream.of(operations)
-                .filter(operation -> nativeCurrencyId == operation.getCurrencyId())
-                .map(OperationView::getValue)
-                .reduce(BigDecimal.ZERO, BigDecimal::add);
+    public BigDecimal calculateSum(List<OperationAggregate> aggregates) {
+        return accumulate(aggregates, new FixedPointAccumulator()).toBigDecimal();
     }
 
+    /**
+     * Add the sum of aggregates in the native currency to the accumulator.
+     *
+     * @param aggregates  source aggregates
+     * @param accumulator accumulator to add to
+     * @return the same accumulator
+     */
     @NonNull
-    private static BigDecimal calculateSumInForeignCurrency(int nativeCurrencyId,
-                                                            List<OperationView> operations) {
-        return Stream.of(operations)
-                .filter(operation -> nativeCurrencyId != operation.getCurrencyId())
-                .map(operation -> operation.getValue().multiply(operation.getExchangeRateValue()))
-                .reduce(BigDecimal.ZERO, BigDecimal::add);
+    public FixedPointAccumulator accumulate(List<OperationAggregate> aggregates,
+                                            @NonNull FixedPointAccumulator accumulator) {
+        int nativeCurrencyId = databasePrefs.getCurrencyId();
+        for (int i = 0; i < aggregates.size(); i++) {
+            OperationAggregate aggregate = aggregates.get(i);
+            if (aggregate.getCurrencyId() == nativeCurrencyId) {
+                accumulator.addWorth(aggregate.getValue());
+            } else {
+                accumulator.addProduct(aggregate.getValue(), aggregate.getExchangeRateValue());
+            }
+        }
+        return accumulator;
     }
 }
@@ -0,0 +1,141 @@
+package io.github.zwieback.familyfinance.business.operation.service.writer;
+
+import android.support.annotation.NonNull;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import io.github.zwieback.familyfinance.business.account.service.ledger.AccountBalanceLedger;
+import io.github.zwieback.familyfinance.core.model.Operation;
+import io.github.zwieback.familyfinance.core.model.type.OperationType;
+import io.reactivex.Single;
+import io.requery.BlockingEntityStore;
+import io.requery.Persistable;
+import io.requery.reactivex.ReactiveEntityStore;
+
+/**
+ * Writes many operations, including the linked pairs of transfer operations,
+ * and their ledger entries in the one transaction.
+ * <p>
+ * Operations of each kind are inserted by the one batch insert of requery,
+ * which reuses the prepared statement, instead of the insert, find and update
+ * chain per operation.
+ */
+public class OperationBatchWriter {
+
+    private final ReactiveEntityStore<Persistable> data;
+    private final AccountBalanceLedger ledger;
+    private final List<Operation> operations;
+    private final List<Operation> transferExpenseOperations;
+    private final List<Operation> transferIncomeOperations;
+
+    public OperationBatchWriter(@NonNull ReactiveEntityStore<Persistable> data) {
+        this(data, new AccountBalanceLedger(data));
+    }
+
+    public OperationBatchWriter(@NonNull ReactiveEntityStore<Persistable> data,
+                                @NonNull AccountBalanceLedger ledger) {
+        this.data = data;
+        this.ledger = ledger;
+        this.operations = new ArrayList<>();
+        this.transferExpenseOperations = new ArrayList<>();
+        this.transferIncomeOperations = new ArrayList<>();
+    }
+
+    /**
+     * @param operation new operation, which isn't linked to another one
+     */
+    @NonNull
+    public OperationBatchWriter add(@NonNull Operation operation) {
+        operations.add(operation);
+        return this;
+    }
+
+    @NonNull
+    public OperationBatchWriter addAll(@NonNull Iterable<Operation> operations) {
+        for (Operation operation : operations) {
+            add(operation);
+        }
+        return this;
+    }
+
+    /**
+     * The operations are linked to each other on {@link #write()}.
+     *
+     * @param expenseOperation new operation of the
+     *                         {@link OperationType#TRANSFER_EXPENSE_OPERATION} type
+     * @param incomeOperation  new operation of the
+     *                         {@link OperationType#TRANSFER_INCOME_OPERATION} type
+     */
+    @NonNull
+    public OperationBatchWriter addTransfer(@NonNull Operation expenseOperation,
+                                            @NonNull Operation incomeOperation) {
+        if (expenseOperation.getType() != OperationType.TRANSFER_EXPENSE_OPERATION
+                || incomeOperation.getType() != OperationType.TRANSFER_INCOME_OPERATION) {
+            throw new IllegalArgumentException("Transfer must consist of the expense and " +
+                    "income operations, but it is " + expenseOperation.getType() + " and " +
+                    incomeOperation.getType());
+        }
+        transferExpenseOperations.add(expenseOperation);
+        transferIncomeOperations.add(incomeOperation);
+        return this;
+    }
+
+    public int size() {
+        return operations.size() + transferExpenseOperations.size()
+                + transferIncomeOperations.size();
+    }
+
+    /**
+     * Write the added operations and clear the writer. Must be called on the
+     * background thread.
+     *
+     * @return inserted operations: the single ones, then the transfer expense
+     * ones, then the transfer income ones, each in the order of addition
+     */
+    @NonNull
+    public List<Operation> write() {
+        if (size() == 0) {
+            return new ArrayList<>();
+        }
+        List<Operation> insertedOperations = ledger.insertAll(() -> {
+            BlockingEntityStore<Persistable> store = data.toBlocking();
+            List<Operation> inserted = new ArrayList<>(size());
+            insert(store, operations, inserted);
+            insert(store, transferExpenseOperations, inserted);
+            for (int i = 0; i < transferIncomeOperations.size(); i++) {
+                transferIncomeOperations.get(i)
+                        .setLinkedTransferOperation(transferExpenseOperations.get(i));
+            }
+            insert(store, transferIncomeOperations, inserted);
+            if (!transferExpenseOperations.isEmpty()) {
+                for (int i = 0; i < transferExpenseOperations.size(); i++) {
+                    transferExpenseOperations.get(i)
+                            .setLinkedTransferOperation(transferIncomeOperations.get(i));
+                }
+                store.update(transferExpenseOperations);
+            }
+            return inserted;
+        });
+        operations.clear();
+        transferExpenseOperations.clear();
+        transferIncomeOperations.clear();
+        return insertedOperations;
+    }
+
+    @NonNull
+    public Single<List<Operation>> writeAsync() {
+        return Single.fromCallable(this::write);
+    }
+
+    private static void insert(@NonNull BlockingEntityStore<Persistable> store,
+                               @NonNull List<Operation> operations,
+                               @NonNull List<Operation> inserted) {
+        if (operations.isEmpty()) {
+            return;
+        }
+        for (Operation operation : store.insert(operations)) {
+            inserted.add(operation);
+        }
+    }
+}
@@ -6,8 +6,7 @@ import android.support.annotation.NonNull;
 import io.github.zwieback.familyfinance.R;
 import io.github.zwieback.familyfinance.business.person.filter.PersonFilter;
 import io.github.zwieback.familyfinance.business.person.fragment.PersonFragment;
-import io.github.zwieback.familyfinance.business.person.lifecycle.destroyer.PersonAsParentDestroyer;
-import io.github.zwieback.familyfinance.business.person.lifecycle.destroyer.PersonFromAccountsDestroyer;
+import io.github.zwieback.familyfinance.business.person.lifecycle.destroyer.PersonDestroyer;
 import io.github.zwieback.familyfinance.business.person.listener.OnPersonClickListener;
 import io.github.zwieback.familyfinance.core.activity.EntityFolderActivity;
 import io.github.zwieback.familyfinance.core.lifecycle.destroyer.EntityDestroyer;
@@ -80,9 +79,6 @@ public class PersonActivity
 
     @Override
     protected EntityDestroyer<Person> createDestroyer(PersonView person) {
-        if (person.isFolder()) {
-            return new PersonAsParentDestroyer(this, data);
-        }
-        return new PersonFromAccountsDestroyer(this, data);
+        return new PersonDestroyer(this, data);
     }
 }
@@ -146,11 +146,4 @@ public class PersonEditActivity
     protected ValidatingTextInputLayout getParentLayout() {
         return binding.parentLayout;
     }
-
-    @Override
-    protected boolean isParentInsideItself(int parentId, int newParentId) {
-        return isParentInsideItself(newParentId, Person.ID,
-                Person.PARENT_ID.eq(parentId).and(Person.FOLDER.eq(true)),
-                this::isParentInsideItself);
-    }
 }
@@ -0,0 +1,61 @@
+package io.github.zwieback.familyfinance.business.person.lifecycle.destroyer;
+
+import android.content.Context;
+import android.support.annotation.NonNull;
+
+import java.util.Arrays;
+import java.util.List;
+
+import io.github.zwieback.familyfinance.R;
+import io.github.zwieback.familyfinance.core.lifecycle.destroyer.DestroyConstraint;
+import io.github.zwieback.familyfinance.core.lifecycle.destroyer.EntityForceDestroyer;
+import io.github.zwieback.familyfinance.core.lifecycle.destroyer.EntityValidatingDestroyer;
+import io.github.zwieback.familyfinance.core.model.Account;
+import io.github.zwieback.familyfinance.core.model.Operation;
+import io.github.zwieback.familyfinance.core.model.Person;
+import io.requery.Persistable;
+import io.requery.reactivex.ReactiveEntityStore;
+
+import static io.github.zwieback.familyfinance.core.model.type.OperationType.EXPENSE_OPERATION;
+import static io.github.zwieback.familyfinance.core.model.type.OperationType.INCOME_OPERATION;
+import static io.github.zwieback.familyfinance.core.model.type.OperationType.TRANSFER_EXPENSE_OPERATION;
+import static io.github.zwieback.familyfinance.core.model.type.OperationType.TRANSFER_INCOME_OPERATION;
+
+public class PersonDestroyer extends EntityValidatingDestroyer<Person> {
+
+    public PersonDestroyer(Context context, ReactiveEntityStore<Persistable> data) {
+        super(context, data);
+    }
+
+    @Override
+    protected EntityForceDestroyer<Person> next() {
+        return new PersonForceDestroyer(context, data);
+    }
+
+    @NonNull
+    @Override
+    protected List<DestroyConstraint> getConstraints() {
+        return Arrays.asList(
+                DestroyConstraint.of(Person.$TYPE, Person.PARENT_ID,
+                        R.string.persons_with_parent_exists),
+                DestroyConstraint.of(Account.$TYPE, Account.OWNER_ID,
+                        R.string.accounts_with_owner_exists),
+                DestroyConstraint.ofOperations(Operation.OWNER_ID,
+                        R.string.expense_operations_with_owner_exists, EXPENSE_OPERATION),
+                DestroyConstraint.ofOperations(Operation.OWNER_ID,
+                        R.string.income_operations_with_owner_exists, INCOME_OPERATION),
+                DestroyConstraint.ofOperations(Operation.OWNER_ID,
+                        R.string.transfer_operations_with_owner_exists,
+                        TRANSFER_EXPENSE_OPERATION, TRANSFER_INCOME_OPERATION));
+    }
+
+    @Override
+    protected boolean preferencesContainsEntity(Person person) {
+        return databasePrefs.getPersonId() == person.getId();
+    }
+
+    @Override
+    protected int getPreferencesAlertResourceId() {
+        return R.string.preferences_contains_person;
+    }
+}
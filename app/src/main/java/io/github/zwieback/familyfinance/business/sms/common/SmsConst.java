@@ -2,4 +2,6 @@ package io.github.zwieback.familyfinance.business.sms.common;
 
 public final class SmsConst {
     public static final int SMS_NOTIFICATION_ID = 4945;
+    public static final int SMS_GROUP_NOTIFICATION_ID = 4946;
+    public static final String SMS_GROUP_KEY = "io.github.zwieback.familyfinance.SMS";
 }
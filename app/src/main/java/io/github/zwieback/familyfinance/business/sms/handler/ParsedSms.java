@@ -0,0 +1,74 @@
+package io.github.zwieback.familyfinance.business.sms.handler;
+
+import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
+import android.util.Log;
+
+import org.threeten.bp.LocalDate;
+
+import java.math.BigDecimal;
+import java.util.regex.Matcher;
+
+import io.github.zwieback.familyfinance.util.DateUtils;
+import io.github.zwieback.familyfinance.util.NumberUtils;
+
+/**
+ * Date and value of the operation, which are parsed from the matched SMS.
+ */
+public final class ParsedSms {
+
+    private static final String TAG = "ParsedSms";
+
+    private final int templateId;
+    @NonNull
+    private final LocalDate operationDate;
+    @Nullable
+    private final BigDecimal operationValue;
+
+    private ParsedSms(int templateId,
+                      @NonNull LocalDate operationDate,
+                      @Nullable BigDecimal operationValue) {
+        this.templateId = templateId;
+        this.operationDate = operationDate;
+        this.operationValue = operationValue;
+    }
+
+    /**
+     * @param matcher matcher of the SMS, which matches the pattern of the route
+     * @return parsed SMS or {@code null} if the date or the value of SMS can't
+     * be parsed
+     */
+    @Nullable
+    public static ParsedSms parse(@NonNull SmsRoute route, @NonNull Matcher matcher) {
+        String date = null;
+        if (route.getDateGroup() != null) {
+            date = matcher.group(route.getDateGroup());
+        }
+        String value = null;
+        if (route.getValueGroup() != null) {
+            value = matcher.group(route.getValueGroup());
+        }
+        try {
+            LocalDate operationDate = DateUtils.sberbankDateToLocalDate(date);
+            BigDecimal operationValue = NumberUtils.sberbankNumberToBigDecimal(value);
+            return new ParsedSms(route.getTemplateId(), operationDate, operationValue);
+        } catch (RuntimeException e) {
+            Log.w(TAG, "SMS of the pattern " + route.getSmsPatternId() + " isn't parsed", e);
+            return null;
+        }
+    }
+
+    public int getTemplateId() {
+        return templateId;
+    }
+
+    @NonNull
+    public LocalDate getOperationDate() {
+        return operationDate;
+    }
+
+    @Nullable
+    public BigDecimal getOperationValue() {
+        return operationValue;
+    }
+}
@@ -0,0 +1,152 @@
+package io.github.zwieback.familyfinance.business.sms.handler;
+
+import android.app.Notification;
+import android.app.PendingIntent;
+import android.content.Context;
+import android.content.Intent;
+import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
+import android.support.v4.app.NotificationCompat;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import io.github.zwieback.familyfinance.R;
+import io.github.zwieback.familyfinance.business.dashboard.activity.DashboardActivity;
+import io.github.zwieback.familyfinance.business.sms.service.AddOperationImmediatelyService;
+
+import static io.github.zwieback.familyfinance.business.sms.common.SmsConst.SMS_GROUP_NOTIFICATION_ID;
+
+/**
+ * Builds the summary notification of the group of SMS notifications, which
+ * lists all the operations and adds all of them immediately by the one batch
+ * insert.
+ */
+public class SmsGroupNotificationBuilder {
+
+    @NonNull
+    private Context context;
+    @NonNull
+    private String channelId;
+    @NonNull
+    private String groupKey;
+
+    private int requestCode;
+    @NonNull
+    private final List<String> lines = new ArrayList<>();
+    @NonNull
+    private final ArrayList<Intent> addImmediatelyIntents = new ArrayList<>();
+
+    public static SmsGroupNotificationBuilder create() {
+        return new SmsGroupNotificationBuilder();
+    }
+
+    public SmsGroupNotificationBuilder setContext(@NonNull Context context) {
+        this.context = context;
+        return this;
+    }
+
+    public SmsGroupNotificationBuilder setChannelId(@NonNull String channelId) {
+        this.channelId = channelId;
+        return this;
+    }
+
+    public SmsGroupNotificationBuilder setGroupKey(@NonNull String groupKey) {
+        this.groupKey = groupKey;
+        return this;
+    }
+
+    public SmsGroupNotificationBuilder setRequestCode(int requestCode) {
+        this.requestCode = requestCode;
+        return this;
+    }
+
+    /**
+     * @param contentText          text of the notification of the operation
+     * @param addImmediatelyIntent intent to add the operation immediately or
+     *                             {@code null} if it isn't allowed; it holds
+     *                             the id of the notification of the operation
+     *                             and its token, so the operation, which is
+     *                             added by its own notification, isn't added
+     *                             again
+     */
+    public SmsGroupNotificationBuilder addOperation(@NonNull String contentText,
+                                                    @Nullable Intent addImmediatelyIntent) {
+        lines.add(contentText);
+        if (addImmediatelyIntent != null) {
+            addImmediatelyIntents.add(addImmediatelyIntent);
+        }
+        return this;
+    }
+
+    public Notification build() {
+        String contentTitle = context.getString(R.string.sms_received_many, lines.size());
+
+        NotificationCompat.InboxStyle style = new NotificationCompat.InboxStyle()
+                .setBigContentTitle(contentTitle);
+        for (String line : lines) {
+            style.addLine(line);
+        }
+
+        NotificationCompat.Builder notificationBuilder = new NotificationCompat.Builder(context, channelId)
+                .setSmallIcon(R.mipmap.ic_launcher)
+                .setContentTitle(contentTitle)
+                .setContentText(lines.get(0))
+                .setStyle(style)
+                .setContentIntent(buildPendingIntent())
+                .setCategory(NotificationCompat.CATEGORY_MESSAGE)
+                .setGroup(groupKey)
+                .setGroupSummary(true)
+                // don't include the default values (sound, vibration, light),
+                // because they are included in the input sms
+                .setDefaults(0)
+                .setAutoCancel(true);
+
+        if (!addImmediatelyIntents.isEmpty()) {
+            notificationBuilder.addAction(
+                    new NotificationCompat.Action.Builder(
+                            0,
+                            context.getString(R.string.action_add_all_immediately),
+                            buildAddOperationsImmediatelyPendingIntent()
+                    )
+                            .setAllowGeneratedReplies(false)
+                            .setShowsUserInterface(false)
+                            .build()
+            );
+        }
+
+        return notificationBuilder.build();
+    }
+
+    private PendingIntent buildPendingIntent() {
+        Intent notificationIntent = new Intent(context, DashboardActivity.class);
+        return PendingIntent.getActivity(context, requestCode, notificationIntent,
+                PendingIntent.FLAG_UPDATE_CURRENT);
+    }
+
+    /**
+     * The summary is closed only if all the operations are added, because
+     * closing of the summary closes the whole group.
+     */
+    private PendingIntent buildAddOperationsImmediatelyPendingIntent() {
+        boolean allOperationsAddable = addImmediatelyIntents.size() == lines.size();
+        int[] notificationIds = allOperationsAddable
+                ? new int[]{SMS_GROUP_NOTIFICATION_ID}
+                : new int[0];
+        Intent addImmediatelyIntent = new Intent(context, AddOperationImmediatelyService.class)
+                .setAction("ACTION_ADD_OPERATIONS_IMMEDIATELY")
+                .putParcelableArrayListExtra(AddOperationImmediatelyService.INPUT_OPERATIONS,
+                        addImmediatelyIntents)
+                .putExtra(AddOperationImmediatelyService.INPUT_NOTIFICATION_IDS, notificationIds);
+        return PendingIntent.getService(
+                context,
+                SmsNotificationBuilder.getAddOperationImmediatelyRequestCode(
+                        SMS_GROUP_NOTIFICATION_ID),
+                addImmediatelyIntent,
+                SmsNotificationBuilder.ADD_OPERATION_IMMEDIATELY_FLAGS
+        );
+    }
+
+    private SmsGroupNotificationBuilder() {
+    }
+}
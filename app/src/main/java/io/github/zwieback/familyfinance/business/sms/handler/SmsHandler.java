@@ -5,29 +5,26 @@ import android.content.Context;
 import android.support.annotation.NonNull;
 import android.support.annotation.Nullable;
 
-import com.annimon.stream.Optional;
-import com.annimon.stream.Stream;
-
 import org.threeten.bp.LocalDate;
 
 import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
+import java.util.Map;
+import java.util.Set;
 
 import io.github.zwieback.familyfinance.business.sms.model.dto.SmsDto;
-import io.github.zwieback.familyfinance.business.sms_pattern.query.SmsPatternQueryBuilder;
+import io.github.zwieback.familyfinance.business.sms.service.AddOperationImmediatelyTokens;
 import io.github.zwieback.familyfinance.business.template.activity.helper.TemplateQualifier;
-import io.github.zwieback.familyfinance.core.model.SmsPatternView;
 import io.github.zwieback.familyfinance.core.model.TemplateView;
-import io.github.zwieback.familyfinance.util.DateUtils;
-import io.github.zwieback.familyfinance.util.NumberUtils;
-import io.reactivex.android.schedulers.AndroidSchedulers;
-import io.reactivex.functions.Consumer;
-import io.reactivex.schedulers.Schedulers;
 import io.requery.Persistable;
 import io.requery.reactivex.ReactiveEntityStore;
 
+import static io.github.zwieback.familyfinance.business.sms.common.SmsConst.SMS_GROUP_KEY;
+import static io.github.zwieback.familyfinance.business.sms.common.SmsConst.SMS_GROUP_NOTIFICATION_ID;
 import static io.github.zwieback.familyfinance.business.sms.common.SmsConst.SMS_NOTIFICATION_ID;
 
 public class SmsHandler {
@@ -35,6 +32,12 @@ public class SmsHandler {
     private static final String CHANNEL_ID = "Family Finance Sms Handler Channel Id";
     private static final String CHANNEL_NAME = "Family Finance Sms Handler Channel";
     private static final int REQUEST_CODE = 4944;
+    /**
+     * Ids of the notifications of the grouped SMS go round in this range, so
+     * the newest notifications replace the oldest ones.
+     */
+    private static final int FIRST_GROUPED_NOTIFICATION_ID = SMS_GROUP_NOTIFICATION_ID + 1;
+    private static final int GROUPED_NOTIFICATION_COUNT = 100;
 
     @NonNull
     private final Context context;
@@ -42,74 +45,119 @@ public class SmsHandler {
     private final ReactiveEntityStore<Persistable> data;
     @NonNull
     private final TemplateQualifier templateQualifier;
+    @NonNull
+    private final AddOperationImmediatelyTokens tokens;
+    private int nextGroupedNotificationOffset;
 
     public SmsHandler(@NonNull Context context,
                       @NonNull ReactiveEntityStore<Persistable> data) {
         this.context = context;
         this.data = data;
         this.templateQualifier = new TemplateQualifier(context, data);
+        this.tokens = new AddOperationImmediatelyTokens(context);
     }
 
-    public void handleSms(@NonNull SmsDto smsDto) {
-        List<SmsPatternView> smsPatterns = SmsPatternQueryBuilder.create(data)
-                .setSender(smsDto.getSender())
-                .orderByCommon()
-                .build()
-                .toList();
-
-        Optional<SmsPatternView> smsPatternOptional = Stream.of(smsPatterns)
-                .filter(smsPattern -> doesPatternMatch(smsDto, smsPattern))
-                .findFirst();
-
-        smsPatternOptional.ifPresent(smsPattern -> parseSmsAndGenerateNotification(smsDto, smsPattern));
-    }
-
-    private boolean doesPatternMatch(@NonNull SmsDto smsDto, @NonNull SmsPatternView smsPattern) {
-        Pattern pattern = Pattern.compile(smsPattern.getRegex(), Pattern.CASE_INSENSITIVE);
-        Matcher matcher = pattern.matcher(smsDto.getBody());
-        return matcher.matches();
-    }
-
-    private void parseSmsAndGenerateNotification(@NonNull SmsDto smsDto, @NonNull SmsPatternView smsPattern) {
-        Pattern pattern = Pattern.compile(smsPattern.getRegex(), Pattern.CASE_INSENSITIVE);
-        Matcher matcher = pattern.matcher(smsDto.getBody());
-        if (!matcher.matches()) {
+    /**
+     * Handle SMS on the calling background thread: match all of them against
+     * the routes of their senders, find the templates of the matched ones by
+     * the one query and send the notification. Many SMS are sent as the one
+     * group of notifications, which adds all their operations at once.
+     *
+     * @param smsDtos incoming SMS in the order of their receipt
+     */
+    public void handleAll(@NonNull List<SmsDto> smsDtos) {
+        SmsRoutingTable routingTable = SmsRoutingTable.load(data);
+        List<ParsedSms> parsedMessages = new ArrayList<>();
+        Set<Integer> templateIds = new HashSet<>();
+        for (SmsDto smsDto : smsDtos) {
+            SmsRoutingTable.Match match = routingTable.match(smsDto.getSender(), smsDto.getBody());
+            if (match == null) {
+                continue;
+            }
+            ParsedSms parsedSms = ParsedSms.parse(match.getRoute(), match.getMatcher());
+            if (parsedSms != null) {
+                parsedMessages.add(parsedSms);
+                templateIds.add(parsedSms.getTemplateId());
+            }
+        }
+        if (parsedMessages.isEmpty()) {
             return;
         }
-        String date = null;
-        if (smsPattern.getDateGroup() != null) {
-            date = matcher.group(smsPattern.getDateGroup());
+        Map<Integer, TemplateView> templates = findTemplates(templateIds);
+        List<SmsNotificationBuilder> notificationBuilders = new ArrayList<>(parsedMessages.size());
+        for (ParsedSms parsedSms : parsedMessages) {
+            TemplateView template = templates.get(parsedSms.getTemplateId());
+            if (template != null) {
+                notificationBuilders.add(createNotificationBuilder(template,
+                        parsedSms.getOperationDate(), parsedSms.getOperationValue()));
+            }
         }
-        String value = null;
-        if (smsPattern.getValueGroup() != null) {
-            value = matcher.group(smsPattern.getValueGroup());
+        if (notificationBuilders.size() == 1) {
+            SmsNotificationBuilder notificationBuilder = notificationBuilders.get(0);
+            tokens.register(Collections.singletonMap(SMS_NOTIFICATION_ID,
+                    notificationBuilder.getToken()));
+            sendNotification(SMS_NOTIFICATION_ID, notificationBuilder.build());
+        } else if (notificationBuilders.size() > 1) {
+            sendGroupOfNotifications(notificationBuilders);
         }
-        LocalDate operationDate = DateUtils.sberbankDateToLocalDate(date);
-        BigDecimal operationValue = NumberUtils.sberbankNumberToBigDecimal(value);
-        findTemplate(smsPattern, buildAndSendNotificationOnSuccess(operationDate, operationValue));
     }
 
-    private void findTemplate(@NonNull SmsPatternView smsPattern,
-                              @NonNull Consumer<TemplateView> onSuccess) {
-        data.findByKey(TemplateView.class, smsPattern.getTemplateId())
-                .subscribeOn(Schedulers.io())
-                .observeOn(AndroidSchedulers.mainThread())
-                .subscribe(onSuccess);
+    private void sendGroupOfNotifications(@NonNull List<SmsNotificationBuilder> notificationBuilders) {
+        Map<Integer, String> tokensByNotificationId = new HashMap<>(notificationBuilders.size());
+        for (SmsNotificationBuilder notificationBuilder : notificationBuilders) {
+            int notificationId = nextGroupedNotificationId();
+            notificationBuilder
+                    .setNotificationId(notificationId)
+                    .setRequestCode(getRequestCode(notificationId))
+                    .setGroupKey(SMS_GROUP_KEY);
+            tokensByNotificationId.put(notificationId, notificationBuilder.getToken());
+        }
+        tokens.register(tokensByNotificationId);
+
+        SmsGroupNotificationBuilder groupNotificationBuilder = SmsGroupNotificationBuilder.create()
+                .setContext(context)
+                .setChannelId(CHANNEL_ID)
+                .setGroupKey(SMS_GROUP_KEY)
+                .setRequestCode(getRequestCode(SMS_GROUP_NOTIFICATION_ID));
+        for (SmsNotificationBuilder notificationBuilder : notificationBuilders) {
+            sendNotification(notificationBuilder.getNotificationId(), notificationBuilder.build());
+            groupNotificationBuilder.addOperation(notificationBuilder.buildContentText(),
+                    notificationBuilder.buildAddOperationImmediatelyIntent());
+        }
+        sendNotification(SMS_GROUP_NOTIFICATION_ID, groupNotificationBuilder.build());
+    }
+
+    private int nextGroupedNotificationId() {
+        int notificationId = FIRST_GROUPED_NOTIFICATION_ID + nextGroupedNotificationOffset;
+        nextGroupedNotificationOffset =
+                (nextGroupedNotificationOffset + 1) % GROUPED_NOTIFICATION_COUNT;
+        return notificationId;
+    }
+
+    /**
+     * @return request code of the content of the notification, which is
+     * unique for every notification of SMS
+     */
+    private static int getRequestCode(int notificationId) {
+        return REQUEST_CODE + notificationId - SMS_NOTIFICATION_ID;
     }
 
     @NonNull
-    private Consumer<TemplateView> buildAndSendNotificationOnSuccess(@NonNull LocalDate operationDate,
-                                                                     @Nullable BigDecimal operationValue) {
-        return foundTemplate -> {
-            Notification notification = buildNotification(foundTemplate, operationDate, operationValue);
-            sendNotification(notification);
-        };
+    private Map<Integer, TemplateView> findTemplates(@NonNull Set<Integer> templateIds) {
+        Map<Integer, TemplateView> templates = new HashMap<>(templateIds.size());
+        for (TemplateView template : data.select(TemplateView.class)
+                .where(TemplateView.ID.in(templateIds))
+                .get()
+                .toList()) {
+            templates.put(template.getId(), template);
+        }
+        return templates;
     }
 
     @NonNull
-    private Notification buildNotification(@NonNull TemplateView template,
-                                           @NonNull LocalDate operationDate,
-                                           @Nullable BigDecimal operationValue) {
+    private SmsNotificationBuilder createNotificationBuilder(@NonNull TemplateView template,
+                                                            @NonNull LocalDate operationDate,
+                                                            @Nullable BigDecimal operationValue) {
         return SmsNotificationBuilder.create()
                 .setContext(context)
                 .setTemplateQualifier(templateQualifier)
@@ -117,16 +165,15 @@ public class SmsHandler {
                 .setRequestCode(REQUEST_CODE)
                 .setTemplate(template)
                 .setOperationDate(operationDate)
-                .setOperationValue(operationValue)
-                .build();
+                .setOperationValue(operationValue);
     }
 
-    private void sendNotification(@NonNull Notification notification) {
+    private void sendNotification(int notificationId, @NonNull Notification notification) {
         SmsNotificationSender.create()
                 .setContext(context)
                 .setChannelId(CHANNEL_ID)
                 .setChannelName(CHANNEL_NAME)
-                .setNotificationId(SMS_NOTIFICATION_ID)
+                .setNotificationId(notificationId)
                 .setNotification(notification)
                 .send();
     }
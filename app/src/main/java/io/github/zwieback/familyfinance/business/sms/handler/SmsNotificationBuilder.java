@@ -17,6 +17,8 @@ import java.math.BigDecimal;
 import io.github.zwieback.familyfinance.R;
 import io.github.zwieback.familyfinance.business.dashboard.activity.DashboardActivity;
 import io.github.zwieback.familyfinance.business.operation.activity.helper.OperationHelper;
+import io.github.zwieback.familyfinance.business.sms.service.AddOperationImmediatelyService;
+import io.github.zwieback.familyfinance.business.sms.service.AddOperationImmediatelyTokens;
 import io.github.zwieback.familyfinance.business.template.activity.helper.TemplateQualifier;
 import io.github.zwieback.familyfinance.business.template.exception.UnsupportedTemplateTypeException;
 import io.github.zwieback.familyfinance.core.model.TemplateView;
@@ -24,10 +26,12 @@ import io.github.zwieback.familyfinance.util.DateUtils;
 import io.github.zwieback.familyfinance.util.NumberUtils;
 import io.github.zwieback.familyfinance.util.StringUtils;
 
+import static io.github.zwieback.familyfinance.business.sms.common.SmsConst.SMS_NOTIFICATION_ID;
+
 public class SmsNotificationBuilder {
 
     private static final int ADD_OPERATION_IMMEDIATELY_REQUEST_CODE = 9872;
-    private static final int ADD_OPERATION_IMMEDIATELY_FLAGS =
+    static final int ADD_OPERATION_IMMEDIATELY_FLAGS =
             PendingIntent.FLAG_UPDATE_CURRENT | PendingIntent.FLAG_ONE_SHOT;
 
     @NonNull
@@ -38,12 +42,17 @@ public class SmsNotificationBuilder {
     private String channelId;
 
     private int requestCode;
+    private int notificationId = SMS_NOTIFICATION_ID;
+    @Nullable
+    private String groupKey;
     @NonNull
     private TemplateView template;
     @NonNull
     private LocalDate operationDate;
     @Nullable
     private BigDecimal operationValue;
+    @NonNull
+    private final String token = AddOperationImmediatelyTokens.newToken();
 
     public static SmsNotificationBuilder create() {
         return new SmsNotificationBuilder();
@@ -69,6 +78,21 @@ public class SmsNotificationBuilder {
         return this;
     }
 
+    /**
+     * @param notificationId id of the notification, which is closed once its
+     *                       operation is added immediately; it also makes the
+     *                       request code of the action unique
+     */
+    public SmsNotificationBuilder setNotificationId(int notificationId) {
+        this.notificationId = notificationId;
+        return this;
+    }
+
+    public SmsNotificationBuilder setGroupKey(@Nullable String groupKey) {
+        this.groupKey = groupKey;
+        return this;
+    }
+
     public SmsNotificationBuilder setTemplate(@NonNull TemplateView template) {
         this.template = template;
         return this;
@@ -87,10 +111,7 @@ public class SmsNotificationBuilder {
     public Notification build() {
         PendingIntent pendingIntent = buildPendingIntent(template, operationDate, operationValue);
 
-        String type = context.getString(determineOperationTypeRes(template));
-        String date = DateUtils.localDateToString(operationDate, DateUtils.SBERBANK_DATE_FORMATTER);
-        String value = NumberUtils.bigDecimalToString(operationValue, StringUtils.QUESTION);
-        String contentText = context.getString(R.string.sms_received_content, type, value, template.getName(), date);
+        String contentText = buildContentText();
         String contentTitle = context.getString(R.string.sms_received);
 
         NotificationCompat.Builder notificationBuilder = new NotificationCompat.Builder(context, channelId)
@@ -105,9 +126,14 @@ public class SmsNotificationBuilder {
                 .setDefaults(0)
                 .setAutoCancel(true);
 
-        if (mayToAddOperationImmediately(template, operationDate, operationValue)) {
+        if (groupKey != null) {
+            notificationBuilder.setGroup(groupKey);
+        }
+
+        Intent addOperationImmediatelyIntent = buildAddOperationImmediatelyIntent();
+        if (addOperationImmediatelyIntent != null) {
             PendingIntent addOperationImmediatelyPendingIntent =
-                    buildAddOperationImmediatelyPendingIntent(template, operationDate, operationValue);
+                    buildAddOperationImmediatelyPendingIntent(addOperationImmediatelyIntent);
 
             notificationBuilder.addAction(
                     new NotificationCompat.Action.Builder(
@@ -124,6 +150,47 @@ public class SmsNotificationBuilder {
         return notificationBuilder.build();
     }
 
+    @NonNull
+    String buildContentText() {
+        String type = context.getString(determineOperationTypeRes(template));
+        String date = DateUtils.localDateToString(operationDate, DateUtils.SBERBANK_DATE_FORMATTER);
+        String value = NumberUtils.bigDecimalToString(operationValue, StringUtils.QUESTION);
+        return context.getString(R.string.sms_received_content, type, value, template.getName(), date);
+    }
+
+    int getNotificationId() {
+        return notificationId;
+    }
+
+    /**
+     * @return token of the operation, which must be
+     * {@link AddOperationImmediatelyTokens#register registered} before the
+     * notification is sent
+     */
+    @NonNull
+    String getToken() {
+        return token;
+    }
+
+    /**
+     * @return intent to add the operation immediately or {@code null} if the
+     * template doesn't allow it
+     */
+    @Nullable
+    Intent buildAddOperationImmediatelyIntent() {
+        if (!mayToAddOperationImmediately(template, operationDate, operationValue)) {
+            return null;
+        }
+        OperationHelper<?> operationHelper = templateQualifier.determineHelper(template);
+        return operationHelper.getIntentToAddImmediately(
+                template.getArticleId(), template.getAccountId(), template.getTransferAccountId(),
+                template.getOwnerId(), template.getCurrencyId(), template.getExchangeRateId(),
+                operationDate, operationValue, template.getDescription(), template.getUrl()
+        )
+                .putExtra(AddOperationImmediatelyService.INPUT_NOTIFICATION_ID, notificationId)
+                .putExtra(AddOperationImmediatelyService.INPUT_TOKEN, token);
+    }
+
     /**
      * @see <a href="https://stackoverflow.com/a/31429210/8035065">Solution from here</a>
      */
@@ -156,23 +223,23 @@ public class SmsNotificationBuilder {
         );
     }
 
-    private PendingIntent buildAddOperationImmediatelyPendingIntent(@NonNull TemplateView template,
-                                                                    @NonNull LocalDate operationDate,
-                                                                    @Nullable BigDecimal operationValue) {
-        OperationHelper<?> operationHelper = templateQualifier.determineHelper(template);
-        Intent addImmediatelyIntent = operationHelper.getIntentToAddImmediately(
-                template.getArticleId(), template.getAccountId(), template.getTransferAccountId(),
-                template.getOwnerId(), template.getCurrencyId(), template.getExchangeRateId(),
-                operationDate, operationValue, template.getDescription(), template.getUrl()
-        );
+    private PendingIntent buildAddOperationImmediatelyPendingIntent(@NonNull Intent addImmediatelyIntent) {
         return PendingIntent.getService(
                 context,
-                ADD_OPERATION_IMMEDIATELY_REQUEST_CODE,
+                getAddOperationImmediatelyRequestCode(notificationId),
                 addImmediatelyIntent,
                 ADD_OPERATION_IMMEDIATELY_FLAGS
         );
     }
 
+    /**
+     * @return request code of the action, which is unique for every
+     * notification of SMS
+     */
+    static int getAddOperationImmediatelyRequestCode(int notificationId) {
+        return ADD_OPERATION_IMMEDIATELY_REQUEST_CODE + notificationId - SMS_NOTIFICATION_ID;
+    }
+
     @StringRes
     private int determineOperationTypeRes(@NonNull TemplateView template) {
         switch (template.getType()) {
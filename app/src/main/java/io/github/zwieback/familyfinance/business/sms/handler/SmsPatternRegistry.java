@@ -0,0 +1,65 @@
+package io.github.zwieback.familyfinance.business.sms.handler;
+
+import android.support.annotation.NonNull;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Pattern;
+
+import io.github.zwieback.familyfinance.core.model.SmsPatternView;
+
+/**
+ * Process-wide registry of the compiled regexes of the SMS patterns, so each
+ * regex is compiled once instead of on every incoming SMS.
+ * <p>
+ * The compiled pattern is keyed by the id of the SMS pattern and is checked
+ * against the hash of its current regex, so a pattern, which was changed
+ * outside of {@link #invalidate(int)}, is compiled again instead of the stale
+ * one is used.
+ */
+public final class SmsPatternRegistry {
+
+    private static final Map<Integer, CompiledPattern> patterns = new ConcurrentHashMap<>();
+
+    private SmsPatternRegistry() {
+    }
+
+    /**
+     * @param smsPattern SMS pattern with the regex
+     * @return compiled case insensitive regex of the SMS pattern
+     */
+    @NonNull
+    public static Pattern get(@NonNull SmsPatternView smsPattern) {
+        String regex = smsPattern.getRegex();
+        CompiledPattern compiledPattern = patterns.get(smsPattern.getId());
+        if (compiledPattern == null || !compiledPattern.isCompiledFrom(regex)) {
+            compiledPattern = new CompiledPattern(regex);
+            patterns.put(smsPattern.getId(), compiledPattern);
+        }
+        return compiledPattern.pattern;
+    }
+
+    /**
+     * Must be called after the SMS pattern is changed or deleted.
+     *
+     * @param smsPatternId id of the SMS pattern
+     */
+    public static void invalidate(int smsPatternId) {
+        patterns.remove(smsPatternId);
+    }
+
+    private static final class CompiledPattern {
+
+        private final int regexHash;
+        private final Pattern pattern;
+
+        private CompiledPattern(@NonNull String regex) {
+            this.regexHash = regex.hashCode();
+            this.pattern = Pattern.compile(regex, Pattern.CASE_INSENSITIVE);
+        }
+
+        private boolean isCompiledFrom(@NonNull String regex) {
+            return regexHash == regex.hashCode() && pattern.pattern().equals(regex);
+        }
+    }
+}
@@ -0,0 +1,54 @@
+package io.github.zwieback.familyfinance.business.sms.handler;
+
+import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
+
+import java.util.regex.Pattern;
+
+import io.github.zwieback.familyfinance.core.model.SmsPatternView;
+
+/**
+ * Compiled SMS pattern together with the template, which it resolves to.
+ */
+public final class SmsRoute {
+
+    private final int smsPatternId;
+    @NonNull
+    private final Pattern pattern;
+    private final int templateId;
+    @Nullable
+    private final Integer dateGroup;
+    @Nullable
+    private final Integer valueGroup;
+
+    SmsRoute(@NonNull SmsPatternView smsPattern) {
+        this.smsPatternId = smsPattern.getId();
+        this.pattern = SmsPatternRegistry.get(smsPattern);
+        this.templateId = smsPattern.getTemplateId();
+        this.dateGroup = smsPattern.getDateGroup();
+        this.valueGroup = smsPattern.getValueGroup();
+    }
+
+    public int getSmsPatternId() {
+        return smsPatternId;
+    }
+
+    @NonNull
+    public Pattern getPattern() {
+        return pattern;
+    }
+
+    public int getTemplateId() {
+        return templateId;
+    }
+
+    @Nullable
+    public Integer getDateGroup() {
+        return dateGroup;
+    }
+
+    @Nullable
+    public Integer getValueGroup() {
+        return valueGroup;
+    }
+}
@@ -0,0 +1,193 @@
+package io.github.zwieback.familyfinance.business.sms.handler;
+
+import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
+
+import com.annimon.stream.Stream;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.regex.Matcher;
+
+import io.github.zwieback.familyfinance.business.sms.matcher.MultiPatternMatcher;
+import io.github.zwieback.familyfinance.business.sms_pattern.query.SmsPatternQueryBuilder;
+import io.github.zwieback.familyfinance.core.model.SmsPatternView;
+import io.requery.Persistable;
+import io.requery.reactivex.ReactiveEntityStore;
+
+/**
+ * In-memory table of the routes of SMS: the normalized sender to the compiled
+ * patterns in the order of {@link SmsPatternQueryBuilder#orderByCommon()} and
+ * their {@link MultiPatternMatcher}.
+ * <p>
+ * The table is loaded lazily by the one query and then is shared by all the
+ * incoming SMS, so the relevance of SMS is decided without the database. It
+ * must be {@link #invalidate() invalidated} after the SMS patterns or the
+ * templates are changed; the next SMS loads it again.
+ */
+public final class SmsRoutingTable {
+
+    private static final Object lock = new Object();
+
+    @Nullable
+    private static volatile SmsRoutingTable instance;
+    /**
+     * Is incremented on every invalidation, so the table, which was being
+     * loaded during the invalidation, isn't published.
+     */
+    private static int generation;
+
+    @NonNull
+    private final Map<String, SenderRoutes> routes;
+
+    private SmsRoutingTable(@NonNull Map<String, SenderRoutes> routes) {
+        this.routes = routes;
+    }
+
+    /**
+     * @return loaded table or {@code null} if it wasn't loaded yet or was
+     * invalidated
+     */
+    @Nullable
+    public static SmsRoutingTable getLoaded() {
+        return instance;
+    }
+
+    /**
+     * Load the table if it isn't loaded. Must be called on the background
+     * thread.
+     *
+     * @return loaded table
+     */
+    @NonNull
+    public static SmsRoutingTable load(@NonNull ReactiveEntityStore<Persistable> data) {
+        SmsRoutingTable table = instance;
+        if (table != null) {
+            return table;
+        }
+        int loadedGeneration;
+        synchronized (lock) {
+            loadedGeneration = generation;
+        }
+        table = build(SmsPatternQueryBuilder.create(data).orderByCommon().build().toList());
+        synchronized (lock) {
+            if (loadedGeneration == generation) {
+                instance = table;
+            }
+        }
+        return table;
+    }
+
+    public static void invalidate() {
+        synchronized (lock) {
+            generation++;
+            instance = null;
+        }
+    }
+
+    @NonNull
+    private static SmsRoutingTable build(@NonNull List<SmsPatternView> smsPatterns) {
+        Map<String, List<SmsRoute>> routesBySender = new HashMap<>();
+        for (SmsPatternView smsPattern : smsPatterns) {
+            String sender = normalizeSender(smsPattern.getSender());
+            List<SmsRoute> senderRoutes = routesBySender.get(sender);
+            if (senderRoutes == null) {
+                senderRoutes = new ArrayList<>();
+                routesBySender.put(sender, senderRoutes);
+            }
+            senderRoutes.add(new SmsRoute(smsPattern));
+        }
+        Map<String, SenderRoutes> routes = new HashMap<>(routesBySender.size());
+        for (Map.Entry<String, List<SmsRoute>> entry : routesBySender.entrySet()) {
+            routes.put(entry.getKey(), new SenderRoutes(entry.getValue()));
+        }
+        return new SmsRoutingTable(routes);
+    }
+
+    /**
+     * Senders are compared without the surrounding spaces and case, because
+     * the alphanumeric senders come in the different case from the different
+     * operators.
+     */
+    @NonNull
+    static String normalizeSender(@NonNull String sender) {
+        return sender.trim().toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * @return routes of the sender in the order of their check or the empty
+     * list if SMS of the sender isn't relevant
+     */
+    @NonNull
+    public List<SmsRoute> findRoutes(@NonNull String sender) {
+        SenderRoutes senderRoutes = routes.get(normalizeSender(sender));
+        return senderRoutes == null ? Collections.<SmsRoute>emptyList() : senderRoutes.routes;
+    }
+
+    /**
+     * @param sender sender of SMS
+     * @param body   body of SMS
+     * @return first route of the sender, whose pattern matches the whole
+     * body, or {@code null} if there is no such route
+     */
+    @Nullable
+    public Match match(@NonNull String sender, @NonNull CharSequence body) {
+        SenderRoutes senderRoutes = routes.get(normalizeSender(sender));
+        if (senderRoutes == null) {
+            return null;
+        }
+        MultiPatternMatcher.Match match = senderRoutes.matcher.match(body);
+        if (match == null) {
+            return null;
+        }
+        return new Match(senderRoutes.routes.get(match.getIndex()), match.getMatcher());
+    }
+
+    public boolean isRelevant(@NonNull String sender) {
+        return routes.containsKey(normalizeSender(sender));
+    }
+
+    private static final class SenderRoutes {
+
+        @NonNull
+        private final List<SmsRoute> routes;
+        @NonNull
+        private final MultiPatternMatcher matcher;
+
+        private SenderRoutes(@NonNull List<SmsRoute> routes) {
+            this.routes = Collections.unmodifiableList(routes);
+            this.matcher = new MultiPatternMatcher(
+                    Stream.of(routes).map(SmsRoute::getPattern).toList());
+        }
+    }
+
+    public static final class Match {
+
+        @NonNull
+        private final SmsRoute route;
+        @NonNull
+        private final Matcher matcher;
+
+        private Match(@NonNull SmsRoute route, @NonNull Matcher matcher) {
+            this.route = route;
+            this.matcher = matcher;
+        }
+
+        @NonNull
+        public SmsRoute getRoute() {
+            return route;
+        }
+
+        /**
+         * @return matcher of the body, which matched the pattern of the route
+         */
+        @NonNull
+        public Matcher getMatcher() {
+            return matcher;
+        }
+    }
+}
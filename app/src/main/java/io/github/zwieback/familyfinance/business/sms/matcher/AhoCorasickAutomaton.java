@@ -0,0 +1,129 @@
+package io.github.zwieback.familyfinance.business.sms.matcher;
+
+import android.support.annotation.NonNull;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+
+/**
+ * Aho-Corasick automaton, which finds all the keywords in the text by the
+ * one scan. The keywords and the text are compared by the
+ * {@link #fold(char) folded} case of their chars, so the automaton finds at
+ * least everything the case insensitive regex does.
+ */
+final class AhoCorasickAutomaton {
+
+    private static final int ROOT = 0;
+
+    private final List<Map<Character, Integer>> transitions;
+    private final int[] failures;
+    private final int[][] outputs;
+    private final int keywordCount;
+
+    /**
+     * @param keywords not empty keywords, the index of the keyword is its id
+     */
+    AhoCorasickAutomaton(@NonNull List<String> keywords) {
+        this.keywordCount = keywords.size();
+        this.transitions = new ArrayList<>();
+        List<List<Integer>> nodeOutputs = new ArrayList<>();
+        addNode(nodeOutputs);
+        for (int keywordId = 0; keywordId < keywords.size(); keywordId++) {
+            String keyword = keywords.get(keywordId);
+            int node = ROOT;
+            for (int i = 0; i < keyword.length(); i++) {
+                char c = fold(keyword.charAt(i));
+                Integer next = transitions.get(node).get(c);
+                if (next == null) {
+                    next = addNode(nodeOutputs);
+                    transitions.get(node).put(c, next);
+                }
+                node = next;
+            }
+            nodeOutputs.get(node).add(keywordId);
+        }
+        this.failures = new int[transitions.size()];
+        buildFailures(nodeOutputs);
+        this.outputs = new int[nodeOutputs.size()][];
+        for (int node = 0; node < nodeOutputs.size(); node++) {
+            List<Integer> keywordIds = nodeOutputs.get(node);
+            outputs[node] = new int[keywordIds.size()];
+            for (int i = 0; i < keywordIds.size(); i++) {
+                outputs[node][i] = keywordIds.get(i);
+            }
+        }
+    }
+
+    /**
+     * Fold the case of the char the same way as the case insensitive regex
+     * compares it: the chars are equal if either their upper or lower cases
+     * are equal.
+     */
+    static char fold(char c) {
+        return Character.toLowerCase(Character.toUpperCase(c));
+    }
+
+    private int addNode(@NonNull List<List<Integer>> nodeOutputs) {
+        transitions.add(new HashMap<>());
+        nodeOutputs.add(new ArrayList<>());
+        return transitions.size() - 1;
+    }
+
+    /**
+     * Breadth-first build of the failure links. The outputs of the failure
+     * node are merged into the node, so the search doesn't follow the links
+     * to collect them.
+     */
+    private void buildFailures(@NonNull List<List<Integer>> nodeOutputs) {
+        Queue<Integer> queue = new ArrayDeque<>();
+        for (int child : transitions.get(ROOT).values()) {
+            failures[child] = ROOT;
+            queue.add(child);
+        }
+        while (!queue.isEmpty()) {
+            int node = queue.remove();
+            for (Map.Entry<Character, Integer> transition : transitions.get(node).entrySet()) {
+                char c = transition.getKey();
+                int child = transition.getValue();
+                int failure = failures[node];
+                while (failure != ROOT && !transitions.get(failure).containsKey(c)) {
+                    failure = failures[failure];
+                }
+                Integer failureChild = transitions.get(failure).get(c);
+                failures[child] = failureChild != null && failureChild != child
+                        ? failureChild
+                        : ROOT;
+                nodeOutputs.get(child).addAll(nodeOutputs.get(failures[child]));
+                queue.add(child);
+            }
+        }
+    }
+
+    /**
+     * @param text text to scan
+     * @return ids of the keywords, which are found in the text
+     */
+    @NonNull
+    BitSet search(@NonNull CharSequence text) {
+        BitSet foundKeywords = new BitSet(keywordCount);
+        int node = ROOT;
+        for (int i = 0; i < text.length(); i++) {
+            char c = fold(text.charAt(i));
+            Integer next = transitions.get(node).get(c);
+            while (next == null && node != ROOT) {
+                node = failures[node];
+                next = transitions.get(node).get(c);
+            }
+            node = next == null ? ROOT : next;
+            for (int keywordId : outputs[node]) {
+                foundKeywords.set(keywordId);
+            }
+        }
+        return foundKeywords;
+    }
+}
@@ -0,0 +1,126 @@
+package io.github.zwieback.familyfinance.business.sms.matcher;
+
+import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Matches the input against the ordered patterns and finds the first one,
+ * which matches the whole input.
+ * <p>
+ * The input is scanned once by the {@link AhoCorasickAutomaton} over the
+ * {@link RegexLiterals required literals} of the patterns. Only the patterns,
+ * whose literals are all found, are confirmed by the regex, in their order,
+ * so the first matched pattern is the same as by the check of every pattern
+ * one by one.
+ */
+public final class MultiPatternMatcher {
+
+    @NonNull
+    private final List<Pattern> patterns;
+    /**
+     * Ids of the keywords of the automaton by the index of the pattern. The
+     * pattern without the literals has no keywords.
+     */
+    @NonNull
+    private final int[][] keywordIds;
+    @Nullable
+    private final AhoCorasickAutomaton automaton;
+
+    /**
+     * @param patterns patterns in the order of their check
+     */
+    public MultiPatternMatcher(@NonNull List<Pattern> patterns) {
+        this.patterns = new ArrayList<>(patterns);
+        this.keywordIds = new int[patterns.size()][];
+        List<String> keywords = new ArrayList<>();
+        Map<String, Integer> keywordIdsByLiteral = new HashMap<>();
+        for (int i = 0; i < patterns.size(); i++) {
+            List<String> literals = RegexLiterals.findRequiredLiterals(patterns.get(i));
+            keywordIds[i] = new int[literals.size()];
+            for (int j = 0; j < literals.size(); j++) {
+                String foldedLiteral = fold(literals.get(j));
+                Integer keywordId = keywordIdsByLiteral.get(foldedLiteral);
+                if (keywordId == null) {
+                    keywordId = keywords.size();
+                    keywords.add(foldedLiteral);
+                    keywordIdsByLiteral.put(foldedLiteral, keywordId);
+                }
+                keywordIds[i][j] = keywordId;
+            }
+        }
+        this.automaton = keywords.isEmpty() ? null : new AhoCorasickAutomaton(keywords);
+    }
+
+    @NonNull
+    private static String fold(@NonNull String literal) {
+        char[] chars = literal.toCharArray();
+        for (int i = 0; i < chars.length; i++) {
+            chars[i] = AhoCorasickAutomaton.fold(chars[i]);
+        }
+        return new String(chars);
+    }
+
+    /**
+     * @param input input to match
+     * @return first pattern, which matches the whole input, or {@code null}
+     * if there is no such pattern
+     */
+    @Nullable
+    public Match match(@NonNull CharSequence input) {
+        BitSet foundKeywords = automaton == null ? new BitSet() : automaton.search(input);
+        for (int i = 0; i < patterns.size(); i++) {
+            if (!containsAll(foundKeywords, keywordIds[i])) {
+                continue;
+            }
+            Matcher matcher = patterns.get(i).matcher(input);
+            if (matcher.matches()) {
+                return new Match(i, matcher);
+            }
+        }
+        return null;
+    }
+
+    private static boolean containsAll(@NonNull BitSet foundKeywords, @NonNull int[] keywordIds) {
+        for (int keywordId : keywordIds) {
+            if (!foundKeywords.get(keywordId)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    public static final class Match {
+
+        private final int index;
+        @NonNull
+        private final Matcher matcher;
+
+        private Match(int index, @NonNull Matcher matcher) {
+            this.index = index;
+            this.matcher = matcher;
+        }
+
+        /**
+         * @return index of the matched pattern
+         */
+        public int getIndex() {
+            return index;
+        }
+
+        /**
+         * @return matcher of the input, which matched the pattern
+         */
+        @NonNull
+        public Matcher getMatcher() {
+            return matcher;
+        }
+    }
+}
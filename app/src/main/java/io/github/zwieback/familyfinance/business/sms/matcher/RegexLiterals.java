@@ -0,0 +1,278 @@
+package io.github.zwieback.familyfinance.business.sms.matcher;
+
+import android.support.annotation.NonNull;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.regex.Pattern;
+
+/**
+ * Extracts the literals, which must be contained in any input matched by the
+ * regex.
+ * <p>
+ * The extraction is conservative: only the literal chars outside of the
+ * groups, the classes and the alternations are taken into account, and any
+ * construct, which isn't understood, ends the current literal. The regex with
+ * the alternation or the comments mode on the top level has no literal.
+ */
+final class RegexLiterals {
+
+    /**
+     * The shorter literals are found in almost every SMS, so they don't filter
+     * anything.
+     */
+    private static final int MIN_LITERAL_LENGTH = 3;
+
+    private RegexLiterals() {
+    }
+
+    /**
+     * @param pattern compiled regex
+     * @return required literals or the empty list if the regex has no literal
+     * to filter by
+     */
+    @NonNull
+    static List<String> findRequiredLiterals(@NonNull Pattern pattern) {
+        if ((pattern.flags() & (Pattern.LITERAL | Pattern.COMMENTS | Pattern.CANON_EQ)) != 0) {
+            return Collections.emptyList();
+        }
+        String regex = pattern.pattern();
+        if (regex.contains("\\Q")) {
+            // the quoted chars may be anywhere, even inside the skipped groups
+            return Collections.emptyList();
+        }
+        StringBuilder current = new StringBuilder();
+        List<String> literals = new ArrayList<>();
+        int i = 0;
+        while (i < regex.length()) {
+            char c = regex.charAt(i);
+            switch (c) {
+                case '\\':
+                    if (i + 1 >= regex.length()) {
+                        return Collections.emptyList();
+                    }
+                    char escaped = regex.charAt(i + 1);
+                    if (Character.isLetterOrDigit(escaped)) {
+                        // class, boundary, back reference or code of the char
+                        addLiteral(literals, current);
+                        current.setLength(0);
+                        i = skipEscape(regex, i);
+                    } else {
+                        current.append(escaped);
+                        i += 2;
+                    }
+                    break;
+                case '(':
+                    if (regex.startsWith("(?", i) && hasCommentsFlag(regex, i)) {
+                        return Collections.emptyList();
+                    }
+                    addLiteral(literals, current);
+                    current.setLength(0);
+                    i = skipGroup(regex, i);
+                    break;
+                case '[':
+                    addLiteral(literals, current);
+                    current.setLength(0);
+                    i = skipClass(regex, i);
+                    break;
+                case '*':
+                case '?':
+                case '{':
+                    // the last char is optional
+                    if (current.length() > 0) {
+                        current.setLength(current.length() - 1);
+                    }
+                    addLiteral(literals, current);
+                    current.setLength(0);
+                    i = skipQuantifier(regex, i);
+                    break;
+                case '+':
+                    // the last char is required once, but the next one may not follow it
+                    addLiteral(literals, current);
+                    current.setLength(0);
+                    i = skipQuantifier(regex, i);
+                    break;
+                case '|':
+                    return Collections.emptyList();
+                case '.':
+                case '^':
+                case '$':
+                case ')':
+                    addLiteral(literals, current);
+                    current.setLength(0);
+                    i++;
+                    break;
+                default:
+                    current.append(c);
+                    i++;
+            }
+            if (i < 0) {
+                return Collections.emptyList();
+            }
+        }
+        addLiteral(literals, current);
+        return literals;
+    }
+
+    private static void addLiteral(@NonNull List<String> literals, @NonNull StringBuilder current) {
+        if (current.length() >= MIN_LITERAL_LENGTH) {
+            literals.add(current.toString());
+        }
+    }
+
+    /**
+     * @return {@code true} if the group at the index is the inline flags,
+     * which turn on the comments mode, e.g. {@code (?x)} or {@code (?ix:...)}
+     */
+    private static boolean hasCommentsFlag(@NonNull String regex, int start) {
+        for (int i = start + 2; i < regex.length(); i++) {
+            char c = regex.charAt(i);
+            if (c == 'x') {
+                return true;
+            }
+            if (c == '-' || c == ')' || c == ':' || !Character.isLetter(c)) {
+                return false;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * @return index after the whole escape sequence, which starts by the
+     * backslash and the letter or the digit at the index, e.g. after
+     * {@code \x41}, {@code \0101}, {@code \k<name>} or {@code \p{Lu}}, or
+     * {@code -1} if the sequence isn't closed
+     */
+    private static int skipEscape(@NonNull String regex, int start) {
+        char escaped = regex.charAt(start + 1);
+        int i = start + 2;
+        switch (escaped) {
+            case 'x':
+                if (i < regex.length() && regex.charAt(i) == '{') {
+                    return skipPast(regex, i, '}');
+                }
+                return Math.min(i + 2, regex.length());
+            case 'u':
+                return Math.min(i + 4, regex.length());
+            case '0':
+                for (int count = 0; count < 3 && i < regex.length()
+                        && regex.charAt(i) >= '0' && regex.charAt(i) <= '7'; count++) {
+                    i++;
+                }
+                return i;
+            case 'c':
+                return Math.min(i + 1, regex.length());
+            case 'k':
+                return skipPast(regex, i, '>');
+            case 'p':
+            case 'P':
+            case 'N':
+                if (i < regex.length() && regex.charAt(i) == '{') {
+                    return skipPast(regex, i, '}');
+                }
+                return Math.min(i + 1, regex.length());
+            default:
+                // the back reference takes as many digits as there are groups
+                while (Character.isDigit(escaped) && i < regex.length()
+                        && Character.isDigit(regex.charAt(i))) {
+                    i++;
+                }
+                return i;
+        }
+    }
+
+    /**
+     * @return index after the first occurrence of the char at or after the
+     * index or {@code -1} if there is no such char
+     */
+    private static int skipPast(@NonNull String regex, int start, char c) {
+        int i = regex.indexOf(c, start);
+        return i < 0 ? -1 : i + 1;
+    }
+
+    /**
+     * @return index after the closing parenthesis of the group or {@code -1}
+     * if the group isn't closed
+     */
+    private static int skipGroup(@NonNull String regex, int start) {
+        int depth = 0;
+        int i = start;
+        while (i < regex.length()) {
+            char c = regex.charAt(i);
+            if (c == '\\') {
+                i += 2;
+                continue;
+            }
+            if (c == '[') {
+                i = skipClass(regex, i);
+                if (i < 0) {
+                    return -1;
+                }
+                continue;
+            }
+            if (c == '(') {
+                depth++;
+            } else if (c == ')') {
+                depth--;
+                if (depth == 0) {
+                    return i + 1;
+                }
+            }
+            i++;
+        }
+        return -1;
+    }
+
+    /**
+     * @return index after the closing bracket of the class or {@code -1} if
+     * the class isn't closed
+     */
+    private static int skipClass(@NonNull String regex, int start) {
+        int depth = 0;
+        int i = start;
+        while (i < regex.length()) {
+            char c = regex.charAt(i);
+            if (c == '\\') {
+                i += 2;
+                continue;
+            }
+            if (c == '[') {
+                depth++;
+                // "]" right after the opening bracket is a literal
+                if (i + 1 < regex.length() && regex.charAt(i + 1) == ']') {
+                    i++;
+                } else if (i + 2 < regex.length() && regex.charAt(i + 1) == '^'
+                        && regex.charAt(i + 2) == ']') {
+                    i += 2;
+                }
+            } else if (c == ']') {
+                depth--;
+                if (depth == 0) {
+                    return i + 1;
+                }
+            }
+            i++;
+        }
+        return -1;
+    }
+
+    /**
+     * @return index after the quantifier and its lazy or possessive suffix or
+     * {@code -1} if the bounds of the quantifier aren't closed
+     */
+    private static int skipQuantifier(@NonNull String regex, int start) {
+        int i = start;
+        if (regex.charAt(i) == '{') {
+            i = regex.indexOf('}', i);
+            if (i < 0) {
+                return -1;
+            }
+        }
+        i++;
+        if (i < regex.length() && (regex.charAt(i) == '?' || regex.charAt(i) == '+')) {
+            i++;
+        }
+        return i;
+    }
+}
@@ -0,0 +1,253 @@
+package io.github.zwieback.familyfinance.business.sms.queue;
+
+import android.support.annotation.NonNull;
+import android.util.Log;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.CRC32;
+
+import io.github.zwieback.familyfinance.business.sms.model.dto.SmsDto;
+
+/**
+ * Append-only queue of the received SMS in the file, which survives the death
+ * of the process.
+ * <p>
+ * Every record is {@code [length][sender and body][CRC32]} and is synced to
+ * the disk before {@link #append(SmsDto)} returns. The offset of the handled
+ * records is committed into the separate file by the atomic rename, so the
+ * record is handled at least once. Both files are deleted once all the records
+ * are handled. The record, which was torn by the death of the process during
+ * the append, is cut off before the queue is used.
+ * <p>
+ * The failed attempts to handle the first pending record are kept together
+ * with the offset, so the record, which can't be handled, may be skipped
+ * after a few attempts instead of blocking the queue.
+ */
+public final class SmsQueue {
+
+    private static final String TAG = "SmsQueue";
+    private static final String QUEUE_FILE_NAME = "sms_queue.bin";
+    private static final String OFFSET_FILE_NAME = "sms_queue.offset";
+    private static final String TEMP_SUFFIX = ".tmp";
+    private static final int HEADER_SIZE = 4;
+    private static final int CHECKSUM_SIZE = 8;
+
+    @NonNull
+    private final File queueFile;
+    @NonNull
+    private final File offsetFile;
+    private boolean recovered;
+
+    public SmsQueue(@NonNull File directory) {
+        this.queueFile = new File(directory, QUEUE_FILE_NAME);
+        this.offsetFile = new File(directory, OFFSET_FILE_NAME);
+    }
+
+    /**
+     * Append SMS to the end of the queue and sync it to the disk.
+     *
+     * @throws IOException if the queue can't be written
+     */
+    public synchronized void append(@NonNull SmsDto smsDto) throws IOException {
+        recoverOnce();
+        ByteArrayOutputStream payloadStream = new ByteArrayOutputStream();
+        DataOutputStream payloadOutput = new DataOutputStream(payloadStream);
+        payloadOutput.writeUTF(smsDto.getSender());
+        payloadOutput.writeUTF(smsDto.getBody());
+        byte[] payload = payloadStream.toByteArray();
+
+        ByteArrayOutputStream recordStream =
+                new ByteArrayOutputStream(HEADER_SIZE + payload.length + CHECKSUM_SIZE);
+        DataOutputStream recordOutput = new DataOutputStream(recordStream);
+        recordOutput.writeInt(payload.length);
+        recordOutput.write(payload);
+        recordOutput.writeLong(checksum(payload));
+
+        try (FileOutputStream output = new FileOutputStream(queueFile, true)) {
+            output.write(recordStream.toByteArray());
+            output.getFD().sync();
+        }
+    }
+
+    /**
+     * @param maxCount max count of the read records
+     * @return records after the committed offset
+     * @throws IOException if the queue can't be read
+     */
+    @NonNull
+    public synchronized Batch readPending(int maxCount) throws IOException {
+        recoverOnce();
+        long startOffset = 0;
+        int failedAttempts = 0;
+        if (offsetFile.exists()) {
+            try (DataInputStream input = new DataInputStream(
+                    new FileInputStream(offsetFile))) {
+                startOffset = input.readLong();
+                failedAttempts = input.readInt();
+            }
+        }
+        long offset = startOffset;
+        List<SmsDto> messages = new ArrayList<>();
+        if (!queueFile.exists()) {
+            return new Batch(messages, startOffset, offset, failedAttempts);
+        }
+        try (RandomAccessFile file = new RandomAccessFile(queueFile, "r")) {
+            file.seek(offset);
+            while (messages.size() < maxCount) {
+                SmsDto smsDto = readRecord(file);
+                if (smsDto == null) {
+                    break;
+                }
+                messages.add(smsDto);
+                offset = file.getFilePointer();
+            }
+        }
+        return new Batch(messages, startOffset, offset, failedAttempts);
+    }
+
+    /**
+     * Mark the records of the batch as handled.
+     *
+     * @throws IOException if the offset can't be written
+     */
+    public synchronized void commit(@NonNull Batch batch) throws IOException {
+        if (batch.getMessages().isEmpty()) {
+            return;
+        }
+        if (batch.endOffset >= queueFile.length()) {
+            // all the records are handled, so the queue starts from scratch; the
+            // offset is deleted first, so the death of the process between the
+            // deletions leads to the repeated records instead of the lost ones
+            deleteFile(offsetFile);
+            deleteFile(queueFile);
+            return;
+        }
+        writeOffset(batch.endOffset, 0);
+    }
+
+    /**
+     * Count the failed attempt to handle the first record of the batch.
+     *
+     * @return count of the failed attempts to handle the record
+     * @throws IOException if the offset can't be written
+     */
+    public synchronized int recordFailure(@NonNull Batch batch) throws IOException {
+        int failedAttempts = batch.failedAttempts + 1;
+        writeOffset(batch.startOffset, failedAttempts);
+        return failedAttempts;
+    }
+
+    private void writeOffset(long offset, int failedAttempts) throws IOException {
+        File tempFile = new File(offsetFile.getPath() + TEMP_SUFFIX);
+        try (FileOutputStream output = new FileOutputStream(tempFile)) {
+            DataOutputStream dataOutput = new DataOutputStream(output);
+            dataOutput.writeLong(offset);
+            dataOutput.writeInt(failedAttempts);
+            output.getFD().sync();
+        }
+        if (!tempFile.renameTo(offsetFile)) {
+            throw new IOException("Can't rename " + tempFile + " to " + offsetFile);
+        }
+    }
+
+    /**
+     * @return read record or {@code null} if there are no more whole records
+     */
+    private static SmsDto readRecord(@NonNull RandomAccessFile file) throws IOException {
+        long remaining = file.length() - file.getFilePointer();
+        if (remaining < HEADER_SIZE) {
+            return null;
+        }
+        int length = file.readInt();
+        if (length < 0 || remaining < HEADER_SIZE + (long) length + CHECKSUM_SIZE) {
+            return null;
+        }
+        byte[] payload = new byte[length];
+        file.readFully(payload);
+        if (file.readLong() != checksum(payload)) {
+            return null;
+        }
+        DataInputStream input = new DataInputStream(new ByteArrayInputStream(payload));
+        return new SmsDto(input.readUTF(), input.readUTF());
+    }
+
+    /**
+     * Cut off the tail after the last whole record, which may be left by the
+     * death of the process during the append, otherwise the next records are
+     * appended after the broken one and can't be read.
+     */
+    private void recoverOnce() throws IOException {
+        if (recovered) {
+            return;
+        }
+        recovered = true;
+        if (!queueFile.exists()) {
+            return;
+        }
+        try (RandomAccessFile file = new RandomAccessFile(queueFile, "rw")) {
+            long validLength = 0;
+            while (readRecord(file) != null) {
+                validLength = file.getFilePointer();
+            }
+            if (validLength < file.length()) {
+                Log.w(TAG, "Broken tail of " + (file.length() - validLength) +
+                        " bytes is cut off");
+                file.setLength(validLength);
+                file.getFD().sync();
+            }
+        }
+    }
+
+    private static long checksum(@NonNull byte[] payload) {
+        CRC32 crc = new CRC32();
+        crc.update(payload);
+        return crc.getValue();
+    }
+
+    private static void deleteFile(@NonNull File file) throws IOException {
+        if (file.exists() && !file.delete()) {
+            throw new IOException("Can't delete " + file);
+        }
+    }
+
+    public static final class Batch {
+
+        @NonNull
+        private final List<SmsDto> messages;
+        private final long startOffset;
+        private final long endOffset;
+        private final int failedAttempts;
+
+        private Batch(@NonNull List<SmsDto> messages,
+                      long startOffset,
+                      long endOffset,
+                      int failedAttempts) {
+            this.messages = messages;
+            this.startOffset = startOffset;
+            this.endOffset = endOffset;
+            this.failedAttempts = failedAttempts;
+        }
+
+        @NonNull
+        public List<SmsDto> getMessages() {
+            return messages;
+        }
+
+        /**
+         * @return count of the failed attempts to handle the first record
+         */
+        public int getFailedAttempts() {
+            return failedAttempts;
+        }
+    }
+}
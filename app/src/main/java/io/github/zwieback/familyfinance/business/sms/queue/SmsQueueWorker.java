@@ -0,0 +1,187 @@
+package io.github.zwieback.familyfinance.business.sms.queue;
+
+import android.os.Handler;
+import android.os.HandlerThread;
+import android.os.Process;
+import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
+import android.util.Log;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import io.github.zwieback.familyfinance.app.AbstractApplication;
+import io.github.zwieback.familyfinance.business.sms.handler.SmsHandler;
+import io.github.zwieback.familyfinance.business.sms.model.dto.SmsDto;
+
+/**
+ * Single long-lived worker of the process, which drains the {@link SmsQueue}
+ * by batches on its own thread.
+ * <p>
+ * SMS is appended to the queue on the calling thread, so it isn't lost if the
+ * process dies before the worker handles it; the rest of the queue is drained
+ * on the next start of the application. The batch is committed only after it
+ * was handled. The records of the failed batch are handled one by one, so the
+ * record, which fails, doesn't hold back the others: it is retried on the next
+ * drains and is skipped after {@link #MAX_FAILED_ATTEMPTS} failures.
+ * <p>
+ * The drain starts after the short window since the first request, so the
+ * burst of SMS is handled as the one batch and its notifications are grouped.
+ */
+public final class SmsQueueWorker {
+
+    private static final String TAG = "SmsQueueWorker";
+    private static final int BATCH_SIZE = 50;
+    private static final int MAX_FAILED_ATTEMPTS = 3;
+    private static final long COALESCING_WINDOW_MILLIS = 2_000;
+
+    @Nullable
+    private static SmsQueueWorker instance;
+
+    @NonNull
+    private final AbstractApplication application;
+    @NonNull
+    private final SmsQueue queue;
+    @NonNull
+    private final Handler handler;
+    /**
+     * Is used on the thread of the worker only.
+     */
+    @Nullable
+    private SmsHandler smsHandler;
+    /**
+     * Is used on the thread of the worker only.
+     */
+    @NonNull
+    private final List<Runnable> drainCallbacks = new ArrayList<>();
+    /**
+     * Is used on the thread of the worker only.
+     */
+    private boolean drainScheduled;
+
+    private SmsQueueWorker(@NonNull AbstractApplication application) {
+        this.application = application;
+        this.queue = new SmsQueue(application.getFilesDir());
+        HandlerThread thread = new HandlerThread(TAG, Process.THREAD_PRIORITY_BACKGROUND);
+        thread.start();
+        this.handler = new Handler(thread.getLooper());
+    }
+
+    @NonNull
+    public static synchronized SmsQueueWorker getInstance(
+            @NonNull AbstractApplication application) {
+        if (instance == null) {
+            instance = new SmsQueueWorker(application);
+        }
+        return instance;
+    }
+
+    /**
+     * Append SMS to the queue on the calling thread. Doesn't touch the
+     * database.
+     *
+     * @return {@code true} if SMS is appended
+     */
+    public boolean enqueue(@NonNull SmsDto smsDto) {
+        try {
+            queue.append(smsDto);
+            return true;
+        } catch (IOException e) {
+            Log.e(TAG, "SMS isn't appended to the queue", e);
+            return false;
+        }
+    }
+
+    /**
+     * Drain the queue on the thread of the worker after the coalescing
+     * window. The requests made within the window share the one drain.
+     *
+     * @param onDrained callback, which is called on the thread of the worker
+     *                  once the queue is drained or failed
+     */
+    public void drain(@Nullable Runnable onDrained) {
+        handler.post(() -> {
+            if (onDrained != null) {
+                drainCallbacks.add(onDrained);
+            }
+            if (!drainScheduled) {
+                drainScheduled = true;
+                handler.postDelayed(this::drainCoalesced, COALESCING_WINDOW_MILLIS);
+            }
+        });
+    }
+
+    private void drainCoalesced() {
+        drainScheduled = false;
+        List<Runnable> callbacks = new ArrayList<>(drainCallbacks);
+        drainCallbacks.clear();
+        try {
+            drainQueue();
+        } finally {
+            for (Runnable callback : callbacks) {
+                callback.run();
+            }
+        }
+    }
+
+    private void drainQueue() {
+        try {
+            while (true) {
+                SmsQueue.Batch batch = queue.readPending(BATCH_SIZE);
+                if (batch.getMessages().isEmpty()) {
+                    return;
+                }
+                try {
+                    getSmsHandler().handleAll(batch.getMessages());
+                } catch (RuntimeException e) {
+                    Log.w(TAG, "Batch of SMS isn't handled, its records are handled one by one", e);
+                    if (!drainOneByOne(batch.getMessages().size())) {
+                        return;
+                    }
+                    continue;
+                }
+                queue.commit(batch);
+            }
+        } catch (IOException | RuntimeException e) {
+            Log.e(TAG, "Queue of SMS isn't drained, it will be retried on the next drain", e);
+        }
+    }
+
+    /**
+     * Handle the records of the failed batch one by one and commit each of
+     * them.
+     *
+     * @param count count of the records of the failed batch
+     * @return {@code false} if the record failed and the drain must be stopped
+     */
+    private boolean drainOneByOne(int count) throws IOException {
+        for (int i = 0; i < count; i++) {
+            SmsQueue.Batch record = queue.readPending(1);
+            if (record.getMessages().isEmpty()) {
+                return true;
+            }
+            try {
+                getSmsHandler().handleAll(record.getMessages());
+            } catch (RuntimeException e) {
+                int failedAttempts = queue.recordFailure(record);
+                if (failedAttempts < MAX_FAILED_ATTEMPTS) {
+                    Log.e(TAG, "SMS isn't handled, it will be retried on the next drain", e);
+                    return false;
+                }
+                Log.e(TAG, "SMS of " + record.getMessages().get(0).getSender() +
+                        " isn't handled after " + failedAttempts + " attempts, it is skipped", e);
+            }
+            queue.commit(record);
+        }
+        return true;
+    }
+
+    @NonNull
+    private SmsHandler getSmsHandler() {
+        if (smsHandler == null) {
+            smsHandler = new SmsHandler(application, application.getData());
+        }
+        return smsHandler;
+    }
+}
@@ -8,9 +8,10 @@ import android.provider.Telephony;
 import android.support.annotation.Nullable;
 
 import io.github.zwieback.familyfinance.app.FamilyFinanceApplication;
-import io.github.zwieback.familyfinance.business.sms.handler.SmsHandler;
+import io.github.zwieback.familyfinance.business.sms.handler.SmsRoutingTable;
 import io.github.zwieback.familyfinance.business.sms.model.dto.SmsDto;
 import io.github.zwieback.familyfinance.business.sms.parser.SmsParser;
+import io.github.zwieback.familyfinance.business.sms.queue.SmsQueueWorker;
 import io.github.zwieback.familyfinance.util.CollectionUtils;
 
 public class SmsReceiver extends BroadcastReceiver {
@@ -29,9 +30,18 @@ public class SmsReceiver extends BroadcastReceiver {
                 return;
             }
             FamilyFinanceApplication application = extractApplication(context);
-            if (application != null) {
-                SmsHandler handler = new SmsHandler(context, application.getData());
-                handler.handleSms(smsDto);
+            if (application == null) {
+                return;
+            }
+            SmsRoutingTable routingTable = SmsRoutingTable.getLoaded();
+            if (routingTable != null && !routingTable.isRelevant(smsDto.getSender())) {
+                return;
+            }
+            SmsQueueWorker worker = SmsQueueWorker.getInstance(application);
+            if (worker.enqueue(smsDto)) {
+                // keep the process alive until the worker handles SMS
+                PendingResult pendingResult = goAsync();
+                worker.drain(pendingResult::finish);
             }
         }
     }
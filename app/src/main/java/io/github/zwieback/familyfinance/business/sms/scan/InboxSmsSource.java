@@ -0,0 +1,53 @@
+package io.github.zwieback.familyfinance.business.sms.scan;
+
+import android.content.ContentResolver;
+import android.database.Cursor;
+import android.net.Uri;
+import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
+
+import io.github.zwieback.familyfinance.business.sms.model.dto.SmsDto;
+
+/**
+ * Reads SMS from the inbox of the device by the cursor of its content
+ * provider, from the newest to the oldest one.
+ */
+public class InboxSmsSource implements SmsSource {
+
+    /**
+     * {@code Telephony.Sms.Inbox.CONTENT_URI} isn't available before API 19.
+     */
+    private static final Uri INBOX_URI = Uri.parse("content://sms/inbox");
+    private static final String ADDRESS_COLUMN = "address";
+    private static final String BODY_COLUMN = "body";
+    private static final String DATE_COLUMN = "date";
+
+    @Nullable
+    private final Cursor cursor;
+
+    public InboxSmsSource(@NonNull ContentResolver contentResolver) {
+        this.cursor = contentResolver.query(INBOX_URI,
+                new String[]{ADDRESS_COLUMN, BODY_COLUMN},
+                null, null, DATE_COLUMN + " DESC");
+    }
+
+    @Nullable
+    @Override
+    public SmsDto next() {
+        while (cursor != null && cursor.moveToNext()) {
+            String sender = cursor.getString(0);
+            String body = cursor.getString(1);
+            if (sender != null && body != null) {
+                return new SmsDto(sender, body);
+            }
+        }
+        return null;
+    }
+
+    @Override
+    public void close() {
+        if (cursor != null) {
+            cursor.close();
+        }
+    }
+}
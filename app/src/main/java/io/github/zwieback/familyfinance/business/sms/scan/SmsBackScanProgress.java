@@ -0,0 +1,57 @@
+package io.github.zwieback.familyfinance.business.sms.scan;
+
+/**
+ * Counters of the back-scan after the handled chunk of SMS.
+ */
+public final class SmsBackScanProgress {
+
+    private final int scannedCount;
+    private final int matchedCount;
+    private final int addedCount;
+    private final int duplicateCount;
+
+    SmsBackScanProgress(int scannedCount, int matchedCount, int addedCount, int duplicateCount) {
+        this.scannedCount = scannedCount;
+        this.matchedCount = matchedCount;
+        this.addedCount = addedCount;
+        this.duplicateCount = duplicateCount;
+    }
+
+    /**
+     * @return count of the read SMS
+     */
+    public int getScannedCount() {
+        return scannedCount;
+    }
+
+    /**
+     * @return count of SMS, which are matched and parsed by some pattern
+     */
+    public int getMatchedCount() {
+        return matchedCount;
+    }
+
+    /**
+     * @return count of the added operations; a transfer is counted once
+     */
+    public int getAddedCount() {
+        return addedCount;
+    }
+
+    /**
+     * @return count of SMS, which operations already exist
+     */
+    public int getDuplicateCount() {
+        return duplicateCount;
+    }
+
+    @Override
+    public String toString() {
+        return "SmsBackScanProgress{" +
+                "scannedCount=" + scannedCount +
+                ", matchedCount=" + matchedCount +
+                ", addedCount=" + addedCount +
+                ", duplicateCount=" + duplicateCount +
+                '}';
+    }
+}
@@ -0,0 +1,351 @@
+package io.github.zwieback.familyfinance.business.sms.scan;
+
+import android.content.Context;
+import android.support.annotation.NonNull;
+import android.util.Log;
+
+import org.threeten.bp.LocalDate;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import io.github.zwieback.familyfinance.business.operation.activity.helper.OperationHelper;
+import io.github.zwieback.familyfinance.business.operation.service.writer.OperationBatchWriter;
+import io.github.zwieback.familyfinance.business.sms.handler.ParsedSms;
+import io.github.zwieback.familyfinance.business.sms.handler.SmsRoutingTable;
+import io.github.zwieback.familyfinance.business.sms.model.dto.SmsDto;
+import io.github.zwieback.familyfinance.business.template.activity.helper.TemplateQualifier;
+import io.github.zwieback.familyfinance.core.model.Operation;
+import io.github.zwieback.familyfinance.core.model.TemplateView;
+import io.reactivex.Observable;
+import io.requery.BlockingEntityStore;
+import io.requery.Persistable;
+import io.requery.query.Tuple;
+import io.requery.reactivex.ReactiveEntityStore;
+
+/**
+ * Imports the operations of SMS, which are already received, e.g. from the
+ * inbox after the new pattern of the bank is added.
+ * <p>
+ * SMS are read from the {@link SmsSource} by chunks, so the memory doesn't
+ * depend on the size of the inbox. Every chunk is matched against the
+ * {@link SmsRoutingTable} by several workers, the templates of the matched
+ * SMS are found by the one query and the operations, which don't exist yet,
+ * are written by the {@link OperationBatchWriter} in the one transaction.
+ * <p>
+ * The operation exists if there is the operation of the same account, date
+ * and value. The existing operations are counted, so the SMS of two equal
+ * operations of the same day still add the second one if only the first one
+ * exists.
+ */
+public class SmsBackScanner {
+
+    private static final String TAG = "SmsBackScanner";
+    private static final int CHUNK_SIZE = 500;
+    private static final int WORKER_COUNT = Runtime.getRuntime().availableProcessors();
+
+    @NonNull
+    private final ReactiveEntityStore<Persistable> data;
+    @NonNull
+    private final TemplateQualifier templateQualifier;
+
+    public SmsBackScanner(@NonNull Context context,
+                          @NonNull ReactiveEntityStore<Persistable> data) {
+        this.data = data;
+        this.templateQualifier = new TemplateQualifier(context, data);
+    }
+
+    /**
+     * Scan SMS on the subscribing background thread. Disposing of the
+     * subscription cancels the scan after the chunk in progress is written.
+     *
+     * @param sourceFactory factory of the source, which is opened on the
+     *                      subscribing thread and closed once the scan is
+     *                      completed, failed or cancelled
+     * @return progress after every written chunk
+     */
+    @NonNull
+    public Observable<SmsBackScanProgress> scan(@NonNull Callable<SmsSource> sourceFactory) {
+        return Observable.create(emitter -> {
+            ExecutorService executor = Executors.newFixedThreadPool(WORKER_COUNT);
+            try (SmsSource source = sourceFactory.call()) {
+                Scan scan = new Scan(SmsRoutingTable.load(data));
+                List<SmsDto> chunk = readChunk(source);
+                while (!chunk.isEmpty() && !emitter.isDisposed()) {
+                    scan.handleChunk(chunk, executor);
+                    emitter.onNext(scan.getProgress());
+                    chunk = readChunk(source);
+                }
+                Log.d(TAG, "Scan is finished: " + scan.getProgress());
+                emitter.onComplete();
+            } catch (Exception e) {
+                emitter.tryOnError(e);
+            } finally {
+                executor.shutdownNow();
+            }
+        });
+    }
+
+    @NonNull
+    private static List<SmsDto> readChunk(@NonNull SmsSource source) throws IOException {
+        List<SmsDto> chunk = new ArrayList<>(CHUNK_SIZE);
+        SmsDto smsDto;
+        while (chunk.size() < CHUNK_SIZE && (smsDto = source.next()) != null) {
+            chunk.add(smsDto);
+        }
+        return chunk;
+    }
+
+    /**
+     * Match SMS of the chunk by the workers, each of them takes the
+     * contiguous slice of the chunk.
+     *
+     * @return parsed SMS in the order of the chunk
+     */
+    @NonNull
+    private static List<ParsedSms> matchChunk(@NonNull SmsRoutingTable routingTable,
+                                              @NonNull List<SmsDto> chunk,
+                                              @NonNull ExecutorService executor)
+            throws InterruptedException, ExecutionException {
+        int sliceSize = (chunk.size() + WORKER_COUNT - 1) / WORKER_COUNT;
+        List<Callable<List<ParsedSms>>> tasks = new ArrayList<>(WORKER_COUNT);
+        for (int from = 0; from < chunk.size(); from += sliceSize) {
+            List<SmsDto> slice = chunk.subList(from, Math.min(from + sliceSize, chunk.size()));
+            tasks.add(() -> matchSlice(routingTable, slice));
+        }
+        List<ParsedSms> parsedMessages = new ArrayList<>();
+        for (Future<List<ParsedSms>> future : executor.invokeAll(tasks)) {
+            parsedMessages.addAll(future.get());
+        }
+        return parsedMessages;
+    }
+
+    @NonNull
+    private static List<ParsedSms> matchSlice(@NonNull SmsRoutingTable routingTable,
+                                              @NonNull List<SmsDto> slice) {
+        List<ParsedSms> parsedMessages = new ArrayList<>();
+        for (SmsDto smsDto : slice) {
+            SmsRoutingTable.Match match = routingTable.match(smsDto.getSender(), smsDto.getBody());
+            if (match == null) {
+                continue;
+            }
+            ParsedSms parsedSms = ParsedSms.parse(match.getRoute(), match.getMatcher());
+            if (parsedSms != null) {
+                parsedMessages.add(parsedSms);
+            }
+        }
+        return parsedMessages;
+    }
+
+    @NonNull
+    private static String buildDayKey(int accountId, @NonNull LocalDate date) {
+        return accountId + "|" + date;
+    }
+
+    @NonNull
+    private static String buildOperationKey(int accountId,
+                                            @NonNull LocalDate date,
+                                            @NonNull BigDecimal value) {
+        return buildDayKey(accountId, date) + "|" + value.stripTrailingZeros().toPlainString();
+    }
+
+    /**
+     * State of the one scan, which is used on the subscribing thread only.
+     */
+    private final class Scan {
+
+        @NonNull
+        private final SmsRoutingTable routingTable;
+        @NonNull
+        private final Map<Integer, TemplateView> templates = new HashMap<>();
+        /**
+         * Days of the accounts, which existing operations are counted.
+         */
+        @NonNull
+        private final Set<String> countedDays = new HashSet<>();
+        /**
+         * Count of the existing operations by their keys, which aren't
+         * matched by SMS yet.
+         */
+        @NonNull
+        private final Map<String, Integer> existingCounts = new HashMap<>();
+        private int scannedCount;
+        private int matchedCount;
+        private int addedCount;
+        private int duplicateCount;
+
+        private Scan(@NonNull SmsRoutingTable routingTable) {
+            this.routingTable = routingTable;
+        }
+
+        private void handleChunk(@NonNull List<SmsDto> chunk, @NonNull ExecutorService executor)
+                throws InterruptedException, ExecutionException {
+            scannedCount += chunk.size();
+            List<Candidate> candidates = findCandidates(matchChunk(routingTable, chunk, executor));
+            if (candidates.isEmpty()) {
+                return;
+            }
+            countExistingOperations(candidates);
+            OperationBatchWriter writer = new OperationBatchWriter(data);
+            for (Candidate candidate : candidates) {
+                String key = buildOperationKey(candidate.accountId,
+                        candidate.parsedSms.getOperationDate(), candidate.operationValue);
+                Integer existingCount = existingCounts.get(key);
+                if (existingCount != null && existingCount > 0) {
+                    existingCounts.put(key, existingCount - 1);
+                    duplicateCount++;
+                } else if (candidate.addTo(writer)) {
+                    addedCount++;
+                }
+            }
+            writer.write();
+        }
+
+        /**
+         * @return matched SMS, which templates allow to add their operations
+         * immediately
+         */
+        @NonNull
+        private List<Candidate> findCandidates(@NonNull List<ParsedSms> parsedMessages) {
+            matchedCount += parsedMessages.size();
+            loadTemplates(parsedMessages);
+            List<Candidate> candidates = new ArrayList<>(parsedMessages.size());
+            for (ParsedSms parsedSms : parsedMessages) {
+                TemplateView template = templates.get(parsedSms.getTemplateId());
+                if (template == null || template.getAccountId() == null
+                        || parsedSms.getOperationValue() == null) {
+                    continue;
+                }
+                OperationHelper<?> operationHelper = templateQualifier.determineHelper(template);
+                if (operationHelper.validToAddImmediately(
+                        template.getArticleId(), template.getAccountId(),
+                        template.getTransferAccountId(), template.getOwnerId(),
+                        template.getCurrencyId(), template.getExchangeRateId(),
+                        parsedSms.getOperationDate(), parsedSms.getOperationValue(),
+                        template.getDescription(), template.getUrl())) {
+                    candidates.add(new Candidate(operationHelper, template, parsedSms));
+                }
+            }
+            return candidates;
+        }
+
+        /**
+         * Find the templates, which aren't found yet, by the one query.
+         */
+        private void loadTemplates(@NonNull List<ParsedSms> parsedMessages) {
+            Set<Integer> templateIds = new HashSet<>();
+            for (ParsedSms parsedSms : parsedMessages) {
+                if (!templates.containsKey(parsedSms.getTemplateId())) {
+                    templateIds.add(parsedSms.getTemplateId());
+                }
+            }
+            if (templateIds.isEmpty()) {
+                return;
+            }
+            for (TemplateView template : data.select(TemplateView.class)
+                    .where(TemplateView.ID.in(templateIds))
+                    .get()
+                    .toList()) {
+                templates.put(template.getId(), template);
+            }
+        }
+
+        /**
+         * Count the existing operations of the days of the candidates, which
+         * aren't counted yet, by the one query. The days are counted before
+         * the operations of the chunk are written, so the written operations
+         * are never counted as the existing ones.
+         */
+        private void countExistingOperations(@NonNull List<Candidate> candidates) {
+            Set<String> dayKeys = new HashSet<>();
+            Set<Integer> accountIds = new HashSet<>();
+            Set<LocalDate> dates = new HashSet<>();
+            for (Candidate candidate : candidates) {
+                LocalDate date = candidate.parsedSms.getOperationDate();
+                String dayKey = buildDayKey(candidate.accountId, date);
+                if (!countedDays.contains(dayKey)) {
+                    dayKeys.add(dayKey);
+                    accountIds.add(candidate.accountId);
+                    dates.add(date);
+                }
+            }
+            if (dayKeys.isEmpty()) {
+                return;
+            }
+            BlockingEntityStore<Persistable> store = data.toBlocking();
+            for (Tuple tuple : store.select(Operation.ACCOUNT_ID, Operation.DATE, Operation.VALUE)
+                    .where(Operation.ACCOUNT_ID.in(accountIds))
+                    .and(Operation.DATE.in(dates))
+                    .get()
+                    .toList()) {
+                int accountId = tuple.get(Operation.ACCOUNT_ID);
+                LocalDate date = tuple.get(Operation.DATE);
+                // the query returns the other days of the accounts too
+                if (dayKeys.contains(buildDayKey(accountId, date))) {
+                    String key = buildOperationKey(accountId, date, tuple.get(Operation.VALUE));
+                    Integer existingCount = existingCounts.get(key);
+                    existingCounts.put(key, existingCount == null ? 1 : existingCount + 1);
+                }
+            }
+            countedDays.addAll(dayKeys);
+        }
+
+        @NonNull
+        private SmsBackScanProgress getProgress() {
+            return new SmsBackScanProgress(scannedCount, matchedCount, addedCount,
+                    duplicateCount);
+        }
+    }
+
+    private static final class Candidate {
+
+        @NonNull
+        private final OperationHelper<?> operationHelper;
+        @NonNull
+        private final TemplateView template;
+        @NonNull
+        private final ParsedSms parsedSms;
+        /**
+         * Account of the operation or the expense account of the transfer.
+         */
+        private final int accountId;
+        @NonNull
+        private final BigDecimal operationValue;
+
+        @SuppressWarnings("ConstantConditions")
+        private Candidate(@NonNull OperationHelper<?> operationHelper,
+                          @NonNull TemplateView template,
+                          @NonNull ParsedSms parsedSms) {
+            this.operationHelper = operationHelper;
+            this.template = template;
+            this.parsedSms = parsedSms;
+            this.accountId = template.getAccountId();
+            this.operationValue = parsedSms.getOperationValue();
+        }
+
+        /**
+         * @return {@code false} if any entity of the template isn't found
+         */
+        private boolean addTo(@NonNull OperationBatchWriter writer) {
+            return operationHelper.addOperationImmediately(
+                    operationHelper.getIntentToAddImmediately(
+                            template.getArticleId(), template.getAccountId(),
+                            template.getTransferAccountId(), template.getOwnerId(),
+                            template.getCurrencyId(), template.getExchangeRateId(),
+                            parsedSms.getOperationDate(), operationValue,
+                            template.getDescription(), template.getUrl()),
+                    writer);
+        }
+    }
+}
@@ -0,0 +1,21 @@
+package io.github.zwieback.familyfinance.business.sms.scan;
+
+import android.support.annotation.Nullable;
+
+import java.io.Closeable;
+import java.io.IOException;
+
+import io.github.zwieback.familyfinance.business.sms.model.dto.SmsDto;
+
+/**
+ * Forward-only stream of SMS, which is read by the {@link SmsBackScanner}
+ * one message at a time, so the whole inbox is never held in memory.
+ */
+public interface SmsSource extends Closeable {
+
+    /**
+     * @return next SMS or {@code null} if there are no more of them
+     */
+    @Nullable
+    SmsDto next() throws IOException;
+}
@@ -4,20 +4,27 @@ import android.app.NotificationManager;
 import android.app.Service;
 import android.content.Context;
 import android.content.Intent;
-import android.os.Bundle;
 import android.os.IBinder;
 import android.support.annotation.NonNull;
 import android.support.annotation.Nullable;
 import android.util.Log;
 
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
 import io.github.zwieback.familyfinance.app.FamilyFinanceApplication;
 import io.github.zwieback.familyfinance.business.operation.activity.exception.IllegalOperationTypeException;
 import io.github.zwieback.familyfinance.business.operation.activity.helper.ExpenseOperationHelper;
 import io.github.zwieback.familyfinance.business.operation.activity.helper.IncomeOperationHelper;
 import io.github.zwieback.familyfinance.business.operation.activity.helper.OperationHelper;
 import io.github.zwieback.familyfinance.business.operation.activity.helper.TransferOperationHelper;
+import io.github.zwieback.familyfinance.business.operation.service.writer.OperationBatchWriter;
 import io.github.zwieback.familyfinance.core.model.type.OperationType;
+import io.reactivex.Single;
+import io.reactivex.android.schedulers.AndroidSchedulers;
 import io.reactivex.disposables.CompositeDisposable;
+import io.reactivex.schedulers.Schedulers;
 import io.requery.Persistable;
 import io.requery.reactivex.ReactiveEntityStore;
 
@@ -25,21 +32,52 @@ import static io.github.zwieback.familyfinance.business.sms.common.SmsConst.SMS_
 
 public class AddOperationImmediatelyService extends Service {
 
+    /**
+     * Intents of the operations to add by the one batch insert instead of the
+     * operation of the intent itself.
+     */
+    public static final String INPUT_OPERATIONS = "operations";
+    /**
+     * Ids of the notifications to close once all the operations are added,
+     * besides the notifications of the operations themselves.
+     */
+    public static final String INPUT_NOTIFICATION_IDS = "notificationIds";
+    /**
+     * Id of the notification of the operation, which is closed once the
+     * operation is added.
+     */
+    public static final String INPUT_NOTIFICATION_ID = "notificationId";
+    /**
+     * Token of the operation, which is consumed once the operation is added.
+     *
+     * @see AddOperationImmediatelyTokens
+     */
+    public static final String INPUT_TOKEN = "token";
+
     private static final String TAG = "AddOpImmService";
+    /**
+     * The operations of the same token may be added by the two requests at
+     * once, so the check of the tokens and the insert are serialized.
+     */
+    private static final Object LOCK = new Object();
+
+    private ReactiveEntityStore<Persistable> data;
 
     private IncomeOperationHelper incomeOperationHelper;
     private ExpenseOperationHelper expenseOperationHelper;
     private TransferOperationHelper transferOperationHelper;
+    private AddOperationImmediatelyTokens tokens;
     private CompositeDisposable compositeDisposable;
 
     @Override
     public void onCreate() {
         super.onCreate();
         FamilyFinanceApplication application = (FamilyFinanceApplication) getApplication();
-        ReactiveEntityStore<Persistable> data = application.getData();
+        data = application.getData();
         incomeOperationHelper = new IncomeOperationHelper(this, data);
         expenseOperationHelper = new ExpenseOperationHelper(this, data);
         transferOperationHelper = new TransferOperationHelper(this, data);
+        tokens = new AddOperationImmediatelyTokens(this);
         compositeDisposable = new CompositeDisposable();
         Log.e(TAG, "Service created");
     }
@@ -60,34 +98,89 @@ public class AddOperationImmediatelyService extends Service {
     @Override
     public int onStartCommand(@Nullable Intent intent, int flags, int startId) {
         if (intent != null && intent.getExtras() != null) {
-            Bundle extras = intent.getExtras();
-            Log.e(TAG, "extras: " + extras);
-            for (String key : extras.keySet()) {
-                Log.e(TAG, "extra[" + key + "] = " + extras.get(key));
-            }
-            OperationType operationType = (OperationType) extras.getSerializable(OperationHelper.INPUT_OPERATION_TYPE);
-            if (operationType == null) {
-                throw new IllegalArgumentException("INPUT_OPERATION_TYPE extra must be not null");
-            }
-            OperationHelper<?> operationHelper = determineOperationHelper(operationType);
+            List<Intent> operationIntents = intent.hasExtra(INPUT_OPERATIONS)
+                    ? intent.<Intent>getParcelableArrayListExtra(INPUT_OPERATIONS)
+                    : Collections.singletonList(intent);
+            int[] notificationIds = intent.getIntArrayExtra(INPUT_NOTIFICATION_IDS);
             compositeDisposable.add(
-                    operationHelper.addOperationImmediately(
-                            intent,
-                            operation -> {
-                                closeNotification(this);
-//                                stopSelf();
-                            }
-                    )
+                    Single.fromCallable(() -> addOperations(operationIntents, notificationIds))
+                            .subscribeOn(Schedulers.io())
+                            .observeOn(AndroidSchedulers.mainThread())
+                            .subscribe(
+                                    closedNotificationIds ->
+                                            closeNotifications(this, closedNotificationIds),
+                                    throwable -> Log.e(TAG, "Operations aren't added", throwable)
+                            )
             );
         }
         return super.onStartCommand(intent, flags, startId);
     }
 
-    private static void closeNotification(@NonNull Context context) {
+    /**
+     * Add the operations of all the intents by the one batch insert. The
+     * operation, whose token is already consumed, is skipped, since it's
+     * already added.
+     *
+     * @param notificationIds ids of the notifications to close if all the
+     *                        operations are added
+     * @return ids of the notifications to close, which are the notifications
+     * of the added operations only
+     */
+    @NonNull
+    private List<Integer> addOperations(@NonNull List<Intent> operationIntents,
+                                        @Nullable int[] notificationIds) {
+        synchronized (LOCK) {
+            OperationBatchWriter writer = new OperationBatchWriter(data);
+            List<Integer> addedNotificationIds = new ArrayList<>();
+            List<Integer> consumedNotificationIds = new ArrayList<>();
+            boolean allOperationsAdded = true;
+            for (Intent operationIntent : operationIntents) {
+                int notificationId =
+                        operationIntent.getIntExtra(INPUT_NOTIFICATION_ID, SMS_NOTIFICATION_ID);
+                String token = operationIntent.getStringExtra(INPUT_TOKEN);
+                if (token != null && !tokens.isPending(notificationId, token)) {
+                    Log.i(TAG, "Operation of the notification " + notificationId +
+                            " is already added");
+                    continue;
+                }
+                OperationType operationType = (OperationType)
+                        operationIntent.getSerializableExtra(OperationHelper.INPUT_OPERATION_TYPE);
+                if (operationType == null) {
+                    throw new IllegalArgumentException(
+                            "INPUT_OPERATION_TYPE extra must be not null");
+                }
+                OperationHelper<?> operationHelper = determineOperationHelper(operationType);
+                if (!operationHelper.addOperationImmediately(operationIntent, writer)) {
+                    Log.w(TAG, "Operation of the " + operationType + " type isn't added, " +
+                            "because some of its entities aren't found");
+                    allOperationsAdded = false;
+                    continue;
+                }
+                addedNotificationIds.add(notificationId);
+                if (token != null) {
+                    consumedNotificationIds.add(notificationId);
+                }
+            }
+            writer.write();
+            tokens.consume(consumedNotificationIds);
+            if (allOperationsAdded && notificationIds != null) {
+                for (int notificationId : notificationIds) {
+                    addedNotificationIds.add(notificationId);
+                }
+            }
+            return addedNotificationIds;
+        }
+    }
+
+    private static void closeNotifications(@NonNull Context context,
+                                           @NonNull List<Integer> notificationIds) {
         NotificationManager notificationManager = (NotificationManager)
                 context.getSystemService(Context.NOTIFICATION_SERVICE);
-        if (notificationManager != null) {
-            notificationManager.cancel(SMS_NOTIFICATION_ID);
+        if (notificationManager == null) {
+            return;
+        }
+        for (int notificationId : notificationIds) {
+            notificationManager.cancel(notificationId);
         }
     }
 
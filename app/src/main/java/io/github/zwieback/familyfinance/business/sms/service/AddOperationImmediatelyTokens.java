@@ -0,0 +1,72 @@
+package io.github.zwieback.familyfinance.business.sms.service;
+
+import android.content.Context;
+import android.content.SharedPreferences;
+import android.support.annotation.NonNull;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Tokens of the operations, which are offered to add immediately by the
+ * notifications of SMS, by the ids of their notifications.
+ * <p>
+ * The same operation is offered by its own notification and by the summary
+ * of the group, so the token is consumed once the operation is added and the
+ * operation of the consumed token isn't added again. The token of the
+ * notification is replaced by the newer one when its id is reused, so there
+ * are no more tokens than the notifications of SMS.
+ */
+public final class AddOperationImmediatelyTokens {
+
+    private static final String PREFS_NAME = "AddOperationImmediatelyTokens";
+
+    @NonNull
+    private final SharedPreferences preferences;
+
+    public AddOperationImmediatelyTokens(@NonNull Context context) {
+        this.preferences = context.getSharedPreferences(PREFS_NAME, Context.MODE_PRIVATE);
+    }
+
+    @NonNull
+    public static String newToken() {
+        return UUID.randomUUID().toString();
+    }
+
+    /**
+     * Register the tokens before their notifications are sent. Must be called
+     * on the background thread.
+     *
+     * @param tokensByNotificationId tokens by the ids of their notifications
+     */
+    public void register(@NonNull Map<Integer, String> tokensByNotificationId) {
+        SharedPreferences.Editor editor = preferences.edit();
+        for (Map.Entry<Integer, String> entry : tokensByNotificationId.entrySet()) {
+            editor.putString(String.valueOf(entry.getKey()), entry.getValue());
+        }
+        editor.commit();
+    }
+
+    /**
+     * @return {@code true} if the operation of the token isn't added yet
+     */
+    boolean isPending(int notificationId, @NonNull String token) {
+        return token.equals(preferences.getString(String.valueOf(notificationId), null));
+    }
+
+    /**
+     * Consume the tokens of the added operations. Must be called on the
+     * background thread.
+     */
+    void consume(@NonNull Collection<Integer> notificationIds) {
+        if (notificationIds.isEmpty()) {
+            return;
+        }
+        SharedPreferences.Editor editor = preferences.edit();
+        for (Integer notificationId : notificationIds) {
+            editor.remove(String.valueOf(notificationId));
+        }
+        editor.commit();
+    }
+}
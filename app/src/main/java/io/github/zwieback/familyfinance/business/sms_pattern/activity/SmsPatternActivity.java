@@ -1,10 +1,22 @@
 package io.github.zwieback.familyfinance.business.sms_pattern.activity;
 
+import android.Manifest;
+import android.content.ContentResolver;
 import android.content.Intent;
 import android.os.Bundle;
 import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
+import android.support.v7.app.AlertDialog;
+import android.util.Log;
+import android.view.MenuItem;
+import android.widget.Toast;
+
+import java.util.ArrayList;
+import java.util.List;
 
 import io.github.zwieback.familyfinance.R;
+import io.github.zwieback.familyfinance.business.sms.scan.InboxSmsSource;
+import io.github.zwieback.familyfinance.business.sms.scan.SmsBackScanner;
 import io.github.zwieback.familyfinance.business.sms_pattern.filter.SmsPatternFilter;
 import io.github.zwieback.familyfinance.business.sms_pattern.fragment.SmsPatternFragment;
 import io.github.zwieback.familyfinance.business.sms_pattern.lifecycle.destroyer.SmsPatternForceDestroyer;
@@ -13,14 +25,64 @@ import io.github.zwieback.familyfinance.core.activity.EntityActivity;
 import io.github.zwieback.familyfinance.core.lifecycle.destroyer.EntityDestroyer;
 import io.github.zwieback.familyfinance.core.model.SmsPattern;
 import io.github.zwieback.familyfinance.core.model.SmsPatternView;
+import io.reactivex.android.schedulers.AndroidSchedulers;
+import io.reactivex.disposables.Disposable;
+import io.reactivex.schedulers.Schedulers;
+import permissions.dispatcher.NeedsPermission;
+import permissions.dispatcher.OnShowRationale;
+import permissions.dispatcher.PermissionRequest;
+import permissions.dispatcher.RuntimePermissions;
 
 import static io.github.zwieback.familyfinance.business.dashboard.activity.DashboardActivity.RESULT_SMS_PATTERN_ID;
 import static io.github.zwieback.familyfinance.business.sms_pattern.filter.SmsPatternFilter.SMS_PATTERN_FILTER;
 
+@RuntimePermissions
 public class SmsPatternActivity
         extends EntityActivity<SmsPatternView, SmsPattern, SmsPatternFilter, SmsPatternFragment>
         implements OnSmsPatternClickListener {
 
+    private static final String TAG = "SmsPatternActivity";
+
+    @Nullable
+    private Disposable scanDisposable;
+
+    @Override
+    protected List<Integer> collectMenuIds() {
+        List<Integer> menuIds = new ArrayList<>(super.collectMenuIds());
+        if (!readOnly) {
+            menuIds.add(R.menu.menu_entity_sms_pattern);
+        }
+        return menuIds;
+    }
+
+    @Override
+    public boolean onOptionsItemSelected(MenuItem item) {
+        switch (item.getItemId()) {
+            case R.id.action_scan_inbox:
+                SmsPatternActivityPermissionsDispatcher.scanInboxWithPermissionCheck(this);
+                return true;
+            default:
+                return super.onOptionsItemSelected(item);
+        }
+    }
+
+    @Override
+    protected void onDestroy() {
+        if (scanDisposable != null) {
+            scanDisposable.dispose();
+        }
+        super.onDestroy();
+    }
+
+    @Override
+    public void onRequestPermissionsResult(int requestCode,
+                                           @NonNull String[] permissions,
+                                           @NonNull int[] grantResults) {
+        super.onRequestPermissionsResult(requestCode, permissions, grantResults);
+        SmsPatternActivityPermissionsDispatcher.onRequestPermissionsResult(this, requestCode,
+                grantResults);
+    }
+
     @Override
     protected int getTitleStringId() {
         return R.string.sms_pattern_activity_title;
@@ -83,4 +145,56 @@ public class SmsPatternActivity
     protected EntityDestroyer<SmsPattern> createDestroyer(SmsPatternView smsPattern) {
         return new SmsPatternForceDestroyer(this, data);
     }
+
+    /**
+     * Scan the inbox by the current patterns and add the operations, which
+     * don't exist yet. The scan is cancelled by the button of the dialog.
+     */
+    @NeedsPermission(Manifest.permission.READ_SMS)
+    void scanInbox() {
+        if (scanDisposable != null && !scanDisposable.isDisposed()) {
+            return;
+        }
+        AlertDialog dialog = new AlertDialog.Builder(this)
+                .setMessage(R.string.sms_scan_started)
+                .setCancelable(false)
+                .setNegativeButton(R.string.button_cancel, (ignoredDialog, button) -> {
+                    if (scanDisposable != null) {
+                        scanDisposable.dispose();
+                    }
+                })
+                .show();
+        ContentResolver contentResolver = getContentResolver();
+        scanDisposable = new SmsBackScanner(this, data)
+                .scan(() -> new InboxSmsSource(contentResolver))
+                .subscribeOn(Schedulers.io())
+                .observeOn(AndroidSchedulers.mainThread())
+                .doOnNext(progress -> dialog.setMessage(getString(R.string.sms_scan_progress,
+                        progress.getScannedCount(), progress.getMatchedCount(),
+                        progress.getAddedCount(), progress.getDuplicateCount())))
+                .lastElement()
+                .doFinally(dialog::dismiss)
+                .subscribe(
+                        progress -> showScanCompleted(progress.getAddedCount()),
+                        throwable -> {
+                            Log.e(TAG, "Scan of the inbox is failed", throwable);
+                            Toast.makeText(this, R.string.sms_scan_failed, Toast.LENGTH_LONG)
+                                    .show();
+                        },
+                        () -> showScanCompleted(0));
+    }
+
+    private void showScanCompleted(int addedCount) {
+        Toast.makeText(this, getString(R.string.sms_scan_completed, addedCount),
+                Toast.LENGTH_LONG).show();
+    }
+
+    @OnShowRationale(Manifest.permission.READ_SMS)
+    void showRationaleForReadSms(PermissionRequest request) {
+        new AlertDialog.Builder(this)
+                .setMessage(R.string.permission_read_sms_rationale)
+                .setPositiveButton(R.string.button_allow, (dialog, button) -> request.proceed())
+                .setNegativeButton(R.string.button_deny, (dialog, button) -> request.cancel())
+                .show();
+    }
 }
@@ -2,6 +2,7 @@ package io.github.zwieback.familyfinance.business.sms_pattern.activity;
 
 import android.app.Activity;
 import android.content.Intent;
+import android.support.annotation.NonNull;
 import android.view.View;
 import android.widget.CompoundButton;
 
@@ -13,6 +14,8 @@ import java.util.Arrays;
 import java.util.List;
 
 import io.github.zwieback.familyfinance.R;
+import io.github.zwieback.familyfinance.business.sms.handler.SmsPatternRegistry;
+import io.github.zwieback.familyfinance.business.sms.handler.SmsRoutingTable;
 import io.github.zwieback.familyfinance.business.sms_pattern.adapter.SmsPatternProvider;
 import io.github.zwieback.familyfinance.business.template.activity.TemplateActivity;
 import io.github.zwieback.familyfinance.core.activity.EntityEditActivity;
@@ -20,6 +23,7 @@ import io.github.zwieback.familyfinance.core.adapter.EntityProvider;
 import io.github.zwieback.familyfinance.core.model.SmsPattern;
 import io.github.zwieback.familyfinance.core.model.Template;
 import io.github.zwieback.familyfinance.databinding.ActivityEditSmsPatternBinding;
+import io.reactivex.Single;
 import io.reactivex.functions.Consumer;
 
 import static io.github.zwieback.familyfinance.business.dashboard.activity.DashboardActivity.RESULT_TEMPLATE_ID;
@@ -131,6 +135,20 @@ public class SmsPatternEditActivity
         smsPattern.setCommon(binding.common.isChecked());
     }
 
+    /**
+     * Drop the compiled regex of the pattern and the routes of SMS, because
+     * the regex or the sender may be changed.
+     */
+    @NonNull
+    @Override
+    protected Single<SmsPattern> persistEntity(SmsPattern smsPattern) {
+        return super.persistEntity(smsPattern)
+                .doOnSuccess(savedSmsPattern -> {
+                    SmsPatternRegistry.invalidate(savedSmsPattern.getId());
+                    SmsRoutingTable.invalidate();
+                });
+    }
+
     @Override
     protected List<ValidatingTextInputLayout> getLayoutsForValidation() {
         List<ValidatingTextInputLayout> layouts = new ArrayList<>(Arrays.asList(binding.nameLayout,
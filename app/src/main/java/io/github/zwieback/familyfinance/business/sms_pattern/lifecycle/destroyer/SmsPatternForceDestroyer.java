@@ -1,9 +1,14 @@
 package io.github.zwieback.familyfinance.business.sms_pattern.lifecycle.destroyer;
 
 import android.content.Context;
+import android.support.annotation.NonNull;
 
+import java.util.List;
+
+import io.github.zwieback.familyfinance.business.sms.handler.SmsRoutingTable;
 import io.github.zwieback.familyfinance.core.lifecycle.destroyer.EntityForceDestroyer;
 import io.github.zwieback.familyfinance.core.model.SmsPattern;
+import io.reactivex.functions.Consumer;
 import io.requery.Persistable;
 import io.requery.meta.QueryAttribute;
 import io.requery.reactivex.ReactiveEntityStore;
@@ -23,4 +28,21 @@ public class SmsPatternForceDestroyer extends EntityForceDestroyer<SmsPattern> {
     protected QueryAttribute<SmsPattern, Integer> getIdAttribute() {
         return SmsPattern.ID;
     }
+
+    @Override
+    public void destroy(SmsPattern smsPattern, Consumer<Integer> terminalConsumer) {
+        super.destroy(smsPattern, deletedCount -> {
+            SmsRoutingTable.invalidate();
+            terminalConsumer.accept(deletedCount);
+        });
+    }
+
+    @Override
+    public void destroyAll(@NonNull List<SmsPattern> smsPatterns,
+                           Consumer<Integer> terminalConsumer) {
+        super.destroyAll(smsPatterns, deletedCount -> {
+            SmsRoutingTable.invalidate();
+            terminalConsumer.accept(deletedCount);
+        });
+    }
 }
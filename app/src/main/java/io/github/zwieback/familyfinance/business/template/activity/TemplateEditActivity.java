@@ -24,6 +24,7 @@ import io.github.zwieback.familyfinance.business.currency.activity.CurrencyActiv
 import io.github.zwieback.familyfinance.business.exchange_rate.activity.ExchangeRateActivity;
 import io.github.zwieback.familyfinance.business.exchange_rate.helper.ExchangeRateFinder;
 import io.github.zwieback.familyfinance.business.person.activity.PersonActivity;
+import io.github.zwieback.familyfinance.business.sms.handler.SmsRoutingTable;
 import io.github.zwieback.familyfinance.business.template.adapter.TemplateProvider;
 import io.github.zwieback.familyfinance.business.template.exception.UnsupportedTemplateTypeException;
 import io.github.zwieback.familyfinance.core.activity.EntityActivity;
@@ -39,6 +40,7 @@ import io.github.zwieback.familyfinance.core.model.type.TemplateType;
 import io.github.zwieback.familyfinance.databinding.ActivityEditTemplateBinding;
 import io.github.zwieback.familyfinance.util.DateUtils;
 import io.github.zwieback.familyfinance.util.StringUtils;
+import io.reactivex.Single;
 import io.reactivex.functions.Consumer;
 
 import static io.github.zwieback.familyfinance.business.dashboard.activity.DashboardActivity.ACCOUNT_CODE;
@@ -345,6 +347,16 @@ public class TemplateEditActivity
         template.setUrl(binding.url.getText().toString());
     }
 
+    /**
+     * Drop the routes of SMS, because they resolve to the templates.
+     */
+    @NonNull
+    @Override
+    protected Single<Template> persistEntity(Template template) {
+        return super.persistEntity(template)
+                .doOnSuccess(ignoredTemplate -> SmsRoutingTable.invalidate());
+    }
+
     @Override
     protected List<ValidatingTextInputLayout> getLayoutsForValidation() {
         List<ValidatingTextInputLayout> layouts = new ArrayList<>();
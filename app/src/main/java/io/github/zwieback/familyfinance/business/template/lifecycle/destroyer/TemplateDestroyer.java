@@ -0,0 +1,36 @@
+package io.github.zwieback.familyfinance.business.template.lifecycle.destroyer;
+
+import android.content.Context;
+import android.support.annotation.NonNull;
+
+import java.util.Collections;
+import java.util.List;
+
+import io.github.zwieback.familyfinance.R;
+import io.github.zwieback.familyfinance.core.lifecycle.destroyer.DestroyConstraint;
+import io.github.zwieback.familyfinance.core.lifecycle.destroyer.EntityForceDestroyer;
+import io.github.zwieback.familyfinance.core.lifecycle.destroyer.EntityValidatingDestroyer;
+import io.github.zwieback.familyfinance.core.model.SmsPattern;
+import io.github.zwieback.familyfinance.core.model.Template;
+import io.requery.Persistable;
+import io.requery.reactivex.ReactiveEntityStore;
+
+public class TemplateDestroyer extends EntityValidatingDestroyer<Template> {
+
+    public TemplateDestroyer(Context context, ReactiveEntityStore<Persistable> data) {
+        super(context, data);
+    }
+
+    @Override
+    protected EntityForceDestroyer<Template> next() {
+        return new TemplateForceDestroyer(context, data);
+    }
+
+    @NonNull
+    @Override
+    protected List<DestroyConstraint> getConstraints() {
+        return Collections.singletonList(
+                DestroyConstraint.of(SmsPattern.$TYPE, SmsPattern.TEMPLATE_ID,
+                        R.string.sms_patterns_with_template_exists));
+    }
+}
@@ -217,7 +217,7 @@ public abstract class EntityActivity<
         return R.id.entity_fragment;
     }
 
-    private void refresh() {
+    protected final void refresh() {
         FRAGMENT fragment = findFragment();
         if (fragment != null) {
             fragment.refresh();
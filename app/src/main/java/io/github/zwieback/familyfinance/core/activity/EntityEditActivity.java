@@ -30,6 +30,7 @@ import java.util.List;
 import io.github.zwieback.familyfinance.R;
 import io.github.zwieback.familyfinance.business.iconics.activity.IconicsActivity;
 import io.github.zwieback.familyfinance.core.adapter.EntityProvider;
+import io.github.zwieback.familyfinance.core.database.DatabaseGeneration;
 import io.github.zwieback.familyfinance.core.model.IBaseEntity;
 import io.github.zwieback.familyfinance.util.DateUtils;
 import io.github.zwieback.familyfinance.util.NumberUtils;
@@ -184,12 +185,24 @@ public abstract class EntityEditActivity<E extends IBaseEntity, B extends ViewDa
     protected abstract void updateEntityProperties(E entity);
 
     protected final void saveEntity(E entity, Consumer<E> onSuccessfulSaving) {
-        Single<E> single = entity.getId() == 0 ? data.insert(entity) : data.update(entity);
-        single.subscribeOn(Schedulers.io())
+        persistEntity(entity)
+                .doOnSuccess(ignoredEntity -> DatabaseGeneration.increment())
+                .subscribeOn(Schedulers.io())
                 .observeOn(AndroidSchedulers.mainThread())
                 .subscribe(onSuccessfulSaving);
     }
 
+    /**
+     * Insert or update the entity. Is called on the io thread.
+     *
+     * @param entity entity to save
+     * @return saved entity
+     */
+    @NonNull
+    protected Single<E> persistEntity(E entity) {
+        return entity.getId() == 0 ? data.insert(entity) : data.update(entity);
+    }
+
     protected Consumer<E> onSuccessfulSaving() {
         return this::closeActivity;
     }
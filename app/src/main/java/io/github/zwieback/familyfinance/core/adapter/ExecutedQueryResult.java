@@ -0,0 +1,67 @@
+package io.github.zwieback.familyfinance.core.adapter;
+
+import android.database.Cursor;
+import android.support.annotation.NonNull;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import io.requery.query.BaseResult;
+import io.requery.query.Result;
+import io.requery.sql.ResultSetIterator;
+import io.requery.util.CloseableIterator;
+
+/**
+ * Result of the query, which is already executed, so the entities may be read
+ * before they are given to the adapter without executing the query again.
+ * <p>
+ * The adapter takes the only iterator of the result, which is the iterator of
+ * the executed query.
+ */
+public final class ExecutedQueryResult<E> extends BaseResult<E> {
+
+    @NonNull
+    private final ResultSetIterator<E> iterator;
+    private boolean iteratorTaken;
+
+    @SuppressWarnings("unchecked")
+    public ExecutedQueryResult(@NonNull Result<E> result) {
+        this.iterator = (ResultSetIterator<E>) result.iterator();
+    }
+
+    /**
+     * @return all the entities of the result, which are read by the
+     * positions of its cursor, the same way as the adapter reads them
+     */
+    @NonNull
+    public List<E> getEntities() {
+        int count = iterator.unwrap(Cursor.class).getCount();
+        List<E> entities = new ArrayList<>(count);
+        for (int position = 0; position < count; position++) {
+            entities.add(iterator.get(position));
+        }
+        return entities;
+    }
+
+    @Override
+    public synchronized CloseableIterator<E> createIterator(int skip, int take) {
+        if (iteratorTaken) {
+            throw new IllegalStateException("Iterator of the executed query is already taken");
+        }
+        iteratorTaken = true;
+        return iterator;
+    }
+
+    /**
+     * Close the iterator, unless the adapter took it, so its cursor isn't
+     * leaked.
+     */
+    @Override
+    public synchronized void close() {
+        if (!iteratorTaken) {
+            iteratorTaken = true;
+            iterator.close();
+        }
+        super.close();
+    }
+}
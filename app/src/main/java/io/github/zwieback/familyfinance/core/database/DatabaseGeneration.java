@@ -0,0 +1,25 @@
+package io.github.zwieback.familyfinance.core.database;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Counter of the database changes.
+ * <p>
+ * Must be incremented after every write, which may invalidate the values
+ * cached from the database.
+ */
+public final class DatabaseGeneration {
+
+    private static final AtomicLong generation = new AtomicLong();
+
+    public static long current() {
+        return generation.get();
+    }
+
+    public static void increment() {
+        generation.incrementAndGet();
+    }
+
+    private DatabaseGeneration() {
+    }
+}
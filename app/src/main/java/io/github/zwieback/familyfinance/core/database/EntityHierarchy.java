@@ -0,0 +1,150 @@
+package io.github.zwieback.familyfinance.core.database;
+
+import android.support.annotation.NonNull;
+
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashSet;
+import java.util.Set;
+
+import io.github.zwieback.familyfinance.util.NumberUtils;
+
+/**
+ * Immutable tree of the entities of one table, built by {@link HierarchyIndex}.
+ * <p>
+ * Children of the entities are kept in the compressed adjacency arrays:
+ * children of the entity at position {@code i} are
+ * {@code children[childOffsets[i]..childOffsets[i + 1])}. Descendants of the
+ * entities are memoized as bitsets of positions.
+ */
+final class EntityHierarchy {
+
+    /**
+     * Sorted ids of the entities; position of the id is the position of the
+     * entity in the other arrays.
+     */
+    private final int[] ids;
+    private final int[] childOffsets;
+    private final int[] children;
+    /**
+     * Memoized descendants (including the entity itself) by position;
+     * guarded by {@code this}.
+     */
+    private final BitSet[] descendants;
+
+    /**
+     * @param ids       ids of the entities
+     * @param parentIds ids of the parents of the entities or
+     *                  {@link NumberUtils#ID_AS_NULL}
+     * @param size      number of the entities in the arrays
+     */
+    EntityHierarchy(@NonNull int[] ids, @NonNull int[] parentIds, int size) {
+        int[] order = sortPositionsById(ids, size);
+        this.ids = new int[size];
+        for (int i = 0; i < size; i++) {
+            this.ids[i] = ids[order[i]];
+        }
+        int[] parentPositions = new int[size];
+        this.childOffsets = new int[size + 1];
+        for (int i = 0; i < size; i++) {
+            int parentId = parentIds[order[i]];
+            int parentPosition = NumberUtils.isNullId(parentId)
+                    ? -1
+                    : Arrays.binarySearch(this.ids, parentId);
+            parentPositions[i] = parentPosition;
+            if (parentPosition >= 0) {
+                childOffsets[parentPosition + 1]++;
+            }
+        }
+        for (int i = 0; i < size; i++) {
+            childOffsets[i + 1] += childOffsets[i];
+        }
+        this.children = new int[childOffsets[size]];
+        int[] nextChild = Arrays.copyOf(childOffsets, size);
+        for (int i = 0; i < size; i++) {
+            if (parentPositions[i] >= 0) {
+                children[nextChild[parentPositions[i]]++] = i;
+            }
+        }
+        this.descendants = new BitSet[size];
+    }
+
+    boolean contains(int id) {
+        return Arrays.binarySearch(ids, id) >= 0;
+    }
+
+    /**
+     * @param id id of the entity, must be {@link #contains(int) contained}
+     * @return ids of the entity and all its descendants
+     */
+    @NonNull
+    Set<Integer> collectSubtreeIds(int id) {
+        BitSet subtree = findDescendants(Arrays.binarySearch(ids, id));
+        Set<Integer> result = new HashSet<>(subtree.cardinality() * 4 / 3 + 1);
+        for (int i = subtree.nextSetBit(0); i >= 0; i = subtree.nextSetBit(i + 1)) {
+            result.add(ids[i]);
+        }
+        return result;
+    }
+
+    /**
+     * @param ancestorId   id of the entity, must be {@link #contains(int) contained}
+     * @param descendantId id of the probable descendant
+     * @return {@code true} if the second entity is inside the first one or
+     * they are the same
+     */
+    boolean isInSubtree(int ancestorId, int descendantId) {
+        int descendantPosition = Arrays.binarySearch(ids, descendantId);
+        return descendantPosition >= 0
+                && findDescendants(Arrays.binarySearch(ids, ancestorId)).get(descendantPosition);
+    }
+
+    /**
+     * Find the descendants by the iterative depth-first search, which reuses
+     * the memoized descendants of the visited entities. The visited set
+     * guards against the cycles of a corrupted table.
+     */
+    @NonNull
+    private synchronized BitSet findDescendants(int position) {
+        BitSet memoized = descendants[position];
+        if (memoized != null) {
+            return memoized;
+        }
+        BitSet result = new BitSet(ids.length);
+        int[] stack = new int[ids.length];
+        int stackSize = 0;
+        stack[stackSize++] = position;
+        result.set(position);
+        while (stackSize > 0) {
+            int current = stack[--stackSize];
+            for (int i = childOffsets[current]; i < childOffsets[current + 1]; i++) {
+                int child = children[i];
+                if (result.get(child)) {
+                    continue;
+                }
+                if (descendants[child] != null) {
+                    result.or(descendants[child]);
+                } else {
+                    result.set(child);
+                    stack[stackSize++] = child;
+                }
+            }
+        }
+        descendants[position] = result;
+        return result;
+    }
+
+    @NonNull
+    private static int[] sortPositionsById(@NonNull int[] ids, int size) {
+        long[] keys = new long[size];
+        for (int i = 0; i < size; i++) {
+            keys[i] = ((long) ids[i] << Integer.SIZE) | i;
+        }
+        Arrays.sort(keys);
+        int[] order = new int[size];
+        for (int i = 0; i < size; i++) {
+            order[i] = (int) keys[i];
+        }
+        return order;
+    }
+}
@@ -0,0 +1,123 @@
+package io.github.zwieback.familyfinance.core.database;
+
+import android.support.annotation.NonNull;
+import android.util.Log;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+
+import io.github.zwieback.familyfinance.util.NumberUtils;
+import io.requery.Persistable;
+import io.requery.reactivex.ReactiveEntityStore;
+
+/**
+ * Process-wide index of the hierarchies of folder entities (accounts,
+ * articles, people), so the descendants of an entity are resolved without
+ * the database.
+ * <p>
+ * The hierarchy of the table is loaded by the one query on the first
+ * request and kept until {@link #invalidate()} is called, which must be done
+ * after every write of the folder entities.
+ */
+public final class HierarchyIndex {
+
+    private static final String TAG = "HierarchyIndex";
+    private static final int INITIAL_CAPACITY = 64;
+
+    private static final Map<String, EntityHierarchy> hierarchies = new HashMap<>();
+
+    /**
+     * @param data      store to load the hierarchy from
+     * @param tableName name of the table of the entities
+     * @param parentId  id of the entity
+     * @return ids of the entity and all its descendants
+     */
+    @NonNull
+    public static Set<Integer> collectSubtreeIds(@NonNull ReactiveEntityStore<Persistable> data,
+                                                 @NonNull String tableName,
+                                                 int parentId) {
+        EntityHierarchy hierarchy = findHierarchy(data, tableName, parentId);
+        if (hierarchy == null) {
+            return Collections.singleton(parentId);
+        }
+        return hierarchy.collectSubtreeIds(parentId);
+    }
+
+    /**
+     * @param data         store to load the hierarchy from
+     * @param tableName    name of the table of the entities
+     * @param parentId     id of the entity
+     * @param descendantId id of the probable descendant
+     * @return {@code true} if the second entity is inside the first one or
+     * they are the same
+     */
+    public static boolean isInSubtree(@NonNull ReactiveEntityStore<Persistable> data,
+                                      @NonNull String tableName,
+                                      int parentId,
+                                      int descendantId) {
+        if (parentId == descendantId) {
+            return true;
+        }
+        EntityHierarchy hierarchy = findHierarchy(data, tableName, parentId);
+        return hierarchy != null && hierarchy.isInSubtree(parentId, descendantId);
+    }
+
+    /**
+     * Drop the hierarchies of all tables; they are loaded again on the next
+     * request.
+     */
+    public static void invalidate() {
+        synchronized (hierarchies) {
+            hierarchies.clear();
+        }
+    }
+
+    /**
+     * Find the hierarchy, which contains the entity. The hierarchy is reloaded
+     * once if the entity is unknown, in case it was written without
+     * {@link #invalidate()}.
+     *
+     * @return the hierarchy or {@code null} if there is no such entity
+     */
+    private static EntityHierarchy findHierarchy(@NonNull ReactiveEntityStore<Persistable> data,
+                                                 @NonNull String tableName,
+                                                 int id) {
+        synchronized (hierarchies) {
+            EntityHierarchy hierarchy = hierarchies.get(tableName);
+            if (hierarchy == null || !hierarchy.contains(id)) {
+                hierarchy = loadHierarchy(data, tableName);
+                hierarchies.put(tableName, hierarchy);
+            }
+            return hierarchy.contains(id) ? hierarchy : null;
+        }
+    }
+
+    @NonNull
+    private static EntityHierarchy loadHierarchy(@NonNull ReactiveEntityStore<Persistable> data,
+                                                 @NonNull String tableName) {
+        return RawQueryExecutor.of(data).query("select id, parent_id from " + tableName,
+                resultSet -> {
+                    int[] ids = new int[INITIAL_CAPACITY];
+                    int[] parentIds = new int[INITIAL_CAPACITY];
+                    int size = 0;
+                    while (resultSet.next()) {
+                        if (size == ids.length) {
+                            ids = Arrays.copyOf(ids, size * 2);
+                            parentIds = Arrays.copyOf(parentIds, size * 2);
+                        }
+                        ids[size] = resultSet.getInt("id");
+                        int parentId = resultSet.getInt("parent_id");
+                        parentIds[size] = resultSet.wasNull() ? NumberUtils.ID_AS_NULL : parentId;
+                        size++;
+                    }
+                    Log.d(TAG, "Hierarchy of " + tableName + " was loaded, size is " + size);
+                    return new EntityHierarchy(ids, parentIds, size);
+                });
+    }
+
+    private HierarchyIndex() {
+    }
+}
@@ -0,0 +1,292 @@
+package io.github.zwieback.familyfinance.core.database;
+
+import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
+import android.util.Log;
+import android.util.LruCache;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.WeakHashMap;
+
+import io.github.zwieback.familyfinance.core.database.exception.SQLException;
+import io.requery.Persistable;
+import io.requery.reactivex.ReactiveEntityStore;
+import io.requery.sql.Configuration;
+
+/**
+ * Executes the hand-written SQL over the connection of the requery
+ * {@link Configuration} and keeps the bounded LRU cache of the compiled
+ * statements, so the same template is compiled once.
+ * <p>
+ * Values are always bound as parameters, never inlined into the template.
+ * A {@link Collection} parameter is expanded into {@code (?, ?, ...)}, the
+ * same as {@code data.raw()} does, so {@code "id in ?"} may be used.
+ * <p>
+ * The statement is taken out of the cache while it is executed, so the
+ * executor doesn't hold any lock during the query and the concurrent
+ * executions of the same template don't share the statement.
+ * <p>
+ * The cached statements are bound to the connection, which is taken once and
+ * is kept until {@link #evictAll()}, so the executor must be evicted when the
+ * store is closed, e.g. before the database file is replaced.
+ */
+public final class RawQueryExecutor {
+
+    private static final String TAG = "RawQueryExecutor";
+    private static final int CACHE_SIZE = 32;
+
+    private static final Map<ReactiveEntityStore<Persistable>, RawQueryExecutor> executors =
+            new WeakHashMap<>();
+
+    private final Configuration configuration;
+    private final LruCache<String, PreparedStatement> statements;
+    private final Map<String, RawQueryStatistics> statistics;
+    @Nullable
+    private Connection connection;
+
+    private RawQueryExecutor(@NonNull Configuration configuration) {
+        this.configuration = configuration;
+        this.statements = new LruCache<String, PreparedStatement>(CACHE_SIZE) {
+            @Override
+            protected void entryRemoved(boolean evicted,
+                                        String sql,
+                                        PreparedStatement oldStatement,
+                                        PreparedStatement newStatement) {
+                if (oldStatement != newStatement) {
+                    closeQuietly(oldStatement);
+                }
+            }
+        };
+        this.statistics = new HashMap<>();
+    }
+
+    /**
+     * Register the executor of the store. Must be called once the store is
+     * created.
+     */
+    public static void register(@NonNull ReactiveEntityStore<Persistable> data,
+                                @NonNull Configuration configuration) {
+        synchronized (executors) {
+            executors.put(data, new RawQueryExecutor(configuration));
+        }
+    }
+
+    /**
+     * @param data store, which was {@link #register registered}
+     * @return executor of the store
+     * @throws IllegalStateException if the store wasn't registered
+     */
+    @NonNull
+    public static RawQueryExecutor of(@NonNull ReactiveEntityStore<Persistable> data) {
+        synchronized (executors) {
+            RawQueryExecutor executor = executors.get(data);
+            if (executor == null) {
+                throw new IllegalStateException("Store has no registered raw query executor");
+            }
+            return executor;
+        }
+    }
+
+    /**
+     * Execute the query and read its result.
+     *
+     * @param template   SQL with the {@code ?} placeholders
+     * @param reader     reader of the result
+     * @param parameters values of the placeholders
+     * @return value, which was read
+     * @throws SQLException if the query fails
+     */
+    public <R> R query(@NonNull String template,
+                       @NonNull ResultSetReader<R> reader,
+                       @NonNull Object... parameters) {
+        List<Object> values = new ArrayList<>(parameters.length);
+        String sql = expand(template, parameters, values);
+        long start = System.nanoTime();
+        PreparedStatement statement = statements.remove(sql);
+        boolean hit = statement != null;
+        try {
+            if (statement == null) {
+                statement = getConnection().prepareStatement(sql);
+            }
+            bind(statement, values);
+            R result;
+            ResultSet resultSet = statement.executeQuery();
+            try {
+                result = reader.read(resultSet);
+            } finally {
+                resultSet.close();
+            }
+            statement.clearParameters();
+            release(sql, statement);
+            return result;
+        } catch (java.sql.SQLException e) {
+            closeQuietly(statement);
+            throw new SQLException(e.getMessage(), e);
+        } finally {
+            findStatistics(template).onExecuted(hit, System.nanoTime() - start);
+        }
+    }
+
+    /**
+     * @return copy of the counters by the templates
+     */
+    @NonNull
+    public Map<String, RawQueryStatistics> getStatistics() {
+        synchronized (statistics) {
+            return new HashMap<>(statistics);
+        }
+    }
+
+    public void logStatistics() {
+        for (Map.Entry<String, RawQueryStatistics> entry : getStatistics().entrySet()) {
+            Log.d(TAG, entry.getValue() + ": " + entry.getKey());
+        }
+    }
+
+    /**
+     * Close all the cached statements and the connection, e.g. before the
+     * database file is replaced. The next query takes the new connection.
+     */
+    public synchronized void evictAll() {
+        statements.evictAll();
+        if (connection != null) {
+            closeQuietly(connection);
+            connection = null;
+        }
+    }
+
+    @NonNull
+    private RawQueryStatistics findStatistics(@NonNull String template) {
+        synchronized (statistics) {
+            RawQueryStatistics templateStatistics = statistics.get(template);
+            if (templateStatistics == null) {
+                templateStatistics = new RawQueryStatistics();
+                statistics.put(template, templateStatistics);
+            }
+            return templateStatistics;
+        }
+    }
+
+    /**
+     * Put the executed statement back into the cache, unless its connection
+     * was evicted during the execution.
+     */
+    private synchronized void release(@NonNull String sql,
+                                      @NonNull PreparedStatement statement)
+            throws java.sql.SQLException {
+        if (connection != null && statement.getConnection() == connection) {
+            statements.put(sql, statement);
+        } else {
+            closeQuietly(statement);
+        }
+    }
+
+    @NonNull
+    private synchronized Connection getConnection() throws java.sql.SQLException {
+        if (connection == null) {
+            connection = configuration.getConnectionProvider().getConnection();
+        }
+        return connection;
+    }
+
+    /**
+     * Replace the placeholders of the collections with the placeholders of
+     * their elements.
+     *
+     * @param template   SQL with the {@code ?} placeholders
+     * @param parameters values of the placeholders
+     * @param values     flattened values to fill
+     * @return SQL to compile
+     */
+    @NonNull
+    private static String expand(@NonNull String template,
+                                 @NonNull Object[] parameters,
+                                 @NonNull List<Object> values) {
+        StringBuilder sql = null;
+        int parameterIndex = 0;
+        for (int i = 0; i < template.length(); i++) {
+            char c = template.charAt(i);
+            if (c != '?') {
+                if (sql != null) {
+                    sql.append(c);
+                }
+                continue;
+            }
+            if (parameterIndex >= parameters.length) {
+                throw new IllegalArgumentException("Not enough parameters for " + template);
+            }
+            Object parameter = parameters[parameterIndex++];
+            if (!(parameter instanceof Collection)) {
+                values.add(parameter);
+                if (sql != null) {
+                    sql.append(c);
+                }
+                continue;
+            }
+            if (sql == null) {
+                sql = new StringBuilder(template.length() + 16).append(template, 0, i);
+            }
+            Collection<?> collection = (Collection<?>) parameter;
+            sql.append('(');
+            int elementIndex = 0;
+            for (Object element : collection) {
+                sql.append(elementIndex++ == 0 ? "?" : ", ?");
+                values.add(element);
+            }
+            sql.append(')');
+        }
+        if (parameterIndex != parameters.length) {
+            throw new IllegalArgumentException("Too many parameters for " + template);
+        }
+        return sql == null ? template : sql.toString();
+    }
+
+    private static void bind(@NonNull PreparedStatement statement,
+                             @NonNull List<Object> values) throws java.sql.SQLException {
+        for (int i = 0; i < values.size(); i++) {
+            Object value = values.get(i);
+            int index = i + 1;
+            if (value == null) {
+                statement.setNull(index, Types.NULL);
+            } else if (value instanceof Long || value instanceof Integer
+                    || value instanceof Short || value instanceof Byte) {
+                statement.setLong(index, ((Number) value).longValue());
+            } else if (value instanceof Number) {
+                statement.setDouble(index, ((Number) value).doubleValue());
+            } else if (value instanceof Boolean) {
+                statement.setLong(index, (Boolean) value ? 1 : 0);
+            } else if (value instanceof Enum) {
+                statement.setString(index, ((Enum<?>) value).name());
+            } else {
+                statement.setString(index, value.toString());
+            }
+        }
+    }
+
+    private static void closeQuietly(@NonNull Connection connection) {
+        try {
+            connection.close();
+        } catch (java.sql.SQLException e) {
+            Log.w(TAG, "Connection can't be closed", e);
+        }
+    }
+
+    private static void closeQuietly(@Nullable PreparedStatement statement) {
+        if (statement == null) {
+            return;
+        }
+        try {
+            statement.close();
+        } catch (java.sql.SQLException e) {
+            Log.w(TAG, "Statement can't be closed", e);
+        }
+    }
+}
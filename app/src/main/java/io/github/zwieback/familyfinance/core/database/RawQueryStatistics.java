@@ -0,0 +1,54 @@
+package io.github.zwieback.familyfinance.core.database;
+
+import android.support.annotation.NonNull;
+
+import java.util.Locale;
+
+/**
+ * Counters of the one template of {@link RawQueryExecutor}.
+ */
+public final class RawQueryStatistics {
+
+    private long hitCount;
+    private long missCount;
+    private long executionNanos;
+
+    synchronized void onExecuted(boolean hit, long nanos) {
+        if (hit) {
+            hitCount++;
+        } else {
+            missCount++;
+        }
+        executionNanos += nanos;
+    }
+
+    /**
+     * @return number of executions with the cached statement
+     */
+    public synchronized long getHitCount() {
+        return hitCount;
+    }
+
+    /**
+     * @return number of executions, which compiled the statement
+     */
+    public synchronized long getMissCount() {
+        return missCount;
+    }
+
+    /**
+     * @return total time of executions including the reading of the results
+     */
+    public synchronized long getExecutionNanos() {
+        return executionNanos;
+    }
+
+    @NonNull
+    @Override
+    public synchronized String toString() {
+        long executionCount = hitCount + missCount;
+        return String.format(Locale.US, "hits=%d, misses=%d, avg=%d us",
+                hitCount, missCount,
+                executionCount == 0 ? 0 : executionNanos / executionCount / 1_000);
+    }
+}
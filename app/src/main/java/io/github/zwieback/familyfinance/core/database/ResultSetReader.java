@@ -0,0 +1,21 @@
+package io.github.zwieback.familyfinance.core.database;
+
+import android.support.annotation.NonNull;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+/**
+ * Reads all the rows of the result of {@link RawQueryExecutor}.
+ *
+ * @param <R> type of the read value
+ */
+public interface ResultSetReader<R> {
+
+    /**
+     * @param resultSet result, which is closed after the reading
+     * @return value, built from the rows
+     * @throws SQLException if a column can't be read
+     */
+    R read(@NonNull ResultSet resultSet) throws SQLException;
+}
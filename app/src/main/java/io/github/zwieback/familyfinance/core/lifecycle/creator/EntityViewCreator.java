@@ -1,21 +1,48 @@
 package io.github.zwieback.familyfinance.core.lifecycle.creator;
 
 import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
+import android.util.Log;
 
+import java.nio.charset.Charset;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
 import java.sql.Statement;
+import java.util.Locale;
 import java.util.concurrent.Callable;
 
 import io.reactivex.Observable;
 
+/**
+ * Creates the view, if its definition was changed since the last creation.
+ * <p>
+ * Hashes of the definitions are stored in the {@value #VERSION_TABLE} table,
+ * which must be created by {@link #createVersionTable(Connection)} before.
+ */
 public abstract class EntityViewCreator implements Callable<Observable<Boolean>> {
 
+    private static final String TAG = "EntityViewCreator";
+    private static final String VERSION_TABLE = "view_version";
+    private static final Charset UTF_8 = Charset.forName("UTF-8");
+
     private final Connection connection;
 
     protected EntityViewCreator(Connection connection) {
         this.connection = connection;
     }
 
+    public static void createVersionTable(@NonNull Connection connection) throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("CREATE TABLE IF NOT EXISTS " + VERSION_TABLE + " (" +
+                    "name TEXT PRIMARY KEY NOT NULL, " +
+                    "definition_hash TEXT NOT NULL)");
+        }
+    }
+
     @NonNull
     protected abstract String getViewName();
 
@@ -23,15 +50,69 @@ public abstract class EntityViewCreator implements Callable<Observable<Boolean>>
     protected abstract String getViewBody();
 
     /**
-     * @return {@code false} because "CREATE VIEW" is DDL operation
+     * @return hash of the definition of the view
+     */
+    @NonNull
+    public final String getDefinitionHash() {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-1")
+                    .digest((getViewName() + " AS " + getViewBody()).getBytes(UTF_8));
+            StringBuilder hash = new StringBuilder(digest.length * 2);
+            for (byte b : digest) {
+                hash.append(String.format(Locale.US, "%02x", b));
+            }
+            return hash.toString();
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e.getMessage(), e);
+        }
+    }
+
+    /**
+     * @return {@code true} if the view was rebuilt, {@code false} if it is
+     * up to date
      */
     @Override
     public Observable<Boolean> call() {
         return Observable.fromCallable(() -> {
+            String definitionHash = getDefinitionHash();
+            if (definitionHash.equals(findStoredHash())) {
+                return false;
+            }
             try (Statement statement = connection.createStatement()) {
-                return statement.execute("CREATE VIEW IF NOT EXISTS " + getViewName() + " AS " +
-                        getViewBody());
+                statement.execute("DROP VIEW IF EXISTS " + getViewName());
+                statement.execute("CREATE VIEW " + getViewName() + " AS " + getViewBody());
             }
+            storeHash(definitionHash);
+            Log.d(TAG, "View '" + getViewName() + "' is rebuilt");
+            return true;
         });
     }
+
+    /**
+     * @return hash of the existing view or {@code null} if the view or its
+     * hash is missing
+     */
+    @Nullable
+    private String findStoredHash() throws SQLException {
+        try (PreparedStatement statement = connection.prepareStatement(
+                "SELECT v.definition_hash FROM " + VERSION_TABLE + " v" +
+                        " WHERE v.name = ?" +
+                        "   AND EXISTS (SELECT 1 FROM sqlite_master m" +
+                        "                WHERE m.type = 'view' AND m.name = v.name)")) {
+            statement.setString(1, getViewName());
+            try (ResultSet resultSet = statement.executeQuery()) {
+                return resultSet.next() ? resultSet.getString(1) : null;
+            }
+        }
+    }
+
+    private void storeHash(@NonNull String definitionHash) throws SQLException {
+        try (PreparedStatement statement = connection.prepareStatement(
+                "INSERT OR REPLACE INTO " + VERSION_TABLE + " (name, definition_hash)" +
+                        " VALUES (?, ?)")) {
+            statement.setString(1, getViewName());
+            statement.setString(2, definitionHash);
+            statement.executeUpdate();
+        }
+    }
 }
@@ -0,0 +1,95 @@
+package io.github.zwieback.familyfinance.core.lifecycle.destroyer;
+
+import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
+import android.support.annotation.StringRes;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+
+import io.github.zwieback.familyfinance.core.model.Operation;
+import io.github.zwieback.familyfinance.core.model.type.OperationType;
+import io.requery.meta.QueryAttribute;
+import io.requery.meta.Type;
+
+/**
+ * Reference to the destroyed entities, which blocks their destruction.
+ * <p>
+ * The constraint is checked by the {@code EXISTS} subquery, so the check
+ * stops on the first referencing row.
+ */
+public final class DestroyConstraint {
+
+    private final String tableName;
+    private final String columnName;
+    @Nullable
+    private final List<OperationType> types;
+    @StringRes
+    private final int alertResourceId;
+
+    private DestroyConstraint(@NonNull String tableName,
+                              @NonNull String columnName,
+                              @Nullable List<OperationType> types,
+                              @StringRes int alertResourceId) {
+        this.tableName = tableName;
+        this.columnName = columnName;
+        this.types = types;
+        this.alertResourceId = alertResourceId;
+    }
+
+    /**
+     * @param type            type of the entities, which reference the
+     *                        destroyed ones
+     * @param idAttribute     attribute of the id of the destroyed entity
+     * @param alertResourceId alert to show if any reference exists
+     */
+    @NonNull
+    public static DestroyConstraint of(@NonNull Type<?> type,
+                                       @NonNull QueryAttribute<?, Integer> idAttribute,
+                                       @StringRes int alertResourceId) {
+        return new DestroyConstraint(type.getName(), idAttribute.getName(), null,
+                alertResourceId);
+    }
+
+    /**
+     * @param idAttribute     attribute of the operation, which references the
+     *                        destroyed entity
+     * @param alertResourceId alert to show if any operation of the types
+     *                        exists
+     * @param types           types of the operations
+     */
+    @NonNull
+    public static DestroyConstraint ofOperations(
+            @NonNull QueryAttribute<Operation, Integer> idAttribute,
+            @StringRes int alertResourceId,
+            @NonNull OperationType... types) {
+        return new DestroyConstraint(Operation.$TYPE.getName(), idAttribute.getName(),
+                Arrays.asList(types), alertResourceId);
+    }
+
+    @StringRes
+    int getAlertResourceId() {
+        return alertResourceId;
+    }
+
+    /**
+     * Append the {@code EXISTS} subquery of the constraint.
+     *
+     * @param query      query to append to
+     * @param parameters parameters of the query to add to
+     * @param ids        ids of the destroyed entities
+     */
+    void appendExists(@NonNull StringBuilder query,
+                      @NonNull List<Object> parameters,
+                      @NonNull Collection<Integer> ids) {
+        query.append("exists (select 1 from ").append(tableName)
+                .append(" where ").append(columnName).append(" in ?");
+        parameters.add(ids);
+        if (types != null) {
+            query.append(" and ").append(Operation.TYPE.getName()).append(" in ?");
+            parameters.add(types);
+        }
+        query.append(')');
+    }
+}
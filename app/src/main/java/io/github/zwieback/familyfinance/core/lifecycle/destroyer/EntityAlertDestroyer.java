@@ -15,9 +15,6 @@ abstract class EntityAlertDestroyer<E extends IBaseEntity> extends EntityDestroy
         super(context, data);
     }
 
-    @StringRes
-    protected abstract int getAlertResourceId();
-
     void showAlert(@StringRes int resId) {
         new AlertDialog.Builder(context)
                 .setTitle(android.R.string.dialog_alert_title)
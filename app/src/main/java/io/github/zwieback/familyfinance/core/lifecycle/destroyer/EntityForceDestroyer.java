@@ -1,15 +1,33 @@
 package io.github.zwieback.familyfinance.core.lifecycle.destroyer;
 
 import android.content.Context;
+import android.support.annotation.NonNull;
 
+import com.annimon.stream.Stream;
+
+import java.util.List;
+
+import io.github.zwieback.familyfinance.core.database.DatabaseGeneration;
+import io.github.zwieback.familyfinance.core.database.HierarchyIndex;
 import io.github.zwieback.familyfinance.core.model.IBaseEntity;
+import io.github.zwieback.familyfinance.core.model.IBaseEntityFolder;
+import io.reactivex.Single;
+import io.reactivex.android.schedulers.AndroidSchedulers;
 import io.reactivex.functions.Consumer;
+import io.reactivex.schedulers.Schedulers;
+import io.requery.BlockingEntityStore;
 import io.requery.Persistable;
 import io.requery.meta.QueryAttribute;
 import io.requery.reactivex.ReactiveEntityStore;
 
 public abstract class EntityForceDestroyer<E extends IBaseEntity> extends EntityDestroyer<E> {
 
+    /**
+     * Max count of the ids in the one {@code DELETE} statement, so the
+     * statement is kept under the limit of the SQLite parameters.
+     */
+    private static final int CHUNK_SIZE = 500;
+
     public EntityForceDestroyer(Context context, ReactiveEntityStore<Persistable> data) {
         super(context, data);
     }
@@ -27,6 +45,47 @@ public abstract class EntityForceDestroyer<E extends IBaseEntity> extends Entity
     public void destroy(E entity, Consumer<Integer> terminalConsumer) {
         data.delete(getEntityClass())
                 .where(getIdAttribute().eq(entity.getId())).get().single()
+                .doOnSuccess(ignoredCount -> {
+                    DatabaseGeneration.increment();
+                    if (entity instanceof IBaseEntityFolder) {
+                        HierarchyIndex.invalidate();
+                    }
+                })
+                .subscribe(terminalConsumer);
+    }
+
+    /**
+     * Delete all the entities by the bulk {@code DELETE ... WHERE id IN (...)}
+     * statements in the one transaction.
+     *
+     * @param entities         entities to delete
+     * @param terminalConsumer consumer of the count of the deleted entities,
+     *                         which is called on the main thread
+     */
+    public void destroyAll(@NonNull List<E> entities, Consumer<Integer> terminalConsumer) {
+        List<Integer> ids = Stream.of(entities).map(IBaseEntity::getId).toList();
+        Single.fromCallable(() -> deleteAll(ids))
+                .subscribeOn(Schedulers.io())
+                .doOnSuccess(ignoredCount -> {
+                    DatabaseGeneration.increment();
+                    if (IBaseEntityFolder.class.isAssignableFrom(getEntityClass())) {
+                        HierarchyIndex.invalidate();
+                    }
+                })
+                .observeOn(AndroidSchedulers.mainThread())
                 .subscribe(terminalConsumer);
     }
+
+    private int deleteAll(@NonNull List<Integer> ids) {
+        BlockingEntityStore<Persistable> store = data.toBlocking();
+        return store.runInTransaction(() -> {
+            int deletedCount = 0;
+            for (int from = 0; from < ids.size(); from += CHUNK_SIZE) {
+                List<Integer> chunk = ids.subList(from, Math.min(from + CHUNK_SIZE, ids.size()));
+                deletedCount += store.delete(getEntityClass())
+                        .where(getIdAttribute().in(chunk)).get().value();
+            }
+            return deletedCount;
+        });
+    }
 }
@@ -0,0 +1,142 @@
+package io.github.zwieback.familyfinance.core.lifecycle.destroyer;
+
+import android.content.Context;
+import android.support.annotation.NonNull;
+import android.support.annotation.StringRes;
+
+import com.annimon.stream.Stream;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import io.github.zwieback.familyfinance.core.database.RawQueryExecutor;
+import io.github.zwieback.familyfinance.core.model.IBaseEntity;
+import io.github.zwieback.familyfinance.core.preference.config.DatabasePrefs;
+import io.reactivex.Single;
+import io.reactivex.android.schedulers.AndroidSchedulers;
+import io.reactivex.functions.Consumer;
+import io.reactivex.schedulers.Schedulers;
+import io.requery.Persistable;
+import io.requery.reactivex.ReactiveEntityStore;
+
+/**
+ * Checks all the {@link DestroyConstraint constraints} of the entities by the
+ * one query and passes the entities to the {@link #next() force destroyer}
+ * if none of them blocks the destruction.
+ * <p>
+ * The query is {@code SELECT CASE WHEN EXISTS (...) THEN 0 WHEN EXISTS (...)
+ * THEN 1 ... ELSE -1 END}, so SQLite stops on the first existing reference
+ * and the result is the index of the blocking constraint. The preferences
+ * are checked in memory before the query.
+ */
+public abstract class EntityValidatingDestroyer<E extends IBaseEntity>
+        extends EntityAlertDestroyer<E> {
+
+    private static final int NO_BLOCKING_CONSTRAINT = -1;
+
+    /**
+     * Max count of the ids in the one query. Every constraint binds the ids
+     * once, so the query is kept under the limit of the SQLite parameters.
+     */
+    private static final int CHUNK_SIZE = 100;
+
+    protected final DatabasePrefs databasePrefs;
+
+    public EntityValidatingDestroyer(Context context, ReactiveEntityStore<Persistable> data) {
+        super(context, data);
+        databasePrefs = DatabasePrefs.with(context);
+    }
+
+    @Override
+    protected abstract EntityForceDestroyer<E> next();
+
+    /**
+     * @return constraints in the order of their check
+     */
+    @NonNull
+    protected abstract List<DestroyConstraint> getConstraints();
+
+    protected boolean preferencesContainsEntity(E entity) {
+        return false;
+    }
+
+    @StringRes
+    protected int getPreferencesAlertResourceId() {
+        return 0;
+    }
+
+    @Override
+    public void destroy(E entity, Consumer<Integer> terminalConsumer) {
+        destroyAll(Collections.singletonList(entity), terminalConsumer);
+    }
+
+    /**
+     * Destroy all the entities if none of them is referenced, otherwise show
+     * the alert of the first blocking constraint.
+     *
+     * @param entities         entities to destroy
+     * @param terminalConsumer consumer of the count of the destroyed entities
+     */
+    public void destroyAll(@NonNull List<E> entities, Consumer<Integer> terminalConsumer) {
+        for (E entity : entities) {
+            if (preferencesContainsEntity(entity)) {
+                showAlert(getPreferencesAlertResourceId());
+                return;
+            }
+        }
+        List<DestroyConstraint> constraints = getConstraints();
+        List<Integer> ids = Stream.of(entities).map(IBaseEntity::getId).toList();
+        Single.fromCallable(() -> findBlockingConstraint(constraints, ids))
+                .subscribeOn(Schedulers.io())
+                .observeOn(AndroidSchedulers.mainThread())
+                .subscribe(blockingConstraint -> {
+                    if (blockingConstraint == NO_BLOCKING_CONSTRAINT) {
+                        next().destroyAll(entities, terminalConsumer);
+                    } else {
+                        showAlert(constraints.get(blockingConstraint).getAlertResourceId());
+                    }
+                });
+    }
+
+    /**
+     * @return index of the first constraint, which blocks any of the
+     * entities, or {@link #NO_BLOCKING_CONSTRAINT}
+     */
+    private int findBlockingConstraint(@NonNull List<DestroyConstraint> constraints,
+                                       @NonNull List<Integer> ids) {
+        if (constraints.isEmpty()) {
+            return NO_BLOCKING_CONSTRAINT;
+        }
+        int blockingConstraint = NO_BLOCKING_CONSTRAINT;
+        for (int from = 0; from < ids.size(); from += CHUNK_SIZE) {
+            List<Integer> chunk = ids.subList(from, Math.min(from + CHUNK_SIZE, ids.size()));
+            int chunkConstraint = queryBlockingConstraint(constraints, chunk);
+            if (chunkConstraint != NO_BLOCKING_CONSTRAINT
+                    && (blockingConstraint == NO_BLOCKING_CONSTRAINT
+                    || chunkConstraint < blockingConstraint)) {
+                blockingConstraint = chunkConstraint;
+            }
+            if (blockingConstraint == 0) {
+                break;
+            }
+        }
+        return blockingConstraint;
+    }
+
+    private int queryBlockingConstraint(@NonNull List<DestroyConstraint> constraints,
+                                        @NonNull List<Integer> ids) {
+        StringBuilder query = new StringBuilder("select case");
+        List<Object> parameters = new ArrayList<>();
+        for (int i = 0; i < constraints.size(); i++) {
+            query.append(" when ");
+            constraints.get(i).appendExists(query, parameters, ids);
+            query.append(" then ").append(i);
+        }
+        query.append(" else ").append(NO_BLOCKING_CONSTRAINT).append(" end");
+        return RawQueryExecutor.of(data).query(query.toString(), resultSet -> {
+            resultSet.next();
+            return resultSet.getInt(1);
+        }, parameters.toArray());
+    }
+}
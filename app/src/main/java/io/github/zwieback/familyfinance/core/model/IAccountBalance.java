@@ -0,0 +1,45 @@
+package io.github.zwieback.familyfinance.core.model;
+
+import io.requery.Column;
+import io.requery.Entity;
+import io.requery.Generated;
+import io.requery.Index;
+import io.requery.Key;
+import io.requery.Persistable;
+import io.requery.PropertyNameStyle;
+import io.requery.Table;
+
+/**
+ * Materialized balance of the account by the one exchange rate.
+ * <p>
+ * Only the sum in the currency of the exchange rate is stored, the balance in
+ * the currency of the account is converted when it is read, so the stored sum
+ * never overflows before the operations themselves do and an edit of the
+ * exchange rate doesn't touch the ledger.
+ * <p>
+ * Account and exchange rate are stored as plain ids without foreign keys, so
+ * the ledger never blocks the deletion of an account or an exchange rate.
+ */
+@Entity(propertyNameStyle = PropertyNameStyle.FLUENT_BEAN)
+@Table(name = "account_balance")
+public interface IAccountBalance extends Persistable {
+
+    @Key
+    @Generated
+    int getId();
+
+    @Index("account_balance_account_exchange_rate_idx")
+    @Column(name = "account_id", nullable = false)
+    int getAccountId();
+
+    @Index("account_balance_account_exchange_rate_idx")
+    @Column(name = "exchange_rate_id", nullable = false)
+    int getExchangeRateId();
+
+    /**
+     * Sum of incomes minus sum of expenses by the exchange rate, scaled as
+     * worth.
+     */
+    @Column(name = "_value", nullable = false)
+    long getValue();
+}
@@ -14,4 +14,6 @@ public interface DatabasePrefsConfigurator {
     int incomesArticleId = ID_AS_NULL;
     int expensesArticleId = ID_AS_NULL;
     int transferArticleId = ID_AS_NULL;
+
+    boolean operationReadModelEnabled = false;
 }
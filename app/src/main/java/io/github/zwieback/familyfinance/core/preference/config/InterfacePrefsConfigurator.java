@@ -6,4 +6,7 @@ import ds.gendalf.PrefsConfig;
 public interface InterfacePrefsConfigurator {
 
     boolean showBalanceOnOperationScreens = true;
+
+    int operationPageSize = 50;
+    int operationPrefetchDistance = 15;
 }
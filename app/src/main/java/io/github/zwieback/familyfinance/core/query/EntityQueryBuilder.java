@@ -39,6 +39,18 @@ public abstract class EntityQueryBuilder<E extends IBaseEntity> {
     protected abstract Limit<ReactiveResult<E>> buildOrderBy(OrderBy<Limit<ReactiveResult<E>>> where);
 
     public Result<E> build() {
+        return buildOrderedQuery().get();
+    }
+
+    /**
+     * @param limit maximum number of the entities
+     * @return first {@code limit} entities of the query
+     */
+    public Result<E> build(int limit) {
+        return buildOrderedQuery().limit(limit).get();
+    }
+
+    private Limit<ReactiveResult<E>> buildOrderedQuery() {
         Selection<ReactiveResult<E>> select = buildSelect();
         WhereAndOr<ReactiveResult<E>> where;
         if (isJoinRequired()) {
@@ -47,7 +59,6 @@ public abstract class EntityQueryBuilder<E extends IBaseEntity> {
         } else {
             where = buildWhere(select);
         }
-        Limit<ReactiveResult<E>> orderBy = buildOrderBy(where);
-        return orderBy.get();
+        return buildOrderBy(where);
     }
 }
@@ -60,6 +60,7 @@ public class FamilyFinanceApplication extends AbstractApplication {
         if (isNewApp()) {
             createDatabase();
         }
+        drainSmsQueue();
     }
 
     @Override
@@ -74,8 +75,8 @@ public class FamilyFinanceApplication extends AbstractApplication {
     protected DatabaseProvider buildDatabaseProvider() {
         // override onUpgrade to handle migrating to a new version
         DatabaseProvider source = new SqlitexDatabaseSource(this, Models.DEFAULT, DB_VERSION);
-        destroyViews(source.getConfiguration());
         createViews(source.getConfiguration());
+        createIndexes(source.getConfiguration());
         return source;
     }
 
@@ -0,0 +1,185 @@
+package io.github.zwieback.familyfinance.business.backup.helper;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.security.MessageDigest;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import io.github.zwieback.familyfinance.business.backup.exception.CorruptedBackupException;
+
+/**
+ * Checks that the {@link ChunkedBackup} writes only the changed chunks and
+ * never replaces the destination by the corrupted backup.
+ */
+public class ChunkedBackupTest {
+
+    private static final int CHUNK_COUNT = 10;
+    private static final byte[] DESTINATION_CONTENT = {1, 2, 3};
+
+    private File dir;
+    private File backupFile;
+    private File destination;
+    private byte[] content;
+
+    @Before
+    public void setUp() throws IOException {
+        dir = Files.createTempDirectory("chunked-backup").toFile();
+        backupFile = new File(dir, "backup");
+        destination = new File(dir, "destination");
+        content = new byte[ChunkedBackup.CHUNK_SIZE * CHUNK_COUNT + 123];
+        new Random(42).nextBytes(content);
+    }
+
+    @After
+    public void tearDown() {
+        delete(dir);
+    }
+
+    @Test
+    public void backup_writesOnlyChangedChunks() throws IOException {
+        ChunkedBackup backup = new ChunkedBackup(backupFile);
+        Assert.assertEquals(CHUNK_COUNT + 1, backup.backup(new ByteArrayInputStream(content)));
+        Assert.assertEquals(0, backup.backup(new ByteArrayInputStream(content)));
+
+        content[ChunkedBackup.CHUNK_SIZE * 3 + 5] ^= 1;
+        Assert.assertEquals(1, backup.backup(new ByteArrayInputStream(content)));
+        Assert.assertEquals("unreferenced chunk must be deleted",
+                CHUNK_COUNT + 1, getChunksDir().list().length);
+
+        backup.restore(destination);
+        Assert.assertArrayEquals(content, Files.readAllBytes(destination.toPath()));
+    }
+
+    @Test
+    public void restore_ofEmptyFile_createsEmptyFile() throws IOException {
+        ChunkedBackup backup = new ChunkedBackup(backupFile);
+        backup.backup(new ByteArrayInputStream(new byte[0]));
+        backup.restore(destination);
+        Assert.assertTrue(destination.isFile());
+        Assert.assertEquals(0, destination.length());
+    }
+
+    @Test
+    public void restore_ofCorruptedChunk_keepsDestination() throws IOException {
+        ChunkedBackup backup = writeBackup();
+        File chunkFile = getChunksDir().listFiles()[0];
+        byte[] chunk = Files.readAllBytes(chunkFile.toPath());
+        chunk[0] ^= 1;
+        Files.write(chunkFile.toPath(), chunk);
+
+        assertRestoreFails(backup);
+    }
+
+    @Test
+    public void restore_ofMissingChunk_keepsDestination() throws IOException {
+        ChunkedBackup backup = writeBackup();
+        Assert.assertTrue(getChunksDir().listFiles()[0].delete());
+
+        assertRestoreFails(backup);
+    }
+
+    @Test
+    public void restore_ofCorruptedManifest_keepsDestination() throws IOException {
+        ChunkedBackup backup = writeBackup();
+        List<String> lines = readManifest();
+        String hash = lines.get(3);
+        lines.set(3, lines.get(4));
+        lines.set(4, hash);
+        writeManifest(lines);
+
+        assertRestoreFails(backup);
+    }
+
+    @Test
+    public void restore_ofSizeMismatch_keepsDestination() throws Exception {
+        ChunkedBackup backup = writeBackup();
+        List<String> lines = readManifest();
+        lines.set(2, "size " + (content.length + 1));
+        lines.remove(lines.size() - 1);
+        StringBuilder manifestContent = new StringBuilder();
+        for (String line : lines) {
+            manifestContent.append(line).append('\n');
+        }
+        lines.add("checksum " + sha256(manifestContent.toString()));
+        writeManifest(lines);
+
+        assertRestoreFails(backup);
+    }
+
+    @Test
+    public void restore_ofMissingManifest_keepsDestination() throws IOException {
+        ChunkedBackup backup = writeBackup();
+        Assert.assertTrue(getManifestFile().delete());
+
+        assertRestoreFails(backup);
+    }
+
+    private ChunkedBackup writeBackup() throws IOException {
+        ChunkedBackup backup = new ChunkedBackup(backupFile);
+        backup.backup(new ByteArrayInputStream(content));
+        Files.write(destination.toPath(), DESTINATION_CONTENT);
+        return backup;
+    }
+
+    private void assertRestoreFails(ChunkedBackup backup) throws IOException {
+        try {
+            backup.restore(destination);
+            Assert.fail("Corrupted backup is restored");
+        } catch (CorruptedBackupException ignored) {
+            // expected
+        }
+        Assert.assertArrayEquals(DESTINATION_CONTENT, Files.readAllBytes(destination.toPath()));
+        File[] files = dir.listFiles();
+        for (File file : files) {
+            Assert.assertFalse("Temporary file is left: " + file, file.getName().endsWith(".tmp"));
+        }
+    }
+
+    private File getManifestFile() {
+        return new File(backupFile.getPath() + ".manifest");
+    }
+
+    private File getChunksDir() {
+        return new File(backupFile.getPath() + ".chunks");
+    }
+
+    private List<String> readManifest() throws IOException {
+        return new ArrayList<>(Files.readAllLines(getManifestFile().toPath(),
+                StandardCharsets.UTF_8));
+    }
+
+    private void writeManifest(List<String> lines) throws IOException {
+        Files.write(getManifestFile().toPath(), lines, StandardCharsets.UTF_8);
+    }
+
+    private static String sha256(String content) throws Exception {
+        byte[] digest = MessageDigest.getInstance("SHA-256")
+                .digest(content.getBytes(StandardCharsets.UTF_8));
+        StringBuilder hex = new StringBuilder();
+        for (byte b : digest) {
+            hex.append(String.format("%02x", b));
+        }
+        return hex.toString();
+    }
+
+    private static void delete(File file) {
+        File[] children = file.listFiles();
+        if (children != null) {
+            for (File child : children) {
+                delete(child);
+            }
+        }
+        file.delete();
+    }
+}
@@ -0,0 +1,147 @@
+package io.github.zwieback.familyfinance.business.sms.matcher;
+
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Checks that the {@link MultiPatternMatcher} finds the same patterns as the
+ * check of the SMS patterns one by one.
+ */
+public class MultiPatternMatcherTest {
+
+    private static final int PATTERN_COUNT = 200;
+    private static final int MESSAGE_COUNT = 1_000;
+
+    private static final String[] OPERATIONS = {
+            "Pokupka", "Oplata", "Zachislenie", "Spisanie", "Perevod", "Vydacha nalichnyh",
+            "Vozvrat pokupki", "Oplata uslug", "Zachislenie zarplaty", "Otmena operacii"
+    };
+
+    private List<Pattern> patterns;
+    private List<String> messages;
+
+    @Before
+    public void setUp() {
+        Random random = new Random(42);
+        patterns = new ArrayList<>(PATTERN_COUNT);
+        for (int i = 0; i < PATTERN_COUNT; i++) {
+            String operation = OPERATIONS[i % OPERATIONS.length];
+            String regex = String.format(Locale.ROOT,
+                    "^VISA%04d (\\d{2}\\.\\d{2}\\.\\d{2}) \\d{2}:\\d{2} %s (\\d+(?:\\.\\d{2})?)r " +
+                            "%s Balans: [\\d.]+r$",
+                    i, operation, i % 3 == 0 ? "MAGAZIN\\s+\\w+" : "[A-Z ]+");
+            patterns.add(Pattern.compile(regex, Pattern.CASE_INSENSITIVE));
+        }
+        messages = new ArrayList<>(MESSAGE_COUNT);
+        for (int i = 0; i < MESSAGE_COUNT; i++) {
+            // a quarter of the messages matches none of the patterns
+            int card = random.nextInt(4 * PATTERN_COUNT / 3);
+            String operation = OPERATIONS[card % OPERATIONS.length];
+            String place = card % 3 == 0 ? "MAGAZIN PYATEROCHKA" : "OOO ROMASHKA";
+            messages.add(String.format(Locale.ROOT,
+                    "VISA%04d %02d.%02d.19 %02d:%02d %s %d.%02dr %s Balans: %d.%02dr",
+                    card, 1 + random.nextInt(28), 1 + random.nextInt(12),
+                    random.nextInt(24), random.nextInt(60), operation,
+                    random.nextInt(10_000), random.nextInt(100), place,
+                    random.nextInt(100_000), random.nextInt(100)));
+        }
+    }
+
+    @Test
+    public void multiPatternMatcher_findsSamePatternsAsSequentialCheck() {
+        int[] expected = new int[MESSAGE_COUNT];
+        for (int i = 0; i < MESSAGE_COUNT; i++) {
+            expected[i] = matchSequentially(messages.get(i));
+        }
+
+        MultiPatternMatcher multiPatternMatcher = new MultiPatternMatcher(patterns);
+        int[] actual = new int[MESSAGE_COUNT];
+        for (int i = 0; i < MESSAGE_COUNT; i++) {
+            MultiPatternMatcher.Match match = multiPatternMatcher.match(messages.get(i));
+            actual[i] = match == null ? -1 : match.getIndex();
+        }
+        Assert.assertArrayEquals(expected, actual);
+    }
+
+    @Test
+    public void multiPatternMatcher_keepsFirstMatchedPattern() {
+        List<Pattern> overlappingPatterns = new ArrayList<>();
+        overlappingPatterns.add(Pattern.compile("Pokupka (\\d+)r", Pattern.CASE_INSENSITIVE));
+        overlappingPatterns.add(Pattern.compile(".*", Pattern.CASE_INSENSITIVE));
+        overlappingPatterns.add(Pattern.compile("POKUPKA 100r", Pattern.CASE_INSENSITIVE));
+        MultiPatternMatcher multiPatternMatcher = new MultiPatternMatcher(overlappingPatterns);
+
+        MultiPatternMatcher.Match match = multiPatternMatcher.match("pokupka 100R");
+        Assert.assertNotNull(match);
+        Assert.assertEquals(0, match.getIndex());
+        Assert.assertEquals("100", match.getMatcher().group(1));
+        match = multiPatternMatcher.match("Oplata 100r");
+        Assert.assertNotNull(match);
+        Assert.assertEquals(1, match.getIndex());
+    }
+
+    @Test
+    public void requiredLiterals_areConservative() {
+        Assert.assertEquals(Arrays.asList("VISA", "r Balans: "),
+                literalsOf("VISA\\d{4} \\d+r Balans: [\\d.]+r"));
+        Assert.assertEquals(Collections.singletonList("Pokupk"), literalsOf("Pokupka?"));
+        Assert.assertEquals(Collections.singletonList("a.b"), literalsOf("a\\.b+"));
+        Assert.assertTrue(literalsOf("Pokupka|Oplata").isEmpty());
+        Assert.assertTrue(literalsOf("(?x)Pokupka  \\d+").isEmpty());
+        Assert.assertTrue(literalsOf("(Pokupka) \\d+").isEmpty());
+        Assert.assertEquals(Collections.singletonList("bcd"), literalsOf("\\x41bcd"));
+        Assert.assertEquals(Collections.singletonList("bcd"), literalsOf("\\x{41}bcd"));
+        Assert.assertEquals(Collections.singletonList("bcd"), literalsOf("\\0101bcd"));
+        Assert.assertEquals(Collections.singletonList("bcd"), literalsOf("\\u0410bcd"));
+        Assert.assertEquals(Collections.singletonList("bcd"), literalsOf("\\cAbcd"));
+        Assert.assertEquals(Collections.singletonList("bcd"), literalsOf("\\p{Lu}bcd"));
+        Assert.assertEquals(Collections.singletonList("bcd"), literalsOf("\\pLbcd"));
+        Assert.assertEquals(Collections.singletonList("bcd"), literalsOf("(?<nm>a)\\k<nm>bcd"));
+        Assert.assertTrue(literalsOf("\\Qa\\.b\\E").isEmpty());
+        Assert.assertTrue(literalsOf("(\\Q)\\E)abc").isEmpty());
+
+    }
+
+    @Test
+    public void multiPatternMatcher_matchesEscapedLiterals() {
+        String[][] regexesAndInputs = {
+                {"\\x41bcd", "Abcd"},
+                {"\\0101bcd", "Abcd"},
+                {"\\u0410bcd", "\u0410bcd"},
+                {"(?<nm>a)\\k<nm>bcd", "aabcd"},
+                {"\\Qa\\.b\\E", "a\\.b"}
+        };
+        for (String[] regexAndInput : regexesAndInputs) {
+            Pattern pattern = Pattern.compile(regexAndInput[0], Pattern.CASE_INSENSITIVE);
+            MultiPatternMatcher multiPatternMatcher =
+                    new MultiPatternMatcher(Collections.singletonList(pattern));
+            Assert.assertTrue(pattern.matcher(regexAndInput[1]).matches());
+            Assert.assertNotNull(regexAndInput[0], multiPatternMatcher.match(regexAndInput[1]));
+        }
+    }
+
+    private static List<String> literalsOf(String regex) {
+        return RegexLiterals.findRequiredLiterals(
+                Pattern.compile(regex, Pattern.CASE_INSENSITIVE));
+    }
+
+    private int matchSequentially(String message) {
+        for (int i = 0; i < patterns.size(); i++) {
+            Matcher matcher = patterns.get(i).matcher(message);
+            if (matcher.matches()) {
+                return i;
+            }
+        }
+        return -1;
+    }
+}
@@ -0,0 +1,131 @@
+package io.github.zwieback.familyfinance.business.sms.queue;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.file.Files;
+import java.util.List;
+
+import io.github.zwieback.familyfinance.business.sms.model.dto.SmsDto;
+
+/**
+ * Checks that the {@link SmsQueue} survives the restart of the process and
+ * the torn record, and starts from scratch once all the records are handled.
+ */
+public class SmsQueueTest {
+
+    private File dir;
+    private File queueFile;
+    private File offsetFile;
+
+    @Before
+    public void setUp() throws IOException {
+        dir = Files.createTempDirectory("sms-queue").toFile();
+        queueFile = new File(dir, "sms_queue.bin");
+        offsetFile = new File(dir, "sms_queue.offset");
+    }
+
+    @After
+    public void tearDown() {
+        delete(dir);
+    }
+
+    @Test
+    public void readPending_returnsAppendedRecords() throws IOException {
+        SmsQueue queue = new SmsQueue(dir);
+        queue.append(new SmsDto("900", "first"));
+        queue.append(new SmsDto("900", "second"));
+
+        assertBodies(queue.readPending(10).getMessages(), "first", "second");
+        assertBodies(queue.readPending(1).getMessages(), "first");
+    }
+
+    @Test
+    public void readPending_afterRestart_startsFromCommittedOffset() throws IOException {
+        SmsQueue queue = new SmsQueue(dir);
+        queue.append(new SmsDto("900", "first"));
+        queue.append(new SmsDto("900", "second"));
+        queue.append(new SmsDto("900", "third"));
+        queue.commit(queue.readPending(1));
+
+        SmsQueue restartedQueue = new SmsQueue(dir);
+        assertBodies(restartedQueue.readPending(10).getMessages(), "second", "third");
+    }
+
+    @Test
+    public void commit_ofAllRecords_deletesFiles() throws IOException {
+        SmsQueue queue = new SmsQueue(dir);
+        queue.append(new SmsDto("900", "first"));
+        queue.append(new SmsDto("900", "second"));
+        queue.commit(queue.readPending(1));
+        Assert.assertTrue(offsetFile.exists());
+
+        queue.commit(queue.readPending(10));
+        Assert.assertFalse(queueFile.exists());
+        Assert.assertFalse(offsetFile.exists());
+        Assert.assertTrue(queue.readPending(10).getMessages().isEmpty());
+
+        queue.append(new SmsDto("900", "third"));
+        assertBodies(new SmsQueue(dir).readPending(10).getMessages(), "third");
+    }
+
+    @Test
+    public void append_afterTornRecord_cutsOffTail() throws IOException {
+        SmsQueue queue = new SmsQueue(dir);
+        queue.append(new SmsDto("900", "first"));
+        queue.append(new SmsDto("900", "second"));
+        long validLength = queueFile.length();
+        // the process died in the middle of the append of the third record
+        try (RandomAccessFile file = new RandomAccessFile(queueFile, "rw")) {
+            file.setLength(validLength - 3);
+        }
+        try (FileOutputStream output = new FileOutputStream(queueFile, true)) {
+            output.write(new byte[]{0, 0, 0, 100, 1, 2});
+        }
+
+        SmsQueue restartedQueue = new SmsQueue(dir);
+        restartedQueue.append(new SmsDto("900", "third"));
+        assertBodies(restartedQueue.readPending(10).getMessages(), "first", "third");
+    }
+
+    @Test
+    public void recordFailure_isCountedUntilCommit() throws IOException {
+        SmsQueue queue = new SmsQueue(dir);
+        queue.append(new SmsDto("900", "first"));
+        queue.append(new SmsDto("900", "second"));
+
+        Assert.assertEquals(1, queue.recordFailure(queue.readPending(1)));
+        Assert.assertEquals(2, queue.recordFailure(queue.readPending(1)));
+        SmsQueue.Batch batch = new SmsQueue(dir).readPending(1);
+        Assert.assertEquals(2, batch.getFailedAttempts());
+        assertBodies(batch.getMessages(), "first");
+
+        queue.commit(batch);
+        batch = new SmsQueue(dir).readPending(1);
+        Assert.assertEquals(0, batch.getFailedAttempts());
+        assertBodies(batch.getMessages(), "second");
+    }
+
+    private static void assertBodies(List<SmsDto> messages, String... bodies) {
+        Assert.assertEquals(bodies.length, messages.size());
+        for (int i = 0; i < bodies.length; i++) {
+            Assert.assertEquals(bodies[i], messages.get(i).getBody());
+        }
+    }
+
+    private static void delete(File file) {
+        File[] children = file.listFiles();
+        if (children != null) {
+            for (File child : children) {
+                delete(child);
+            }
+        }
+        file.delete();
+    }
+}
@@ -0,0 +1,84 @@
+package io.github.zwieback.familyfinance.util;
+
+import android.support.test.runner.AndroidJUnit4;
+import android.util.Log;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.math.BigDecimal;
+import java.util.Random;
+
+/**
+ * Compares the summing of money by {@link BigDecimal} and by
+ * {@link FixedPointAccumulator}, in the manner of JMH: warmup iterations
+ * first, then the average of measured iterations.
+ */
+@RunWith(AndroidJUnit4.class)
+public class FixedPointAccumulatorBenchmark {
+
+    private static final String TAG = "FixedPointBenchmark";
+
+    private static final int ROWS = 100_000;
+    private static final int WARMUP_ITERATIONS = 5;
+    private static final int MEASUREMENT_ITERATIONS = 20;
+    private static final long MAX_WORTH = 100_000_000L;
+    private static final long MAX_EXCHANGE_RATE = 10_000_000_000L;
+
+    private final long[] worths = new long[ROWS];
+    private final long[] exchangeRates = new long[ROWS];
+
+    public FixedPointAccumulatorBenchmark() {
+        Random random = new Random(42);
+        for (int i = 0; i < ROWS; i++) {
+            worths[i] = (long) (random.nextDouble() * 2 * MAX_WORTH) - MAX_WORTH;
+            exchangeRates[i] = i % 2 == 0 ? 0 : (long) (random.nextDouble() * MAX_EXCHANGE_RATE);
+        }
+    }
+
+    @Test
+    public void sumByBigDecimalAndByAccumulator() {
+        measure("BigDecimal", this::sumByBigDecimal);
+        measure("FixedPointAccumulator", this::sumByAccumulator);
+        Assert.assertEquals(0, sumByBigDecimal().compareTo(sumByAccumulator()));
+    }
+
+    private void measure(String name, Runnable benchmark) {
+        for (int i = 0; i < WARMUP_ITERATIONS; i++) {
+            benchmark.run();
+        }
+        long start = System.nanoTime();
+        for (int i = 0; i < MEASUREMENT_ITERATIONS; i++) {
+            benchmark.run();
+        }
+        long averageTime = (System.nanoTime() - start) / MEASUREMENT_ITERATIONS;
+        Log.i(TAG, name + ": " + averageTime / 1_000 + " us/op");
+    }
+
+    private BigDecimal sumByBigDecimal() {
+        BigDecimal sum = BigDecimal.ZERO;
+        for (int i = 0; i < ROWS; i++) {
+            BigDecimal worth = BigDecimalConverterUtils.worthToBigDecimal(worths[i]);
+            if (exchangeRates[i] == 0) {
+                sum = sum.add(worth);
+            } else {
+                sum = sum.add(worth.multiply(
+                        BigDecimalConverterUtils.exchangeRateToBigDecimal(exchangeRates[i])));
+            }
+        }
+        return sum;
+    }
+
+    private BigDecimal sumByAccumulator() {
+        FixedPointAccumulator accumulator = new FixedPointAccumulator();
+        for (int i = 0; i < ROWS; i++) {
+            if (exchangeRates[i] == 0) {
+                accumulator.addWorth(worths[i]);
+            } else {
+                accumulator.addProduct(worths[i], exchangeRates[i]);
+            }
+        }
+        return accumulator.toBigDecimal();
+    }
+}
@@ -6,8 +6,8 @@ import java.math.BigDecimal;
 
 public final class BigDecimalConverterUtils {
 
-    private static final int WORTH_POWER = 2;
-    private static final int EXCHANGE_RATE_POWER = 8;
+    static final int WORTH_POWER = 2;
+    static final int EXCHANGE_RATE_POWER = 8;
 
     @Nullable
     public static BigDecimal worthToBigDecimal(@Nullable Long value) {
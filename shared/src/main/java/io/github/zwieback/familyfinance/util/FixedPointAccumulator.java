@@ -0,0 +1,204 @@
+package io.github.zwieback.familyfinance.util;
+
+import android.support.annotation.NonNull;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+
+/**
+ * Sums money in the stored fixed-point format without allocations.
+ * <p>
+ * Worth is summed as is (see {@link BigDecimalConverterUtils#worthToBigDecimal(Long)}),
+ * products of worth and exchange rate (see
+ * {@link BigDecimalConverterUtils#balanceInForeignCurrencyToBigDecimal(Long)})
+ * are summed separately. Both sums are 128-bit integers, so the product of
+ * any two longs may be added; {@link ArithmeticException} is thrown if a sum
+ * overflows 128 bits.
+ * <p>
+ * Not thread-safe.
+ */
+public final class FixedPointAccumulator {
+
+    private static final long INT_MASK = 0xFFFFFFFFL;
+    private static final int INT_BITS = 32;
+    private static final int PRODUCT_SCALE = BigDecimalConverterUtils.WORTH_POWER
+            + BigDecimalConverterUtils.EXCHANGE_RATE_POWER;
+
+    private long worthHigh;
+    private long worthLow;
+    private long productHigh;
+    private long productLow;
+
+    /**
+     * @param worth value in the format of the worth
+     * @return this accumulator
+     */
+    @NonNull
+    public FixedPointAccumulator addWorth(long worth) {
+        long low = worthLow + worth;
+        worthHigh = addHigh(worthHigh, worth >> (Long.SIZE - 1), carry(worthLow, low));
+        worthLow = low;
+        return this;
+    }
+
+    /**
+     * @param worth        value in the format of the worth
+     * @param exchangeRate exchange rate in the format of the exchange rate
+     * @return this accumulator
+     */
+    @NonNull
+    public FixedPointAccumulator addProduct(long worth, long exchangeRate) {
+        long high = multiplyHigh(worth, exchangeRate);
+        long low = productLow + worth * exchangeRate;
+        productHigh = addHigh(productHigh, high, carry(productLow, low));
+        productLow = low;
+        return this;
+    }
+
+    /**
+     * @param product product of the worth and the exchange rate in the format
+     *                of {@link BigDecimalConverterUtils#balanceInForeignCurrencyToBigDecimal(Long)}
+     * @return this accumulator
+     */
+    @NonNull
+    public FixedPointAccumulator addProduct(long product) {
+        long low = productLow + product;
+        productHigh = addHigh(productHigh, product >> (Long.SIZE - 1), carry(productLow, low));
+        productLow = low;
+        return this;
+    }
+
+    /**
+     * @param other accumulator to add, isn't changed
+     * @return this accumulator
+     */
+    @NonNull
+    public FixedPointAccumulator add(@NonNull FixedPointAccumulator other) {
+        long low = worthLow + other.worthLow;
+        worthHigh = addHigh(worthHigh, other.worthHigh, carry(worthLow, low));
+        worthLow = low;
+        low = productLow + other.productLow;
+        productHigh = addHigh(productHigh, other.productHigh, carry(productLow, low));
+        productLow = low;
+        return this;
+    }
+
+    /**
+     * @return this accumulator with the negated sums
+     */
+    @NonNull
+    public FixedPointAccumulator negate() {
+        worthHigh = ~worthHigh;
+        worthLow = ~worthLow;
+        productHigh = ~productHigh;
+        productLow = ~productLow;
+        // two's complement: ~x + 1
+        long low = worthLow + 1;
+        worthHigh = addHigh(worthHigh, 0, carry(worthLow, low));
+        worthLow = low;
+        low = productLow + 1;
+        productHigh = addHigh(productHigh, 0, carry(productLow, low));
+        productLow = low;
+        return this;
+    }
+
+    public boolean isZero() {
+        return worthHigh == 0 && worthLow == 0 && productHigh == 0 && productLow == 0;
+    }
+
+    public void reset() {
+        worthHigh = 0;
+        worthLow = 0;
+        productHigh = 0;
+        productLow = 0;
+    }
+
+    /**
+     * @return sum of the worth
+     * @throws ArithmeticException if the sum doesn't fit into a long
+     */
+    public long worthToLongExact() {
+        return toLongExact(worthHigh, worthLow);
+    }
+
+    /**
+     * @return sum of the products
+     * @throws ArithmeticException if the sum doesn't fit into a long
+     */
+    public long productToLongExact() {
+        return toLongExact(productHigh, productLow);
+    }
+
+    /**
+     * Creates the only {@link BigDecimal} of the accumulated sums.
+     * <p>
+     * The scale of the result is the scale of the worth if no products were
+     * added, otherwise the scale of the products.
+     *
+     * @return sum of the worth and the products
+     */
+    @NonNull
+    public BigDecimal toBigDecimal() {
+        BigDecimal worth = new BigDecimal(toBigInteger(worthHigh, worthLow),
+                BigDecimalConverterUtils.WORTH_POWER);
+        if (productHigh == 0 && productLow == 0) {
+            return worth;
+        }
+        return worth.add(new BigDecimal(toBigInteger(productHigh, productLow), PRODUCT_SCALE));
+    }
+
+    private static long toLongExact(long high, long low) {
+        if (high != (low >> (Long.SIZE - 1))) {
+            throw new ArithmeticException("long overflow");
+        }
+        return low;
+    }
+
+    @NonNull
+    private static BigInteger toBigInteger(long high, long low) {
+        if (high == (low >> (Long.SIZE - 1))) {
+            return BigInteger.valueOf(low);
+        }
+        return BigInteger.valueOf(high).shiftLeft(Long.SIZE)
+                .add(BigInteger.valueOf(low >>> 1).shiftLeft(1))
+                .add(BigInteger.valueOf(low & 1));
+    }
+
+    /**
+     * @return 1 if the unsigned addition of the low words overflowed
+     */
+    private static long carry(long previousLow, long newLow) {
+        return (newLow ^ Long.MIN_VALUE) < (previousLow ^ Long.MIN_VALUE) ? 1 : 0;
+    }
+
+    /**
+     * Add the high words and the carry with the check of the 128-bit
+     * overflow.
+     */
+    private static long addHigh(long first, long second, long carry) {
+        long result = first + second + carry;
+        if (((first ^ result) & (second ^ result)) < 0) {
+            throw new ArithmeticException("128-bit overflow");
+        }
+        return result;
+    }
+
+    /**
+     * The same as {@code Math.multiplyHigh(long, long)}, which isn't
+     * available on Android.
+     *
+     * @return the most significant 64 bits of the 128-bit product
+     */
+    private static long multiplyHigh(long x, long y) {
+        long x1 = x >> INT_BITS;
+        long x2 = x & INT_MASK;
+        long y1 = y >> INT_BITS;
+        long y2 = y & INT_MASK;
+        long z2 = x2 * y2;
+        long t = x1 * y2 + (z2 >>> INT_BITS);
+        long z1 = t & INT_MASK;
+        long z0 = t >> INT_BITS;
+        z1 += x2 * y1;
+        return x1 * y1 + z0 + (z1 >> INT_BITS);
+    }
+}
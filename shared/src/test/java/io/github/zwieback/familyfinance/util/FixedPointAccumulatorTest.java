@@ -0,0 +1,122 @@
+package io.github.zwieback.familyfinance.util;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.lang.management.ManagementFactory;
+import java.math.BigDecimal;
+import java.util.Random;
+
+/**
+ * Compares the summing of money by {@link BigDecimal} and by
+ * {@link FixedPointAccumulator}.
+ * <p>
+ * Allocated bytes are measured by the HotSpot extension of the thread bean,
+ * so the test is run on the host JVM only.
+ */
+public class FixedPointAccumulatorTest {
+
+    private static final int ROWS = 10_000;
+    private static final long MAX_WORTH = 100_000_000L;
+    private static final long MAX_EXCHANGE_RATE = 10_000_000_000L;
+
+    private final long[] worths = new long[ROWS];
+    private final long[] exchangeRates = new long[ROWS];
+
+    public FixedPointAccumulatorTest() {
+        Random random = new Random(42);
+        for (int i = 0; i < ROWS; i++) {
+            worths[i] = (long) (random.nextDouble() * 2 * MAX_WORTH) - MAX_WORTH;
+            exchangeRates[i] = i % 2 == 0 ? 0 : (long) (random.nextDouble() * MAX_EXCHANGE_RATE);
+        }
+    }
+
+    @Test
+    public void sumsAreEqual() {
+        Assert.assertEquals(0, sumByBigDecimal().compareTo(sumByAccumulator()));
+    }
+
+    @Test
+    public void accumulatorAllocatesLess() {
+        long bigDecimalBytes = measureAllocatedBytes(this::sumByBigDecimal);
+        long accumulatorBytes = measureAllocatedBytes(this::sumByAccumulator);
+        Assert.assertTrue(accumulatorBytes * 10 < bigDecimalBytes);
+    }
+
+    @Test
+    public void negativeProducts() {
+        BigDecimal sum = new FixedPointAccumulator()
+                .addProduct(-MAX_WORTH, Long.MAX_VALUE)
+                .addProduct(MAX_WORTH, 1)
+                .toBigDecimal();
+        BigDecimal expected = BigDecimalConverterUtils.worthToBigDecimal(-MAX_WORTH)
+                .multiply(BigDecimalConverterUtils.exchangeRateToBigDecimal(Long.MAX_VALUE))
+                .add(BigDecimalConverterUtils.worthToBigDecimal(MAX_WORTH)
+                        .multiply(BigDecimalConverterUtils.exchangeRateToBigDecimal(1L)));
+        Assert.assertEquals(0, expected.compareTo(sum));
+    }
+
+    @Test
+    public void negate() {
+        BigDecimal sum = new FixedPointAccumulator()
+                .addWorth(1_000)
+                .addProduct(Long.MIN_VALUE, 2)
+                .negate()
+                .toBigDecimal();
+        Assert.assertEquals(0, sum.compareTo(new FixedPointAccumulator()
+                .addWorth(-1_000)
+                .addProduct(Long.MAX_VALUE, 2)
+                .addProduct(2)
+                .toBigDecimal()));
+    }
+
+    @Test(expected = ArithmeticException.class)
+    public void productOverflowsLong() {
+        new FixedPointAccumulator().addProduct(Long.MAX_VALUE, 2).productToLongExact();
+    }
+
+    @Test(expected = ArithmeticException.class)
+    public void sumOverflows128Bits() {
+        FixedPointAccumulator accumulator = new FixedPointAccumulator();
+        for (int i = 0; i < 3; i++) {
+            accumulator.addProduct(Long.MIN_VALUE, Long.MIN_VALUE);
+        }
+    }
+
+    private static long measureAllocatedBytes(Runnable summing) {
+        com.sun.management.ThreadMXBean bean =
+                (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long threadId = Thread.currentThread().getId();
+        // warmup, so the loading of the classes isn't measured
+        summing.run();
+        long startBytes = bean.getThreadAllocatedBytes(threadId);
+        summing.run();
+        return bean.getThreadAllocatedBytes(threadId) - startBytes;
+    }
+
+    private BigDecimal sumByBigDecimal() {
+        BigDecimal sum = BigDecimal.ZERO;
+        for (int i = 0; i < ROWS; i++) {
+            BigDecimal worth = BigDecimalConverterUtils.worthToBigDecimal(worths[i]);
+            if (exchangeRates[i] == 0) {
+                sum = sum.add(worth);
+            } else {
+                sum = sum.add(worth.multiply(
+                        BigDecimalConverterUtils.exchangeRateToBigDecimal(exchangeRates[i])));
+            }
+        }
+        return sum;
+    }
+
+    private BigDecimal sumByAccumulator() {
+        FixedPointAccumulator accumulator = new FixedPointAccumulator();
+        for (int i = 0; i < ROWS; i++) {
+            if (exchangeRates[i] == 0) {
+                accumulator.addWorth(worths[i]);
+            } else {
+                accumulator.addProduct(worths[i], exchangeRates[i]);
+            }
+        }
+        return accumulator.toBigDecimal();
+    }
+}